@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.benchmarks;
+
+import migratedb.v1.core.api.Checksum;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checksum calculation. The {@code bytes} secondary result is the hashing rate in bytes per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChecksumBenchmark {
+    @Param({ "10000" })
+    public int statements;
+
+    private String script;
+    private byte[] scriptBytes;
+
+    @Setup
+    public void setUp() {
+        script = Corpus.sqlScript(statements);
+        scriptBytes = script.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Bytes {
+        public long bytes;
+    }
+
+    /**
+     * Line-ending independent checksum of a migration script, as calculated for SQL migrations.
+     */
+    @Benchmark
+    public Checksum lines(Bytes counter) {
+        var builder = Checksum.builder().addLines(new StringReader(script));
+        counter.bytes += builder.getByteCount();
+        return builder.build();
+    }
+
+    @Benchmark
+    public Checksum stream(Bytes counter) {
+        var builder = Checksum.builder().addBytes(new ByteArrayInputStream(scriptBytes));
+        counter.bytes += builder.getByteCount();
+        return builder.build();
+    }
+}
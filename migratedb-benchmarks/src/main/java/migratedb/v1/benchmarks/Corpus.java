@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates the inputs of the benchmarks. Everything is derived from a fixed seed, so each run sees the same corpus.
+ */
+final class Corpus {
+    static final long SEED = 20240205L;
+
+    private Corpus() {
+    }
+
+    /**
+     * @return An SQL script with {@code statements} statements that only uses syntax every supported dialect
+     * understands: DDL, inserts with quoted strings, line and block comments.
+     */
+    static String sqlScript(int statements) {
+        var random = new Random(SEED);
+        var sql = new StringBuilder(statements * 120);
+        for (int i = 0; i < statements; i++) {
+            switch (i % 4) {
+                case 0:
+                    sql.append("-- Table ").append(i).append('\n')
+                       .append("CREATE TABLE t").append(i).append(" (\n")
+                       .append("    id INT NOT NULL PRIMARY KEY,\n")
+                       .append("    name VARCHAR(100),\n")
+                       .append("    amount DECIMAL(10, 2)\n")
+                       .append(");\n");
+                    break;
+                case 1:
+                    sql.append("INSERT INTO t").append(i - 1).append(" (id, name, amount) VALUES (")
+                       .append(random.nextInt(1_000_000)).append(", 'It''s row ").append(i).append("', ")
+                       .append(random.nextInt(10_000)).append(".").append(random.nextInt(100)).append(");\n");
+                    break;
+                case 2:
+                    sql.append("/* Updates\n   row ").append(i).append(" */\n")
+                       .append("UPDATE t").append(i - 2).append(" SET name = 'x;y' WHERE id = ")
+                       .append(random.nextInt(1_000_000)).append(";\n");
+                    break;
+                default:
+                    sql.append("CREATE INDEX i").append(i).append(" ON t").append(i - 3).append(" (name);\n\n");
+                    break;
+            }
+        }
+        return sql.toString();
+    }
+
+    /**
+     * @return {@code count} random version strings with one to four parts, e.g. {@code 2.13.7}.
+     */
+    static List<String> versions(int count) {
+        var random = new Random(SEED);
+        var result = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            int parts = 1 + random.nextInt(4);
+            var version = new StringBuilder().append(random.nextInt(20));
+            for (int j = 1; j < parts; j++) {
+                version.append('.').append(random.nextInt(100));
+            }
+            result.add(version.toString());
+        }
+        return result;
+    }
+
+    /**
+     * @return {@code count} resource names, mostly versioned SQL migrations in a few directories, plus some repeatable
+     * migrations, callbacks and unrelated files.
+     */
+    static List<String> resourceNames(int count) {
+        var result = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            var directory = "db/migration/module" + (i % 8) + "/";
+            switch (i % 10) {
+                case 0:
+                    result.add(directory + "R__View_" + i + ".sql");
+                    break;
+                case 1:
+                    result.add(directory + "afterMigrate__" + i + ".sql");
+                    break;
+                case 2:
+                    result.add(directory + "README_" + i + ".md");
+                    break;
+                case 3:
+                    result.add(directory + "V" + i + "__Seed_" + i + ".sql.gz");
+                    break;
+                default:
+                    result.add(directory + "V" + i + "__Migration_" + i + ".sql");
+                    break;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.benchmarks;
+
+import migratedb.v1.core.api.ResourceProvider;
+import migratedb.v1.core.api.configuration.DefaultConfiguration;
+import migratedb.v1.core.api.internal.parser.Parser;
+import migratedb.v1.core.internal.parser.ParsingContextImpl;
+import migratedb.v1.core.internal.resource.StringResource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parser throughput per dialect, on a generated script.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+    @Param({ "H2", "PostgreSQL", "MySQL", "SQL Server", "Oracle", "DB2", "SQLite" })
+    public String dialect;
+
+    @Param({ "10000" })
+    public int statements;
+
+    private Parser parser;
+    private StringResource script;
+
+    @Setup
+    public void setUp() {
+        var configuration = new DefaultConfiguration();
+        var databaseType = configuration.getDatabaseTypeRegister()
+                                        .getDatabaseTypes()
+                                        .stream()
+                                        .filter(it -> it.getName().equals(dialect))
+                                        .findFirst()
+                                        .orElseThrow();
+        parser = databaseType.createParser(configuration, ResourceProvider.noResources(), new ParsingContextImpl());
+        script = new StringResource("V1__Benchmark.sql", Corpus.sqlScript(statements));
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        try (var iterator = parser.parse(script, null)) {
+            while (iterator.hasNext()) {
+                blackhole.consume(iterator.next());
+            }
+        }
+    }
+}
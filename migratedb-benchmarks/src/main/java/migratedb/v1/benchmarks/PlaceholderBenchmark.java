@@ -0,0 +1,75 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.benchmarks;
+
+import migratedb.v1.core.internal.parser.PlaceholderReplacingReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a script through {@link PlaceholderReplacingReader}, with and without placeholders in it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlaceholderBenchmark {
+    @Param({ "10000" })
+    public int statements;
+
+    private String withoutPlaceholders;
+    private String withPlaceholders;
+    private Map<String, String> placeholders;
+
+    @Setup
+    public void setUp() {
+        withoutPlaceholders = Corpus.sqlScript(statements);
+        withPlaceholders = withoutPlaceholders.replace("VARCHAR(100)", "${textType}")
+                                              .replace("CREATE TABLE t", "CREATE TABLE ${schema}.t");
+        placeholders = new HashMap<>();
+        placeholders.put("textType", "VARCHAR(200)");
+        placeholders.put("schema", "benchmark");
+    }
+
+    @Benchmark
+    public long withoutPlaceholders() throws IOException {
+        return read(withoutPlaceholders);
+    }
+
+    @Benchmark
+    public long withPlaceholders() throws IOException {
+        return read(withPlaceholders);
+    }
+
+    private long read(String script) throws IOException {
+        long checksum = 0;
+        var buffer = new char[8192];
+        try (var reader = new PlaceholderReplacingReader("${", "}", placeholders, new StringReader(script))) {
+            int n;
+            while ((n = reader.read(buffer, 0, buffer.length)) != -1) {
+                checksum += n + buffer[0];
+            }
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.benchmarks;
+
+import migratedb.v1.core.api.*;
+import migratedb.v1.core.api.configuration.DefaultConfiguration;
+import migratedb.v1.core.api.executor.Context;
+import migratedb.v1.core.api.executor.MigrationExecutor;
+import migratedb.v1.core.api.internal.schemahistory.AppliedMigration;
+import migratedb.v1.core.api.output.RepairResult;
+import migratedb.v1.core.api.resolver.ResolvedMigration;
+import migratedb.v1.core.internal.info.MigrationInfoServiceImpl;
+import migratedb.v1.core.internal.info.ValidationContext;
+import migratedb.v1.core.internal.resolver.ResolvedMigrationImpl;
+import migratedb.v1.core.internal.schemahistory.SchemaHistory;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MigrationInfoServiceImpl#refresh()}, which matches resolved against applied migrations for info, validate and
+ * migrate. Three quarters of the migrations are applied, the rest is pending.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RefreshBenchmark {
+    @Param({ "1000", "10000", "100000" })
+    public int migrations;
+
+    private MigrationInfoServiceImpl infoService;
+
+    @Setup
+    public void setUp() {
+        var configuration = new DefaultConfiguration();
+        var resolved = new ArrayList<ResolvedMigration>(migrations);
+        var applied = new ArrayList<AppliedMigration>(migrations);
+        var installedOn = new Timestamp(System.currentTimeMillis());
+        for (int i = 1; i <= migrations; i++) {
+            var version = Version.parse(Integer.toString(i));
+            var description = "Migration " + i;
+            var script = "V" + i + "__Migration_" + i + ".sql";
+            var checksum = Checksum.builder().addNumber((long) i).build();
+            resolved.add(new ResolvedMigrationImpl(version, description, script, checksum, null, MigrationType.SQL,
+                                                   "benchmark", NoOpExecutor.INSTANCE));
+            if (i <= migrations * 3 / 4) {
+                applied.add(new AppliedMigration(i, version, description, MigrationType.SQL, script, checksum,
+                                                 installedOn, "benchmark", 1, true));
+            }
+        }
+        infoService = new MigrationInfoServiceImpl(context -> resolved,
+                                                   new FixedSchemaHistory(applied),
+                                                   null,
+                                                   configuration,
+                                                   TargetVersion.LATEST,
+                                                   List.of(),
+                                                   new ValidationContext(configuration));
+    }
+
+    @Benchmark
+    public MigrationInfoServiceImpl refresh() {
+        infoService.refresh();
+        return infoService;
+    }
+
+    private enum NoOpExecutor implements MigrationExecutor {
+        INSTANCE;
+
+        @Override
+        public void execute(Context context) {
+        }
+
+        @Override
+        public boolean canExecuteInTransaction() {
+            return true;
+        }
+
+        @Override
+        public boolean shouldExecute() {
+            return true;
+        }
+    }
+
+    /**
+     * Read-only schema history with fixed content.
+     */
+    private static final class FixedSchemaHistory extends SchemaHistory {
+        private final List<AppliedMigration> appliedMigrations;
+
+        FixedSchemaHistory(List<AppliedMigration> appliedMigrations) {
+            this.appliedMigrations = appliedMigrations;
+        }
+
+        @Override
+        public <T> T withLock(Callable<T> callable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public void create(boolean baseline) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<AppliedMigration> allAppliedMigrations() {
+            return appliedMigrations;
+        }
+
+        @Override
+        public boolean removeFailedMigrations(RepairResult repairResult,
+                                              List<MigrationPattern> migrationPatternFilter) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void update(AppliedMigration appliedMigration, ResolvedMigration resolvedMigration) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void delete(AppliedMigration appliedMigration) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addAppliedMigration(int installedRank,
+                                        Version version,
+                                        String description,
+                                        MigrationType type,
+                                        String script,
+                                        Checksum checksum,
+                                        int executionTime,
+                                        boolean success) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
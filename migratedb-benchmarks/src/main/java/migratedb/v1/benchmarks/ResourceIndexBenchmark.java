@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.benchmarks;
+
+import migratedb.v1.core.internal.resource.ResourceNameIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prefix/suffix lookups in a {@link ResourceNameIndex}, as done for each resource type when migrations are resolved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResourceIndexBenchmark {
+    @Param({ "1000", "10000", "100000" })
+    public int resources;
+
+    private List<String> names;
+    private ResourceNameIndex<String> index;
+
+    @Setup
+    public void setUp() {
+        names = Corpus.resourceNames(resources);
+        index = new ResourceNameIndex<>(names, ResourceIndexBenchmark::fileName);
+    }
+
+    @Benchmark
+    public ResourceNameIndex<String> build() {
+        return new ResourceNameIndex<>(names, ResourceIndexBenchmark::fileName);
+    }
+
+    @Benchmark
+    public List<String> versionedSql() {
+        return index.find("V", List.of(".sql", ".sql.gz"));
+    }
+
+    @Benchmark
+    public List<String> callbacks() {
+        return index.find("afterMigrate", List.of(".sql"));
+    }
+
+    private static String fileName(String name) {
+        return name.substring(name.lastIndexOf('/') + 1);
+    }
+}
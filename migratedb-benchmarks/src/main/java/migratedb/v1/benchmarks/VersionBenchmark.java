@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.benchmarks;
+
+import migratedb.v1.core.api.Version;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing, comparing and sorting versions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VersionBenchmark {
+    @Param({ "10000" })
+    public int count;
+
+    private List<String> strings;
+    private List<Version> versions;
+
+    @Setup
+    public void setUp() {
+        strings = Corpus.versions(count);
+        versions = new ArrayList<>(count);
+        for (var string : strings) {
+            versions.add(Version.parse(string));
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (var string : strings) {
+            blackhole.consume(Version.parse(string));
+        }
+    }
+
+    @Benchmark
+    public void compare(Blackhole blackhole) {
+        for (int i = 1; i < versions.size(); i++) {
+            blackhole.consume(versions.get(i - 1).compareTo(versions.get(i)));
+        }
+    }
+
+    @Benchmark
+    public List<Version> sort() {
+        var copy = new ArrayList<>(versions);
+        Collections.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core;
+
+import migratedb.v1.core.api.MigrateDbException;
+import migratedb.v1.core.internal.util.OperationContext;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Handle of a command that runs asynchronously, see {@link MigrateDb#migrateAsync(Executor)} and {@link
+ * MigrateDb#infoAsync(Executor)}.
+ * <p>
+ * Cancellation is cooperative. {@link #cancel()} cancels the SQL statement that is currently being executed via {@link
+ * java.sql.Statement#cancel()} and keeps further migrations and statements from starting. The command then fails like
+ * it would on any other error: the current transactional group is rolled back, a non-transactional migration is
+ * recorded as failed in the schema history, and the command completes with a {@link MigrateDbException} whose error
+ * code is {@link migratedb.v1.core.api.ErrorCode#CANCELLED}. Java migrations are only cancelled between migrations and
+ * between the statements they execute through MigrateDB.
+ *
+ * @param <T> The type of the command result.
+ */
+public final class AsyncOperation<T> {
+    private final OperationContext context;
+    private final CompletableFuture<T> future;
+
+    private AsyncOperation(OperationContext context, CompletableFuture<T> future) {
+        this.context = context;
+        this.future = future;
+    }
+
+    static <T> AsyncOperation<T> start(Supplier<T> command, Executor executor) {
+        var context = new OperationContext();
+        return new AsyncOperation<>(context, CompletableFuture.supplyAsync(() -> context.run(command), executor));
+    }
+
+    /**
+     * Requests cancellation of the command. Does not wait for the command to stop.
+     *
+     * @return {@code false} if the command had already completed, {@code true} otherwise.
+     */
+    public boolean cancel() {
+        if (future.isDone()) {
+            return false;
+        }
+        context.cancel();
+        return true;
+    }
+
+    /**
+     * @return Whether the command has completed, either normally, exceptionally or by being cancelled.
+     */
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * @return Whether cancellation has been requested via {@link #cancel()}.
+     */
+    public boolean isCancelRequested() {
+        return context.isCancelled();
+    }
+
+    /**
+     * Waits for the command to complete.
+     *
+     * @return The result of the command.
+     * @throws MigrateDbException   If the command failed or was cancelled.
+     * @throws InterruptedException If the current thread was interrupted while waiting. This does not cancel the
+     *                              command.
+     */
+    public T get() throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Waits at most {@code timeout} for the command to complete.
+     *
+     * @return The result of the command.
+     * @throws MigrateDbException   If the command failed or was cancelled.
+     * @throws InterruptedException If the current thread was interrupted while waiting. This does not cancel the
+     *                              command.
+     * @throws TimeoutException     If the command did not complete in time. This does not cancel the command.
+     */
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        try {
+            return future.get(timeout, unit);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * @return A stage that completes with the result of the command, or exceptionally with the exception the command
+     * failed with.
+     */
+    public CompletionStage<T> asCompletionStage() {
+        return future.minimalCompletionStage();
+    }
+
+    /**
+     * @return A snapshot of the progress of the command.
+     */
+    public Progress getProgress() {
+        return new Progress(context.getMigrationsTotal(),
+                            context.getMigrationsCompleted(),
+                            context.getCurrentMigration());
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        var cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new MigrateDbException("Asynchronous operation failed", cause);
+    }
+
+    public static final class Progress {
+        private final int migrationsTotal;
+        private final int migrationsCompleted;
+        private final @Nullable String currentMigration;
+
+        Progress(int migrationsTotal, int migrationsCompleted, @Nullable String currentMigration) {
+            this.migrationsTotal = migrationsTotal;
+            this.migrationsCompleted = migrationsCompleted;
+            this.currentMigration = currentMigration;
+        }
+
+        /**
+         * @return The number of migrations the command is going to apply, including the completed ones. Zero until
+         * the pending migrations are known, and always zero for commands that don't apply migrations.
+         */
+        public int getMigrationsTotal() {
+            return migrationsTotal;
+        }
+
+        /**
+         * @return The number of migrations that have been applied so far.
+         */
+        public int getMigrationsCompleted() {
+            return migrationsCompleted;
+        }
+
+        /**
+         * @return A description of the migration that is currently being applied, or {@code null} if there is none.
+         */
+        public @Nullable String getCurrentMigration() {
+            return currentMigration;
+        }
+
+        @Override
+        public String toString() {
+            return migrationsCompleted + "/" + migrationsTotal +
+                   (currentMigration == null ? "" : " (" + currentMigration + ")");
+        }
+    }
+}
@@ -16,7 +16,10 @@
  */
 package migratedb.v1.core;
 
+import migratedb.v1.core.MigrateDbExecutor.CommandContext;
+import migratedb.v1.core.api.Command;
 import migratedb.v1.core.api.MigrateDbException;
+import migratedb.v1.core.api.MigrateDbPhaseListener;
 import migratedb.v1.core.api.MigrateDbValidateException;
 import migratedb.v1.core.api.MigrationInfoService;
 import migratedb.v1.core.api.callback.Event;
@@ -31,10 +34,13 @@ import migratedb.v1.core.api.output.*;
 import migratedb.v1.core.api.resolver.MigrationResolver;
 import migratedb.v1.core.internal.command.*;
 import migratedb.v1.core.internal.schemahistory.SchemaHistory;
+import migratedb.v1.core.internal.util.Phases;
 import migratedb.v1.core.internal.util.WebsiteLinks;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -49,8 +55,12 @@ import java.util.stream.Collectors;
  * migratedb.migrate();
  * </pre>
  * Note that a configured MigrateDb object is unmodifiable.
+ * <p>
+ * If the session pool size is configured, an instance keeps database sessions, database metadata and resolved
+ * migrations between commands and must be closed when it is no longer needed.
+ * </p>
  */
-public class MigrateDb {
+public class MigrateDb implements AutoCloseable {
     private static final Log LOG = Log.getLog(MigrateDb.class);
 
     private final DefaultConfiguration configuration;
@@ -113,18 +123,20 @@ public class MigrateDb {
      *                            already contains applied migrations.
      */
     public LiberateResult liberate() {
-        return executor.execute(context -> {
-            var liberateResult = new DbLiberate(context.schemaHistory,
-                                                configuration,
-                                                context.database,
-                                                context.defaultSchema,
-                                                context.schemas,
-                                                context.callbackExecutor,
-                                                true)
-                    .liberate();
-            context.callbackExecutor.onOperationFinishEvent(Event.AFTER_LIBERATE_OPERATION_FINISH, liberateResult);
-            return liberateResult;
-        }, false);
+        return executor.execute("liberate", this::liberate, false);
+    }
+
+    private LiberateResult liberate(CommandContext context) {
+        var liberateResult = new DbLiberate(context.schemaHistory,
+                                            configuration,
+                                            context.database,
+                                            context.defaultSchema,
+                                            context.schemas,
+                                            context.callbackExecutor,
+                                            true)
+                .liberate();
+        context.callbackExecutor.onOperationFinishEvent(Event.AFTER_LIBERATE_OPERATION_FINISH, liberateResult);
+        return liberateResult;
     }
 
     /**
@@ -136,88 +148,101 @@ public class MigrateDb {
      * @throws MigrateDbException when the migration failed.
      */
     public MigrateResult migrate() {
-        return executor.execute(context -> {
-            LiberateResult liberateResult = null;
-            if (configuration.isLiberateOnMigrate()) {
-                if (!context.schemaHistory.exists() &&
-                    context.defaultSchema.getTable(configuration.getOldTable()).exists()) {
-                    LOG.info("Executing liberate command because " + context.schemaHistory.getTable() + " is missing" +
-                             " , but table " + configuration.getOldTable() + " exists");
-                    liberateResult = new DbLiberate(context.schemaHistory,
-                                                    configuration,
-                                                    context.database,
-                                                    context.defaultSchema,
-                                                    new Schema[0],
-                                                    context.callbackExecutor,
-                                                    false)
-                            .liberate();
-                }
+        return executor.execute("migrate", this::migrate, true);
+    }
+
+    /**
+     * Starts the database migration on {@code executor} and returns immediately. Otherwise behaves like {@link
+     * #migrate()}. Any executor can be used, including one that runs each task on a new virtual thread.
+     *
+     * @param executor Runs the migration.
+     * @return A handle to track the progress of the migration, to cancel it and to obtain its result.
+     */
+    public AsyncOperation<MigrateResult> migrateAsync(Executor executor) {
+        return AsyncOperation.start(this::migrate, executor);
+    }
+
+    private MigrateResult migrate(CommandContext context) {
+        LiberateResult liberateResult = null;
+        if (configuration.isLiberateOnMigrate()) {
+            if (!context.schemaHistory.exists() &&
+                context.defaultSchema.getTable(configuration.getOldTable()).exists()) {
+                LOG.info("Executing liberate command because " + context.schemaHistory.getTable() + " is missing" +
+                         " , but table " + configuration.getOldTable() + " exists");
+                liberateResult = new DbLiberate(context.schemaHistory,
+                                                configuration,
+                                                context.database,
+                                                context.defaultSchema,
+                                                new Schema[0],
+                                                context.callbackExecutor,
+                                                false)
+                        .liberate();
             }
+        }
 
-            if (configuration.isValidateOnMigrate()) {
-                ValidateResult validateResult = doValidate(context.database,
-                                                           context.migrationResolver,
-                                                           context.schemaHistory,
-                                                           context.defaultSchema,
-                                                           context.callbackExecutor,
-                                                           true);
-                if (!validateResult.validationSuccessful) {
-                    throw new MigrateDbValidateException(validateResult.errorDetails,
-                                                         validateResult.getAllErrorMessages());
-                }
+        if (configuration.isValidateOnMigrate()) {
+            ValidateResult validateResult = doValidate(context.database,
+                                                       context.migrationResolver,
+                                                       context.schemaHistory,
+                                                       context.defaultSchema,
+                                                       context.callbackExecutor,
+                                                       true);
+            if (!validateResult.validationSuccessful) {
+                throw new MigrateDbValidateException(validateResult.errorDetails,
+                                                     validateResult.getAllErrorMessages());
             }
+        }
 
-            if (!context.schemaHistory.exists()) {
-                List<Schema> nonEmptySchemas = new ArrayList<>();
-                for (var schema : context.schemas) {
-                    if (schema.exists() && !schema.isEmpty()) {
-                        nonEmptySchemas.add(schema);
-                    }
+        if (!context.schemaHistory.exists()) {
+            List<Schema> nonEmptySchemas = new ArrayList<>();
+            for (var schema : context.schemas) {
+                if (schema.exists() && !schema.isEmpty()) {
+                    nonEmptySchemas.add(schema);
                 }
+            }
 
-                if (!nonEmptySchemas.isEmpty() && !configuration.isSkipExecutingMigrations()) {
-                    if (configuration.isBaselineOnMigrate()) {
-                        doBaseline(context.schemaHistory, context.callbackExecutor, context.database);
-                    } else {
-                        // Second check for MySQL which is sometimes flaky otherwise
-                        if (!context.schemaHistory.exists()) {
-                            throw new MigrateDbException("Found non-empty schema(s) " +
-                                                         nonEmptySchemas.stream()
-                                                                        .map(Schema::toString)
-                                                                        .collect(Collectors.joining(",")) +
-                                                         " but no schema history table. Use baseline()" +
-                                                         " or set baselineOnMigrate to true to initialize the " +
-                                                         "schema history table.");
-                        }
-                    }
+            if (!nonEmptySchemas.isEmpty() && !configuration.isSkipExecutingMigrations()) {
+                if (configuration.isBaselineOnMigrate()) {
+                    doBaseline(context.schemaHistory, context.callbackExecutor, context.database);
                 } else {
-                    if (configuration.isCreateSchemas()) {
-                        new DbSchemas(context.database,
-                                      context.schemas,
-                                      context.schemaHistory,
-                                      context.callbackExecutor).create(false);
-                    } else if (!context.defaultSchema.exists()) {
-                        LOG.warn("The configuration option 'createSchemas' is false.\n" +
-                                 "However, the schema history table still needs a schema to reside in.\n" +
-                                 "You must manually create a schema for the schema history table to reside in.\n" +
-                                 "See " + WebsiteLinks.CREATE_SCHEMAS);
+                    // Second check for MySQL which is sometimes flaky otherwise
+                    if (!context.schemaHistory.exists()) {
+                        throw new MigrateDbException("Found non-empty schema(s) " +
+                                                     nonEmptySchemas.stream()
+                                                                    .map(Schema::toString)
+                                                                    .collect(Collectors.joining(",")) +
+                                                     " but no schema history table. Use baseline()" +
+                                                     " or set baselineOnMigrate to true to initialize the " +
+                                                     "schema history table.");
                     }
-
-                    context.schemaHistory.create(false);
                 }
-            }
-
-            MigrateResult result = new DbMigrate(context.database,
-                                                 context.schemaHistory,
-                                                 context.defaultSchema,
-                                                 context.migrationResolver,
-                                                 configuration,
-                                                 context.callbackExecutor).migrate();
-            result.liberateResult = liberateResult;
+            } else {
+                if (configuration.isCreateSchemas()) {
+                    new DbSchemas(context.database,
+                                  context.schemas,
+                                  context.schemaHistory,
+                                  context.callbackExecutor).create(false);
+                } else if (!context.defaultSchema.exists()) {
+                    LOG.warn("The configuration option 'createSchemas' is false.\n" +
+                             "However, the schema history table still needs a schema to reside in.\n" +
+                             "You must manually create a schema for the schema history table to reside in.\n" +
+                             "See " + WebsiteLinks.CREATE_SCHEMAS);
+                }
 
-            context.callbackExecutor.onOperationFinishEvent(Event.AFTER_MIGRATE_OPERATION_FINISH, result);
-            return result;
-        }, true);
+                context.schemaHistory.create(false);
+            }
+        }
+
+        MigrateResult result = new DbMigrate(context.database,
+                                             context.schemaHistory,
+                                             context.defaultSchema,
+                                             context.migrationResolver,
+                                             configuration,
+                                             context.callbackExecutor).migrate();
+        result.liberateResult = liberateResult;
+
+        context.callbackExecutor.onOperationFinishEvent(Event.AFTER_MIGRATE_OPERATION_FINISH, result);
+        return result;
     }
 
     /**
@@ -229,19 +254,32 @@ public class MigrateDb {
      * @throws MigrateDbException when the info retrieval failed.
      */
     public MigrationInfoService info() {
-        return executor.execute(context -> {
-            MigrationInfoService migrationInfoService = new DbInfo(context.migrationResolver,
-                                                                   context.schemaHistory,
-                                                                   configuration,
-                                                                   context.database,
-                                                                   context.callbackExecutor,
-                                                                   context.schemas).info();
-
-            context.callbackExecutor.onOperationFinishEvent(Event.AFTER_INFO_OPERATION_FINISH,
-                                                            migrationInfoService.getInfoResult());
-
-            return migrationInfoService;
-        }, true);
+        return executor.execute("info", this::info, true);
+    }
+
+    /**
+     * Retrieves the complete information about all the migrations on {@code executor} and returns immediately.
+     * Otherwise behaves like {@link #info()}.
+     *
+     * @param executor Runs the info retrieval.
+     * @return A handle to cancel the info retrieval and to obtain its result.
+     */
+    public AsyncOperation<MigrationInfoService> infoAsync(Executor executor) {
+        return AsyncOperation.start(this::info, executor);
+    }
+
+    private MigrationInfoService info(CommandContext context) {
+        MigrationInfoService migrationInfoService = new DbInfo(context.migrationResolver,
+                                                               context.schemaHistory,
+                                                               configuration,
+                                                               context.database,
+                                                               context.callbackExecutor,
+                                                               context.schemas).info();
+
+        context.callbackExecutor.onOperationFinishEvent(Event.AFTER_INFO_OPERATION_FINISH,
+                                                        migrationInfoService.getInfoResult());
+
+        return migrationInfoService;
     }
 
     /**
@@ -259,23 +297,16 @@ public class MigrateDb {
      * @throws MigrateDbException when the validation failed.
      */
     public void validate() throws MigrateDbException {
-        executor.<Void>execute(context -> {
-            ValidateResult validateResult = doValidate(context.database,
-                                                       context.migrationResolver,
-                                                       context.schemaHistory,
-                                                       context.defaultSchema,
-                                                       context.callbackExecutor,
-                                                       configuration.isIgnorePendingMigrations());
-
-            context.callbackExecutor.onOperationFinishEvent(Event.AFTER_VALIDATE_OPERATION_FINISH, validateResult);
-
-            if (!validateResult.validationSuccessful) {
-                throw new MigrateDbValidateException(validateResult.errorDetails,
-                                                     validateResult.getAllErrorMessages());
-            }
+        executor.execute("validate", this::validateOrFail, true);
+    }
 
-            return null;
-        }, true);
+    private ValidateResult validateOrFail(CommandContext context) {
+        ValidateResult validateResult = validate(context);
+        if (!validateResult.validationSuccessful) {
+            throw new MigrateDbValidateException(validateResult.errorDetails,
+                                                 validateResult.getAllErrorMessages());
+        }
+        return validateResult;
     }
 
     /**
@@ -294,18 +325,20 @@ public class MigrateDb {
      * @throws MigrateDbException when the validation failed.
      */
     public ValidateResult validateWithResult() throws MigrateDbException {
-        return executor.execute(context -> {
-            ValidateResult validateResult = doValidate(context.database,
-                                                       context.migrationResolver,
-                                                       context.schemaHistory,
-                                                       context.defaultSchema,
-                                                       context.callbackExecutor,
-                                                       configuration.isIgnorePendingMigrations());
+        return executor.execute("validate", this::validate, true);
+    }
+
+    private ValidateResult validate(CommandContext context) {
+        ValidateResult validateResult = doValidate(context.database,
+                                                   context.migrationResolver,
+                                                   context.schemaHistory,
+                                                   context.defaultSchema,
+                                                   context.callbackExecutor,
+                                                   configuration.isIgnorePendingMigrations());
 
-            context.callbackExecutor.onOperationFinishEvent(Event.AFTER_VALIDATE_OPERATION_FINISH, validateResult);
+        context.callbackExecutor.onOperationFinishEvent(Event.AFTER_VALIDATE_OPERATION_FINISH, validateResult);
 
-            return validateResult;
-        }, true);
+        return validateResult;
     }
 
     /**
@@ -317,28 +350,30 @@ public class MigrateDb {
      * @throws MigrateDbException when the schema baselining failed.
      */
     public BaselineResult baseline() throws MigrateDbException {
-        return executor.execute(context -> {
-            if (configuration.isCreateSchemas()) {
-                new DbSchemas(context.database,
-                              context.schemas,
-                              context.schemaHistory,
-                              context.callbackExecutor).create(true);
-            } else {
-                LOG.warn("The configuration option 'createSchemas' is false.\n" +
-                         "Even though MigrateDb is configured not to create any schemas, the schema history table" +
-                         " still needs a schema to reside in.\n" +
-                         "You must manually create a schema for the schema history table to reside in.\n" + "See " +
-                         WebsiteLinks.CREATE_SCHEMAS);
-            }
-
-            BaselineResult baselineResult = doBaseline(context.schemaHistory,
-                                                       context.callbackExecutor,
-                                                       context.database);
-
-            context.callbackExecutor.onOperationFinishEvent(Event.AFTER_BASELINE_OPERATION_FINISH, baselineResult);
+        return executor.execute("baseline", this::baseline, false);
+    }
 
-            return baselineResult;
-        }, false);
+    private BaselineResult baseline(CommandContext context) {
+        if (configuration.isCreateSchemas()) {
+            new DbSchemas(context.database,
+                          context.schemas,
+                          context.schemaHistory,
+                          context.callbackExecutor).create(true);
+        } else {
+            LOG.warn("The configuration option 'createSchemas' is false.\n" +
+                     "Even though MigrateDb is configured not to create any schemas, the schema history table" +
+                     " still needs a schema to reside in.\n" +
+                     "You must manually create a schema for the schema history table to reside in.\n" + "See " +
+                     WebsiteLinks.CREATE_SCHEMAS);
+        }
+
+        BaselineResult baselineResult = doBaseline(context.schemaHistory,
+                                                   context.callbackExecutor,
+                                                   context.database);
+
+        context.callbackExecutor.onOperationFinishEvent(Event.AFTER_BASELINE_OPERATION_FINISH, baselineResult);
+
+        return baselineResult;
     }
 
     /**
@@ -355,17 +390,69 @@ public class MigrateDb {
      * @throws MigrateDbException when the schema history table repair failed.
      */
     public RepairResult repair() throws MigrateDbException {
-        return executor.execute(context -> {
-            RepairResult repairResult = new DbRepair(context.database,
-                                                     context.migrationResolver,
-                                                     context.schemaHistory,
-                                                     context.callbackExecutor,
-                                                     configuration).repair();
+        return executor.execute("repair", this::repair, true);
+    }
+
+    private RepairResult repair(CommandContext context) {
+        RepairResult repairResult = new DbRepair(context.database,
+                                                 context.migrationResolver,
+                                                 context.schemaHistory,
+                                                 context.callbackExecutor,
+                                                 configuration).repair();
+
+        context.callbackExecutor.onOperationFinishEvent(Event.AFTER_REPAIR_OPERATION_FINISH, repairResult);
 
-            context.callbackExecutor.onOperationFinishEvent(Event.AFTER_REPAIR_OPERATION_FINISH, repairResult);
+        return repairResult;
+    }
 
-            return repairResult;
-        }, true);
+    /**
+     * Runs several commands in order, sharing a single database connection, scan of the configured locations,
+     * resolution of the available migrations and read of the schema history table. This is cheaper than calling the
+     * corresponding methods one after another, e.g. {@code run(Command.REPAIR, Command.MIGRATE)} instead of {@code
+     * repair()} followed by {@code migrate()}. The pipeline stops at the first command that fails.
+     *
+     * @param commands The commands to run.
+     * @return The results of the commands, in order. {@link Command#INFO} contributes an {@link InfoResult}.
+     * @throws MigrateDbException when one of the commands failed.
+     */
+    public CompositeResult run(Command... commands) throws MigrateDbException {
+        boolean scannerRequired = Arrays.stream(commands).anyMatch(Command::requiresMigrations);
+        return executor.execute("run", context -> {
+            var result = new CompositeResult();
+            result.operation = "run";
+            for (var command : commands) {
+                result.individualResults.add(run(command, context));
+            }
+            return result;
+        }, scannerRequired);
+    }
+
+    private OperationResult run(Command command, CommandContext context) {
+        switch (command) {
+            case LIBERATE:
+                return liberate(context);
+            case REPAIR:
+                return repair(context);
+            case BASELINE:
+                return baseline(context);
+            case VALIDATE:
+                return validateOrFail(context);
+            case MIGRATE:
+                return migrate(context);
+            case INFO:
+                return info(context).getInfoResult();
+            default:
+                throw new IllegalArgumentException("Unsupported command " + command);
+        }
+    }
+
+    /**
+     * Closes the database sessions kept between commands (see {@link Configuration#getSessionPoolSize()}). Commands
+     * executed afterwards open and close their own session. Does nothing if no sessions are kept.
+     */
+    @Override
+    public void close() {
+        executor.close();
     }
 
     /**
@@ -383,13 +470,15 @@ public class MigrateDb {
                                       Schema defaultSchema,
                                       CallbackExecutor callbackExecutor,
                                       boolean ignorePending) {
-        return new DbValidate(database,
-                              schemaHistory,
-                              defaultSchema,
-                              migrationResolver,
-                              configuration,
-                              ignorePending,
-                              callbackExecutor).validate();
+        try (var ignored = Phases.start(MigrateDbPhaseListener.Phase.VALIDATE)) {
+            return new DbValidate(database,
+                                  schemaHistory,
+                                  defaultSchema,
+                                  migrationResolver,
+                                  configuration,
+                                  ignorePending,
+                                  callbackExecutor).validate();
+        }
     }
 
     private BaselineResult doBaseline(SchemaHistory schemaHistory,
@@ -16,6 +16,7 @@
 package migratedb.v1.core;
 
 import migratedb.v1.core.api.ClassProvider;
+import migratedb.v1.core.api.MigrateDbPhaseListener;
 import migratedb.v1.core.api.ResourceProvider;
 import migratedb.v1.core.api.callback.Callback;
 import migratedb.v1.core.api.configuration.Configuration;
@@ -35,19 +36,29 @@ import migratedb.v1.core.internal.callback.NoopCallbackExecutor;
 import migratedb.v1.core.internal.callback.SqlScriptCallbackFactory;
 import migratedb.v1.core.internal.configuration.ConfigurationValidator;
 import migratedb.v1.core.internal.jdbc.JdbcConnectionFactoryImpl;
+import migratedb.v1.core.internal.jfr.JfrEvents;
 import migratedb.v1.core.internal.parser.ParsingContextImpl;
 import migratedb.v1.core.internal.resolver.DefaultMigrationResolver;
 import migratedb.v1.core.internal.resource.ResourceNameValidator;
 import migratedb.v1.core.internal.resource.StringResource;
 import migratedb.v1.core.internal.schemahistory.SchemaHistory;
 import migratedb.v1.core.internal.schemahistory.SchemaHistoryFactory;
+import migratedb.v1.core.internal.util.LocationFingerprint;
 import migratedb.v1.core.internal.util.LocationScanner;
+import migratedb.v1.core.internal.util.OperationContext;
+import migratedb.v1.core.internal.util.Phases;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 final class MigrateDbExecutor {
     private static final Log LOG = Log.getLog(MigrateDbExecutor.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
 
     static final class CommandContext {
         public final MigrationResolver migrationResolver;
@@ -87,8 +98,13 @@ final class MigrateDbExecutor {
     /**
      * Whether the database connection info has already been printed in the logs
      */
-    private boolean dbConnectionInfoPrinted;
+    private volatile boolean dbConnectionInfoPrinted;
     private final Configuration configuration;
+    /**
+     * Sessions kept between commands, most recently used first. Only used if the session pool size is positive.
+     */
+    private final Deque<OpenDatabase> idle = new ArrayDeque<>();
+    private boolean closed;
 
     MigrateDbExecutor(Configuration configuration) {
         this.configurationValidator = new ConfigurationValidator();
@@ -99,33 +115,121 @@ final class MigrateDbExecutor {
     /**
      * Executes this command with proper resource handling and cleanup.
      *
+     * @param name    The name of the command, for diagnostics.
      * @param command The command to execute.
      * @param <T>     The type of the result.
      * @return The result of the command.
      */
-    public <T> T execute(Command<T> command, boolean scannerRequired) {
-        var logSystem = configuration.getLogger();
-        if (logSystem != null) {
-            return Log.withLogSystem(logSystem, () -> doExecute(command, scannerRequired));
-        } else {
-            return doExecute(command, scannerRequired);
+    public <T> T execute(String name, Command<T> command, boolean scannerRequired) {
+        var operationContext = OperationContext.current();
+        if (operationContext == null) {
+            operationContext = new OperationContext();
+        }
+        operationContext.configure(configuration);
+        var event = JfrEvents.beginCommand();
+        boolean success = false;
+        try {
+            T result;
+            var logSystem = configuration.getLogger();
+            if (logSystem != null) {
+                result = operationContext.run(() -> Log.withLogSystem(logSystem,
+                                                                      () -> doExecute(name, command, scannerRequired)));
+            } else {
+                result = operationContext.run(() -> doExecute(name, command, scannerRequired));
+            }
+            success = true;
+            return result;
+        } finally {
+            JfrEvents.endCommand(event, name, success);
         }
     }
 
-    private <T> T doExecute(Command<T> command, boolean scannerRequired) {
-        T result;
-
+    private <T> T doExecute(String name, Command<T> command, boolean scannerRequired) {
         configurationValidator.validate(configuration);
+        OperationContext.checkCancelled();
+
+        try (var ignored = Phases.start(MigrateDbPhaseListener.Phase.COMMAND, "command", name)) {
+            var openDatabase = acquire(scannerRequired);
+            boolean reusable = false;
+            try {
+                T result = command.execute(openDatabase.commandContext());
+                reusable = true;
+                return result;
+            } finally {
+                showMemoryUsage();
+                if (reusable) {
+                    release(openDatabase);
+                } else {
+                    // The session may be left in an undefined state
+                    openDatabase.close();
+                }
+            }
+        }
+    }
 
-        var resourceProviderClassProviders = createResourceAndClassProviders(scannerRequired);
-        ResourceProvider resourceProvider = resourceProviderClassProviders.resourceProvider;
-        ClassProvider<JavaMigration> classProvider = resourceProviderClassProviders.classProvider;
+    /**
+     * @return A kept session that is still usable, or a new one.
+     */
+    private OpenDatabase acquire(boolean scannerRequired) {
+        if (configuration.getSessionPoolSize() == 0) {
+            return open(scan(scannerRequired, null));
+        }
+        var locationFingerprint = LocationFingerprint.compute(configuration);
+        while (true) {
+            OpenDatabase candidate;
+            synchronized (idle) {
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                return open(scan(scannerRequired, locationFingerprint));
+            }
+            if (candidate.isValid()) {
+                candidate.parsingContext.refresh();
+                candidate.schemaHistory.clearCache();
+                var locations = candidate.locations;
+                if ((locations.scanned || !scannerRequired) &&
+                    locationFingerprint.equals(locations.fingerprint)) {
+                    candidate.refreshResolvedMigrations();
+                } else {
+                    candidate.setLocations(scan(scannerRequired, locationFingerprint));
+                }
+                return candidate;
+            }
+            candidate.close();
+        }
+    }
 
-        resourceNameValidator.validateSQLMigrationNaming(resourceProvider, configuration);
+    private void release(OpenDatabase openDatabase) {
+        synchronized (idle) {
+            if (!closed && idle.size() < configuration.getSessionPoolSize()) {
+                idle.addFirst(openDatabase);
+                return;
+            }
+        }
+        openDatabase.close();
+    }
 
-        try (var jdbcConnectionFactory = new JdbcConnectionFactoryImpl(configuration.getDataSource(),
-                                                                       configuration)) {
+    /**
+     * Closes the kept sessions. Commands executed afterwards open and close their own session.
+     */
+    void close() {
+        List<OpenDatabase> toClose;
+        synchronized (idle) {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+        }
+        for (var openDatabase : toClose) {
+            openDatabase.close();
+        }
+    }
 
+    private OpenDatabase open(ScannedLocations locations) {
+        JdbcConnectionFactoryImpl jdbcConnectionFactory = null;
+        Database database = null;
+        var connect = Phases.start(MigrateDbPhaseListener.Phase.CONNECT);
+        try {
+            jdbcConnectionFactory = new JdbcConnectionFactoryImpl(configuration.getDataSource(), configuration);
             var databaseType = jdbcConnectionFactory.getDatabaseType();
             var parsingContext = new ParsingContextImpl();
             var sqlScriptFactory = databaseType.createSqlScriptFactory(configuration, parsingContext);
@@ -135,85 +239,208 @@ final class MigrateDbExecutor {
                     NoopCallbackExecutor.INSTANCE
             );
 
+            var resources = new AtomicReference<>(locations.resourceProvider);
+
             jdbcConnectionFactory.setConnectionInitializer((jdbcConnectionFactory1, connection) -> {
                 if (configuration.getInitSql() == null) {
                     return;
                 }
                 StringResource resource = new StringResource("", configuration.getInitSql());
-                SqlScript sqlScript = sqlScriptFactory.createSqlScript(resource, true, resourceProvider);
+                SqlScript sqlScript = sqlScriptFactory.createSqlScript(resource,
+                                                                       true,
+                                                                       resources.get());
                 boolean outputQueryResults = configuration.isOutputQueryResults();
                 noCallbackSqlScriptExecutorFactory.createSqlScriptExecutor(connection, outputQueryResults)
                                                   .execute(sqlScript);
             });
 
-            try (var database = databaseType.createDatabase(configuration, !dbConnectionInfoPrinted, jdbcConnectionFactory)) {
-                dbConnectionInfoPrinted = true;
-                LOG.debug("DDL transactions supported: " + database.supportsDdlTransactions());
+            database = databaseType.createDatabase(configuration, !dbConnectionInfoPrinted, jdbcConnectionFactory);
+            dbConnectionInfoPrinted = true;
+            LOG.debug("DDL transactions supported: " + database.supportsDdlTransactions());
+
+            var schemas = SchemaHistoryFactory.scanSchemas(configuration, database);
+
+            parsingContext.populate(database, configuration);
+
+            database.ensureSupported();
+
+            var schemaHistory = SchemaHistoryFactory.getSchemaHistory(
+                    configuration,
+                    noCallbackSqlScriptExecutorFactory,
+                    sqlScriptFactory,
+                    database,
+                    schemas.defaultSchema);
+
+            return new OpenDatabase(jdbcConnectionFactory,
+                                    database,
+                                    schemas.defaultSchema,
+                                    schemas.all.toArray(new Schema[0]),
+                                    schemaHistory,
+                                    parsingContext,
+                                    sqlScriptFactory,
+                                    resources,
+                                    locations);
+        } catch (RuntimeException | Error e) {
+            try {
+                if (database != null) {
+                    database.close();
+                }
+                if (jdbcConnectionFactory != null) {
+                    jdbcConnectionFactory.close();
+                }
+            } catch (RuntimeException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        } finally {
+            connect.close();
+        }
+    }
 
-                var schemas = SchemaHistoryFactory.scanSchemas(configuration, database);
+    /**
+     * A database session together with the metadata derived from it and the result of scanning the configured
+     * locations.
+     */
+    private final class OpenDatabase {
+        final JdbcConnectionFactoryImpl jdbcConnectionFactory;
+        final Database database;
+        final Schema defaultSchema;
+        final Schema[] schemas;
+        final SchemaHistory schemaHistory;
+        final ParsingContextImpl parsingContext;
+        final SqlScriptFactory sqlScriptFactory;
+        /**
+         * The resources of the current locations, used to run the init SQL on new connections.
+         */
+        final AtomicReference<ResourceProvider> resources;
+        ScannedLocations locations;
+
+        OpenDatabase(JdbcConnectionFactoryImpl jdbcConnectionFactory,
+                     Database database,
+                     Schema defaultSchema,
+                     Schema[] schemas,
+                     SchemaHistory schemaHistory,
+                     ParsingContextImpl parsingContext,
+                     SqlScriptFactory sqlScriptFactory,
+                     AtomicReference<ResourceProvider> resources,
+                     ScannedLocations locations) {
+            this.jdbcConnectionFactory = jdbcConnectionFactory;
+            this.database = database;
+            this.defaultSchema = defaultSchema;
+            this.schemas = schemas;
+            this.schemaHistory = schemaHistory;
+            this.parsingContext = parsingContext;
+            this.sqlScriptFactory = sqlScriptFactory;
+            this.resources = resources;
+            this.locations = locations;
+        }
 
-                parsingContext.populate(database, configuration);
+        void setLocations(ScannedLocations locations) {
+            this.locations = locations;
+            resources.set(locations.resourceProvider);
+        }
 
-                database.ensureSupported();
+        /**
+         * Makes the kept migration resolver pick up the refreshed placeholders of {@link #parsingContext}. Only the
+         * migrations whose checksum depends on a changed placeholder are resolved again.
+         */
+        void refreshResolvedMigrations() {
+            if (locations.migrationResolver != null) {
+                locations.migrationResolver.refresh();
+            }
+        }
 
+        /**
+         * @return The command context of this session. The callbacks and the migration resolver are created on first
+         * use and kept until the configured locations change, see {@link #acquire(boolean)}.
+         */
+        CommandContext commandContext() {
+            if (locations.context == null) {
                 var callbackExecutor = new DefaultCallbackExecutor(configuration,
                                                                    database,
-                                                                   schemas.defaultSchema,
+                                                                   defaultSchema,
                                                                    prepareCallbacks(
-                                                                           resourceProvider,
+                                                                           locations.resourceProvider,
                                                                            jdbcConnectionFactory,
                                                                            sqlScriptFactory
                                                                    ));
 
-                var sqlScriptExecutorFactory = databaseType.createSqlScriptExecutorFactory(
+                var sqlScriptExecutorFactory = jdbcConnectionFactory.getDatabaseType().createSqlScriptExecutorFactory(
                         jdbcConnectionFactory,
                         callbackExecutor);
 
-                var schemaHistory = SchemaHistoryFactory.getSchemaHistory(
-                        configuration,
-                        noCallbackSqlScriptExecutorFactory,
-                        sqlScriptFactory,
-                        database,
-                        schemas.defaultSchema);
-
-                var commandContext = new CommandContext(
-                        createMigrationResolver(resourceProvider,
-                                                classProvider,
-                                                sqlScriptExecutorFactory,
-                                                sqlScriptFactory,
-                                                parsingContext),
+                locations.migrationResolver = createMigrationResolver(locations.resourceProvider,
+                                                                      locations.classProvider,
+                                                                      sqlScriptExecutorFactory,
+                                                                      sqlScriptFactory,
+                                                                      parsingContext);
+                locations.context = new CommandContext(
+                        locations.migrationResolver,
                         schemaHistory,
                         database,
-                        schemas.defaultSchema,
-                        schemas.all.toArray(new Schema[0]),
+                        defaultSchema,
+                        schemas,
                         callbackExecutor
                 );
+            }
+            return locations.context;
+        }
+
+        boolean isValid() {
+            try {
+                return database.getMainSession().getJdbcConnection().isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException | RuntimeException e) {
+                LOG.debug("Discarding kept session: " + e.getMessage());
+                return false;
+            }
+        }
 
-                result = command.execute(commandContext);
+        void close() {
+            try {
+                database.close();
             } finally {
-                showMemoryUsage();
+                jdbcConnectionFactory.close();
             }
         }
-        return result;
     }
 
-    private static final class ResourceAndClassProviders {
-        public final ResourceProvider resourceProvider;
-        public final ClassProvider<JavaMigration> classProvider;
-
-        private ResourceAndClassProviders(ResourceProvider resourceProvider,
-                                          ClassProvider<JavaMigration> classProvider) {
+    /**
+     * The resource and class providers of the configured locations, and the callbacks and migration resolver created
+     * from them.
+     */
+    private static final class ScannedLocations {
+        /**
+         * The fingerprint of the configured locations, {@code null} if this session is not kept.
+         */
+        final @Nullable String fingerprint;
+        /**
+         * Whether the configured locations were scanned.
+         */
+        final boolean scanned;
+        final ResourceProvider resourceProvider;
+        final ClassProvider<JavaMigration> classProvider;
+        @Nullable DefaultMigrationResolver migrationResolver;
+        @Nullable CommandContext context;
+
+        private ScannedLocations(@Nullable String fingerprint,
+                                 boolean scanned,
+                                 ResourceProvider resourceProvider,
+                                 ClassProvider<JavaMigration> classProvider) {
+            this.fingerprint = fingerprint;
+            this.scanned = scanned;
             this.resourceProvider = resourceProvider;
             this.classProvider = classProvider;
         }
     }
 
-    private ResourceAndClassProviders createResourceAndClassProviders(boolean scannerRequired) {
+    private ScannedLocations scan(boolean scannerRequired, @Nullable String locationFingerprint) {
         ResourceProvider resourceProvider;
         ClassProvider<JavaMigration> classProvider;
+        boolean scanned;
         if (!scannerRequired && configuration.isSkipDefaultResolvers() && configuration.isSkipDefaultCallbacks()) {
             resourceProvider = ResourceProvider.noResources();
             classProvider = ClassProvider.noClasses();
+            scanned = false;
         } else {
             if (configuration.getResourceProvider() != null && configuration.getJavaMigrationClassProvider() != null) {
                 resourceProvider = configuration.getResourceProvider();
@@ -235,9 +462,11 @@ final class MigrateDbExecutor {
                     classProvider = configuration.getJavaMigrationClassProvider();
                 }
             }
+            scanned = true;
         }
 
-        return new ResourceAndClassProviders(resourceProvider, classProvider);
+        resourceNameValidator.validateSQLMigrationNaming(resourceProvider, configuration);
+        return new ScannedLocations(locationFingerprint, scanned, resourceProvider, classProvider);
     }
 
     private List<Callback> prepareCallbacks(ResourceProvider resourceProvider,
@@ -271,11 +500,11 @@ final class MigrateDbExecutor {
      * @param parsingContext   The parsing context.
      * @return A new, fully configured, MigrationResolver instance.
      */
-    private MigrationResolver createMigrationResolver(ResourceProvider resourceProvider,
-                                                      ClassProvider<JavaMigration> classProvider,
-                                                      SqlScriptExecutorFactory sqlScriptExecutorFactory,
-                                                      SqlScriptFactory sqlScriptFactory,
-                                                      ParsingContext parsingContext) {
+    private DefaultMigrationResolver createMigrationResolver(ResourceProvider resourceProvider,
+                                                             ClassProvider<JavaMigration> classProvider,
+                                                             SqlScriptExecutorFactory sqlScriptExecutorFactory,
+                                                             SqlScriptFactory sqlScriptFactory,
+                                                             ParsingContext parsingContext) {
         return new DefaultMigrationResolver(resourceProvider,
                                             classProvider,
                                             configuration,
@@ -85,6 +85,7 @@ public final class Checksum {
          * array/empty stream.
          */
         private byte counter = 0;
+        private long byteCount = 0;
 
         public Builder addBytes(byte @Nullable [] value) {
             return add(value);
@@ -110,19 +111,29 @@ public final class Checksum {
             return addNumber(value == null ? null : BigInteger.valueOf(value));
         }
 
+        /**
+         * @return The number of bytes added since this builder was constructed or last built.
+         */
+        public long getByteCount() {
+            return byteCount;
+        }
+
         /**
          * Returns the final checksum and resets the state of this builder (as if it were freshly constructed).
          */
         public Checksum build() {
             var checksum = new Checksum(digest.digest());
             counter = 0;
+            byteCount = 0;
             return checksum;
         }
 
         private Builder add(Iterator<byte[]> bytes) {
             digest.update(counter++);
             while (bytes.hasNext()) {
-                digest.update(bytes.next());
+                var next = bytes.next();
+                digest.update(next);
+                byteCount += next.length;
             }
             return this;
         }
@@ -131,7 +142,7 @@ public final class Checksum {
             digest.update(counter++);
             if (bytes != null) {
                 try (var out = new DigestOutputStream(discardingOutputStream, digest)) {
-                    bytes.transferTo(out);
+                    byteCount += bytes.transferTo(out);
                 } catch (IOException e) {
                     throw new UncheckedIOException(e);
                 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.api;
+
+/**
+ * A command that can be part of a pipeline passed to {@code MigrateDb.run(Command...)}. Each command behaves like the
+ * method of the same name.
+ */
+public enum Command {
+    /**
+     * Converts an existing Flyway schema history, see {@code MigrateDb.liberate()}.
+     */
+    LIBERATE(false),
+    /**
+     * Repairs the schema history table, see {@code MigrateDb.repair()}.
+     */
+    REPAIR(true),
+    /**
+     * Baselines an existing database, see {@code MigrateDb.baseline()}.
+     */
+    BASELINE(false),
+    /**
+     * Validates applied migrations against resolved ones and fails if validation fails, see {@code
+     * MigrateDb.validate()}.
+     */
+    VALIDATE(true),
+    /**
+     * Applies pending migrations, see {@code MigrateDb.migrate()}.
+     */
+    MIGRATE(true),
+    /**
+     * Retrieves information about all migrations, see {@code MigrateDb.info()}.
+     */
+    INFO(true);
+
+    private final boolean requiresMigrations;
+
+    Command(boolean requiresMigrations) {
+        this.requiresMigrations = requiresMigrations;
+    }
+
+    /**
+     * @return Whether this command needs to scan the configured locations for migrations.
+     */
+    public boolean requiresMigrations() {
+        return requiresMigrations;
+    }
+}
@@ -26,6 +26,8 @@ public enum ErrorCode {
     CONFIGURATION,
     DUPLICATE_VERSIONED_MIGRATION,
     DUPLICATE_REPEATABLE_MIGRATION,
+    CANCELLED,
+    TIMEOUT,
 
     // validate error codes
     VALIDATE_ERROR,
@@ -16,23 +16,20 @@
  */
 package migratedb.v1.core.api;
 
+import migratedb.v1.core.internal.resource.archive.ArchiveResourceProvider;
+import migratedb.v1.core.internal.resource.classpath.ClassPathIndex;
 import migratedb.v1.core.internal.resource.classpath.ClassPathResourceProvider;
 import migratedb.v1.core.internal.resource.filesystem.FileSystemResourceProvider;
 import migratedb.v1.core.internal.util.ClassUtils;
 import migratedb.v1.core.internal.util.StringUtils;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-
 /**
  * A location to load migrations from.
  * <p>
@@ -49,6 +46,8 @@ public abstract class Location {
         if (locationString.startsWith(FileSystemLocation.PREFIX)) {
             var baseDirectory = Paths.get(locationString.substring(FileSystemLocation.PREFIX.length()));
             return new FileSystemLocation(baseDirectory);
+        } else if (locationString.startsWith(ArchiveLocation.PREFIX)) {
+            return new ArchiveLocation(Paths.get(locationString.substring(ArchiveLocation.PREFIX.length())));
         } else if (locationString.startsWith(CustomLocation.PREFIX)) {
             var providerClass = locationString.substring(CustomLocation.PREFIX.length());
             return CustomLocation.fromClass(providerClass, classLoader);
@@ -149,6 +148,16 @@ public abstract class Location {
          * The resource that contains the names of classes to provide. One line per class.
          */
         public static final String CLASS_LIST_RESOURCE_NAME = "migratedb-classes.index";
+        /**
+         * The resource that contains the names of both classes and resources in a binary format, along with some
+         * metadata. Optional, but takes precedence over the text indexes in the same directory.
+         */
+        public static final String BINARY_INDEX_RESOURCE_NAME = "migratedb-index.bin";
+        /**
+         * The resource that contains the pre-parsed statements of the SQL scripts to provide, written by the scanner
+         * if requested. Optional.
+         */
+        public static final String STATEMENT_BUNDLE_RESOURCE_NAME = "migratedb-statements.bin";
 
         private final String namePrefixWithTrailingSlash;
         private final ClassLoader classLoader;
@@ -166,22 +175,42 @@ public abstract class Location {
             return StringUtils.trimChar(namePrefixWithTrailingSlash, '/');
         }
 
+        /**
+         * @return The class loader that the index files and classes are loaded from.
+         */
+        public ClassLoader getClassLoader() {
+            return classLoader;
+        }
+
         @Override
         public ResourceProvider resourceProvider() {
-            return new ClassPathResourceProvider(classLoader, readLines(RESOURCE_LIST_RESOURCE_NAME));
+            var index = index();
+            var resourceNames = index.getResources()
+                                     .stream()
+                                     .map(ClassPathIndex.ResourceEntry::getName)
+                                     .collect(Collectors.toList());
+            return new ClassPathResourceProvider(classLoader, resourceNames, index.getStatementBundle());
         }
 
+        /**
+         * Classes are loaded on the first call to {@link ClassProvider#getClasses()}. Classes that the scanner has
+         * proven not to implement {@link migratedb.v1.core.api.migration.JavaMigration} are not loaded at all.
+         */
         @Override
         public ClassProvider<?> classProvider() {
             return new ClassProvider<>() {
-                private final List<Class<?>> classes = readLines(CLASS_LIST_RESOURCE_NAME)
-                        .stream()
-                        .map(it -> ClassUtils.loadClass(it, classLoader))
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toUnmodifiableList());
+                private @Nullable List<Class<?>> classes;
 
                 @Override
-                public Collection<Class<?>> getClasses() {
+                public synchronized Collection<Class<?>> getClasses() {
+                    if (classes == null) {
+                        classes = index().getClasses()
+                                         .stream()
+                                         .filter(ClassPathIndex.ClassEntry::isMigrationCandidate)
+                                         .map(it -> ClassUtils.loadClass(it.getName(), classLoader))
+                                         .filter(Objects::nonNull)
+                                         .collect(Collectors.toUnmodifiableList());
+                    }
                     return classes;
                 }
             };
@@ -190,21 +219,12 @@ public abstract class Location {
         @Override
         public boolean exists() {
             return classLoader.getResource(namePrefixWithTrailingSlash + RESOURCE_LIST_RESOURCE_NAME) != null ||
-                    classLoader.getResource(namePrefixWithTrailingSlash + CLASS_LIST_RESOURCE_NAME) != null;
+                    classLoader.getResource(namePrefixWithTrailingSlash + CLASS_LIST_RESOURCE_NAME) != null ||
+                    classLoader.getResource(namePrefixWithTrailingSlash + BINARY_INDEX_RESOURCE_NAME) != null;
         }
 
-        private List<String> readLines(String relativeResourceName) {
-            var result = new ArrayList<String>();
-            try {
-                for (var resource : Collections.list(classLoader.getResources(namePrefixWithTrailingSlash + relativeResourceName))) {
-                    try (var reader = new BufferedReader(new InputStreamReader(resource.openStream(), UTF_8))) {
-                        reader.lines().sequential().forEach(result::add);
-                    }
-                }
-                return result;
-            } catch (IOException e) {
-                throw new MigrateDbException(e);
-            }
+        private ClassPathIndex index() {
+            return ClassPathIndex.load(classLoader, namePrefixWithTrailingSlash);
         }
 
         @Override
@@ -280,4 +300,62 @@ public abstract class Location {
             return PREFIX + baseDirectory;
         }
     }
+
+    /**
+     * A single archive file that contains the resources, see the {@code migratedbArchive} Gradle task or the {@code
+     * archive} Maven goal. Reading from an archive avoids opening a file per resource.
+     */
+    public static final class ArchiveLocation extends Location {
+        /**
+         * The prefix for archive locations.
+         */
+        public static final String PREFIX = "archive:";
+
+        private final Path archiveFile;
+
+        public ArchiveLocation(Path archiveFile) {
+            this.archiveFile = archiveFile.toAbsolutePath().normalize();
+        }
+
+        @Override
+        public ResourceProvider resourceProvider() {
+            return new ArchiveResourceProvider(archiveFile);
+        }
+
+        @Override
+        public ClassProvider<?> classProvider() {
+            return ClassProvider.noClasses();
+        }
+
+        @Override
+        public boolean exists() {
+            return Files.isRegularFile(archiveFile);
+        }
+
+        /**
+         * @return The absolute, normalized path of the archive file.
+         */
+        public Path getArchiveFile() {
+            return archiveFile;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ArchiveLocation)) {
+                return false;
+            }
+            ArchiveLocation other = (ArchiveLocation) o;
+            return archiveFile.equals(other.archiveFile);
+        }
+
+        @Override
+        public int hashCode() {
+            return archiveFile.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return PREFIX + archiveFile;
+        }
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.api;
+
+/**
+ * Receives timings and counters from all commands, e.g. to publish them to a monitoring system. Register an
+ * implementation via {@link migratedb.v1.core.api.configuration.DefaultConfiguration#setMetrics(MigrateDbMetrics)}.
+ * <p>
+ * Implementations must be thread-safe and fast: they are called on the thread that executes the command, between
+ * statements, and scripts may be parsed on other threads. The default {@link #NONE} discards everything, and MigrateDB
+ * doesn't even read the clock when it is in use.
+ */
+public interface MigrateDbMetrics {
+    /**
+     * Does nothing.
+     */
+    MigrateDbMetrics NONE = new MigrateDbMetrics() {
+        @Override
+        public void recordTime(Timer timer, long nanos) {
+        }
+
+        @Override
+        public void increment(Counter counter, long amount) {
+        }
+    };
+
+    /**
+     * Records the duration of one occurrence of a phase.
+     *
+     * @param timer The phase.
+     * @param nanos How long it took, in nanoseconds.
+     */
+    void recordTime(Timer timer, long nanos);
+
+    /**
+     * Adds {@code amount} to a counter.
+     */
+    void increment(Counter counter, long amount);
+
+    enum Timer {
+        /**
+         * Listing the resources or classes of the configured locations.
+         */
+        LOCATION_SCAN,
+        /**
+         * Resolving the available migrations, including the location scans and checksum calculations it triggers.
+         */
+        RESOLVE,
+        /**
+         * Parsing an SQL script into statements, including cache and statement bundle lookups.
+         */
+        PARSE,
+        /**
+         * Waiting for the lock on the schema history table.
+         */
+        LOCK_WAIT,
+        /**
+         * Holding the lock on the schema history table.
+         */
+        LOCK_HOLD,
+        /**
+         * Reading applied migrations from the schema history table.
+         */
+        HISTORY_READ,
+        /**
+         * Inserting, updating or deleting a row of the schema history table.
+         */
+        HISTORY_WRITE,
+        /**
+         * Executing a migration, without its callbacks.
+         */
+        MIGRATION,
+        /**
+         * Executing an SQL statement of a migration, callback or script.
+         */
+        STATEMENT
+    }
+
+    enum Counter {
+        /**
+         * Bytes of migration content that were hashed to calculate checksums.
+         */
+        CHECKSUM_BYTES,
+        /**
+         * Rows affected by SQL statements, as reported by the JDBC driver.
+         */
+        ROWS_AFFECTED
+    }
+}
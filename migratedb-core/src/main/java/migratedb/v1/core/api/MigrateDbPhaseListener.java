@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.api;
+
+import java.util.Map;
+
+/**
+ * Is notified when the phases of a command start and end, e.g. to show them in a startup or tracing timeline. Register
+ * an implementation via {@link
+ * migratedb.v1.core.api.configuration.DefaultConfiguration#setPhaseListener(MigrateDbPhaseListener)}.
+ * <p>
+ * Both methods are called on the thread that executes the command. Phases nest: a phase that starts while another one
+ * is running ends before the outer one, so {@link #phaseFinished(Phase)} always refers to the phase that started last
+ * on the same thread. Implementations that are shared between {@code MigrateDb} instances must be thread-safe.
+ */
+public interface MigrateDbPhaseListener {
+    /**
+     * Does nothing.
+     */
+    MigrateDbPhaseListener NONE = new MigrateDbPhaseListener() {
+        @Override
+        public void phaseStarted(Phase phase, Map<String, String> tags) {
+        }
+
+        @Override
+        public void phaseFinished(Phase phase) {
+        }
+    };
+
+    /**
+     * Called when a phase starts.
+     *
+     * @param tags Details of this occurrence of the phase, e.g. the name of the command or the version of the
+     *             migration. Possibly empty.
+     */
+    void phaseStarted(Phase phase, Map<String, String> tags);
+
+    /**
+     * Called when the phase that started last ends, successfully or not.
+     */
+    void phaseFinished(Phase phase);
+
+    enum Phase {
+        /**
+         * Executing a command, tagged with {@code command}.
+         */
+        COMMAND,
+        /**
+         * Connecting to the database and reading its metadata.
+         */
+        CONNECT,
+        /**
+         * Listing the resources or classes of the configured locations, tagged with {@code prefix} for resources.
+         */
+        SCAN,
+        /**
+         * Resolving the available migrations.
+         */
+        RESOLVE,
+        /**
+         * Validating the resolved migrations against the schema history table.
+         */
+        VALIDATE,
+        /**
+         * Waiting for the lock on the schema history table, tagged with {@code table}.
+         */
+        LOCK_WAIT,
+        /**
+         * Executing a migration, tagged with {@code version} (empty for repeatable migrations) and {@code
+         * description}.
+         */
+        MIGRATION
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.api;
+
+import migratedb.v1.core.api.output.MigrateResult;
+
+/**
+ * Exception thrown when a migrate command exceeds one of its timeouts. Carries the result of the migrations that were
+ * applied before.
+ */
+public class MigrateDbTimeoutException extends MigrateDbException {
+    private final MigrateResult migrateResult;
+
+    public MigrateDbTimeoutException(String message, Throwable cause, MigrateResult migrateResult) {
+        super(message, cause, ErrorCode.TIMEOUT);
+        this.migrateResult = migrateResult;
+    }
+
+    /**
+     * @return The migrations that were applied before the timeout. Its {@code timeout} describes the exceeded timeout.
+     */
+    public MigrateResult getMigrateResult() {
+        return migrateResult;
+    }
+}
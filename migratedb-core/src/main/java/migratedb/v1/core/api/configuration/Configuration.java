@@ -257,6 +257,7 @@ public interface Configuration {
      * Unprefixed locations or locations starting with {@code classpath:} point to a package on the classpath and may
      * contain both SQL and Java-based migrations. Locations starting with {@code filesystem:} point to a directory on
      * the filesystem, may only contain SQL migrations and are only scanned recursively down non-hidden directories.
+     * Locations starting with {@code archive:} point to a migration archive file and may only contain SQL migrations.
      * (default: classpath:db/migration)
      */
     List<Location> getLocations();
@@ -413,6 +414,69 @@ public interface Configuration {
      */
     int getLockRetryCount();
 
+    /**
+     * @return The number of pending SQL migrations MigrateDB parses in the background while the current migration is
+     * being executed. 0 disables background parsing. (default: 2)
+     */
+    int getParseLookAhead();
+
+    /**
+     * @return The directory in which parsed SQL scripts are cached between runs, or {@code null} if parsed scripts
+     * are not cached. (default: {@code null})
+     */
+    @Nullable String getParseCacheDirectory();
+
+    /**
+     * @return The maximum size of the parse cache directory in megabytes. The least recently used entries are evicted
+     * when it grows beyond this size. (default: 100)
+     */
+    int getParseCacheMaxSizeMb();
+
+    /**
+     * @return The file in which the checksums of SQL migrations in {@code filesystem:} locations are cached between
+     * runs, or {@code null} if they are not cached. (default: {@code null})
+     */
+    @Nullable String getResolveCacheFile();
+
+    /**
+     * @return The maximum number of open database sessions a {@code MigrateDb} instance keeps between commands,
+     * together with the database metadata and the resolved migrations. Migrations are only resolved again when the
+     * content of the locations changes. 0 opens and closes a session for every command. (default: 0)
+     */
+    int getSessionPoolSize();
+
+    /**
+     * @return The maximum time in seconds a single SQL statement of a migration may run before it is cancelled. 0 means
+     * no limit. (default: 0)
+     */
+    int getStatementTimeout();
+
+    /**
+     * @return The maximum time in seconds a single migration may run before its current statement is cancelled and the
+     * migration fails. 0 means no limit. (default: 0)
+     */
+    int getMigrationTimeout();
+
+    /**
+     * @return The maximum time in seconds the migrate command may spend applying migrations before the current
+     * statement is cancelled and the command fails. 0 means no limit. (default: 0)
+     */
+    int getMigrateTimeout();
+
+    /**
+     * @return The number of slowest SQL statements of a migrate run that are reported in {@link
+     * migratedb.v1.core.api.output.MigrateResult#slowestStatements} and logged. 0 disables statement profiling.
+     * (default: 0)
+     */
+    int getSlowStatementReportSize();
+
+    /**
+     * @return Whether to parse all pending SQL migrations in parallel before migrating, so that unparseable scripts are
+     * reported before the schema history table is locked and any migration is applied. All pending scripts are kept in
+     * memory until they are executed. (default: {@code false})
+     */
+    boolean isPreParseOnMigrate();
+
     /**
      * @return Whether to fail if a location specified in the {@code migratedb.locations} option doesn't exist.
      * (default: {@code false})
@@ -424,6 +488,17 @@ public interface Configuration {
      */
     LogSystem getLogger();
 
+    /**
+     * @return The receiver of timings and counters of all commands. (default: {@link MigrateDbMetrics#NONE})
+     */
+    MigrateDbMetrics getMetrics();
+
+    /**
+     * @return The listener that is notified when the phases of a command start and end. (default: {@link
+     * MigrateDbPhaseListener#NONE})
+     */
+    MigrateDbPhaseListener getPhaseListener();
+
     /**
      * @return The database type register.
      */
@@ -96,8 +96,20 @@ public class DefaultConfiguration implements Configuration {
     private boolean createSchemas = true;
     private boolean outputQueryResults = false;
     private int lockRetryCount = 50;
+    private int parseLookAhead = 2;
+    private @Nullable String parseCacheDirectory;
+    private int parseCacheMaxSizeMb = 100;
+    private @Nullable String resolveCacheFile;
+    private int sessionPoolSize = 0;
+    private int statementTimeout = 0;
+    private int migrationTimeout = 0;
+    private int migrateTimeout = 0;
+    private int slowStatementReportSize = 0;
+    private boolean preParseOnMigrate = false;
     private boolean failOnMissingLocations = false;
     private LogSystem logger;
+    private MigrateDbMetrics metrics = MigrateDbMetrics.NONE;
+    private MigrateDbPhaseListener phaseListener = MigrateDbPhaseListener.NONE;
     private final DatabaseTypeRegisterImpl databaseTypeRegister = new DatabaseTypeRegisterImpl();
     private final Set<MigrateDbExtension> loadedExtensions = new HashSet<>();
     private final Map<Class<? extends ExtensionConfig>, ExtensionConfig> extensionConfig = new HashMap<>();
@@ -361,11 +373,71 @@ public class DefaultConfiguration implements Configuration {
         return lockRetryCount;
     }
 
+    @Override
+    public int getParseLookAhead() {
+        return parseLookAhead;
+    }
+
+    @Override
+    public @Nullable String getParseCacheDirectory() {
+        return parseCacheDirectory;
+    }
+
+    @Override
+    public int getParseCacheMaxSizeMb() {
+        return parseCacheMaxSizeMb;
+    }
+
+    @Override
+    public @Nullable String getResolveCacheFile() {
+        return resolveCacheFile;
+    }
+
+    @Override
+    public int getSessionPoolSize() {
+        return sessionPoolSize;
+    }
+
+    @Override
+    public int getStatementTimeout() {
+        return statementTimeout;
+    }
+
+    @Override
+    public int getMigrationTimeout() {
+        return migrationTimeout;
+    }
+
+    @Override
+    public int getMigrateTimeout() {
+        return migrateTimeout;
+    }
+
+    @Override
+    public int getSlowStatementReportSize() {
+        return slowStatementReportSize;
+    }
+
+    @Override
+    public boolean isPreParseOnMigrate() {
+        return preParseOnMigrate;
+    }
+
     @Override
     public LogSystem getLogger() {
         return logger;
     }
 
+    @Override
+    public MigrateDbMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public MigrateDbPhaseListener getPhaseListener() {
+        return phaseListener;
+    }
+
     @Override
     public boolean isFailOnMissingLocations() {
         return failOnMissingLocations;
@@ -441,6 +513,22 @@ public class DefaultConfiguration implements Configuration {
         this.logger = logger;
     }
 
+    /**
+     * The receiver of timings and counters of all commands, e.g. a binding to a monitoring system. {@code null} and
+     * {@link MigrateDbMetrics#NONE} disable metrics.
+     */
+    public void setMetrics(@Nullable MigrateDbMetrics metrics) {
+        this.metrics = metrics == null ? MigrateDbMetrics.NONE : metrics;
+    }
+
+    /**
+     * The listener that is notified when the phases of a command start and end, e.g. a binding to a startup or
+     * tracing timeline. {@code null} and {@link MigrateDbPhaseListener#NONE} disable notifications.
+     */
+    public void setPhaseListener(@Nullable MigrateDbPhaseListener phaseListener) {
+        this.phaseListener = phaseListener == null ? MigrateDbPhaseListener.NONE : phaseListener;
+    }
+
     /**
      * The log system(s) MigrateDB should use.
      */
@@ -569,6 +657,7 @@ public class DefaultConfiguration implements Configuration {
      * locations or locations starting with {@code classpath:} point to a package on the classpath and may contain both
      * SQL and Java-based migrations. Locations starting with {@code filesystem:} point to a directory on the
      * filesystem, may only contain SQL migrations and are only scanned recursively down non-hidden directories.
+     * Locations starting with {@code archive:} point to a migration archive file and may only contain SQL migrations.
      */
     public void setLocationsAsStrings(String... locations) {
         setLocationsAsStrings(Arrays.asList(locations));
@@ -579,6 +668,7 @@ public class DefaultConfiguration implements Configuration {
      * locations or locations starting with {@code classpath:} point to a package on the classpath and may contain both
      * SQL and Java-based migrations. Locations starting with {@code filesystem:} point to a directory on the
      * filesystem, may only contain SQL migrations and are only scanned recursively down non-hidden directories.
+     * Locations starting with {@code archive:} point to a migration archive file and may only contain SQL migrations.
      */
     public void setLocationsAsStrings(Collection<String> locations) {
         this.locations = new Locations(List.copyOf(locations), classLoader);
@@ -589,6 +679,7 @@ public class DefaultConfiguration implements Configuration {
      * locations or locations starting with {@code classpath:} point to a package on the classpath and may contain both
      * SQL and Java-based migrations. Locations starting with {@code filesystem:} point to a directory on the
      * filesystem, may only contain SQL migrations and are only scanned recursively down non-hidden directories.
+     * Locations starting with {@code archive:} point to a migration archive file and may only contain SQL migrations.
      */
     public void setLocations(Location... locations) {
         setLocations(Arrays.asList(locations));
@@ -599,6 +690,7 @@ public class DefaultConfiguration implements Configuration {
      * locations or locations starting with {@code classpath:} point to a package on the classpath and may contain both
      * SQL and Java-based migrations. Locations starting with {@code filesystem:} point to a directory on the
      * filesystem, may only contain SQL migrations and are only scanned recursively down non-hidden directories.
+     * Locations starting with {@code archive:} point to a migration archive file and may only contain SQL migrations.
      */
     public void setLocations(Collection<Location> locations) {
         this.locations = new Locations(List.copyOf(locations));
@@ -1137,6 +1229,127 @@ public class DefaultConfiguration implements Configuration {
         this.lockRetryCount = lockRetryCount;
     }
 
+    /**
+     * Sets the number of pending SQL migrations to parse in the background while the current migration is being
+     * executed. Parsed scripts are kept in memory until they are executed, so this bounds the additional memory used.
+     * 0 disables background parsing.
+     */
+    public void setParseLookAhead(int parseLookAhead) {
+        if (parseLookAhead < 0) {
+            throw new MigrateDbException("Invalid parseLookAhead (must be 0 or greater): " + parseLookAhead,
+                                         ErrorCode.CONFIGURATION);
+        }
+        this.parseLookAhead = parseLookAhead;
+    }
+
+    /**
+     * Sets the directory in which parsed SQL scripts are cached between runs. Scripts whose content, placeholders and
+     * database are unchanged are then loaded from this cache instead of being parsed again. {@code null} disables the
+     * cache.
+     */
+    public void setParseCacheDirectory(@Nullable String parseCacheDirectory) {
+        this.parseCacheDirectory = parseCacheDirectory;
+    }
+
+    /**
+     * Sets the maximum size of the parse cache directory in megabytes. The least recently used entries are evicted
+     * when it grows beyond this size.
+     */
+    public void setParseCacheMaxSizeMb(int parseCacheMaxSizeMb) {
+        if (parseCacheMaxSizeMb < 0) {
+            throw new MigrateDbException("Invalid parseCacheMaxSizeMb (must be 0 or greater): " + parseCacheMaxSizeMb,
+                                         ErrorCode.CONFIGURATION);
+        }
+        this.parseCacheMaxSizeMb = parseCacheMaxSizeMb;
+    }
+
+    /**
+     * Sets the file in which the checksums of SQL migrations in {@code filesystem:} locations are cached between runs.
+     * The checksum of a script whose size, modification time and referenced placeholders are unchanged is then taken
+     * from this file instead of reading the script. {@code null} disables the cache.
+     */
+    public void setResolveCacheFile(@Nullable String resolveCacheFile) {
+        this.resolveCacheFile = resolveCacheFile;
+    }
+
+    /**
+     * Sets the maximum number of open database sessions a {@code MigrateDb} instance keeps between commands. Kept
+     * sessions also retain the database metadata and the resolved migrations, which are only resolved again when the
+     * content of the locations changes. Checksums that depend on placeholders whose value changes between commands
+     * (like {@code ${migratedb:timestamp}}) are recalculated for every command. This suits long-running processes that
+     * run commands repeatedly against the same database; {@code MigrateDb.close()} must then be called to close the
+     * sessions. 0 opens and closes a session for every command.
+     */
+    public void setSessionPoolSize(int sessionPoolSize) {
+        if (sessionPoolSize < 0) {
+            throw new MigrateDbException("Invalid sessionPoolSize (must be 0 or greater): " + sessionPoolSize,
+                                         ErrorCode.CONFIGURATION);
+        }
+        this.sessionPoolSize = sessionPoolSize;
+    }
+
+    /**
+     * Sets the maximum time in seconds a single SQL statement of a migration may run before it is cancelled. Enforced
+     * via {@code Statement.setQueryTimeout()} and a watchdog that cancels the statement in case the driver doesn't
+     * honour the query timeout. Can be overridden per SQL migration with {@code statementTimeout} in its {@code .conf}
+     * file. 0 means no limit.
+     */
+    public void setStatementTimeout(int statementTimeout) {
+        if (statementTimeout < 0) {
+            throw new MigrateDbException("Invalid statementTimeout (must be 0 or greater): " + statementTimeout,
+                                         ErrorCode.CONFIGURATION);
+        }
+        this.statementTimeout = statementTimeout;
+    }
+
+    /**
+     * Sets the maximum time in seconds a single migration may run before its current statement is cancelled and the
+     * migration fails. Can be overridden per SQL migration with {@code migrationTimeout} in its {@code .conf} file. 0
+     * means no limit.
+     */
+    public void setMigrationTimeout(int migrationTimeout) {
+        if (migrationTimeout < 0) {
+            throw new MigrateDbException("Invalid migrationTimeout (must be 0 or greater): " + migrationTimeout,
+                                         ErrorCode.CONFIGURATION);
+        }
+        this.migrationTimeout = migrationTimeout;
+    }
+
+    /**
+     * Sets the maximum time in seconds the migrate command may spend applying migrations before the current statement
+     * is cancelled and the command fails. This bounds how long the schema history table stays locked. 0 means no limit.
+     */
+    public void setMigrateTimeout(int migrateTimeout) {
+        if (migrateTimeout < 0) {
+            throw new MigrateDbException("Invalid migrateTimeout (must be 0 or greater): " + migrateTimeout,
+                                         ErrorCode.CONFIGURATION);
+        }
+        this.migrateTimeout = migrateTimeout;
+    }
+
+    /**
+     * Sets the number of slowest SQL statements of a migrate run that are reported in {@link
+     * migratedb.v1.core.api.output.MigrateResult#slowestStatements} and logged as a summary table. Each statement is
+     * timed while this is greater than 0. 0 disables statement profiling.
+     */
+    public void setSlowStatementReportSize(int slowStatementReportSize) {
+        if (slowStatementReportSize < 0) {
+            throw new MigrateDbException("Invalid slowStatementReportSize (must be 0 or greater): " +
+                                         slowStatementReportSize,
+                                         ErrorCode.CONFIGURATION);
+        }
+        this.slowStatementReportSize = slowStatementReportSize;
+    }
+
+    /**
+     * Whether to parse all pending SQL migrations in parallel before migrating, so that unparseable scripts are
+     * reported before the schema history table is locked and any migration is applied. All pending scripts are kept in
+     * memory until they are executed, so this is off by default.
+     */
+    public void setPreParseOnMigrate(boolean preParseOnMigrate) {
+        this.preParseOnMigrate = preParseOnMigrate;
+    }
+
     /**
      * Whether to fail if a location specified in the {@code migratedb.locations} option doesn't exist
      */
@@ -1198,11 +1411,23 @@ public class DefaultConfiguration implements Configuration {
         setLocations(configuration.getLocations());
         setLockRetryCount(configuration.getLockRetryCount());
         setLogger(configuration.getLogger());
+        setMetrics(configuration.getMetrics());
         setMixed(configuration.isMixed());
         setOldTable(configuration.getOldTable());
         setLiberateOnMigrate(configuration.isLiberateOnMigrate());
         setOutOfOrder(configuration.isOutOfOrder());
         setOutputQueryResults(configuration.isOutputQueryResults());
+        setPhaseListener(configuration.getPhaseListener());
+        setParseLookAhead(configuration.getParseLookAhead());
+        setParseCacheDirectory(configuration.getParseCacheDirectory());
+        setParseCacheMaxSizeMb(configuration.getParseCacheMaxSizeMb());
+        setResolveCacheFile(configuration.getResolveCacheFile());
+        setSessionPoolSize(configuration.getSessionPoolSize());
+        setStatementTimeout(configuration.getStatementTimeout());
+        setMigrationTimeout(configuration.getMigrationTimeout());
+        setMigrateTimeout(configuration.getMigrateTimeout());
+        setSlowStatementReportSize(configuration.getSlowStatementReportSize());
+        setPreParseOnMigrate(configuration.isPreParseOnMigrate());
         setPlaceholderPrefix(configuration.getPlaceholderPrefix());
         setPlaceholderReplacement(configuration.isPlaceholderReplacement());
         setPlaceholders(configuration.getPlaceholders());
@@ -1390,6 +1615,47 @@ public class DefaultConfiguration implements Configuration {
         if (lockRetryCount != null) {
             setLockRetryCount(lockRetryCount);
         }
+        Integer parseLookAheadProp = ConfigUtils.removeInteger(props, PropertyNames.PARSE_LOOK_AHEAD);
+        if (parseLookAheadProp != null) {
+            setParseLookAhead(parseLookAheadProp);
+        }
+        String parseCacheDirectoryProp = props.remove(PropertyNames.PARSE_CACHE_DIRECTORY);
+        if (parseCacheDirectoryProp != null) {
+            setParseCacheDirectory(parseCacheDirectoryProp);
+        }
+        Integer parseCacheMaxSizeMbProp = ConfigUtils.removeInteger(props, PropertyNames.PARSE_CACHE_MAX_SIZE_MB);
+        if (parseCacheMaxSizeMbProp != null) {
+            setParseCacheMaxSizeMb(parseCacheMaxSizeMbProp);
+        }
+        String resolveCacheFileProp = props.remove(PropertyNames.RESOLVE_CACHE_FILE);
+        if (resolveCacheFileProp != null) {
+            setResolveCacheFile(resolveCacheFileProp);
+        }
+        Integer sessionPoolSizeProp = ConfigUtils.removeInteger(props, PropertyNames.SESSION_POOL_SIZE);
+        if (sessionPoolSizeProp != null) {
+            setSessionPoolSize(sessionPoolSizeProp);
+        }
+        Integer statementTimeoutProp = ConfigUtils.removeInteger(props, PropertyNames.STATEMENT_TIMEOUT);
+        if (statementTimeoutProp != null) {
+            setStatementTimeout(statementTimeoutProp);
+        }
+        Integer migrationTimeoutProp = ConfigUtils.removeInteger(props, PropertyNames.MIGRATION_TIMEOUT);
+        if (migrationTimeoutProp != null) {
+            setMigrationTimeout(migrationTimeoutProp);
+        }
+        Integer migrateTimeoutProp = ConfigUtils.removeInteger(props, PropertyNames.MIGRATE_TIMEOUT);
+        if (migrateTimeoutProp != null) {
+            setMigrateTimeout(migrateTimeoutProp);
+        }
+        Integer slowStatementReportSizeProp = ConfigUtils.removeInteger(props,
+                                                                        PropertyNames.SLOW_STATEMENT_REPORT_SIZE);
+        if (slowStatementReportSizeProp != null) {
+            setSlowStatementReportSize(slowStatementReportSizeProp);
+        }
+        Boolean preParseOnMigrateProp = ConfigUtils.removeBoolean(props, PropertyNames.PRE_PARSE_ON_MIGRATE);
+        if (preParseOnMigrateProp != null) {
+            setPreParseOnMigrate(preParseOnMigrateProp);
+        }
         Boolean outOfOrderProp = ConfigUtils.removeBoolean(props, PropertyNames.OUT_OF_ORDER);
         if (outOfOrderProp != null) {
             setOutOfOrder(outOfOrderProp);
@@ -114,6 +114,16 @@ public class FluentConfiguration implements Configuration {
         return config.getLogger();
     }
 
+    @Override
+    public MigrateDbMetrics getMetrics() {
+        return config.getMetrics();
+    }
+
+    @Override
+    public MigrateDbPhaseListener getPhaseListener() {
+        return config.getPhaseListener();
+    }
+
     @Override
     public TargetVersion getTarget() {
         return config.getTarget();
@@ -324,6 +334,56 @@ public class FluentConfiguration implements Configuration {
         return config.getLockRetryCount();
     }
 
+    @Override
+    public int getParseLookAhead() {
+        return config.getParseLookAhead();
+    }
+
+    @Override
+    public @Nullable String getParseCacheDirectory() {
+        return config.getParseCacheDirectory();
+    }
+
+    @Override
+    public int getParseCacheMaxSizeMb() {
+        return config.getParseCacheMaxSizeMb();
+    }
+
+    @Override
+    public @Nullable String getResolveCacheFile() {
+        return config.getResolveCacheFile();
+    }
+
+    @Override
+    public int getSessionPoolSize() {
+        return config.getSessionPoolSize();
+    }
+
+    @Override
+    public int getStatementTimeout() {
+        return config.getStatementTimeout();
+    }
+
+    @Override
+    public int getMigrationTimeout() {
+        return config.getMigrationTimeout();
+    }
+
+    @Override
+    public int getMigrateTimeout() {
+        return config.getMigrateTimeout();
+    }
+
+    @Override
+    public int getSlowStatementReportSize() {
+        return config.getSlowStatementReportSize();
+    }
+
+    @Override
+    public boolean isPreParseOnMigrate() {
+        return config.isPreParseOnMigrate();
+    }
+
     @Override
     public boolean isFailOnMissingLocations() {
         return config.isFailOnMissingLocations();
@@ -379,6 +439,24 @@ public class FluentConfiguration implements Configuration {
         return this;
     }
 
+    /**
+     * The receiver of timings and counters of all commands, e.g. a binding to a monitoring system. {@code null} and
+     * {@link MigrateDbMetrics#NONE} disable metrics.
+     */
+    public FluentConfiguration metrics(@Nullable MigrateDbMetrics metrics) {
+        config.setMetrics(metrics);
+        return this;
+    }
+
+    /**
+     * The listener that is notified when the phases of a command start and end, e.g. a binding to a startup or
+     * tracing timeline. {@code null} and {@link MigrateDbPhaseListener#NONE} disable notifications.
+     */
+    public FluentConfiguration phaseListener(@Nullable MigrateDbPhaseListener phaseListener) {
+        config.setPhaseListener(phaseListener);
+        return this;
+    }
+
     /**
      * The logger(s) MigrateDB should use.
      */
@@ -518,6 +596,7 @@ public class FluentConfiguration implements Configuration {
      * locations or locations starting with {@code classpath:} point to a package on the classpath and may contain both
      * SQL and Java-based migrations. Locations starting with {@code filesystem:} point to a directory on the
      * filesystem, may only contain SQL migrations and are only scanned recursively down non-hidden directories.
+     * Locations starting with {@code archive:} point to a migration archive file and may only contain SQL migrations.
      */
     public FluentConfiguration locations(String... locations) {
         config.setLocationsAsStrings(locations);
@@ -529,6 +608,7 @@ public class FluentConfiguration implements Configuration {
      * locations or locations starting with {@code classpath:} point to a package on the classpath and may contain both
      * SQL and Java-based migrations. Locations starting with {@code filesystem:} point to a directory on the
      * filesystem, may only contain SQL migrations and are only scanned recursively down non-hidden directories.
+     * Locations starting with {@code archive:} point to a migration archive file and may only contain SQL migrations.
      */
     public FluentConfiguration locations(Location... locations) {
         config.setLocations(locations);
@@ -540,6 +620,7 @@ public class FluentConfiguration implements Configuration {
      * locations or locations starting with {@code classpath:} point to a package on the classpath and may contain both
      * SQL and Java-based migrations. Locations starting with {@code filesystem:} point to a directory on the
      * filesystem, may only contain SQL migrations and are only scanned recursively down non-hidden directories.
+     * Locations starting with {@code archive:} point to a migration archive file and may only contain SQL migrations.
      */
     public FluentConfiguration locations(Collection<Location> locations) {
         config.setLocations(locations);
@@ -1019,6 +1100,108 @@ public class FluentConfiguration implements Configuration {
         return this;
     }
 
+    /**
+     * Sets the number of pending SQL migrations to parse in the background while the current migration is being
+     * executed. Parsed scripts are kept in memory until they are executed, so this bounds the additional memory used.
+     * 0 disables background parsing.
+     */
+    public FluentConfiguration parseLookAhead(int parseLookAhead) {
+        config.setParseLookAhead(parseLookAhead);
+        return this;
+    }
+
+    /**
+     * Sets the directory in which parsed SQL scripts are cached between runs. Scripts whose content, placeholders and
+     * database are unchanged are then loaded from this cache instead of being parsed again. {@code null} disables the
+     * cache.
+     */
+    public FluentConfiguration parseCacheDirectory(@Nullable String parseCacheDirectory) {
+        config.setParseCacheDirectory(parseCacheDirectory);
+        return this;
+    }
+
+    /**
+     * Sets the maximum size of the parse cache directory in megabytes. The least recently used entries are evicted
+     * when it grows beyond this size.
+     */
+    public FluentConfiguration parseCacheMaxSizeMb(int parseCacheMaxSizeMb) {
+        config.setParseCacheMaxSizeMb(parseCacheMaxSizeMb);
+        return this;
+    }
+
+    /**
+     * Sets the file in which the checksums of SQL migrations in {@code filesystem:} locations are cached between runs.
+     * The checksum of a script whose size, modification time and referenced placeholders are unchanged is then taken
+     * from this file instead of reading the script. {@code null} disables the cache.
+     */
+    public FluentConfiguration resolveCacheFile(@Nullable String resolveCacheFile) {
+        config.setResolveCacheFile(resolveCacheFile);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of open database sessions a {@code MigrateDb} instance keeps between commands. Kept
+     * sessions also retain the database metadata and the resolved migrations, which are only resolved again when the
+     * content of the locations changes. Checksums that depend on placeholders whose value changes between commands
+     * (like {@code ${migratedb:timestamp}}) are recalculated for every command. This suits long-running processes that
+     * run commands repeatedly against the same database; {@code MigrateDb.close()} must then be called to close the
+     * sessions. 0 opens and closes a session for every command.
+     */
+    public FluentConfiguration sessionPoolSize(int sessionPoolSize) {
+        config.setSessionPoolSize(sessionPoolSize);
+        return this;
+    }
+
+    /**
+     * Sets the maximum time in seconds a single SQL statement of a migration may run before it is cancelled. Enforced
+     * via {@code Statement.setQueryTimeout()} and a watchdog that cancels the statement in case the driver doesn't
+     * honour the query timeout. Can be overridden per SQL migration with {@code statementTimeout} in its {@code .conf}
+     * file. 0 means no limit.
+     */
+    public FluentConfiguration statementTimeout(int statementTimeout) {
+        config.setStatementTimeout(statementTimeout);
+        return this;
+    }
+
+    /**
+     * Sets the maximum time in seconds a single migration may run before its current statement is cancelled and the
+     * migration fails. Can be overridden per SQL migration with {@code migrationTimeout} in its {@code .conf} file. 0
+     * means no limit.
+     */
+    public FluentConfiguration migrationTimeout(int migrationTimeout) {
+        config.setMigrationTimeout(migrationTimeout);
+        return this;
+    }
+
+    /**
+     * Sets the maximum time in seconds the migrate command may spend applying migrations before the current statement
+     * is cancelled and the command fails. This bounds how long the schema history table stays locked. 0 means no limit.
+     */
+    public FluentConfiguration migrateTimeout(int migrateTimeout) {
+        config.setMigrateTimeout(migrateTimeout);
+        return this;
+    }
+
+    /**
+     * Sets the number of slowest SQL statements of a migrate run that are reported in {@link
+     * migratedb.v1.core.api.output.MigrateResult#slowestStatements} and logged as a summary table. Each statement is
+     * timed while this is greater than 0. 0 disables statement profiling.
+     */
+    public FluentConfiguration slowStatementReportSize(int slowStatementReportSize) {
+        config.setSlowStatementReportSize(slowStatementReportSize);
+        return this;
+    }
+
+    /**
+     * Whether to parse all pending SQL migrations in parallel before migrating, so that unparseable scripts are
+     * reported before the schema history table is locked and any migration is applied. All pending scripts are kept in
+     * memory until they are executed, so this is off by default.
+     */
+    public FluentConfiguration preParseOnMigrate(boolean preParseOnMigrate) {
+        config.setPreParseOnMigrate(preParseOnMigrate);
+        return this;
+    }
+
     /**
      * Sets the extension config of type {@code T}.
      */
@@ -118,6 +118,36 @@ public final class PropertyNames {
     @Info(typeHint = Integer.class)
     public static final String LOCK_RETRY_COUNT = "migratedb.lockRetryCount";
 
+    @Info(typeHint = Integer.class)
+    public static final String PARSE_LOOK_AHEAD = "migratedb.parseLookAhead";
+
+    @Info(typeHint = String.class)
+    public static final String PARSE_CACHE_DIRECTORY = "migratedb.parseCacheDirectory";
+
+    @Info(typeHint = Integer.class)
+    public static final String PARSE_CACHE_MAX_SIZE_MB = "migratedb.parseCacheMaxSizeMb";
+
+    @Info(typeHint = String.class)
+    public static final String RESOLVE_CACHE_FILE = "migratedb.resolveCacheFile";
+
+    @Info(typeHint = Integer.class)
+    public static final String SESSION_POOL_SIZE = "migratedb.sessionPoolSize";
+
+    @Info(typeHint = Integer.class)
+    public static final String STATEMENT_TIMEOUT = "migratedb.statementTimeout";
+
+    @Info(typeHint = Integer.class)
+    public static final String MIGRATION_TIMEOUT = "migratedb.migrationTimeout";
+
+    @Info(typeHint = Integer.class)
+    public static final String MIGRATE_TIMEOUT = "migratedb.migrateTimeout";
+
+    @Info(typeHint = Integer.class)
+    public static final String SLOW_STATEMENT_REPORT_SIZE = "migratedb.slowStatementReportSize";
+
+    @Info(typeHint = Boolean.class)
+    public static final String PRE_PARSE_ON_MIGRATE = "migratedb.preParseOnMigrate";
+
     @Info(typeHint = String.class)
     public static final String REPEATABLE_SQL_MIGRATION_PREFIX = "migratedb.repeatableSqlMigrationPrefix";
 
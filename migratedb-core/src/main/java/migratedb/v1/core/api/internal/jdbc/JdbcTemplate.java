@@ -17,10 +17,13 @@
 package migratedb.v1.core.api.internal.jdbc;
 
 import migratedb.v1.core.api.MigrateDbException;
+import migratedb.v1.core.api.MigrateDbMetrics;
 import migratedb.v1.core.api.internal.database.base.DatabaseType;
 import migratedb.v1.core.internal.jdbc.JdbcNullTypes;
 import migratedb.v1.core.internal.jdbc.JdbcUtils;
 import migratedb.v1.core.internal.jdbc.WarningImpl;
+import migratedb.v1.core.internal.util.Metrics;
+import migratedb.v1.core.internal.util.OperationContext;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -228,17 +231,24 @@ public class JdbcTemplate {
     public Results executeStatement(String sql) {
         Results results = new Results();
         Statement statement = null;
+        SQLException failure = null;
+        var metrics = Metrics.current();
+        long start = Metrics.start(metrics);
         try {
             statement = connection.createStatement();
             statement.setEscapeProcessing(false);
 
+            OperationContext.statementStarted(statement);
             boolean hasResults = statement.execute(sql);
             extractResults(results, statement, sql, hasResults);
             extractWarnings(results, statement);
         } catch (SQLException e) {
+            failure = e;
             extractErrors(results, e);
         } finally {
+            OperationContext.statementFinished(failure);
             JdbcUtils.closeStatement(statement);
+            Metrics.stop(metrics, MigrateDbMetrics.Timer.STATEMENT, start);
         }
         return results;
     }
@@ -295,6 +305,7 @@ public class JdbcTemplate {
                 }
             }
             results.addResult(new Result(updateCount, columns, data, sql));
+            Metrics.increment(Metrics.current(), MigrateDbMetrics.Counter.ROWS_AFFECTED, updateCount);
             hasResults = statement.getMoreResults();
         }
     }
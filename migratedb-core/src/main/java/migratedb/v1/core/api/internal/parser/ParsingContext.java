@@ -27,4 +27,12 @@ public interface ParsingContext {
     Database getDatabase();
 
     void updateFilenamePlaceholder(ResourceName resourceName);
+
+    /**
+     * Creates a context for parsing a single resource. Its placeholders are a snapshot of the placeholders of this
+     * context, with the filename placeholder updated for {@code resourceName}. Unlike
+     * {@link #updateFilenamePlaceholder(ResourceName)} this leaves this context unchanged, so scripts can be parsed
+     * concurrently.
+     */
+    ParsingContext forResource(ResourceName resourceName);
 }
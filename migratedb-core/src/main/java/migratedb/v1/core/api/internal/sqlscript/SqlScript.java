@@ -52,6 +52,18 @@ public interface SqlScript extends Comparable<SqlScript> {
      */
     boolean shouldExecute();
 
+    /**
+     * @return The statement timeout in seconds from the script configuration, or {@code null} to use the configured
+     * one.
+     */
+    Integer statementTimeout();
+
+    /**
+     * @return The migration timeout in seconds from the script configuration, or {@code null} to use the configured
+     * one.
+     */
+    Integer migrationTimeout();
+
     /**
      * Validates this SQL script.
      */
@@ -24,4 +24,14 @@ public interface SqlScriptMetadata {
     boolean placeholderReplacement();
 
     boolean shouldExecute();
+
+    /**
+     * @return The statement timeout in seconds that overrides the configured one for this script, or {@code null}.
+     */
+    Integer statementTimeout();
+
+    /**
+     * @return The migration timeout in seconds that overrides the configured one for this script, or {@code null}.
+     */
+    Integer migrationTimeout();
 }
@@ -16,7 +16,6 @@
  */
 package migratedb.v1.core.api.migration;
 
-import migratedb.v1.core.api.MigrateDbException;
 import migratedb.v1.core.api.Version;
 import migratedb.v1.core.internal.resolver.MigrationInfoHelper;
 
@@ -53,24 +52,10 @@ public abstract class BaseJavaMigration implements JavaMigration {
      * Creates a new instance of a Java-based migration following MigrateDB's default naming convention.
      */
     public BaseJavaMigration() {
-        String shortName = getClass().getSimpleName();
-        String prefix = null;
+        isRepeatable = MigrationInfoHelper.isRepeatableJavaMigration(getClass());
+        isBaseline = MigrationInfoHelper.isBaselineJavaMigration(getClass());
 
-        isRepeatable = shortName.startsWith("R");
-        isBaseline = shortName.startsWith("B");
-
-        if (shortName.startsWith("V") || isBaseline || isRepeatable) {
-            prefix = shortName.substring(0, 1);
-        }
-        if (prefix == null) {
-            throw new MigrateDbException("Invalid Java-based migration class name: " + getClass().getName() +
-                                         " => ensure it starts with V, R, B" +
-
-                                         " or implement JavaMigration directly for " +
-                                         "non-default naming");
-        }
-
-        var info = MigrationInfoHelper.extractVersionAndDescription(shortName, prefix, "__", isRepeatable);
+        var info = MigrationInfoHelper.extractFromJavaMigrationClass(getClass());
         this.version = info.version;
         this.description = info.description;
     }
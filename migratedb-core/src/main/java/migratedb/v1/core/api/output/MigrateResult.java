@@ -28,6 +28,16 @@ public class MigrateResult extends OperationResult {
     public List<MigrateOutput> migrations;
     public int migrationsExecuted;
     public @Nullable LiberateResult liberateResult;
+    /**
+     * Description of the timeout the migration run has exceeded, or {@code null} if it didn't time out. Only set on the
+     * result carried by a {@link migratedb.v1.core.api.MigrateDbTimeoutException}.
+     */
+    public @Nullable String timeout;
+    /**
+     * The slowest statements of the run, slowest first. Only filled if {@link
+     * migratedb.v1.core.api.configuration.Configuration#getSlowStatementReportSize()} is greater than 0.
+     */
+    public List<StatementOutput> slowestStatements;
 
     public MigrateResult(String migratedbVersion,
                          String database,
@@ -36,6 +46,7 @@ public class MigrateResult extends OperationResult {
         this.database = database;
         this.schemaName = schemaName;
         this.migrations = new ArrayList<>();
+        this.slowestStatements = new ArrayList<>();
         this.operation = "migrate";
     }
 }
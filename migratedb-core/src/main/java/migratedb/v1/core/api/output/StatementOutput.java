@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.api.output;
+
+public class StatementOutput {
+    /**
+     * The name of the script that contains the statement.
+     */
+    public String filepath;
+    public int line;
+    /**
+     * The SQL of the statement, with runs of whitespace collapsed and truncated to a few hundred characters.
+     */
+    public String sql;
+    /**
+     * The execution time in milliseconds.
+     */
+    public int executionTime;
+    /**
+     * The number of rows affected, or -1 if the statement didn't report any.
+     */
+    public long updateCount;
+    /**
+     * Whether the statement failed or was cancelled. The execution time is the time until the failure.
+     */
+    public boolean failed;
+
+    public StatementOutput(String filepath, int line, String sql, int executionTime, long updateCount) {
+        this(filepath, line, sql, executionTime, updateCount, false);
+    }
+
+    public StatementOutput(String filepath,
+                           int line,
+                           String sql,
+                           int executionTime,
+                           long updateCount,
+                           boolean failed) {
+        this.filepath = filepath;
+        this.line = line;
+        this.sql = sql;
+        this.executionTime = executionTime;
+        this.updateCount = updateCount;
+        this.failed = failed;
+    }
+}
@@ -28,6 +28,7 @@ import migratedb.v1.core.api.internal.sqlscript.SqlScriptExecutorFactory;
 import migratedb.v1.core.api.internal.sqlscript.SqlScriptFactory;
 import migratedb.v1.core.api.logging.Log;
 import migratedb.v1.core.api.resource.Resource;
+import migratedb.v1.core.internal.resource.CompressionFormat;
 import migratedb.v1.core.internal.resource.ResourceNameParser;
 
 import java.util.*;
@@ -54,8 +55,8 @@ public class SqlScriptCallbackFactory {
         Map<String, SqlScript> callbacksFound = new HashMap<>();
 
         LOG.debug("Scanning for SQL callbacks ...");
-        Collection<Resource> resources = resourceProvider.getResources("",
-                                                                       configuration.getSqlMigrationSuffixes());
+        Collection<Resource> resources = resourceProvider.getResources(
+                "", CompressionFormat.withCompressedVariants(configuration.getSqlMigrationSuffixes()));
         ResourceNameParser resourceNameParser = new ResourceNameParser(configuration);
 
         for (Resource resource : resources) {
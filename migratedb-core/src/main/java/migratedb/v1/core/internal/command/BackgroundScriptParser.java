@@ -0,0 +1,147 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.command;
+
+import migratedb.v1.core.api.MigrateDbException;
+import migratedb.v1.core.api.MigrationInfo;
+import migratedb.v1.core.api.logging.Log;
+import migratedb.v1.core.internal.resolver.sql.SqlMigrationExecutor;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Parses the SQL scripts of upcoming migrations on a background thread while the current migration is being executed.
+ * At most {@code lookAhead} migrations following the current one are scheduled, so the number of scripts that have
+ * been parsed but not executed yet stays bounded.
+ * <p>
+ * Parse errors are not reported here. A script that could not be parsed remains unparsed and is parsed again (and
+ * fails again) when its migration is executed, which makes the error surface at the right migration.
+ * <p>
+ * In addition, {@link #parseAll(List)} parses all pending scripts up front, so that parse errors are reported before
+ * any migration is applied. Scripts parsed this way are not scheduled again by {@link #parseAhead(List, int)}.
+ */
+final class BackgroundScriptParser implements AutoCloseable {
+    private static final Log LOG = Log.getLog(BackgroundScriptParser.class);
+
+    private final int lookAhead;
+    private final Set<SqlMigrationExecutor> scheduled = Collections.newSetFromMap(new IdentityHashMap<>());
+    private @Nullable ExecutorService executorService;
+
+    BackgroundScriptParser(int lookAhead) {
+        this.lookAhead = lookAhead;
+    }
+
+    /**
+     * Schedules parsing of the SQL migrations in {@code pending} starting at index {@code from}, up to the configured
+     * look-ahead. Migrations that have already been scheduled are skipped.
+     */
+    void parseAhead(List<MigrationInfo> pending, int from) {
+        int to = Math.min(pending.size(), from + lookAhead);
+        for (int i = from; i < to; i++) {
+            var resolvedMigration = pending.get(i).getResolvedMigration();
+            if (resolvedMigration == null || !(resolvedMigration.getExecutor() instanceof SqlMigrationExecutor)) {
+                continue;
+            }
+            var executor = (SqlMigrationExecutor) resolvedMigration.getExecutor();
+            if (scheduled.add(executor)) {
+                getExecutorService().execute(() -> parse(executor));
+            }
+        }
+    }
+
+    /**
+     * Parses the SQL scripts of all {@code pending} migrations in parallel and waits for them to finish.
+     *
+     * @throws MigrateDbException for the first migration in {@code pending} whose script can't be parsed. Exceptions
+     *                            that already are a {@link MigrateDbException} are rethrown as they are.
+     */
+    void parseAll(List<MigrationInfo> pending) {
+        List<MigrationInfo> sqlMigrations = new ArrayList<>();
+        for (var migrationInfo : pending) {
+            var resolvedMigration = migrationInfo.getResolvedMigration();
+            if (resolvedMigration != null && resolvedMigration.getExecutor() instanceof SqlMigrationExecutor &&
+                scheduled.add((SqlMigrationExecutor) resolvedMigration.getExecutor())) {
+                sqlMigrations.add(migrationInfo);
+            }
+        }
+        if (sqlMigrations.isEmpty()) {
+            return;
+        }
+
+        int threads = Math.min(sqlMigrations.size(), Runtime.getRuntime().availableProcessors());
+        var executorService = Executors.newFixedThreadPool(threads, daemonThreadFactory());
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (var migrationInfo : sqlMigrations) {
+                var executor = (SqlMigrationExecutor) migrationInfo.getResolvedMigration().getExecutor();
+                results.add(executorService.submit(executor::parseScript));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    results.get(i).get();
+                } catch (ExecutionException e) {
+                    var cause = e.getCause();
+                    if (cause instanceof MigrateDbException) {
+                        throw (MigrateDbException) cause;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new MigrateDbException("Unable to parse migration " + sqlMigrations.get(i).getScript() +
+                                                 ": " + cause.getMessage(), cause);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MigrateDbException("Interrupted while parsing pending migrations", e);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static void parse(SqlMigrationExecutor executor) {
+        try {
+            executor.parseScript();
+        } catch (RuntimeException e) {
+            LOG.debug("Background parsing of " + executor + " failed, deferring to its execution: " + e.getMessage());
+        }
+    }
+
+    private ExecutorService getExecutorService() {
+        if (executorService == null) {
+            executorService = Executors.newSingleThreadExecutor(daemonThreadFactory());
+        }
+        return executorService;
+    }
+
+    private static ThreadFactory daemonThreadFactory() {
+        return runnable -> {
+            var thread = new Thread(runnable, "migratedb-script-parser");
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void close() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+        }
+    }
+}
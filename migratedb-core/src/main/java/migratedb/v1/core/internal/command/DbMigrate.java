@@ -36,6 +36,9 @@ import migratedb.v1.core.internal.info.ValidationMatch;
 import migratedb.v1.core.internal.schemahistory.SchemaHistory;
 import migratedb.v1.core.internal.util.DateTimeUtils;
 import migratedb.v1.core.internal.util.ExceptionUtils;
+import migratedb.v1.core.internal.util.Metrics;
+import migratedb.v1.core.internal.util.Phases;
+import migratedb.v1.core.internal.util.OperationContext;
 import migratedb.v1.core.internal.util.StopWatch;
 import migratedb.v1.core.internal.util.StringUtils;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -68,6 +71,10 @@ public class DbMigrate {
      */
     private boolean isPreviousVersioned;
     private final List<ResolvedMigration> appliedResolvedMigrations = new ArrayList<>();
+    /**
+     * Parses the scripts of upcoming migrations while the current one is being executed.
+     */
+    private final BackgroundScriptParser backgroundScriptParser;
 
     public DbMigrate(Database database,
                      SchemaHistory schemaHistory,
@@ -82,6 +89,7 @@ public class DbMigrate {
         this.migrationResolver = migrationResolver;
         this.configuration = configuration;
         this.callbackExecutor = callbackExecutor;
+        this.backgroundScriptParser = new BackgroundScriptParser(configuration.getParseLookAhead());
     }
 
     /**
@@ -93,7 +101,13 @@ public class DbMigrate {
         migrateResult = CommandResultFactory.createMigrateResult(database.getCatalog(), configuration);
 
         int count;
+        OperationContext.migrateStarted();
         try {
+            if (configuration.isPreParseOnMigrate()) {
+                // Fail on unparseable scripts before the lock is taken and any migration is applied
+                backgroundScriptParser.parseAll(Arrays.asList(createInfoService().pending()));
+            }
+
             StopWatch stopWatch = new StopWatch();
             stopWatch.start();
 
@@ -113,7 +127,19 @@ public class DbMigrate {
             logSummary(count, stopWatch.getTotalTimeMillis(), migrateResult.targetSchemaVersion);
         } catch (MigrateDbException e) {
             callbackExecutor.onMigrateEvent(Event.AFTER_MIGRATE_ERROR);
+            if (e.getErrorCode() == ErrorCode.TIMEOUT) {
+                migrateResult.timeout = e.getMessage();
+                migrateResult.migrationsExecuted = migrateResult.migrations.size();
+                throw new MigrateDbTimeoutException(e.getMessage(), e, migrateResult);
+            }
             throw e;
+        } finally {
+            var statementProfiler = OperationContext.migrateFinished();
+            if (statementProfiler != null) {
+                migrateResult.slowestStatements = statementProfiler.getSlowest();
+                statementProfiler.logSummary();
+            }
+            backgroundScriptParser.close();
         }
 
         if (count > 0) {
@@ -171,18 +197,7 @@ public class DbMigrate {
      * @return The number of newly applied migrations.
      */
     private Integer migrateGroup(boolean firstRun) {
-        var allowedMatches = EnumSet.allOf(ValidationMatch.class);
-        if (!configuration.isOutOfOrder()) {
-            allowedMatches.remove(ValidationMatch.OUT_OF_ORDER);
-        }
-        var infoService = new MigrationInfoServiceImpl(migrationResolver,
-                                                       schemaHistory,
-                                                       database,
-                                                       configuration,
-                                                       configuration.getTarget(),
-                                                       configuration.getCherryPick(),
-                                                       new ValidationContext(allowedMatches));
-        infoService.refresh();
+        var infoService = createInfoService();
 
         var current = infoService.current();
         var currentSchemaVersion = current == null ? null : current.getVersion();
@@ -238,12 +253,15 @@ public class DbMigrate {
             }
         }
 
-        Map<MigrationInfo, Boolean> group = new LinkedHashMap<>();
+        List<MigrationInfo> pending = new ArrayList<>();
         for (MigrationInfo pendingMigration : infoService.pending()) {
-            if (appliedResolvedMigrations.contains(pendingMigration.getResolvedMigration())) {
-                continue;
+            if (!appliedResolvedMigrations.contains(pendingMigration.getResolvedMigration())) {
+                pending.add(pendingMigration);
             }
+        }
 
+        Map<MigrationInfo, Boolean> group = new LinkedHashMap<>();
+        for (MigrationInfo pendingMigration : pending) {
             boolean isOutOfOrder = isOutOfOrder(pendingMigration, currentSchemaVersion);
 
             group.put(pendingMigration, isOutOfOrder);
@@ -254,13 +272,32 @@ public class DbMigrate {
             }
         }
 
+        OperationContext.migrationsPending(pending.size());
         if (!group.isEmpty()) {
+            // The first migration is parsed by this thread right away, so start with the ones after it
+            backgroundScriptParser.parseAhead(pending, 1);
             boolean skipExecutingMigrations = configuration.isSkipExecutingMigrations();
-            applyMigrations(group, skipExecutingMigrations);
+            applyMigrations(group, pending, skipExecutingMigrations);
         }
         return group.size();
     }
 
+    private MigrationInfoServiceImpl createInfoService() {
+        var allowedMatches = EnumSet.allOf(ValidationMatch.class);
+        if (!configuration.isOutOfOrder()) {
+            allowedMatches.remove(ValidationMatch.OUT_OF_ORDER);
+        }
+        var infoService = new MigrationInfoServiceImpl(migrationResolver,
+                                                       schemaHistory,
+                                                       database,
+                                                       configuration,
+                                                       configuration.getTarget(),
+                                                       configuration.getCherryPick(),
+                                                       new ValidationContext(allowedMatches));
+        infoService.refresh();
+        return infoService;
+    }
+
     private boolean isOutOfOrder(MigrationInfo pendingMigration, @Nullable Version currentSchemaVersion) {
         var pendingVersion = pendingMigration.getVersion();
         if (pendingVersion == null) {
@@ -286,24 +323,30 @@ public class DbMigrate {
     /**
      * Applies this migration to the database. The migration state and the execution time are updated accordingly.
      */
-    private void applyMigrations(Map<MigrationInfo, Boolean> group, boolean skipExecutingMigrations) {
+    private void applyMigrations(Map<MigrationInfo, Boolean> group,
+                                 List<MigrationInfo> pending,
+                                 boolean skipExecutingMigrations) {
         boolean executeGroupInTransaction = isExecuteGroupInTransaction(group);
         StopWatch stopWatch = new StopWatch();
         try {
             if (executeGroupInTransaction) {
                 createExecutionTemplate(session.getJdbcConnection(), database)
                         .execute(() -> {
-                            doMigrateGroup(group, stopWatch, skipExecutingMigrations, true);
+                            doMigrateGroup(group, pending, stopWatch, skipExecutingMigrations, true);
                             return null;
                         });
             } else {
-                doMigrateGroup(group, stopWatch, skipExecutingMigrations, false);
+                doMigrateGroup(group, pending, stopWatch, skipExecutingMigrations, false);
             }
         } catch (MigrateDbMigrateException e) {
             MigrationInfo migration = e.getMigration();
             var resolvedMigration = migration.getResolvedMigration();
             assert resolvedMigration != null;
-            String failedMsg = "Migration of " + toMigrationText(migration, e.isOutOfOrder()) + " failed!";
+            var operation = OperationContext.current();
+            boolean cancelled = operation != null && operation.isCancelled();
+            String failedMsg = "Migration of " + toMigrationText(migration, e.isOutOfOrder()) +
+                               (!cancelled ? " failed!" :
+                                OperationContext.currentTimeout() != null ? " timed out!" : " was cancelled!");
             if (database.supportsDdlTransactions() && executeGroupInTransaction) {
                 LOG.error(failedMsg + " Changes successfully rolled back.");
             } else {
@@ -319,6 +362,9 @@ public class DbMigrate {
                                                   executionTime,
                                                   false);
             }
+            if (cancelled) {
+                throw operation.newCancelledException(e);
+            }
             throw e;
         }
     }
@@ -355,7 +401,7 @@ public class DbMigrate {
         return executeGroupInTransaction;
     }
 
-    private void doMigrateGroup(Map<MigrationInfo, Boolean> group, StopWatch stopWatch,
+    private void doMigrateGroup(Map<MigrationInfo, Boolean> group, List<MigrationInfo> pending, StopWatch stopWatch,
                                 boolean skipExecutingMigrations, boolean isExecuteInTransaction) {
         Context context = new Context() {
             @Override
@@ -369,12 +415,18 @@ public class DbMigrate {
             }
         };
 
+        int index = 0;
         for (var entry : group.entrySet()) {
             var migrationInfo = entry.getKey();
             var resolvedMigration = migrationInfo.getResolvedMigration();
             assert resolvedMigration != null;
             boolean isOutOfOrder = entry.getValue();
 
+            OperationContext.checkCancelled();
+
+            // The group is a prefix of the pending migrations
+            backgroundScriptParser.parseAhead(pending, ++index);
+
             String migrationText = toMigrationText(migrationInfo, isOutOfOrder);
 
             stopWatch.start();
@@ -405,7 +457,19 @@ public class DbMigrate {
                         if (database.usesSingleSession() && !isExecuteInTransaction) {
                             context.getConnection().setAutoCommit(true);
                         }
-                        resolvedMigration.getExecutor().execute(context);
+                        var metrics = Metrics.current();
+                        long executionStart = Metrics.start(metrics);
+                        OperationContext.migrationStarted(migrationText);
+                        try (var ignored = Phases.start(MigrateDbPhaseListener.Phase.MIGRATION,
+                                                        "version",
+                                                        migrationInfo.getVersion(),
+                                                        "description",
+                                                        migrationInfo.getDescription())) {
+                            resolvedMigration.getExecutor().execute(context);
+                        } finally {
+                            OperationContext.migrationFinished();
+                            Metrics.stop(metrics, MigrateDbMetrics.Timer.MIGRATION, executionStart);
+                        }
                         if (database.usesSingleSession() && !isExecuteInTransaction) {
                             context.getConnection().setAutoCommit(oldAutoCommit);
                         }
@@ -438,6 +502,7 @@ public class DbMigrate {
                                               resolvedMigration.getChecksum(),
                                               executionTime,
                                               true);
+            OperationContext.migrationCompleted();
         }
     }
 
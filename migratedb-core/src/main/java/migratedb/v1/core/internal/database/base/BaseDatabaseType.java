@@ -34,6 +34,7 @@ import migratedb.v1.core.internal.jdbc.JdbcUtils;
 import migratedb.v1.core.internal.jdbc.TransactionalExecutionTemplate;
 import migratedb.v1.core.internal.parser.BaseParser;
 import migratedb.v1.core.internal.sqlscript.DefaultSqlScriptExecutor;
+import migratedb.v1.core.internal.sqlscript.ParsedScriptCache;
 import migratedb.v1.core.internal.sqlscript.ParserSqlScript;
 import migratedb.v1.core.internal.sqlscript.SqlScriptMetadataImpl;
 
@@ -104,13 +105,15 @@ public abstract class BaseDatabaseType implements DatabaseType {
 
     @Override
     public SqlScriptFactory createSqlScriptFactory(Configuration configuration, ParsingContext parsingContext) {
+        var parsedScriptCache = ParsedScriptCache.create(configuration);
         return (resource, mixed, resourceProvider) ->
                 new ParserSqlScript(createParser(configuration,
                                                  resourceProvider,
                                                  parsingContext),
                                     resource,
                                     SqlScriptMetadataImpl.getMetadataResource(resourceProvider, resource),
-                                    mixed);
+                                    mixed,
+                                    parsedScriptCache);
     }
 
     @Override
@@ -22,17 +22,18 @@ import migratedb.v1.core.internal.parser.*;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.regex.Pattern;
 
 import static java.lang.Character.isDigit;
 
 public class MySQLParser extends BaseParser {
     private static final char ALTERNATIVE_SINGLE_LINE_COMMENT = '#';
 
-    private static final Pattern STORED_PROGRAM_REGEX = Pattern.compile(
-        "^CREATE\\s(((DEFINER\\s@\\s)?(PROCEDURE|FUNCTION|EVENT))|TRIGGER)", Pattern.CASE_INSENSITIVE);
     private static final StatementType STORED_PROGRAM_STATEMENT = new StatementType();
 
+    protected static final KeywordRules<StatementType> STATEMENT_TYPE_RULES = KeywordRules.<StatementType>builder()
+        .rule("CREATE ([DEFINER @] (PROCEDURE|FUNCTION|EVENT)|TRIGGER)", STORED_PROGRAM_STATEMENT)
+        .build();
+
     public MySQLParser(Configuration configuration, ParsingContext parsingContext) {
         super(configuration, parsingContext, 8);
     }
@@ -112,13 +113,8 @@ public class MySQLParser extends BaseParser {
     }
 
     @Override
-    protected StatementType detectStatementType(String simplifiedStatement, ParserContext context,
-                                                PeekingReader reader) {
-        if (STORED_PROGRAM_REGEX.matcher(simplifiedStatement).matches()) {
-            return STORED_PROGRAM_STATEMENT;
-        }
-
-        return super.detectStatementType(simplifiedStatement, context, reader);
+    protected KeywordRules<StatementType> getStatementTypeRules() {
+        return STATEMENT_TYPE_RULES;
     }
 
     @Override
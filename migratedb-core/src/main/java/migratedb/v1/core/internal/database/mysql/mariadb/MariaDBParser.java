@@ -19,31 +19,30 @@ package migratedb.v1.core.internal.database.mysql.mariadb;
 import migratedb.v1.core.api.configuration.Configuration;
 import migratedb.v1.core.api.internal.parser.ParsingContext;
 import migratedb.v1.core.internal.database.mysql.MySQLParser;
+import migratedb.v1.core.internal.parser.KeywordRules;
 import migratedb.v1.core.internal.parser.ParserContext;
 import migratedb.v1.core.internal.parser.PeekingReader;
 import migratedb.v1.core.internal.parser.StatementType;
 import migratedb.v1.core.internal.parser.Token;
 
 import java.util.List;
-import java.util.regex.Pattern;
 
 public class MariaDBParser extends MySQLParser {
-    private static final Pattern BEGIN_NOT_ATOMIC_REGEX = Pattern.compile(
-        "^BEGIN\\sNOT\\sATOMIC\\s.*END", Pattern.CASE_INSENSITIVE);
     private static final StatementType BEGIN_NOT_ATOMIC_STATEMENT = new StatementType();
 
+    private static final KeywordRules<StatementType> MARIADB_STATEMENT_TYPE_RULES =
+        KeywordRules.<StatementType>builder()
+                    .rule("BEGIN NOT ATOMIC {*} END", BEGIN_NOT_ATOMIC_STATEMENT)
+                    .rules(STATEMENT_TYPE_RULES)
+                    .build();
+
     public MariaDBParser(Configuration configuration, ParsingContext parsingContext) {
         super(configuration, parsingContext);
     }
 
     @Override
-    protected StatementType detectStatementType(String simplifiedStatement, ParserContext context,
-                                                PeekingReader reader) {
-        if (BEGIN_NOT_ATOMIC_REGEX.matcher(simplifiedStatement).matches()) {
-            return BEGIN_NOT_ATOMIC_STATEMENT;
-        }
-
-        return super.detectStatementType(simplifiedStatement, context, reader);
+    protected KeywordRules<StatementType> getStatementTypeRules() {
+        return MARIADB_STATEMENT_TYPE_RULES;
     }
 
     @Override
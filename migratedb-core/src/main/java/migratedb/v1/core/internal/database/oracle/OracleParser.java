@@ -52,27 +52,27 @@ public class OracleParser extends BaseParser {
         "^CREATE(\\s*OR\\s*REPLACE)?(\\s*(NON)?EDITIONABLE)?\\s*PACKAGE\\s([^\\s*]*\\s*)?(AUTHID\\s*[^\\s*]*\\s*|" +
         ACCESSIBLE_BY_REGEX + ")*(IS|AS)");
 
-    private static final Pattern PLSQL_VIEW_REGEX = Pattern.compile(
-            "^CREATE(\\sOR\\sREPLACE)?(\\s(NON)?EDITIONABLE)?\\sVIEW\\s(\\S*\\s)?AS\\sWITH\\s(PROCEDURE|FUNCTION)");
     private static final StatementType PLSQL_VIEW_STATEMENT = new StatementType();
-
-    private static final Pattern PLSQL_REGEX = Pattern.compile(
-        "^CREATE(\\sOR\\sREPLACE)?(\\s(NON)?EDITIONABLE)?\\s(FUNCTION(\\s\\S*)|PROCEDURE|TYPE|TRIGGER)");
-    private static final Pattern DECLARE_BEGIN_REGEX = Pattern.compile("^DECLARE|BEGIN|WITH");
     private static final StatementType PLSQL_STATEMENT = new StatementType();
-
-    private static final Pattern JAVA_REGEX = Pattern.compile(
-        "^CREATE(\\sOR\\sREPLACE)?(\\sAND\\s(RESOLVE|COMPILE))?(\\sNOFORCE)?\\sJAVA\\s(SOURCE|RESOURCE|CLASS)");
     private static final StatementType PLSQL_JAVA_STATEMENT = new StatementType();
-
-    private static final Pattern PLSQL_PACKAGE_BODY_WRAPPED_REGEX = Pattern.compile(
-        "^CREATE(\\sOR\\sREPLACE)?(\\s(NON)?EDITIONABLE)?\\sPACKAGE\\sBODY(\\s\\S*)?\\sWRAPPED(\\s\\S*)*");
-    private static final Pattern PLSQL_PACKAGE_DEFINITION_WRAPPED_REGEX = Pattern.compile(
-        "^CREATE(\\sOR\\sREPLACE)?(\\s(NON)?EDITIONABLE)?\\sPACKAGE(\\s\\S*)?\\sWRAPPED(\\s\\S*)*");
-    private static final Pattern PLSQL_WRAPPED_REGEX = Pattern.compile(
-        "^CREATE(\\sOR\\sREPLACE)?(\\s(NON)?EDITIONABLE)?\\s(FUNCTION|PROCEDURE|TYPE)(\\s\\S*)?\\sWRAPPED(\\s\\S*)*");
-
     private static final StatementType PLSQL_WRAPPED_STATEMENT = new StatementType();
+
+    private static final String CREATE_OR_REPLACE_EDITIONABLE =
+        "CREATE [OR REPLACE] [(EDITIONABLE|NONEDITIONABLE)]";
+
+    private static final KeywordRules<StatementType> STATEMENT_TYPE_RULES = KeywordRules.<StatementType>builder()
+        .rule(CREATE_OR_REPLACE_EDITIONABLE + " PACKAGE BODY [*] WRAPPED {*}", PLSQL_WRAPPED_STATEMENT)
+        .rule(CREATE_OR_REPLACE_EDITIONABLE + " PACKAGE [*] WRAPPED {*}", PLSQL_WRAPPED_STATEMENT)
+        .rule(CREATE_OR_REPLACE_EDITIONABLE + " (FUNCTION|PROCEDURE|TYPE) [*] WRAPPED {*}", PLSQL_WRAPPED_STATEMENT)
+        .rule(CREATE_OR_REPLACE_EDITIONABLE + " PACKAGE BODY [*] (IS|AS)", PLSQL_PACKAGE_BODY_STATEMENT)
+        .rule(CREATE_OR_REPLACE_EDITIONABLE + " (FUNCTION *|PROCEDURE|TYPE|TRIGGER)", PLSQL_STATEMENT)
+        .rule(CREATE_OR_REPLACE_EDITIONABLE + " PACKAGE [*] " +
+              "{AUTHID [*]|ACCESSIBLE BY {(FUNCTION|PROCEDURE|PACKAGE|TRIGGER|TYPE) *}} (IS|AS)", PLSQL_STATEMENT)
+        .rule("(DECLARE|BEGIN|WITH)", PLSQL_STATEMENT)
+        .rule("CREATE [OR REPLACE] [AND (RESOLVE|COMPILE)] [NOFORCE] JAVA (SOURCE|RESOURCE|CLASS)",
+              PLSQL_JAVA_STATEMENT)
+        .rule(CREATE_OR_REPLACE_EDITIONABLE + " VIEW [*] AS WITH (PROCEDURE|FUNCTION)", PLSQL_VIEW_STATEMENT)
+        .build();
     private int initialWrappedBlockDepth = -1;
 
     public OracleParser(Configuration configuration
@@ -108,44 +108,33 @@ public class OracleParser extends BaseParser {
         );
     }
 
+    @Override
+    protected KeywordRules<StatementType> getStatementTypeRules() {
+        return STATEMENT_TYPE_RULES;
+    }
+
     @Override
     protected StatementType detectStatementType(String simplifiedStatement, ParserContext context,
                                                 PeekingReader reader) {
-        if (PLSQL_PACKAGE_BODY_WRAPPED_REGEX.matcher(simplifiedStatement).matches()
-            || PLSQL_PACKAGE_DEFINITION_WRAPPED_REGEX.matcher(simplifiedStatement).matches()
-            || PLSQL_WRAPPED_REGEX.matcher(simplifiedStatement).matches()) {
+        StatementType statementType = super.detectStatementType(simplifiedStatement, context, reader);
+
+        if (statementType == PLSQL_WRAPPED_STATEMENT) {
             if (initialWrappedBlockDepth == -1) {
                 initialWrappedBlockDepth = context.getBlockDepth();
             }
-            return PLSQL_WRAPPED_STATEMENT;
-        }
-
-        if (PLSQL_PACKAGE_BODY_REGEX.matcher(simplifiedStatement).matches()) {
-            return PLSQL_PACKAGE_BODY_STATEMENT;
-        }
-
-        if (PLSQL_REGEX.matcher(simplifiedStatement).matches()
-            || PLSQL_PACKAGE_DEFINITION_REGEX.matcher(simplifiedStatement).matches()
-            || DECLARE_BEGIN_REGEX.matcher(simplifiedStatement).matches()) {
+        } else if (statementType == PLSQL_STATEMENT) {
             try {
                 String wrappedKeyword = " WRAPPED";
-                if (!reader.peek(wrappedKeyword.length()).equalsIgnoreCase(wrappedKeyword)) {
-                    return PLSQL_STATEMENT;
+                if (reader.peek(wrappedKeyword.length()).equalsIgnoreCase(wrappedKeyword)) {
+                    // Will be detected as a wrapped statement once the WRAPPED keyword has been read
+                    return StatementType.UNKNOWN;
                 }
             } catch (IOException e) {
                 return PLSQL_STATEMENT;
             }
         }
 
-        if (JAVA_REGEX.matcher(simplifiedStatement).matches()) {
-            return PLSQL_JAVA_STATEMENT;
-        }
-
-        if (PLSQL_VIEW_REGEX.matcher(simplifiedStatement).matches()) {
-            return PLSQL_VIEW_STATEMENT;
-        }
-
-        return super.detectStatementType(simplifiedStatement, context, reader);
+        return statementType;
     }
 
     @Override
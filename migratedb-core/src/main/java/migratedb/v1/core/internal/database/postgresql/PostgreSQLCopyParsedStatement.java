@@ -54,6 +54,10 @@ public class PostgreSQLCopyParsedStatement extends ParsedSqlStatement {
         this.copyData = copyData;
     }
 
+    public String getCopyData() {
+        return copyData;
+    }
+
     @Override
     public Results execute(JdbcTemplate jdbcTemplate
 
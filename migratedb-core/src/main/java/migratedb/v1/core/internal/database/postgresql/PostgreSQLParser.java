@@ -19,27 +19,37 @@ package migratedb.v1.core.internal.database.postgresql;
 import migratedb.v1.core.api.configuration.Configuration;
 import migratedb.v1.core.api.internal.parser.ParsingContext;
 import migratedb.v1.core.api.internal.sqlscript.Delimiter;
+import migratedb.v1.core.api.internal.sqlscript.SqlStatement;
+import migratedb.v1.core.api.internal.sqlscript.SqlStatementIterator;
 import migratedb.v1.core.internal.parser.*;
+import migratedb.v1.core.internal.resource.StringResource;
 import migratedb.v1.core.internal.sqlscript.ParsedSqlStatement;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
 
 public class PostgreSQLParser extends BaseParser {
-    private static final Pattern COPY_FROM_STDIN_REGEX = Pattern.compile("^COPY( .*)? FROM STDIN");
-    private static final Pattern CREATE_DATABASE_TABLESPACE_SUBSCRIPTION_REGEX = Pattern.compile(
-        "^(CREATE|DROP) (DATABASE|TABLESPACE|SUBSCRIPTION)");
-    private static final Pattern ALTER_SYSTEM_REGEX = Pattern.compile("^ALTER SYSTEM");
-    private static final Pattern CREATE_INDEX_CONCURRENTLY_REGEX = Pattern.compile(
-        "^(CREATE|DROP)( UNIQUE)? INDEX CONCURRENTLY");
-    private static final Pattern REINDEX_REGEX = Pattern.compile("^REINDEX( VERBOSE)? (SCHEMA|DATABASE|SYSTEM)");
-    private static final Pattern VACUUM_REGEX = Pattern.compile("^VACUUM");
-    private static final Pattern DISCARD_ALL_REGEX = Pattern.compile("^DISCARD ALL");
-    private static final Pattern ALTER_TYPE_ADD_VALUE_REGEX = Pattern.compile("^ALTER TYPE( .*)? ADD VALUE");
-
     private static final StatementType COPY = new StatementType();
 
+    private static final KeywordRules<StatementType> STATEMENT_TYPE_RULES = KeywordRules.<StatementType>builder()
+        .rule("COPY {*} FROM STDIN", COPY)
+        .build();
+
+    private static final KeywordRules<Boolean> NON_TRANSACTIONAL_RULES = KeywordRules.<Boolean>builder()
+        .rule("(CREATE|DROP) (DATABASE|TABLESPACE|SUBSCRIPTION)", false)
+        .rule("ALTER SYSTEM", false)
+        .rule("(CREATE|DROP) [UNIQUE] INDEX CONCURRENTLY", false)
+        .rule("REINDEX [VERBOSE] (SCHEMA|DATABASE|SYSTEM)", false)
+        .rule("VACUUM", false)
+        .rule("DISCARD ALL", false)
+        .build();
+
+    private static final KeywordRules<Boolean> NON_TRANSACTIONAL_RULES_BEFORE_12 = KeywordRules.<Boolean>builder()
+        .rules(NON_TRANSACTIONAL_RULES)
+        .rule("ALTER TYPE {*} ADD VALUE", false)
+        .build();
+
     public PostgreSQLParser(Configuration configuration, ParsingContext parsingContext) {
         super(configuration, parsingContext, 3);
     }
@@ -88,37 +98,56 @@ public class PostgreSQLParser extends BaseParser {
     }
 
     @Override
-    protected StatementType detectStatementType(String simplifiedStatement, ParserContext context,
-                                                PeekingReader reader) {
-        if (COPY_FROM_STDIN_REGEX.matcher(simplifiedStatement).matches()) {
-            return COPY;
-        }
+    protected KeywordRules<StatementType> getStatementTypeRules() {
+        return STATEMENT_TYPE_RULES;
+    }
 
-        return super.detectStatementType(simplifiedStatement, context, reader);
+    @Override
+    protected KeywordRules<Boolean> getCanExecuteInTransactionRules() {
+        return isDatabaseVersionUnder12() ? NON_TRANSACTIONAL_RULES_BEFORE_12 : NON_TRANSACTIONAL_RULES;
     }
 
+    /**
+     * Statements are parsed ahead of time without a database connection, so with the rules for servers before 12. Newer
+     * servers only differ in allowing more statements within a transaction, so only statements that were found to be
+     * non-transactional need to be classified again.
+     */
     @Override
-    protected Boolean detectCanExecuteInTransaction(String simplifiedStatement, List<Token> keywords) {
-        if (CREATE_DATABASE_TABLESPACE_SUBSCRIPTION_REGEX.matcher(simplifiedStatement).matches()
-            || ALTER_SYSTEM_REGEX.matcher(simplifiedStatement).matches()
-            || CREATE_INDEX_CONCURRENTLY_REGEX.matcher(simplifiedStatement).matches()
-            || REINDEX_REGEX.matcher(simplifiedStatement).matches()
-            || VACUUM_REGEX.matcher(simplifiedStatement).matches()
-            || DISCARD_ALL_REGEX.matcher(simplifiedStatement).matches()) {
-            return false;
+    public List<SqlStatement> adaptPreParsedStatements(List<SqlStatement> statements) {
+        if (isDatabaseVersionUnder12()) {
+            return statements;
+        }
+        List<SqlStatement> result = new ArrayList<>(statements.size());
+        for (var statement : statements) {
+            if (!statement.canExecuteInTransaction() && statement.getClass() == ParsedSqlStatement.class &&
+                canExecuteInTransaction(statement.getSql())) {
+                var parsed = (ParsedSqlStatement) statement;
+                statement = new ParsedSqlStatement(parsed.getPos(), parsed.getLine(), parsed.getCol(), parsed.getSql(),
+                                                   parsed.getParsedDelimiter(), true);
+            }
+            result.add(statement);
         }
+        return result;
+    }
 
-        boolean isDBVerUnder12 = true;
+    private boolean canExecuteInTransaction(String sql) {
+        try (SqlStatementIterator statements = parse(new StringResource("pre-parsed statement", sql))) {
+            return !statements.hasNext() || statements.next().canExecuteInTransaction();
+        }
+    }
+
+    private boolean isDatabaseVersionUnder12() {
         try {
-            isDBVerUnder12 = !getParsingContext().getDatabase().getVersion().isAtLeast("12");
+            return !getParsingContext().getDatabase().getVersion().isAtLeast("12");
         } catch (RuntimeException e) {
             LOG.debug("Unable to determine database version: " + e.getMessage());
+            return true;
         }
+    }
 
-        if (isDBVerUnder12 && ALTER_TYPE_ADD_VALUE_REGEX.matcher(simplifiedStatement).matches()) {
-            return false;
-        }
-
+    @Override
+    protected Boolean detectCanExecuteInTransaction(String simplifiedStatement, List<Token> keywords) {
+        // Statements that are not matched by the non-transactional rules are decided at the end of the statement
         return null;
     }
 
@@ -22,14 +22,15 @@ import migratedb.v1.core.internal.parser.*;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.regex.Pattern;
 
 public class RedshiftParser extends BaseParser {
-    private static final Pattern CREATE_LIBRARY_REGEX = Pattern.compile("^(CREATE|DROP) LIBRARY");
-    private static final Pattern CREATE_EXTERNAL_TABLE_REGEX = Pattern.compile("^CREATE EXTERNAL TABLE");
-    private static final Pattern VACUUM_REGEX = Pattern.compile("^VACUUM");
-    private static final Pattern ALTER_TABLE_APPEND_FROM_REGEX = Pattern.compile("^ALTER TABLE( .*)? APPEND FROM");
-    private static final Pattern ALTER_TABLE_ALTER_COLUMN_REGEX = Pattern.compile("^ALTER TABLE( .*)? ALTER COLUMN");
+    private static final KeywordRules<Boolean> NON_TRANSACTIONAL_RULES = KeywordRules.<Boolean>builder()
+        .rule("(CREATE|DROP) LIBRARY", false)
+        .rule("CREATE EXTERNAL TABLE", false)
+        .rule("VACUUM", false)
+        .rule("ALTER TABLE {*} APPEND FROM", false)
+        .rule("ALTER TABLE {*} ALTER COLUMN", false)
+        .build();
 
     public RedshiftParser(Configuration configuration, ParsingContext parsingContext) {
         super(configuration, parsingContext, 3);
@@ -41,15 +42,13 @@ public class RedshiftParser extends BaseParser {
     }
 
     @Override
-    protected Boolean detectCanExecuteInTransaction(String simplifiedStatement, List<Token> keywords) {
-        if (CREATE_LIBRARY_REGEX.matcher(simplifiedStatement).matches()
-            || CREATE_EXTERNAL_TABLE_REGEX.matcher(simplifiedStatement).matches()
-            || VACUUM_REGEX.matcher(simplifiedStatement).matches()
-            || ALTER_TABLE_APPEND_FROM_REGEX.matcher(simplifiedStatement).matches()
-            || ALTER_TABLE_ALTER_COLUMN_REGEX.matcher(simplifiedStatement).matches()) {
-            return false;
-        }
+    protected KeywordRules<Boolean> getCanExecuteInTransactionRules() {
+        return NON_TRANSACTIONAL_RULES;
+    }
 
+    @Override
+    protected Boolean detectCanExecuteInTransaction(String simplifiedStatement, List<Token> keywords) {
+        // Statements that are not matched by the non-transactional rules are decided at the end of the statement
         return null;
     }
 
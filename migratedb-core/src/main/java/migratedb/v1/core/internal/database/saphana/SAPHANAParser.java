@@ -30,24 +30,19 @@ public class SAPHANAParser extends BaseParser {
         "^CREATE(\\sOR\\sREPLACE)?\\s(FUNCTION|PROCEDURE)");
 
     private static final StatementType ANONYMOUS_BLOCK_STATEMENT = new StatementType();
-    private static final Pattern ANONYMOUS_BLOCK_REGEX = Pattern.compile(
-        "^DO.*BEGIN");
+
+    private static final KeywordRules<StatementType> STATEMENT_TYPE_RULES = KeywordRules.<StatementType>builder()
+        .rule("CREATE [OR REPLACE] (FUNCTION|PROCEDURE)", FUNCTION_OR_PROCEDURE_STATEMENT)
+        .rule("DO {*} BEGIN", ANONYMOUS_BLOCK_STATEMENT)
+        .build();
 
     public SAPHANAParser(Configuration configuration, ParsingContext parsingContext) {
         super(configuration, parsingContext, 2);
     }
 
     @Override
-    protected StatementType detectStatementType(String simplifiedStatement, ParserContext context,
-                                                PeekingReader reader) {
-        if (FUNCTION_OR_PROCEDURE_REGEX.matcher(simplifiedStatement).matches()) {
-            return FUNCTION_OR_PROCEDURE_STATEMENT;
-        }
-        if (ANONYMOUS_BLOCK_REGEX.matcher(simplifiedStatement).matches()) {
-            return ANONYMOUS_BLOCK_STATEMENT;
-        }
-
-        return super.detectStatementType(simplifiedStatement, context, reader);
+    protected KeywordRules<StatementType> getStatementTypeRules() {
+        return STATEMENT_TYPE_RULES;
     }
 
     @Override
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.jfr;
+
+import jdk.jfr.*;
+import migratedb.v1.core.api.resource.Resource;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Java Flight Recorder events in the "MigrateDB" category. Each {@code begin...} method returns an event whose duration
+ * starts now, and the matching {@code end...} method commits it. Both accept {@code null}: if the {@code jdk.jfr}
+ * module is not present, no event is created and nothing is recorded. While no recording is running, the events are
+ * not committed and their fields are not computed, so they can stay in place in production.
+ * <p>
+ * The event classes are only loaded through this class, which checks for {@code jdk.jfr} first.
+ */
+public final class JfrEvents {
+    /**
+     * Longer SQL is truncated, so large scripts don't blow up recordings.
+     */
+    static final int MAX_SQL_LENGTH = 1000;
+
+    private static final boolean AVAILABLE = isAvailable();
+
+    private JfrEvents() {
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, JfrEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    public static @Nullable CommandEvent beginCommand() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        var event = new CommandEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endCommand(@Nullable CommandEvent event, String command, boolean success) {
+        if (event != null && event.shouldCommit()) {
+            event.command = command;
+            event.success = success;
+            event.commit();
+        }
+    }
+
+    public static @Nullable ScanEvent beginScan() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        var event = new ScanEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param prefix The resource name prefix, {@code null} for a class scan.
+     */
+    public static void endScan(@Nullable ScanEvent event, @Nullable String prefix, int found) {
+        if (event != null && event.shouldCommit()) {
+            event.prefix = prefix;
+            event.classes = prefix == null;
+            event.found = found;
+            event.commit();
+        }
+    }
+
+    public static @Nullable ChecksumEvent beginChecksum() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        var event = new ChecksumEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endChecksum(@Nullable ChecksumEvent event, Collection<Resource> resources, long bytes) {
+        if (event != null && event.shouldCommit()) {
+            event.resources = resources.stream().map(Resource::getName).collect(Collectors.joining(", "));
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    public static @Nullable ParseEvent beginParse() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        var event = new ParseEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endParse(@Nullable ParseEvent event, String script, int statements, boolean preParsed) {
+        if (event != null && event.shouldCommit()) {
+            event.script = script;
+            event.statements = statements;
+            event.preParsed = preParsed;
+            event.commit();
+        }
+    }
+
+    public static @Nullable LockWaitEvent beginLockWait() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        var event = new LockWaitEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endLockWait(@Nullable LockWaitEvent event, Object table) {
+        if (event != null && event.shouldCommit()) {
+            event.table = table.toString();
+            event.commit();
+        }
+    }
+
+    public static @Nullable LockHoldEvent beginLockHold() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        var event = new LockHoldEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endLockHold(@Nullable LockHoldEvent event, Object table) {
+        if (event != null && event.shouldCommit()) {
+            event.table = table.toString();
+            event.commit();
+        }
+    }
+
+    public static @Nullable HistoryQueryEvent beginHistoryQuery() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        var event = new HistoryQueryEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endHistoryQuery(@Nullable HistoryQueryEvent event, Object table, int rows) {
+        if (event != null && event.shouldCommit()) {
+            event.table = table.toString();
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
+    public static @Nullable StatementEvent beginStatement() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        var event = new StatementEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endStatement(@Nullable StatementEvent event,
+                                    String script,
+                                    int line,
+                                    String sql,
+                                    boolean success) {
+        if (event != null && event.shouldCommit()) {
+            event.script = script;
+            event.line = line;
+            event.sql = sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+            event.success = success;
+            event.commit();
+        }
+    }
+
+    @Name("migratedb.Command")
+    @Label("Command")
+    @Category("MigrateDB")
+    @Description("Execution of a MigrateDB command, e.g. migrate")
+    @StackTrace(false)
+    public static final class CommandEvent extends Event {
+        @Label("Command")
+        String command;
+        @Label("Success")
+        boolean success;
+    }
+
+    @Name("migratedb.Scan")
+    @Label("Location Scan")
+    @Category("MigrateDB")
+    @Description("Listing the resources or classes of the configured locations")
+    @StackTrace(false)
+    public static final class ScanEvent extends Event {
+        @Label("Prefix")
+        @Nullable String prefix;
+        @Label("Classes")
+        boolean classes;
+        @Label("Found")
+        int found;
+    }
+
+    @Name("migratedb.Checksum")
+    @Label("Checksum Calculation")
+    @Category("MigrateDB")
+    @Description("Hashing the content of a migration")
+    @StackTrace(false)
+    public static final class ChecksumEvent extends Event {
+        @Label("Resources")
+        String resources;
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("migratedb.Parse")
+    @Label("Script Parsing")
+    @Category("MigrateDB")
+    @Description("Splitting an SQL script into statements")
+    @StackTrace(false)
+    public static final class ParseEvent extends Event {
+        @Label("Script")
+        String script;
+        @Label("Statements")
+        int statements;
+        @Label("Pre-Parsed")
+        @Description("Whether the statements came from a statement bundle or the parse cache")
+        boolean preParsed;
+    }
+
+    @Name("migratedb.LockWait")
+    @Label("Lock Wait")
+    @Category("MigrateDB")
+    @Description("Waiting for the lock on the schema history table")
+    @StackTrace(false)
+    public static final class LockWaitEvent extends Event {
+        @Label("Table")
+        String table;
+    }
+
+    @Name("migratedb.LockHold")
+    @Label("Lock Hold")
+    @Category("MigrateDB")
+    @Description("Holding the lock on the schema history table")
+    @StackTrace(false)
+    public static final class LockHoldEvent extends Event {
+        @Label("Table")
+        String table;
+    }
+
+    @Name("migratedb.HistoryQuery")
+    @Label("Schema History Query")
+    @Category("MigrateDB")
+    @Description("Reading applied migrations from the schema history table")
+    @StackTrace(false)
+    public static final class HistoryQueryEvent extends Event {
+        @Label("Table")
+        String table;
+        @Label("Rows")
+        @Description("Rows read, which excludes those that were cached")
+        int rows;
+    }
+
+    @Name("migratedb.Statement")
+    @Label("SQL Statement")
+    @Category("MigrateDB")
+    @Description("Execution of an SQL statement of a migration, callback or script")
+    @StackTrace(false)
+    public static final class StatementEvent extends Event {
+        @Label("Script")
+        String script;
+        @Label("Line")
+        int line;
+        @Label("SQL")
+        String sql;
+        @Label("Success")
+        boolean success;
+    }
+}
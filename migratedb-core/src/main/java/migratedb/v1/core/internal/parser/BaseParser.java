@@ -82,6 +82,23 @@ public abstract class BaseParser implements Parser {
         return parsingContext;
     }
 
+    /**
+     * @return Identifies the rules this parser applies. Statements that were parsed ahead of time are only reused by a
+     * parser with the same dialect key. Since they are parsed without a database connection, the key must not depend on
+     * the database version; see {@link #adaptPreParsedStatements(List)} for rules that do.
+     */
+    public String getDialectKey() {
+        return getClass().getName();
+    }
+
+    /**
+     * Adapts statements that were parsed ahead of time, without a database connection, to the database of this parser.
+     * Parsers whose rules depend on the database version recompute the affected statement properties here.
+     */
+    public List<SqlStatement> adaptPreParsedStatements(List<SqlStatement> statements) {
+        return statements;
+    }
+
     protected Delimiter getDefaultDelimiter() {
         return Delimiter.SEMICOLON;
     }
@@ -118,13 +135,15 @@ public abstract class BaseParser implements Parser {
     public final SqlStatementIterator parse(Resource resource, SqlScriptMetadata metadata) {
         PositionTracker tracker = new PositionTracker();
         Recorder recorder = new Recorder();
-        ParserContext context = new ParserContext(getDefaultDelimiter());
+        ParserContext context = new ParserContext(getDefaultDelimiter(),
+                                                  getStatementTypeRules(),
+                                                  getCanExecuteInTransactionRules());
 
         String filename = resource.getLastNameComponent();
         LOG.debug("Parsing " + filename + " ...");
 
         ResourceName result = new ResourceNameParser(configuration).parse(filename);
-        parsingContext.updateFilenamePlaceholder(result);
+        ParsingContext resourceParsingContext = parsingContext.forResource(result);
 
         var reader = resource.read(configuration.getEncoding());
         if (reader == null) {
@@ -135,7 +154,9 @@ public abstract class BaseParser implements Parser {
                                                                                                                  4096);
             var readAheadReader = new UnboundedReadAheadReader(bufferedReader);
             var bomStrippingReader = new BomStrippingReader(readAheadReader);
-            var placeholderReplacingReader = replacePlaceholders(bomStrippingReader, metadata);
+            var placeholderReplacingReader = replacePlaceholders(bomStrippingReader,
+                                                                 metadata,
+                                                                 resourceParsingContext);
             var positionTrackingReader = new PositionTrackingReader(tracker, placeholderReplacingReader);
             var recordingReader = new RecordingReader(recorder, positionTrackingReader);
             var peekingReader = new PeekingReader(recordingReader, supportsPeekingMultipleLines());
@@ -154,14 +175,17 @@ public abstract class BaseParser implements Parser {
     /**
      * Configures this reader for placeholder replacement.
      *
-     * @param reader   The original reader.
-     * @param metadata The resource's metadata.
+     * @param reader                 The original reader.
+     * @param metadata               The resource's metadata.
+     * @param resourceParsingContext The parsing context of the resource.
      *
      * @return The new reader with placeholder replacement.
      */
-    protected Reader replacePlaceholders(Reader reader, SqlScriptMetadata metadata) {
+    protected Reader replacePlaceholders(Reader reader,
+                                         SqlScriptMetadata metadata,
+                                         ParsingContext resourceParsingContext) {
         if (configuration.isPlaceholderReplacement() && (metadata == null || metadata.placeholderReplacement())) {
-            return PlaceholderReplacingReader.create(configuration, parsingContext, reader);
+            return PlaceholderReplacingReader.create(configuration, resourceParsingContext, reader);
         }
         return reader;
     }
@@ -170,6 +194,7 @@ public abstract class BaseParser implements Parser {
                                             PositionTracker tracker, ParserContext context) {
         resetDelimiter(context);
         context.setStatementType(StatementType.UNKNOWN);
+        context.resetKeywords();
 
         int statementLine = tracker.getLine();
         int statementCol = tracker.getCol();
@@ -198,6 +223,7 @@ public abstract class BaseParser implements Parser {
                         statementLine = tracker.getLine();
                         statementCol = tracker.getCol();
                         simplifiedStatement = "";
+                        context.resetKeywords();
                     } else {
                         recorder.confirm();
                     }
@@ -221,6 +247,7 @@ public abstract class BaseParser implements Parser {
                     statementLine = tracker.getLine();
                     statementCol = tracker.getCol();
                     simplifiedStatement = "";
+                    context.resetKeywords();
                     continue;
                 }
 
@@ -230,6 +257,7 @@ public abstract class BaseParser implements Parser {
                     statementLine = tracker.getLine();
                     statementCol = tracker.getCol();
                     simplifiedStatement = "";
+                    context.resetKeywords();
                     continue;
                 }
 
@@ -250,7 +278,10 @@ public abstract class BaseParser implements Parser {
                         return null;
                     }
                     if (canExecuteInTransaction == null) {
-                        canExecuteInTransaction = determineCanExecuteInTransaction(simplifiedStatement, keywords, true);
+                        canExecuteInTransaction = determineCanExecuteInTransaction(simplifiedStatement,
+                                                                                   keywords,
+                                                                                   context,
+                                                                                   true);
                     }
 
                     if (TokenType.EOF == tokenType && (parensDepth > 0 || blockDepth > 0)) {
@@ -298,7 +329,9 @@ public abstract class BaseParser implements Parser {
                     if (!simplifiedStatement.isEmpty()) {
                         simplifiedStatement += " ";
                     }
-                    simplifiedStatement += token.getText().toUpperCase(Locale.ENGLISH);
+                    String keyword = token.getText().toUpperCase(Locale.ENGLISH);
+                    simplifiedStatement += keyword;
+                    context.addKeyword(keyword);
 
                     if (statementType == StatementType.UNKNOWN) {
                         if (keywords.size() > getTransactionalDetectionCutoff()) {
@@ -310,7 +343,10 @@ public abstract class BaseParser implements Parser {
                         adjustDelimiter(context, statementType);
                     }
                     if (canExecuteInTransaction == null) {
-                        canExecuteInTransaction = determineCanExecuteInTransaction(simplifiedStatement, keywords, null);
+                        canExecuteInTransaction = determineCanExecuteInTransaction(simplifiedStatement,
+                                                                                   keywords,
+                                                                                   context,
+                                                                                   null);
                     }
 
                 }
@@ -467,17 +503,37 @@ public abstract class BaseParser implements Parser {
         );
     }
 
+    /**
+     * @return The rules that determine the statement type from the leading keywords of a statement. Consulted by the
+     * default implementation of {@link #detectStatementType(String, ParserContext, PeekingReader)}.
+     */
+    protected KeywordRules<StatementType> getStatementTypeRules() {
+        return KeywordRules.empty();
+    }
+
+    /**
+     * @return The rules that determine from the leading keywords of a statement whether it can be executed within a
+     * transaction. If none of them match, {@link #detectCanExecuteInTransaction(String, List)} is consulted.
+     */
+    protected KeywordRules<Boolean> getCanExecuteInTransactionRules() {
+        return KeywordRules.empty();
+    }
+
     protected StatementType detectStatementType(String simplifiedStatement, ParserContext context,
                                                 PeekingReader reader) {
-        return StatementType.UNKNOWN;
+        StatementType statementType = context.getMatchedStatementType();
+        return statementType == null ? StatementType.UNKNOWN : statementType;
     }
 
     private Boolean determineCanExecuteInTransaction(String simplifiedStatement, List<Token> keywords,
-                                                     Boolean defaultValue) {
+                                                     ParserContext context, Boolean defaultValue) {
         if (keywords.size() > getTransactionalDetectionCutoff()) {
             return true;
         } else {
-            Boolean canExecuteInTransaction = detectCanExecuteInTransaction(simplifiedStatement, keywords);
+            Boolean canExecuteInTransaction = context.getMatchedCanExecuteInTransaction();
+            if (canExecuteInTransaction == null) {
+                canExecuteInTransaction = detectCanExecuteInTransaction(simplifiedStatement, keywords);
+            }
             if (canExecuteInTransaction == null) {
                 canExecuteInTransaction = defaultValue;
             }
@@ -0,0 +1,494 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.parser;
+
+import java.util.*;
+
+/**
+ * Classifies statements by their leading keywords. Each rule is a keyword-sequence pattern that is associated with a
+ * value. All rules are compiled into a single deterministic automaton that consumes one keyword at a time, so the cost
+ * of classifying a statement does not depend on the number of rules or on the length of the keyword sequence seen so
+ * far.
+ *
+ * <p>Pattern syntax (keywords are matched case-insensitively):</p>
+ * <ul>
+ *     <li>{@code WORD} - the keyword WORD</li>
+ *     <li>{@code *} - any single keyword</li>
+ *     <li>{@code (A|B C)} - either A or the sequence B C</li>
+ *     <li>{@code [A B]} - optional sequence A B</li>
+ *     <li>{@code {A B}} - zero or more repetitions of A B</li>
+ * </ul>
+ *
+ * <p>A pattern must match the complete keyword sequence. If multiple rules match, the one that was added first
+ * wins.</p>
+ *
+ * @param <T> The type of value associated with the rules.
+ */
+public final class KeywordRules<T> {
+    private static final KeywordRules<?> EMPTY = new KeywordRules<>(List.of());
+
+    private final List<Rule<T>> rules;
+    /**
+     * Transitions of the compiled automaton, one map per state. State 0 is the initial state.
+     */
+    private final Map<String, Integer>[] transitions;
+    /**
+     * Transition taken for keywords that do not appear in any pattern, -1 if there is none.
+     */
+    private final int[] otherTransitions;
+    private final Object[] results;
+
+    @SuppressWarnings("unchecked")
+    public static <T> KeywordRules<T> empty() {
+        return (KeywordRules<T>) EMPTY;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    private KeywordRules(List<Rule<T>> rules) {
+        this.rules = rules;
+        var compiler = new Compiler<>(rules);
+        this.transitions = compiler.transitions();
+        this.otherTransitions = compiler.otherTransitions();
+        this.results = compiler.results();
+    }
+
+    /**
+     * @return A new matcher that is positioned before the first keyword.
+     */
+    public Matcher<T> matcher() {
+        return new Matcher<>(this);
+    }
+
+    /**
+     * Classifies a complete keyword sequence.
+     *
+     * @param keywords The keywords, separated by whitespace.
+     *
+     * @return The value of the first rule that matches, or {@code null} if there is none.
+     */
+    public T classify(String keywords) {
+        var matcher = matcher();
+        for (var keyword : keywords.trim().split("\\s+")) {
+            if (!keyword.isEmpty()) {
+                matcher.advance(keyword);
+            }
+        }
+        return matcher.result();
+    }
+
+    @Override
+    public String toString() {
+        return "KeywordRules" + rules;
+    }
+
+    /**
+     * Tracks the classification of a keyword sequence that is fed one keyword at a time.
+     */
+    public static final class Matcher<T> {
+        private final KeywordRules<T> rules;
+        private int state;
+
+        private Matcher(KeywordRules<T> rules) {
+            this.rules = rules;
+        }
+
+        /**
+         * Forgets all keywords seen so far.
+         */
+        public void reset() {
+            state = 0;
+        }
+
+        /**
+         * Consumes the next keyword of the sequence.
+         */
+        public void advance(String keyword) {
+            if (state < 0) {
+                return;
+            }
+            Integer next = rules.transitions[state].get(keyword.toUpperCase(Locale.ENGLISH));
+            state = next != null ? next : rules.otherTransitions[state];
+        }
+
+        /**
+         * @return Whether no rule can match anymore, regardless of the following keywords.
+         */
+        public boolean isExhausted() {
+            return state < 0;
+        }
+
+        /**
+         * @return The value of the first rule that matches the keywords seen so far, or {@code null} if there is
+         * none.
+         */
+        @SuppressWarnings("unchecked")
+        public T result() {
+            return state < 0 ? null : (T) rules.results[state];
+        }
+    }
+
+    public static final class Builder<T> {
+        private final List<Rule<T>> rules = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a rule with lower precedence than all rules added before.
+         *
+         * @param pattern The keyword-sequence pattern.
+         * @param value   The value that is associated with keyword sequences that match the pattern.
+         */
+        public Builder<T> rule(String pattern, T value) {
+            rules.add(new Rule<>(pattern, Node.parse(pattern), Objects.requireNonNull(value)));
+            return this;
+        }
+
+        /**
+         * Adds all rules of {@code other} with lower precedence than all rules added before.
+         */
+        public Builder<T> rules(KeywordRules<T> other) {
+            rules.addAll(other.rules);
+            return this;
+        }
+
+        public KeywordRules<T> build() {
+            return new KeywordRules<>(List.copyOf(rules));
+        }
+    }
+
+    private static final class Rule<T> {
+        final String pattern;
+        final Node node;
+        final T value;
+
+        Rule(String pattern, Node node, T value) {
+            this.pattern = pattern;
+            this.node = node;
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return pattern + " -> " + value;
+        }
+    }
+
+    /**
+     * Syntax tree of a pattern.
+     */
+    private abstract static class Node {
+        static Node parse(String pattern) {
+            var parser = new PatternParser(pattern);
+            var node = parser.alternatives();
+            if (parser.hasMore()) {
+                throw parser.error();
+            }
+            return node;
+        }
+
+        /**
+         * Adds this node to a Thompson NFA.
+         *
+         * @return The end state of the fragment that starts at {@code start}.
+         */
+        abstract int build(Nfa nfa, int start);
+    }
+
+    private static final class Keyword extends Node {
+        final String keyword; // null = any keyword
+
+        Keyword(String keyword) {
+            this.keyword = keyword;
+        }
+
+        @Override
+        int build(Nfa nfa, int start) {
+            int end = nfa.newState();
+            nfa.addEdge(start, keyword, end);
+            return end;
+        }
+    }
+
+    private static final class Sequence extends Node {
+        final List<Node> items;
+
+        Sequence(List<Node> items) {
+            this.items = items;
+        }
+
+        @Override
+        int build(Nfa nfa, int start) {
+            int current = start;
+            for (var item : items) {
+                current = item.build(nfa, current);
+            }
+            return current;
+        }
+    }
+
+    private static final class Alternatives extends Node {
+        final List<Node> options;
+
+        Alternatives(List<Node> options) {
+            this.options = options;
+        }
+
+        @Override
+        int build(Nfa nfa, int start) {
+            int end = nfa.newState();
+            for (var option : options) {
+                int optionStart = nfa.newState();
+                nfa.addEpsilon(start, optionStart);
+                nfa.addEpsilon(option.build(nfa, optionStart), end);
+            }
+            return end;
+        }
+    }
+
+    private static final class Repetition extends Node {
+        final Node body;
+        final boolean repeatable;
+
+        Repetition(Node body, boolean repeatable) {
+            this.body = body;
+            this.repeatable = repeatable;
+        }
+
+        @Override
+        int build(Nfa nfa, int start) {
+            int bodyStart = nfa.newState();
+            int end = nfa.newState();
+            nfa.addEpsilon(start, bodyStart);
+            nfa.addEpsilon(start, end);
+            int bodyEnd = body.build(nfa, bodyStart);
+            nfa.addEpsilon(bodyEnd, end);
+            if (repeatable) {
+                nfa.addEpsilon(bodyEnd, bodyStart);
+            }
+            return end;
+        }
+    }
+
+    private static final class PatternParser {
+        private final String pattern;
+        private int pos;
+
+        PatternParser(String pattern) {
+            this.pattern = pattern;
+        }
+
+        boolean hasMore() {
+            skipWhitespace();
+            return pos < pattern.length();
+        }
+
+        IllegalArgumentException error() {
+            return new IllegalArgumentException("Invalid keyword pattern at index " + pos + ": " + pattern);
+        }
+
+        Node alternatives() {
+            var options = new ArrayList<Node>();
+            options.add(sequence());
+            while (hasMore() && pattern.charAt(pos) == '|') {
+                pos++;
+                options.add(sequence());
+            }
+            return options.size() == 1 ? options.get(0) : new Alternatives(options);
+        }
+
+        Node sequence() {
+            var items = new ArrayList<Node>();
+            while (hasMore()) {
+                char c = pattern.charAt(pos);
+                if (c == '(' || c == '[' || c == '{') {
+                    pos++;
+                    var body = alternatives();
+                    char closing = c == '(' ? ')' : c == '[' ? ']' : '}';
+                    if (!hasMore() || pattern.charAt(pos) != closing) {
+                        throw error();
+                    }
+                    pos++;
+                    items.add(c == '(' ? body : new Repetition(body, c == '{'));
+                } else if (c == '*') {
+                    pos++;
+                    items.add(new Keyword(null));
+                } else if (isSpecial(c)) {
+                    break;
+                } else {
+                    int start = pos;
+                    while (pos < pattern.length() && !isSpecial(pattern.charAt(pos)) &&
+                           !Character.isWhitespace(pattern.charAt(pos))) {
+                        pos++;
+                    }
+                    items.add(new Keyword(pattern.substring(start, pos).toUpperCase(Locale.ENGLISH)));
+                }
+            }
+            return new Sequence(items);
+        }
+
+        private void skipWhitespace() {
+            while (pos < pattern.length() && Character.isWhitespace(pattern.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private static boolean isSpecial(char c) {
+            return "()[]{}|*".indexOf(c) >= 0;
+        }
+    }
+
+    /**
+     * Nondeterministic automaton with epsilon transitions. Edges labelled {@code null} match any keyword.
+     */
+    private static final class Nfa {
+        final List<List<Integer>> epsilons = new ArrayList<>();
+        final List<List<Map.Entry<String, Integer>>> edges = new ArrayList<>();
+        final Map<Integer, Integer> acceptingRule = new HashMap<>();
+        final Set<String> alphabet = new TreeSet<>();
+
+        int newState() {
+            epsilons.add(new ArrayList<>());
+            edges.add(new ArrayList<>());
+            return epsilons.size() - 1;
+        }
+
+        void addEpsilon(int from, int to) {
+            epsilons.get(from).add(to);
+        }
+
+        void addEdge(int from, String keyword, int to) {
+            edges.get(from).add(new AbstractMap.SimpleImmutableEntry<>(keyword, to));
+            if (keyword != null) {
+                alphabet.add(keyword);
+            }
+        }
+
+        BitSet closure(BitSet states) {
+            var result = (BitSet) states.clone();
+            var work = new ArrayDeque<Integer>();
+            states.stream().forEach(work::push);
+            while (!work.isEmpty()) {
+                for (int next : epsilons.get(work.pop())) {
+                    if (!result.get(next)) {
+                        result.set(next);
+                        work.push(next);
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * @param keyword The keyword, or {@code null} for a keyword that appears in no pattern.
+         */
+        BitSet step(BitSet states, String keyword) {
+            var result = new BitSet();
+            states.stream().forEach(state -> {
+                for (var edge : edges.get(state)) {
+                    if (edge.getKey() == null || edge.getKey().equals(keyword)) {
+                        result.set(edge.getValue());
+                    }
+                }
+            });
+            return closure(result);
+        }
+    }
+
+    /**
+     * Compiles the rules into a DFA via subset construction.
+     */
+    private static final class Compiler<T> {
+        private final List<Map<String, Integer>> transitions = new ArrayList<>();
+        private final List<Integer> otherTransitions = new ArrayList<>();
+        private final List<Object> results = new ArrayList<>();
+
+        Compiler(List<Rule<T>> rules) {
+            var nfa = new Nfa();
+            int start = nfa.newState();
+            for (int i = 0; i < rules.size(); i++) {
+                int ruleStart = nfa.newState();
+                nfa.addEpsilon(start, ruleStart);
+                nfa.acceptingRule.put(rules.get(i).node.build(nfa, ruleStart), i);
+            }
+
+            var initial = new BitSet();
+            initial.set(start);
+            var stateIds = new HashMap<BitSet, Integer>();
+            var pending = new ArrayDeque<BitSet>();
+            var initialClosure = nfa.closure(initial);
+            stateIds.put(initialClosure, 0);
+            pending.add(initialClosure);
+            addState(initialClosure, nfa, rules);
+
+            while (!pending.isEmpty()) {
+                var current = pending.poll();
+                int currentId = stateIds.get(current);
+                for (var keyword : nfa.alphabet) {
+                    transitions.get(currentId).put(keyword, target(nfa.step(current, keyword), stateIds, pending,
+                                                                   nfa, rules));
+                }
+                otherTransitions.set(currentId, target(nfa.step(current, null), stateIds, pending, nfa, rules));
+            }
+            // Keywords that lead to a dead state behave exactly like unknown keywords that do the same
+            for (int i = 0; i < transitions.size(); i++) {
+                int other = otherTransitions.get(i);
+                transitions.get(i).values().removeIf(it -> it == other);
+            }
+        }
+
+        private int target(BitSet states, Map<BitSet, Integer> stateIds, Deque<BitSet> pending, Nfa nfa,
+                           List<Rule<T>> rules) {
+            if (states.isEmpty()) {
+                return -1;
+            }
+            var id = stateIds.get(states);
+            if (id == null) {
+                id = transitions.size();
+                stateIds.put(states, id);
+                pending.add(states);
+                addState(states, nfa, rules);
+            }
+            return id;
+        }
+
+        private void addState(BitSet states, Nfa nfa, List<Rule<T>> rules) {
+            int firstRule = states.stream()
+                                  .map(it -> nfa.acceptingRule.getOrDefault(it, Integer.MAX_VALUE))
+                                  .min()
+                                  .orElse(Integer.MAX_VALUE);
+            transitions.add(new HashMap<>());
+            otherTransitions.add(-1);
+            results.add(firstRule == Integer.MAX_VALUE ? null : rules.get(firstRule).value);
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Integer>[] transitions() {
+            return transitions.stream().map(Map::copyOf).toArray(Map[]::new);
+        }
+
+        int[] otherTransitions() {
+            return otherTransitions.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        Object[] results() {
+            return results.toArray();
+        }
+    }
+}
@@ -29,9 +29,19 @@ public class ParserContext {
     private String lastClosedBlockInitiator = null;
     private Delimiter delimiter;
     private StatementType statementType;
+    private final KeywordRules.Matcher<StatementType> statementTypeMatcher;
+    private final KeywordRules.Matcher<Boolean> canExecuteInTransactionMatcher;
 
     public ParserContext(Delimiter delimiter) {
+        this(delimiter, KeywordRules.empty(), KeywordRules.empty());
+    }
+
+    public ParserContext(Delimiter delimiter,
+                         KeywordRules<StatementType> statementTypeRules,
+                         KeywordRules<Boolean> canExecuteInTransactionRules) {
         this.delimiter = delimiter;
+        this.statementTypeMatcher = statementTypeRules.matcher();
+        this.canExecuteInTransactionMatcher = canExecuteInTransactionRules.matcher();
     }
 
     public void increaseParensDepth() {
@@ -92,6 +102,38 @@ public class ParserContext {
         this.statementType = statementType;
     }
 
+    /**
+     * Forgets the keywords of the current statement.
+     */
+    public void resetKeywords() {
+        statementTypeMatcher.reset();
+        canExecuteInTransactionMatcher.reset();
+    }
+
+    /**
+     * Feeds the next leading keyword of the current statement to the statement classification rules.
+     */
+    public void addKeyword(String keyword) {
+        statementTypeMatcher.advance(keyword);
+        canExecuteInTransactionMatcher.advance(keyword);
+    }
+
+    /**
+     * @return The statement type of the first statement type rule that matches the keywords of the current statement,
+     * or {@code null} if there is none.
+     */
+    public StatementType getMatchedStatementType() {
+        return statementTypeMatcher.result();
+    }
+
+    /**
+     * @return The transactionality of the first transactionality rule that matches the keywords of the current
+     * statement, or {@code null} if there is none.
+     */
+    public Boolean getMatchedCanExecuteInTransaction() {
+        return canExecuteInTransactionMatcher.result();
+    }
+
     public boolean isLetter(char c) {
         if (Character.isLetter(c)) {
             return true;
@@ -56,7 +56,7 @@ public class ParsingContextImpl implements ParsingContext {
         return database;
     }
 
-    public void populate(Database database, Configuration configuration) {
+    public synchronized void populate(Database database, Configuration configuration) {
         setDatabase(database);
 
         var defaultSchemaName = configuration.getDefaultSchema();
@@ -89,8 +89,15 @@ public class ParsingContextImpl implements ParsingContext {
         placeholders.put(TABLE_PLACEHOLDER, configuration.getTable());
     }
 
+    /**
+     * Updates the placeholders that change between commands run against the same database.
+     */
+    public synchronized void refresh() {
+        placeholders.put(TIMESTAMP_PLACEHOLDER, Instant.now().toString());
+    }
+
     @Override
-    public void updateFilenamePlaceholder(ResourceName resourceName) {
+    public synchronized void updateFilenamePlaceholder(ResourceName resourceName) {
         if (resourceName.isValid()) {
             placeholders.put(FILENAME_PLACEHOLDER, resourceName.getFilename());
         } else {
@@ -98,6 +105,15 @@ public class ParsingContextImpl implements ParsingContext {
         }
     }
 
+    @Override
+    public synchronized ParsingContext forResource(ResourceName resourceName) {
+        var copy = new ParsingContextImpl();
+        copy.setDatabase(database);
+        copy.placeholders.putAll(placeholders);
+        copy.updateFilenamePlaceholder(resourceName);
+        return copy;
+    }
+
     private Schema getCurrentSchema(Database database) {
         try {
             return database.getMainSession().getCurrentSchema();
@@ -23,23 +23,53 @@ import migratedb.v1.core.api.internal.parser.ParsingContext;
 import java.io.FilterReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 
+/**
+ * Replaces placeholders while reading. Input is consumed in bulk through an internal buffer that is scanned for the
+ * first character of the placeholder prefix, so text without placeholders is copied through without any per-character
+ * bookkeeping. The placeholder name is located with a precomputed (Knuth-Morris-Pratt) matcher for the suffix, which
+ * keeps the total work linear in the length of the input.
+ */
 public class PlaceholderReplacingReader extends FilterReader {
-    private final String prefix;
-    private final String suffix;
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final char[] prefix;
+    private final char[] suffix;
+    private final int[] suffixFailure;
     private final CaseInsensitiveMap placeholders = new CaseInsensitiveMap();
+    private final char[] single = new char[1];
 
-    private final StringBuilder buffer = new StringBuilder();
-    private String markBuffer;
+    /**
+     * Input that has been read from the underlying reader. The unconsumed part is {@code [pos, limit)}. If a mark is
+     * set, everything from {@code markPos} is retained as well.
+     */
+    private char[] buffer = new char[DEFAULT_BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private boolean endOfInput;
 
     private String replacement;
     private int replacementPos;
+    /**
+     * Number of buffered characters that have already been ruled out as the start of a placeholder.
+     */
+    private int literal;
 
+    private int markPos = -1;
     private String markReplacement;
     private int markReplacementPos;
+    private int markLiteral;
+    private int markLimit;
+    /**
+     * Number of characters returned since the mark was set. The mark is dropped once this exceeds {@code markLimit}, so
+     * the buffer does not have to retain arbitrarily much input.
+     */
+    private long readSinceMark;
+    private boolean markInvalidated;
 
     private static class CaseInsensitiveMap extends HashMap<String, String> {
 
@@ -68,8 +98,12 @@ public class PlaceholderReplacingReader extends FilterReader {
 
     public PlaceholderReplacingReader(String prefix, String suffix, Map<String, String> placeholders, Reader in) {
         super(in);
-        this.prefix = prefix;
-        this.suffix = suffix;
+        if (prefix.isEmpty() || suffix.isEmpty()) {
+            throw new IllegalArgumentException("Placeholder prefix and suffix must not be empty");
+        }
+        this.prefix = prefix.toCharArray();
+        this.suffix = suffix.toCharArray();
+        this.suffixFailure = failureFunction(this.suffix);
         this.placeholders.putAll(placeholders);
     }
 
@@ -107,131 +141,272 @@ public class PlaceholderReplacingReader extends FilterReader {
 
     @Override
     public int read() throws IOException {
-        if (replacement == null) {
-
-            // if we have a previous read, then consume it
-            if (buffer.length() > 0) {
-                char c = buffer.charAt(0);
-                buffer.deleteCharAt(0);
-                return c;
+        synchronized (lock) {
+            if (replacement == null && pos < limit && (literal > 0 || buffer[pos] != prefix[0])) {
+                if (literal > 0) {
+                    literal--;
+                }
+                consumed(1);
+                return buffer[pos++];
             }
+            return read(single, 0, 1) == -1 ? -1 : single[0];
+        }
+    }
 
-            // else read ahead by the prefix length
-            int r;
-            do {
-                r = super.read();
-                if (r == -1) {
-                    break;
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > cbuf.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        synchronized (lock) {
+            int count = 0;
+            while (count < len) {
+                if (replacement != null) {
+                    int n = Math.min(len - count, replacement.length() - replacementPos);
+                    replacement.getChars(replacementPos, replacementPos + n, cbuf, off + count);
+                    count += n;
+                    replacementPos += n;
+                    if (replacementPos == replacement.length()) {
+                        replacement = null;
+                        replacementPos = 0;
+                    }
+                    continue;
                 }
-
-                buffer.append((char) r);
-            } while (buffer.length() < prefix.length() && endsWith(buffer, prefix.substring(0, buffer.length())));
-
-            // if the buffer does not contain the prefix
-            if (!endsWith(buffer, prefix)) {
-                // if it contain data, return the first character of it
-                if (buffer.length() > 0) {
-                    char c = buffer.charAt(0);
-                    buffer.deleteCharAt(0);
-                    return c;
+                if (literal > 0) {
+                    int n = Math.min(literal, len - count);
+                    System.arraycopy(buffer, pos, cbuf, off + count, n);
+                    count += n;
+                    pos += n;
+                    literal -= n;
+                    continue;
                 }
-                // else return -1
-                return -1;
-            }
-            // if the buffer contained the prefix, wipe the buffer
-            buffer.delete(0, buffer.length());
-
-            // begin reading ahead until we get to the suffix
-            StringBuilder placeholderBuilder = new StringBuilder();
-            do {
-                int r1 = super.read();
-                if (r1 == -1) {
+                if (pos == limit && !fill(1)) {
                     break;
+                }
+                int end = Math.min(limit, pos + (len - count));
+                int candidate = indexOf(prefix[0], pos, end);
+                if (candidate != pos) {
+                    // Plain text up to the next possible prefix (or as much as fits), copied in one go
+                    int stop = candidate < 0 ? end : candidate;
+                    System.arraycopy(buffer, pos, cbuf, off + count, stop - pos);
+                    count += stop - pos;
+                    pos = stop;
                 } else {
-                    placeholderBuilder.append((char) r1);
+                    int mismatch = prefixMismatch();
+                    if (mismatch == 0) {
+                        startReplacement();
+                    } else {
+                        // Not a placeholder, the inspected characters are passed through unchanged
+                        literal = mismatch;
+                    }
                 }
-            } while (!endsWith(placeholderBuilder, suffix));
-
-            // delete the suffix from the builder
-            for (int i = 0; i < suffix.length(); i++) {
-                placeholderBuilder.deleteCharAt(placeholderBuilder.length() - 1);
             }
-
-            // look up the placeholder string
-            String placeholder = placeholderBuilder.toString();
-            if (!placeholders.containsKey(placeholder)) {
-                String canonicalPlaceholder = prefix + placeholder + suffix;
-
-                if (placeholder.contains("migratedb:")) {
-                    throw new MigrateDbException("Failed to populate value for default placeholder: "
-                            + canonicalPlaceholder);
-                }
-
-                throw new MigrateDbException("No value provided for placeholder: "
-                        + canonicalPlaceholder
-                        + ".  Check your configuration!");
+            if (count == 0) {
+                return -1;
             }
+            consumed(count);
+            return count;
+        }
+    }
 
-            // set the current placeholder replacement
-            replacement = placeholders.get(placeholder);
-
-            // Empty placeholder value -> move to the next character
-            if (replacement == null || replacement.length() == 0) {
-                replacement = null;
-                return read();
+    @Override
+    public long skip(long n) throws IOException {
+        if (n < 0) {
+            throw new IllegalArgumentException("skip value is negative");
+        }
+        char[] skipBuffer = new char[(int) Math.min(n, DEFAULT_BUFFER_SIZE)];
+        long remaining = n;
+        while (remaining > 0) {
+            int read = read(skipBuffer, 0, (int) Math.min(remaining, skipBuffer.length));
+            if (read == -1) {
+                break;
             }
+            remaining -= read;
         }
+        return n - remaining;
+    }
 
-        int result = replacement.charAt(replacementPos);
-        replacementPos++;
-        if (replacementPos >= replacement.length()) {
-            replacement = null;
-            replacementPos = 0;
+    @Override
+    public boolean ready() throws IOException {
+        synchronized (lock) {
+            return replacement != null || pos < limit || in.ready();
         }
-        return result;
     }
 
     @Override
-    public int read(char[] cbuf, int off, int len) throws IOException {
-        int count = 0;
-        for (int i = 0; i < len; i++) {
-            int r = read();
-            if (r == -1) {
-                return count == 0 ? -1 : count;
-            }
-            cbuf[off + i] = (char) r;
-            count++;
-        }
-        return count;
+    public boolean markSupported() {
+        return true;
     }
 
     @Override
-    public void mark(int readAheadLimit) throws IOException {
-        markBuffer = buffer.toString();
-        markReplacement = replacement;
-        markReplacementPos = replacementPos;
-        super.mark(readAheadLimit);
+    public void mark(int readAheadLimit) {
+        if (readAheadLimit < 0) {
+            throw new IllegalArgumentException("Read-ahead limit < 0");
+        }
+        synchronized (lock) {
+            markPos = pos;
+            markReplacement = replacement;
+            markReplacementPos = replacementPos;
+            markLiteral = literal;
+            markLimit = readAheadLimit;
+            readSinceMark = 0;
+            markInvalidated = false;
+        }
     }
 
     @Override
     public void reset() throws IOException {
-        super.reset();
-        buffer.delete(0, buffer.length());
-        buffer.append(markBuffer);
-        replacement = markReplacement;
-        replacementPos = markReplacementPos;
+        synchronized (lock) {
+            if (markPos < 0) {
+                throw new IOException(markInvalidated ? "Mark invalid" : "Stream not marked");
+            }
+            pos = markPos;
+            replacement = markReplacement;
+            replacementPos = markReplacementPos;
+            literal = markLiteral;
+            markPos = -1;
+            markReplacement = null;
+        }
     }
 
-    private boolean endsWith(StringBuilder result, String str) {
-        if (result.length() < str.length()) {
-            return false;
+    private void consumed(int count) {
+        if (markPos < 0) {
+            return;
+        }
+        readSinceMark += count;
+        if (readSinceMark > markLimit) {
+            markPos = -1;
+            markReplacement = null;
+            markInvalidated = true;
+        }
+    }
+
+    /**
+     * Matches the prefix at the current position.
+     *
+     * @return 0 if the prefix matches, otherwise the number of characters that were inspected up to and including the
+     * first mismatch (these cannot start a placeholder).
+     */
+    private int prefixMismatch() throws IOException {
+        fill(prefix.length);
+        int available = Math.min(limit - pos, prefix.length);
+        for (int i = 1; i < available; i++) {
+            if (buffer[pos + i] != prefix[i]) {
+                return i + 1;
+            }
+        }
+        return available == prefix.length ? 0 : available;
+    }
+
+    /**
+     * Consumes the placeholder at the current position (which must be at a prefix) and sets up its replacement.
+     */
+    private void startReplacement() throws IOException {
+        int scanned = 0;
+        int matched = 0;
+        while (matched < suffix.length) {
+            int index = pos + prefix.length + scanned;
+            if (index == limit) {
+                if (!fill(prefix.length + scanned + 1)) {
+                    String unterminated = new String(buffer, pos, Math.min(limit - pos, 80));
+                    throw new MigrateDbException("Placeholder suffix " + new String(suffix) +
+                                                 " not found after: " + unterminated);
+                }
+                index = pos + prefix.length + scanned;
+            }
+            char c = buffer[index];
+            while (matched > 0 && c != suffix[matched]) {
+                matched = suffixFailure[matched - 1];
+            }
+            if (c == suffix[matched]) {
+                matched++;
+            }
+            scanned++;
+        }
+        String placeholder = new String(buffer, pos + prefix.length, scanned - suffix.length);
+        pos += prefix.length + scanned;
+
+        String value = placeholders.get(placeholder);
+        if (value == null && !placeholders.containsKey(placeholder)) {
+            String canonicalPlaceholder = new String(prefix) + placeholder + new String(suffix);
+
+            if (placeholder.contains("migratedb:")) {
+                throw new MigrateDbException("Failed to populate value for default placeholder: "
+                        + canonicalPlaceholder);
+            }
+
+            throw new MigrateDbException("No value provided for placeholder: "
+                    + canonicalPlaceholder
+                    + ".  Check your configuration!");
         }
 
-        for (int i = 0; i < str.length(); i++) {
-            if (result.charAt(result.length() - str.length() + i) != str.charAt(i)) {
+        // Empty placeholder value -> continue with the next character
+        if (value != null && !value.isEmpty()) {
+            replacement = value;
+            replacementPos = 0;
+        }
+    }
+
+    /**
+     * Makes sure that at least {@code required} unconsumed characters are buffered, unless the end of the input is
+     * reached first.
+     *
+     * @return Whether at least {@code required} characters are available.
+     */
+    private boolean fill(int required) throws IOException {
+        if (limit - pos >= required) {
+            return true;
+        }
+        if (endOfInput) {
+            return false;
+        }
+        int keepFrom = markPos >= 0 ? markPos : pos;
+        if (keepFrom > 0) {
+            System.arraycopy(buffer, keepFrom, buffer, 0, limit - keepFrom);
+            limit -= keepFrom;
+            pos -= keepFrom;
+            if (markPos >= 0) {
+                markPos -= keepFrom;
+            }
+        }
+        if (buffer.length - pos < required) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, pos + required));
+        }
+        while (limit - pos < required) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read == -1) {
+                endOfInput = true;
                 return false;
             }
+            limit += read;
         }
         return true;
     }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] failureFunction(char[] pattern) {
+        int[] failure = new int[pattern.length];
+        int k = 0;
+        for (int i = 1; i < pattern.length; i++) {
+            while (k > 0 && pattern[i] != pattern[k]) {
+                k = failure[k - 1];
+            }
+            if (pattern[i] == pattern[k]) {
+                k++;
+            }
+            failure[i] = k;
+        }
+        return failure;
+    }
 }
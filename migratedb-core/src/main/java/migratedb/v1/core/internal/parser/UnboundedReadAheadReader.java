@@ -62,6 +62,22 @@ public class UnboundedReadAheadReader extends FilterReader {
         return read;
     }
 
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (markIndex == -1 && readIndex >= currentBuffersSize) {
+            return in.read(cbuf, off, len);
+        }
+        // Read-ahead data is pending or must be recorded, so go through the buffers
+        for (int i = 0; i < len; i++) {
+            int read = read();
+            if (read == -1) {
+                return i == 0 ? -1 : i;
+            }
+            cbuf[off + i] = (char) read;
+        }
+        return len;
+    }
+
     private int getValue(int index) {
         int buffersIndex = index / bufferSize;
         int buffersOffset = index - (buffersIndex * bufferSize);
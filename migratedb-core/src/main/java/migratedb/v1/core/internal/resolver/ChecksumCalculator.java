@@ -18,8 +18,11 @@ package migratedb.v1.core.internal.resolver;
 
 import migratedb.v1.core.api.Checksum;
 import migratedb.v1.core.api.MigrateDbException;
+import migratedb.v1.core.api.MigrateDbMetrics;
 import migratedb.v1.core.api.configuration.Configuration;
 import migratedb.v1.core.api.resource.Resource;
+import migratedb.v1.core.internal.jfr.JfrEvents;
+import migratedb.v1.core.internal.util.Metrics;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -37,15 +40,21 @@ public enum ChecksumCalculator {
     public static Checksum calculate(Collection<Resource> resources, Configuration configuration) {
         var sortedResources = new ArrayList<>(resources);
         sortedResources.sort(Comparator.comparing(Resource::getName));
+        var event = JfrEvents.beginChecksum();
         var builder = Checksum.builder();
-        for (var resource : sortedResources) {
-            try (var reader = resource.read(configuration.getEncoding())) {
-                builder.addLines(reader);
-            } catch (IOException e) {
-                throw new MigrateDbException(
-                    "Unable to calculate checksum of " + resource.getName() + "\n" + e.getMessage(), e);
+        try {
+            for (var resource : sortedResources) {
+                try (var reader = resource.read(configuration.getEncoding())) {
+                    builder.addLines(reader);
+                } catch (IOException e) {
+                    throw new MigrateDbException(
+                        "Unable to calculate checksum of " + resource.getName() + "\n" + e.getMessage(), e);
+                }
             }
+        } finally {
+            JfrEvents.endChecksum(event, sortedResources, builder.getByteCount());
         }
+        Metrics.increment(Metrics.current(), MigrateDbMetrics.Counter.CHECKSUM_BYTES, builder.getByteCount());
         return builder.build();
     }
 }
@@ -19,6 +19,8 @@ package migratedb.v1.core.internal.resolver;
 import migratedb.v1.core.api.ClassProvider;
 import migratedb.v1.core.api.ErrorCode;
 import migratedb.v1.core.api.MigrateDbException;
+import migratedb.v1.core.api.MigrateDbMetrics;
+import migratedb.v1.core.api.MigrateDbPhaseListener;
 import migratedb.v1.core.api.ResourceProvider;
 import migratedb.v1.core.api.configuration.Configuration;
 import migratedb.v1.core.api.internal.parser.ParsingContext;
@@ -31,6 +33,8 @@ import migratedb.v1.core.api.resolver.ResolvedMigration;
 import migratedb.v1.core.internal.resolver.java.FixedJavaMigrationResolver;
 import migratedb.v1.core.internal.resolver.java.JavaMigrationResolver;
 import migratedb.v1.core.internal.resolver.sql.SqlMigrationResolver;
+import migratedb.v1.core.internal.util.Metrics;
+import migratedb.v1.core.internal.util.Phases;
 
 import java.util.*;
 
@@ -82,12 +86,26 @@ public class DefaultMigrationResolver implements MigrationResolver {
     @Override
     public List<ResolvedMigration> resolveMigrations(Context context) {
         if (availableMigrations == null) {
-            availableMigrations = doFindAvailableMigrations(context);
+            var metrics = Metrics.current();
+            long start = Metrics.start(metrics);
+            try (var ignored = Phases.start(MigrateDbPhaseListener.Phase.RESOLVE)) {
+                availableMigrations = doFindAvailableMigrations(context);
+            } finally {
+                Metrics.stop(metrics, MigrateDbMetrics.Timer.RESOLVE, start);
+            }
         }
 
         return availableMigrations;
     }
 
+    /**
+     * Makes the next call to {@link #resolveMigrations} ask all migration resolvers again. The SQL migration resolver
+     * reuses the migrations it resolved before unless the placeholders they depend on have changed.
+     */
+    public void refresh() {
+        availableMigrations = null;
+    }
+
     private List<ResolvedMigration> doFindAvailableMigrations(Context context) throws MigrateDbException {
         List<ResolvedMigration> migrations = new ArrayList<>(collectMigrations(migrationResolvers, context));
         migrations.sort(new ResolvedMigrationComparator());
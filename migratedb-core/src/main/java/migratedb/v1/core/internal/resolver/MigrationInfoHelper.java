@@ -93,4 +93,41 @@ public class MigrationInfoHelper {
         return new VersionAndDescription(null, description);
     }
 
+    /**
+     * Extracts the schema version and the description from the simple name of a class that follows the naming
+     * convention of {@link migratedb.v1.core.api.migration.BaseJavaMigration}, without instantiating it.
+     *
+     * @param migrationClass The migration class.
+     * @return The extracted schema version.
+     * @throws MigrateDbException if the class name does not follow the naming convention.
+     */
+    public static VersionAndDescription extractFromJavaMigrationClass(Class<?> migrationClass) {
+        String shortName = migrationClass.getSimpleName();
+        if (!shortName.startsWith("V") && !shortName.startsWith("B") && !shortName.startsWith("R")) {
+            throw new MigrateDbException("Invalid Java-based migration class name: " + migrationClass.getName() +
+                                         " => ensure it starts with V, R, B" +
+                                         " or implement JavaMigration directly for " +
+                                         "non-default naming");
+        }
+        return extractVersionAndDescription(shortName,
+                                            shortName.substring(0, 1),
+                                            "__",
+                                            isRepeatableJavaMigration(migrationClass));
+    }
+
+    /**
+     * @return Whether the class is a repeatable migration by the naming convention of {@link
+     * migratedb.v1.core.api.migration.BaseJavaMigration}.
+     */
+    public static boolean isRepeatableJavaMigration(Class<?> migrationClass) {
+        return migrationClass.getSimpleName().startsWith("R");
+    }
+
+    /**
+     * @return Whether the class is a baseline migration by the naming convention of {@link
+     * migratedb.v1.core.api.migration.BaseJavaMigration}.
+     */
+    public static boolean isBaselineJavaMigration(Class<?> migrationClass) {
+        return migrationClass.getSimpleName().startsWith("B");
+    }
 }
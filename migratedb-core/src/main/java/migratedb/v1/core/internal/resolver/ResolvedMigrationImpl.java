@@ -21,8 +21,10 @@ import migratedb.v1.core.api.MigrationType;
 import migratedb.v1.core.api.Version;
 import migratedb.v1.core.api.executor.MigrationExecutor;
 import migratedb.v1.core.api.resolver.ResolvedMigration;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * A migration available on the classpath.
@@ -36,8 +38,12 @@ public class ResolvedMigrationImpl implements ResolvedMigration {
      * The equivalent checksum of the migration. For versioned migrations, this is the same as the checksum. For
      * repeatable migrations, it is the checksum calculated prior to placeholder replacement.
      */
-    private final Checksum equivalentChecksum;
-    private final Checksum checksum;
+    private Checksum equivalentChecksum;
+    private Checksum checksum;
+    /**
+     * Calculates {@link #checksum} and {@link #equivalentChecksum} on first use, {@code null} once they are known.
+     */
+    private @Nullable Supplier<Checksum> checksumSupplier;
     private final Version version;
     private final String description;
     private final MigrationType type;
@@ -62,6 +68,37 @@ public class ResolvedMigrationImpl implements ResolvedMigration {
         this.executor = executor;
     }
 
+    /**
+     * Creates a migration without an equivalent checksum whose checksum is only calculated when it is first needed.
+     */
+    public ResolvedMigrationImpl(Version version,
+                                 String description,
+                                 String script,
+                                 Supplier<Checksum> checksumSupplier,
+                                 MigrationType type,
+                                 String locationDescription,
+                                 MigrationExecutor executor) {
+        this(version, description, script, null, null, type, locationDescription, executor);
+        this.checksumSupplier = checksumSupplier;
+    }
+
+    private synchronized void calculateChecksum() {
+        if (checksumSupplier != null) {
+            checksum = checksumSupplier.get();
+            checksumSupplier = null;
+        }
+    }
+
+    private Checksum checksum() {
+        calculateChecksum();
+        return checksum;
+    }
+
+    private Checksum equivalentChecksum() {
+        calculateChecksum();
+        return equivalentChecksum;
+    }
+
     @Override
     public Version getVersion() {
         return version;
@@ -79,7 +116,7 @@ public class ResolvedMigrationImpl implements ResolvedMigration {
 
     @Override
     public Checksum getChecksum() {
-        return checksum == null ? equivalentChecksum : checksum;
+        return checksum() == null ? equivalentChecksum() : checksum();
     }
 
     @Override
@@ -103,16 +140,19 @@ public class ResolvedMigrationImpl implements ResolvedMigration {
             return false;
         }
         var other = (ResolvedMigrationImpl) o;
-        return Objects.equals(checksum, other.checksum) &&
-               Objects.equals(equivalentChecksum, other.equivalentChecksum) &&
-               Objects.equals(description, other.description) &&
+        return Objects.equals(description, other.description) &&
                Objects.equals(script, other.script) &&
-               Objects.equals(type, other.type);
+               Objects.equals(type, other.type) &&
+               Objects.equals(checksum(), other.checksum()) &&
+               Objects.equals(equivalentChecksum(), other.equivalentChecksum());
     }
 
+    /**
+     * Doesn't include the checksums, so that hashing doesn't calculate them.
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(checksum, equivalentChecksum, description, script, type);
+        return Objects.hash(description, script, type);
     }
 
     @Override
@@ -130,7 +170,7 @@ public class ResolvedMigrationImpl implements ResolvedMigration {
 
     @Override
     public boolean checksumMatches(Checksum checksum) {
-        return Objects.equals(checksum, this.checksum) ||
-               (Objects.equals(checksum, equivalentChecksum) && equivalentChecksum != null);
+        return Objects.equals(checksum, checksum()) ||
+               (Objects.equals(checksum, equivalentChecksum()) && equivalentChecksum() != null);
     }
 }
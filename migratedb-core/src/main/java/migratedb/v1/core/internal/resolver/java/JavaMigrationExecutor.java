@@ -31,16 +31,20 @@ import migratedb.v1.core.internal.resource.ReaderResource;
 import java.io.Reader;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.function.Supplier;
 
 /**
  * Adapter for executing migrations implementing JavaMigration.
  */
 public class JavaMigrationExecutor implements MigrationExecutor {
-    private final JavaMigration javaMigration;
+    private final Supplier<JavaMigration> javaMigration;
     private final SqlScriptFactory sqlScriptFactory;
     private final SqlScriptExecutorFactory sqlScriptExecutorFactory;
 
-    JavaMigrationExecutor(JavaMigration javaMigration,
+    /**
+     * @param javaMigration Supplies the migration. Only called when the migration is executed.
+     */
+    JavaMigrationExecutor(Supplier<JavaMigration> javaMigration,
                           SqlScriptFactory sqlScriptFactory,
                           SqlScriptExecutorFactory sqlScriptExecutorFactory) {
         this.javaMigration = javaMigration;
@@ -63,7 +67,7 @@ public class JavaMigrationExecutor implements MigrationExecutor {
 
     private void executeOnce(Context context) throws SQLException {
         try {
-            javaMigration.migrate(new migratedb.v1.core.api.migration.Context() {
+            javaMigration.get().migrate(new migratedb.v1.core.api.migration.Context() {
                 @Override
                 public Configuration getConfiguration() {
                     return context.getConfiguration();
@@ -94,7 +98,7 @@ public class JavaMigrationExecutor implements MigrationExecutor {
 
     @Override
     public boolean canExecuteInTransaction() {
-        return javaMigration.canExecuteInTransaction();
+        return javaMigration.get().canExecuteInTransaction();
     }
 
     @Override
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.resolver.java;
+
+import migratedb.v1.core.api.migration.JavaMigration;
+import migratedb.v1.core.internal.util.ClassUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.function.Supplier;
+
+/**
+ * Supplies the instance of a Java migration, instantiating its class on first use.
+ */
+final class JavaMigrationInstance implements Supplier<JavaMigration> {
+    private final String className;
+    private final @Nullable ClassLoader classLoader;
+    private volatile @Nullable JavaMigration instance;
+
+    /**
+     * Wraps a migration that is already instantiated.
+     */
+    JavaMigrationInstance(JavaMigration instance) {
+        this.className = instance.getClass().getName();
+        this.classLoader = null;
+        this.instance = instance;
+    }
+
+    /**
+     * Instantiates {@code className} through {@code classLoader} on first use.
+     */
+    JavaMigrationInstance(String className, ClassLoader classLoader) {
+        this.className = className;
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public JavaMigration get() {
+        var result = instance;
+        if (result == null) {
+            synchronized (this) {
+                result = instance;
+                if (result == null) {
+                    result = ClassUtils.instantiate(className, classLoader);
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        var result = instance;
+        return result == null ? className : result.toString();
+    }
+}
@@ -21,10 +21,12 @@ import migratedb.v1.core.api.MigrationType;
 import migratedb.v1.core.api.configuration.Configuration;
 import migratedb.v1.core.api.internal.sqlscript.SqlScriptExecutorFactory;
 import migratedb.v1.core.api.internal.sqlscript.SqlScriptFactory;
+import migratedb.v1.core.api.migration.BaseJavaMigration;
 import migratedb.v1.core.api.migration.JavaMigration;
 import migratedb.v1.core.api.resolver.Context;
 import migratedb.v1.core.api.resolver.MigrationResolver;
 import migratedb.v1.core.api.resolver.ResolvedMigration;
+import migratedb.v1.core.internal.resolver.MigrationInfoHelper;
 import migratedb.v1.core.internal.resolver.ResolvedMigrationComparator;
 import migratedb.v1.core.internal.resolver.ResolvedMigrationImpl;
 import migratedb.v1.core.internal.util.ClassUtils;
@@ -37,7 +39,8 @@ import java.util.List;
  */
 public class JavaMigrationResolver implements MigrationResolver {
     /**
-     * Creates a new ResolvedJavaMigration based on a {@link JavaMigration}.
+     * Creates a new ResolvedJavaMigration based on a {@link JavaMigration}. Its checksum is only calculated once it is
+     * needed.
      */
     public static ResolvedMigration newResolvedJavaMigration(JavaMigration javaMigration,
                                                              Configuration configuration,
@@ -46,12 +49,38 @@ public class JavaMigrationResolver implements MigrationResolver {
         return new ResolvedMigrationImpl(javaMigration.getVersion(),
                                          javaMigration.getDescription(),
                                          javaMigration.getClass().getName(),
-                                         javaMigration.getChecksum(configuration),
-                                         null,
+                                         () -> javaMigration.getChecksum(configuration),
                                          javaMigration.isBaselineMigration() ? MigrationType.JDBC_BASELINE
                                                  : MigrationType.JDBC,
                                          String.valueOf(ClassUtils.guessLocationOnDisk(javaMigration.getClass())),
-                                         new JavaMigrationExecutor(javaMigration, sqlScriptFactory, sqlScriptExecutorFactory)
+                                         new JavaMigrationExecutor(new JavaMigrationInstance(javaMigration),
+                                                                   sqlScriptFactory,
+                                                                   sqlScriptExecutorFactory)
+        );
+    }
+
+    /**
+     * Creates a new ResolvedJavaMigration for a subclass of {@link BaseJavaMigration} without instantiating it. Version
+     * and description are derived from the class name, and the class is only instantiated once the migration is
+     * executed or its checksum is needed.
+     */
+    static ResolvedMigration newLazyResolvedJavaMigration(Class<?> migrationClass,
+                                                          Configuration configuration,
+                                                          SqlScriptFactory sqlScriptFactory,
+                                                          SqlScriptExecutorFactory sqlScriptExecutorFactory) {
+        var info = MigrationInfoHelper.extractFromJavaMigrationClass(migrationClass);
+        var javaMigration = new JavaMigrationInstance(migrationClass.getName(), configuration.getClassLoader());
+        return new ResolvedMigrationImpl(info.version,
+                                         info.description,
+                                         migrationClass.getName(),
+                                         () -> javaMigration.get().getChecksum(configuration),
+                                         MigrationInfoHelper.isBaselineJavaMigration(migrationClass)
+                                                 ? MigrationType.JDBC_BASELINE
+                                                 : MigrationType.JDBC,
+                                         String.valueOf(ClassUtils.guessLocationOnDisk(migrationClass)),
+                                         new JavaMigrationExecutor(javaMigration,
+                                                                   sqlScriptFactory,
+                                                                   sqlScriptExecutorFactory)
         );
     }
 
@@ -80,6 +109,14 @@ public class JavaMigrationResolver implements MigrationResolver {
         List<ResolvedMigration> migrations = new ArrayList<>();
 
         for (Class<?> clazz : classProvider.getClasses()) {
+            if (BaseJavaMigration.class.isAssignableFrom(clazz)) {
+                migrations.add(newLazyResolvedJavaMigration(clazz,
+                                                            context.getConfiguration(),
+                                                            sqlScriptFactory,
+                                                            sqlScriptExecutorFactory));
+                continue;
+            }
+            // Version and description are up to the implementation, so it has to be instantiated right away
             JavaMigration javaMigration = ClassUtils.instantiate(clazz.getName(),
                                                                  context.getConfiguration().getClassLoader());
             migrations.add(newResolvedJavaMigration(javaMigration, context.getConfiguration(), sqlScriptFactory, sqlScriptExecutorFactory));
@@ -0,0 +1,413 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.resolver.sql;
+
+import migratedb.v1.core.api.Checksum;
+import migratedb.v1.core.api.configuration.Configuration;
+import migratedb.v1.core.api.logging.Log;
+import migratedb.v1.core.internal.info.BuildInfo;
+import migratedb.v1.core.internal.resolver.ChecksumCalculator;
+import migratedb.v1.core.internal.resource.filesystem.FileSystemResource;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Persistent cache of the checksums of SQL migrations in {@code filesystem:} locations. Entries are keyed by the
+ * absolute path of the script and are only trusted while its size and last modification time, the encoding and the
+ * values of the placeholders referenced by the script are unchanged, so resolving an unchanged script costs a single
+ * stat call instead of reading it.
+ * <p>
+ * Since a script can be changed without changing its size or modification time, a small random sample of the trusted
+ * entries is verified in the background after each run. Mismatching entries are logged and evicted.
+ * <p>
+ * The cache file only retains the scripts seen by the latest run, so it should not be shared between configurations
+ * with different locations. The cache never fails a migration. If the file cannot be read or written, checksums are
+ * calculated as usual.
+ */
+final class ResolvedMigrationCache {
+    private static final Log LOG = Log.getLog(ResolvedMigrationCache.class);
+
+    private static final int MAGIC = 0x4d444243;
+    /**
+     * Must be incremented whenever the file format or the meaning of an entry changes.
+     */
+    private static final int FORMAT_VERSION = 1;
+    /**
+     * Number of trusted entries verified in the background after each run.
+     */
+    private static final int VERIFICATION_SAMPLE_SIZE = 8;
+    /**
+     * Scripts modified less than this long before their checksum was calculated are not cached, because a change
+     * within the resolution of the file system's timestamps would go unnoticed.
+     */
+    private static final long RACY_MODIFICATION_MILLIS = 2000;
+
+    private final Path file;
+    private final Configuration configuration;
+    private final Map<String, Entry> loaded;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+    private final List<Hit> hits = new ArrayList<>();
+    private boolean changed;
+
+    private ResolvedMigrationCache(Path file, Configuration configuration, Map<String, Entry> loaded) {
+        this.file = file;
+        this.configuration = configuration;
+        this.loaded = loaded;
+    }
+
+    /**
+     * @return The cache configured by {@code configuration}, or {@code null} if caching of checksums is disabled.
+     */
+    static @Nullable ResolvedMigrationCache load(Configuration configuration) {
+        var fileName = configuration.getResolveCacheFile();
+        if (fileName == null) {
+            return null;
+        }
+        Path file;
+        try {
+            file = Paths.get(fileName).toAbsolutePath();
+        } catch (InvalidPathException e) {
+            LOG.warn("Not caching checksums of SQL migrations, invalid cache file " + fileName + ": " + e.getMessage());
+            return null;
+        }
+        Map<String, Entry> entries = new HashMap<>();
+        if (Files.isRegularFile(file)) {
+            try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION ||
+                    !in.readUTF().equals(BuildInfo.VERSION)) {
+                    throw new IOException("Unsupported format");
+                }
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    var entry = Entry.read(in);
+                    entries.put(entry.path, entry);
+                }
+            } catch (IOException | RuntimeException e) {
+                LOG.debug("Ignoring unreadable checksum cache " + file + ": " + e.getMessage());
+                entries.clear();
+            }
+        }
+        return new ResolvedMigrationCache(file, configuration, entries);
+    }
+
+    /**
+     * Looks up the checksums of a script.
+     *
+     * @param resource     The script.
+     * @param placeholders The placeholders that are replaced before calculating the checksum, or {@code null} if the
+     *                     checksum is calculated from the content as is.
+     * @return The cached checksums, or {@code null} if they must be calculated.
+     */
+    @Nullable Entry get(FileSystemResource resource, @Nullable Map<String, String> placeholders) {
+        var path = resource.getFile().toString();
+        var entry = loaded.get(path);
+        if (entry == null) {
+            return null;
+        }
+        var attributes = stat(resource.getFile());
+        if (attributes == null ||
+            entry.size != attributes.size() ||
+            !entry.lastModified.equals(attributes.lastModifiedTime().toInstant()) ||
+            !entry.encoding.equals(configuration.getEncoding().name()) ||
+            !entry.placeholderSyntax.equals(placeholderSyntax(placeholders)) ||
+            !entry.placeholderFingerprint.equals(fingerprint(entry.placeholderNames, placeholders))) {
+            return null;
+        }
+        current.put(path, entry);
+        synchronized (hits) {
+            hits.add(new Hit(resource, entry));
+        }
+        return entry;
+    }
+
+    /**
+     * Stores the checksums of a script that were calculated because {@link #get} returned {@code null}.
+     */
+    void put(FileSystemResource resource,
+             @Nullable Map<String, String> placeholders,
+             Checksum checksum,
+             @Nullable Checksum equivalentChecksum) {
+        var attributes = stat(resource.getFile());
+        if (attributes == null ||
+            attributes.lastModifiedTime().toMillis() > System.currentTimeMillis() - RACY_MODIFICATION_MILLIS) {
+            return;
+        }
+        List<String> placeholderNames = List.of();
+        if (placeholders != null) {
+            try (var reader = resource.read(configuration.getEncoding())) {
+                placeholderNames = referencedPlaceholders(reader,
+                                                          configuration.getPlaceholderPrefix(),
+                                                          configuration.getPlaceholderSuffix());
+            } catch (IOException | RuntimeException e) {
+                LOG.debug("Not caching checksum of " + resource.getName() + ": " + e.getMessage());
+                return;
+            }
+        }
+        var path = resource.getFile().toString();
+        current.put(path, new Entry(path,
+                                    attributes.size(),
+                                    attributes.lastModifiedTime().toInstant(),
+                                    configuration.getEncoding().name(),
+                                    placeholderSyntax(placeholders),
+                                    placeholderNames,
+                                    fingerprint(placeholderNames, placeholders),
+                                    checksum,
+                                    equivalentChecksum));
+        changed = true;
+    }
+
+    /**
+     * Writes the entries used by this run to the cache file, then verifies a random sample of the trusted entries in
+     * the background.
+     */
+    void save() {
+        if (changed || !current.keySet().equals(loaded.keySet())) {
+            write();
+        }
+        List<Hit> sample;
+        synchronized (hits) {
+            Collections.shuffle(hits, ThreadLocalRandom.current());
+            sample = new ArrayList<>(hits.subList(0, Math.min(hits.size(), VERIFICATION_SAMPLE_SIZE)));
+            hits.clear();
+        }
+        if (!sample.isEmpty()) {
+            var thread = new Thread(() -> verify(sample), "migratedb-checksum-verifier");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Recalculates the checksum of each sampled script and evicts the entries that turn out to be stale.
+     */
+    private void verify(List<Hit> sample) {
+        boolean evicted = false;
+        for (var hit : sample) {
+            try {
+                var actual = ChecksumCalculator.calculate(List.of(hit.resource), configuration);
+                if (!actual.equals(hit.entry.contentChecksum())) {
+                    LOG.warn("Cached checksum of " + hit.resource.describeLocation() + " is stale although its size" +
+                             " and modification time are unchanged. It will be recalculated on the next run.");
+                    evicted |= current.remove(hit.entry.path, hit.entry);
+                }
+            } catch (RuntimeException e) {
+                LOG.debug("Unable to verify cached checksum of " + hit.resource.getName() + ": " + e.getMessage());
+            }
+        }
+        if (evicted) {
+            write();
+        }
+    }
+
+    private synchronized void write() {
+        Path tempFile = null;
+        try {
+            var parent = file.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            tempFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(BuildInfo.VERSION);
+                var entries = new ArrayList<>(current.values());
+                out.writeInt(entries.size());
+                for (var entry : entries) {
+                    entry.write(out);
+                }
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tempFile = null;
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Unable to write checksum cache " + file + ": " + e.getMessage());
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    LOG.debug("Unable to delete " + tempFile + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static @Nullable BasicFileAttributes stat(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private String placeholderSyntax(@Nullable Map<String, String> placeholders) {
+        if (placeholders == null) {
+            return "";
+        }
+        return configuration.getPlaceholderPrefix() + "\0" + configuration.getPlaceholderSuffix();
+    }
+
+    /**
+     * @return The names of the placeholders that occur in the content of {@code reader}, sorted case-insensitively.
+     */
+    static List<String> referencedPlaceholders(Reader reader, String prefix, String suffix) throws IOException {
+        var content = new StringBuilder();
+        char[] buffer = new char[8192];
+        int n;
+        while ((n = reader.read(buffer)) != -1) {
+            content.append(buffer, 0, n);
+        }
+        var names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        int start = content.indexOf(prefix);
+        while (start >= 0) {
+            int end = content.indexOf(suffix, start + prefix.length());
+            if (end < 0) {
+                break;
+            }
+            names.add(content.substring(start + prefix.length(), end));
+            start = content.indexOf(prefix, end + suffix.length());
+        }
+        return List.copyOf(names);
+    }
+
+    /**
+     * Only the placeholders that occur in a script affect its checksum, which keeps entries valid even though some
+     * built-in placeholders (like the timestamp) change on every run.
+     */
+    static String fingerprint(List<String> names, @Nullable Map<String, String> placeholders) {
+        if (placeholders == null || names.isEmpty()) {
+            return "";
+        }
+        var caseInsensitive = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+        caseInsensitive.putAll(placeholders);
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (var name : names) {
+            digest.update((name + "=" + caseInsensitive.get(name)).getBytes(UTF_8));
+            digest.update((byte) 0);
+        }
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    static final class Entry {
+        final String path;
+        final long size;
+        final Instant lastModified;
+        final String encoding;
+        final String placeholderSyntax;
+        final List<String> placeholderNames;
+        final String placeholderFingerprint;
+        final Checksum checksum;
+        final @Nullable Checksum equivalentChecksum;
+
+        Entry(String path,
+              long size,
+              Instant lastModified,
+              String encoding,
+              String placeholderSyntax,
+              List<String> placeholderNames,
+              String placeholderFingerprint,
+              Checksum checksum,
+              @Nullable Checksum equivalentChecksum) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.encoding = encoding;
+            this.placeholderSyntax = placeholderSyntax;
+            this.placeholderNames = placeholderNames;
+            this.placeholderFingerprint = placeholderFingerprint;
+            this.checksum = checksum;
+            this.equivalentChecksum = equivalentChecksum;
+        }
+
+        /**
+         * @return The checksum of the script content without placeholder replacement.
+         */
+        Checksum contentChecksum() {
+            return equivalentChecksum != null ? equivalentChecksum : checksum;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeUTF(path);
+            out.writeLong(size);
+            out.writeLong(lastModified.getEpochSecond());
+            out.writeInt(lastModified.getNano());
+            out.writeUTF(encoding);
+            out.writeUTF(placeholderSyntax);
+            out.writeInt(placeholderNames.size());
+            for (var name : placeholderNames) {
+                out.writeUTF(name);
+            }
+            out.writeUTF(placeholderFingerprint);
+            out.writeUTF(checksum.toString());
+            out.writeUTF(equivalentChecksum == null ? "" : equivalentChecksum.toString());
+        }
+
+        static Entry read(DataInputStream in) throws IOException {
+            var path = in.readUTF();
+            long size = in.readLong();
+            var lastModified = Instant.ofEpochSecond(in.readLong(), in.readInt());
+            var encoding = in.readUTF();
+            var placeholderSyntax = in.readUTF();
+            int nameCount = in.readInt();
+            var placeholderNames = new ArrayList<String>();
+            for (int i = 0; i < nameCount; i++) {
+                placeholderNames.add(in.readUTF());
+            }
+            var placeholderFingerprint = in.readUTF();
+            var checksum = Checksum.parse(in.readUTF());
+            var equivalentChecksum = in.readUTF();
+            return new Entry(path,
+                             size,
+                             lastModified,
+                             encoding,
+                             placeholderSyntax,
+                             List.copyOf(placeholderNames),
+                             placeholderFingerprint,
+                             checksum,
+                             equivalentChecksum.isEmpty() ? null : Checksum.parse(equivalentChecksum));
+        }
+    }
+
+    private static final class Hit {
+        final FileSystemResource resource;
+        final Entry entry;
+
+        Hit(FileSystemResource resource, Entry entry) {
+            this.resource = resource;
+            this.entry = entry;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import migratedb.v1.core.api.internal.database.DatabaseExecutionStrategy;
 import migratedb.v1.core.api.internal.database.base.DatabaseType;
 import migratedb.v1.core.api.internal.sqlscript.SqlScript;
 import migratedb.v1.core.api.internal.sqlscript.SqlScriptExecutorFactory;
+import migratedb.v1.core.internal.util.OperationContext;
 
 import java.sql.SQLException;
 
@@ -48,6 +49,7 @@ public class SqlMigrationExecutor implements MigrationExecutor {
 
     @Override
     public void execute(Context context) throws SQLException {
+        OperationContext.overrideTimeouts(sqlScript.statementTimeout(), sqlScript.migrationTimeout());
         DatabaseType databaseType = context.getConfiguration()
                                            .getDatabaseTypeRegister()
                                            .getDatabaseTypeForConnection(context.getConnection());
@@ -66,6 +68,14 @@ public class SqlMigrationExecutor implements MigrationExecutor {
                                 .execute(sqlScript);
     }
 
+    /**
+     * Parses the SQL script ahead of its execution. Can be called from a thread other than the one executing the
+     * migration.
+     */
+    public void parseScript() {
+        sqlScript.validate();
+    }
+
     @Override
     public boolean canExecuteInTransaction() {
         return sqlScript.executeInTransaction();
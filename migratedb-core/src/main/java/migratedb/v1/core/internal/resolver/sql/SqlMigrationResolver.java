@@ -34,13 +34,19 @@ import migratedb.v1.core.internal.parser.PlaceholderReplacingReader;
 import migratedb.v1.core.internal.resolver.ChecksumCalculator;
 import migratedb.v1.core.internal.resolver.ResolvedMigrationComparator;
 import migratedb.v1.core.internal.resolver.ResolvedMigrationImpl;
+import migratedb.v1.core.internal.resource.CompressionFormat;
 import migratedb.v1.core.internal.resource.ResourceNameParser;
+import migratedb.v1.core.internal.resource.filesystem.FileSystemResource;
+import migratedb.v1.core.internal.sqlscript.ParserSqlScript;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.io.IOException;
 import java.io.Reader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Migration resolver for SQL file resources.
@@ -51,6 +57,13 @@ public class SqlMigrationResolver implements MigrationResolver {
     private final SqlScriptFactory sqlScriptFactory;
     private final Configuration configuration;
     private final ParsingContext parsingContext;
+    /**
+     * The migrations of previous calls to {@link #resolveMigrations}, by resource location. A migration is resolved
+     * again only when the values of the placeholders that its checksum depends on change, so a resolver that is kept
+     * between commands only recalculates the checksums of repeatable migrations that use e.g. {@code
+     * ${migratedb:timestamp}}.
+     */
+    private final Map<String, PreviouslyResolved> previouslyResolved = new HashMap<>();
 
     public SqlMigrationResolver(ResourceProvider resourceProvider,
                                 SqlScriptExecutorFactory sqlScriptExecutorFactory,
@@ -67,9 +80,13 @@ public class SqlMigrationResolver implements MigrationResolver {
     @Override
     public List<ResolvedMigration> resolveMigrations(Context context) {
         List<ResolvedMigration> migrations = new ArrayList<>();
-        var suffixes = configuration.getSqlMigrationSuffixes();
-        addMigrations(migrations, configuration.getSqlMigrationPrefix(), suffixes, false);
-        addMigrations(migrations, configuration.getRepeatableSqlMigrationPrefix(), suffixes, true);
+        var suffixes = CompressionFormat.withCompressedVariants(configuration.getSqlMigrationSuffixes());
+        var cache = ResolvedMigrationCache.load(configuration);
+        addMigrations(migrations, configuration.getSqlMigrationPrefix(), suffixes, false, cache);
+        addMigrations(migrations, configuration.getRepeatableSqlMigrationPrefix(), suffixes, true, cache);
+        if (cache != null) {
+            cache.save();
+        }
         migrations.sort(new ResolvedMigrationComparator());
         return migrations;
     }
@@ -114,6 +131,19 @@ public class SqlMigrationResolver implements MigrationResolver {
         return ChecksumCalculator.calculate(resources, configuration);
     }
 
+    /**
+     * @return The placeholders that are replaced before calculating the checksum of a resource, or {@code null} if its
+     * checksum is calculated from its content as is.
+     */
+    private @Nullable Map<String, String> getPlaceholdersForChecksum(boolean repeatable, ResourceName resourceName) {
+        if (!repeatable || !configuration.isPlaceholderReplacement()) {
+            return null;
+        }
+        Map<String, String> placeholders = new HashMap<>(configuration.getPlaceholders());
+        placeholders.putAll(parsingContext.forResource(resourceName).getPlaceholders());
+        return placeholders;
+    }
+
     private @Nullable Checksum getEquivalentChecksumForResource(boolean repeatable,
                                                                 List<Resource> resources) {
         if (repeatable) {
@@ -125,7 +155,8 @@ public class SqlMigrationResolver implements MigrationResolver {
     private void addMigrations(List<ResolvedMigration> migrations,
                                String prefix,
                                List<String> suffixes,
-                               boolean repeatable) {
+                               boolean repeatable,
+                               @Nullable ResolvedMigrationCache cache) {
         ResourceNameParser resourceNameParser = new ResourceNameParser(configuration);
 
         for (Resource resource : resourceProvider.getResources(prefix, suffixes)) {
@@ -135,16 +166,44 @@ public class SqlMigrationResolver implements MigrationResolver {
                 continue;
             }
 
+            var placeholders = getPlaceholdersForChecksum(repeatable, resourceName);
+            var previous = previouslyResolved.get(resource.describeLocation());
+            if (previous != null && previous.isCurrent(placeholders)) {
+                migrations.add(previous.migration);
+                continue;
+            }
+
             SqlScript sqlScript = sqlScriptFactory.createSqlScript(resource, configuration.isMixed(), resourceProvider);
 
             List<Resource> resources = new ArrayList<>();
             resources.add(resource);
 
-            var checksum = getChecksumForResource(repeatable, resources, resourceName);
-            var equivalentChecksum = getEquivalentChecksumForResource(repeatable, resources);
+            Checksum checksum;
+            Checksum equivalentChecksum;
+            if (cache != null && resource instanceof FileSystemResource) {
+                var fileSystemResource = (FileSystemResource) resource;
+                var cached = cache.get(fileSystemResource, placeholders);
+                if (cached != null) {
+                    checksum = cached.checksum;
+                    equivalentChecksum = cached.equivalentChecksum;
+                } else {
+                    checksum = getChecksumForResource(repeatable, resources, resourceName);
+                    equivalentChecksum = getEquivalentChecksumForResource(repeatable, resources);
+                    cache.put(fileSystemResource, placeholders, checksum, equivalentChecksum);
+                }
+            } else {
+                checksum = getChecksumForResource(repeatable, resources, resourceName);
+                equivalentChecksum = getEquivalentChecksumForResource(repeatable, resources);
+            }
+
+            if (sqlScript instanceof ParserSqlScript) {
+                // The checksum of a repeatable migration may include replaced placeholders, its equivalent checksum
+                // never does
+                ((ParserSqlScript) sqlScript).setContentChecksum(repeatable ? equivalentChecksum : checksum);
+            }
 
             var isBaseline = filename.startsWith(configuration.getBaselineMigrationPrefix());
-            migrations.add(new ResolvedMigrationImpl(
+            var migration = new ResolvedMigrationImpl(
                     resourceName.getVersion(),
                     resourceName.getDescription(),
                     resource.getLastNameComponent(),
@@ -153,7 +212,47 @@ public class SqlMigrationResolver implements MigrationResolver {
                     isBaseline ? MigrationType.SQL_BASELINE : MigrationType.SQL,
                     resource.describeLocation(),
                     new SqlMigrationExecutor(sqlScriptExecutorFactory, sqlScript)) {
-            });
+            };
+            migrations.add(migration);
+            remember(resource, placeholders, migration);
+        }
+    }
+
+    private void remember(Resource resource, @Nullable Map<String, String> placeholders, ResolvedMigration migration) {
+        List<String> placeholderNames = List.of();
+        if (placeholders != null) {
+            try (var reader = resource.read(configuration.getEncoding())) {
+                placeholderNames = ResolvedMigrationCache.referencedPlaceholders(reader,
+                                                                                 configuration.getPlaceholderPrefix(),
+                                                                                 configuration.getPlaceholderSuffix());
+            } catch (IOException | RuntimeException e) {
+                previouslyResolved.remove(resource.describeLocation());
+                return;
+            }
+        }
+        previouslyResolved.put(resource.describeLocation(),
+                               new PreviouslyResolved(migration,
+                                                      placeholderNames,
+                                                      ResolvedMigrationCache.fingerprint(placeholderNames,
+                                                                                         placeholders)));
+    }
+
+    private static final class PreviouslyResolved {
+        final ResolvedMigration migration;
+        /**
+         * The placeholders that occur in the script, empty if its checksum doesn't depend on placeholders.
+         */
+        final List<String> placeholderNames;
+        final String placeholderFingerprint;
+
+        PreviouslyResolved(ResolvedMigration migration, List<String> placeholderNames, String placeholderFingerprint) {
+            this.migration = migration;
+            this.placeholderNames = placeholderNames;
+            this.placeholderFingerprint = placeholderFingerprint;
+        }
+
+        boolean isCurrent(@Nullable Map<String, String> placeholders) {
+            return placeholderFingerprint.equals(ResolvedMigrationCache.fingerprint(placeholderNames, placeholders));
         }
     }
 
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.resource;
+
+import migratedb.v1.core.api.MigrateDbException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Compression formats of resources, recognized by an additional suffix after the regular one (e.g. {@code
+ * V1__Seed.sql.gz}). Compressed resources are decompressed while they are read, so everything that reads their content
+ * (checksum calculation, parsing) sees the original content. In particular, compressing a migration does not change its
+ * checksum.
+ * <p>
+ * Gzip is supported out of the box. Zstandard requires either {@code com.github.luben:zstd-jni} or {@code
+ * io.airlift:aircompressor} on the class path.
+ */
+public enum CompressionFormat {
+    GZIP(".gz") {
+        @Override
+        InputStream decompress(InputStream stream) throws IOException {
+            return new GZIPInputStream(stream, BUFFER_SIZE);
+        }
+    },
+    ZSTD(".zst") {
+        @Override
+        InputStream decompress(InputStream stream) throws IOException {
+            for (var className : ZSTD_INPUT_STREAM_CLASSES) {
+                Class<?> inputStreamClass;
+                try {
+                    inputStreamClass = Class.forName(className, true, CompressionFormat.class.getClassLoader());
+                } catch (ClassNotFoundException | LinkageError e) {
+                    continue;
+                }
+                try {
+                    return new BufferedInputStream((InputStream) inputStreamClass.getConstructor(InputStream.class)
+                                                                                 .newInstance(stream), BUFFER_SIZE);
+                } catch (ReflectiveOperationException e) {
+                    throw new IOException("Cannot create " + className, e);
+                }
+            }
+            throw new MigrateDbException("Reading Zstandard-compressed resources requires one of " +
+                                         String.join(", ", ZSTD_INPUT_STREAM_CLASSES) + " on the class path");
+        }
+    };
+
+    private static final int BUFFER_SIZE = 65536;
+    private static final List<String> ZSTD_INPUT_STREAM_CLASSES = List.of("com.github.luben.zstd.ZstdInputStream",
+                                                                          "io.airlift.compress.zstd.ZstdInputStream");
+
+    private final String suffix;
+
+    CompressionFormat(String suffix) {
+        this.suffix = suffix;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    abstract InputStream decompress(InputStream stream) throws IOException;
+
+    /**
+     * @return The compression format of a resource, or {@code null} if its name doesn't end with a compression suffix.
+     */
+    public static @Nullable CompressionFormat of(String resourceName) {
+        for (var format : values()) {
+            if (resourceName.endsWith(format.suffix)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return {@code resourceName} without its compression suffix, if any.
+     */
+    public static String stripSuffix(String resourceName) {
+        var format = of(resourceName);
+        if (format == null) {
+            return resourceName;
+        }
+        return resourceName.substring(0, resourceName.length() - format.suffix.length());
+    }
+
+    /**
+     * @return {@code suffixes} followed by each of them combined with each compression suffix.
+     */
+    public static List<String> withCompressedVariants(Collection<String> suffixes) {
+        var result = new ArrayList<String>(suffixes);
+        for (var format : values()) {
+            for (var suffix : suffixes) {
+                result.add(suffix + format.suffix);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Opens a reader on the content of a resource, decompressing it if its name has a compression suffix. Takes
+     * ownership of {@code stream}.
+     */
+    public static Reader newReader(String resourceName, InputStream stream, Charset charset) {
+        var format = of(resourceName);
+        if (format == null) {
+            return new InputStreamReader(stream, charset);
+        }
+        try {
+            return new InputStreamReader(format.decompress(stream), charset);
+        } catch (IOException | RuntimeException e) {
+            try {
+                stream.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e instanceof MigrateDbException
+                  ? (MigrateDbException) e
+                  : new MigrateDbException("Cannot decompress resource " + resourceName, e);
+        }
+    }
+}
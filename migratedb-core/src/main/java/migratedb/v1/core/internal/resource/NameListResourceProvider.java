@@ -18,7 +18,6 @@ package migratedb.v1.core.internal.resource;
 
 import migratedb.v1.core.api.ResourceProvider;
 import migratedb.v1.core.api.resource.Resource;
-import migratedb.v1.core.internal.util.StringUtils;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Arrays;
@@ -27,10 +26,12 @@ import java.util.stream.Collectors;
 
 public abstract class NameListResourceProvider implements ResourceProvider {
     private final String[] names;
+    private final ResourceNameIndex<String> index;
 
     public NameListResourceProvider(Collection<String> names) {
         this.names = names.toArray(String[]::new);
         Arrays.sort(this.names);
+        this.index = new ResourceNameIndex<>(Arrays.asList(this.names), Resource::lastNameComponentOf);
     }
 
     @Override
@@ -44,10 +45,10 @@ public abstract class NameListResourceProvider implements ResourceProvider {
 
     @Override
     public final Collection<Resource> getResources(String prefix, Collection<String> suffixes) {
-        return Arrays.stream(names)
-                     .filter(it -> StringUtils.startsAndEndsWith(Resource.lastNameComponentOf(it), prefix, suffixes))
-                     .map(this::toResource)
-                     .collect(Collectors.toList());
+        return index.find(prefix, suffixes)
+                    .stream()
+                    .map(this::toResource)
+                    .collect(Collectors.toList());
     }
 
     protected abstract Resource toResource(String name);
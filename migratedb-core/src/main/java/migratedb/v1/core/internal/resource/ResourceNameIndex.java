@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.resource;
+
+import migratedb.v1.core.internal.util.StringUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Immutable index of items by file name (the last name component of a resource) that answers the prefix/suffix queries
+ * of {@link migratedb.v1.core.api.ResourceProvider#getResources(String, Collection)}.
+ * <p>
+ * Items are bucketed by file extension, and each bucket is sorted by file name. A query for a suffix like {@code
+ * ".sql"} only looks at the {@code sql} bucket and finds the items with the requested prefix by binary search, so it
+ * costs O(log n + k) for k results. Suffixes without a dot can't be mapped to a bucket and fall back to the prefix
+ * range of all items.
+ */
+public final class ResourceNameIndex<T> {
+    private final List<T> items;
+    private final Bucket all;
+    private final Map<String, Bucket> bucketsByExtension = new HashMap<>();
+
+    /**
+     * @param items      The items to index. Query results preserve the order of this list.
+     * @param fileNameOf Computes the file name of an item.
+     */
+    public ResourceNameIndex(List<T> items, Function<? super T, String> fileNameOf) {
+        this.items = List.copyOf(items);
+        var fileNames = new String[this.items.size()];
+        Map<String, List<Integer>> idsByExtension = new HashMap<>();
+        for (int id = 0; id < fileNames.length; id++) {
+            var fileName = fileNameOf.apply(this.items.get(id));
+            fileNames[id] = fileName;
+            var extension = extensionOf(fileName);
+            if (extension != null) {
+                idsByExtension.computeIfAbsent(extension, it -> new ArrayList<>()).add(id);
+            }
+        }
+        List<Integer> allIds = new ArrayList<>(fileNames.length);
+        for (int id = 0; id < fileNames.length; id++) {
+            allIds.add(id);
+        }
+        this.all = new Bucket(allIds, fileNames);
+        idsByExtension.forEach((extension, ids) -> bucketsByExtension.put(extension, new Bucket(ids, fileNames)));
+    }
+
+    /**
+     * @return The items whose file name begins with {@code prefix} and ends with any of {@code suffixes}, following the
+     * rules of {@link StringUtils#startsAndEndsWith(String, String, Collection)}.
+     */
+    public List<T> find(String prefix, Collection<String> suffixes) {
+        var ids = new BitSet(items.size());
+        for (var suffix : suffixes) {
+            int dot = suffix.lastIndexOf('.');
+            Bucket bucket;
+            if (dot < 0) {
+                bucket = all;
+            } else {
+                bucket = bucketsByExtension.get(suffix.substring(dot + 1));
+                if (bucket == null) {
+                    continue;
+                }
+            }
+            bucket.find(prefix, suffix, ids);
+        }
+        var result = new ArrayList<T>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            result.add(items.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * @return The text after the last dot of {@code fileName}, or {@code null} if it has no dot.
+     */
+    private static @Nullable String extensionOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? null : fileName.substring(dot + 1);
+    }
+
+    private static final class Bucket {
+        private final String[] fileNames;
+        private final int[] ids;
+
+        Bucket(List<Integer> ids, String[] allFileNames) {
+            var sorted = new ArrayList<>(ids);
+            sorted.sort(Comparator.comparing(id -> allFileNames[id]));
+            this.fileNames = new String[sorted.size()];
+            this.ids = new int[sorted.size()];
+            for (int i = 0; i < this.ids.length; i++) {
+                this.ids[i] = sorted.get(i);
+                this.fileNames[i] = allFileNames[this.ids[i]];
+            }
+        }
+
+        void find(String prefix, String suffix, BitSet result) {
+            var suffixes = List.of(suffix);
+            for (int i = lowerBound(prefix); i < fileNames.length && fileNames[i].startsWith(prefix); i++) {
+                if (StringUtils.startsAndEndsWith(fileNames[i], prefix, suffixes)) {
+                    result.set(ids[i]);
+                }
+            }
+        }
+
+        /**
+         * @return The index of the first file name that is not less than {@code key}.
+         */
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = fileNames.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (fileNames[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -62,8 +62,8 @@ public class ResourceNameParser {
     }
 
     public ResourceName parse(String resourceName, Collection<String> suffixes) {
-        // Strip off suffixes
-        var suffixResult = stripSuffix(resourceName, suffixes);
+        // Strip off suffixes, looking through compression
+        var suffixResult = stripSuffix(CompressionFormat.stripSuffix(resourceName), suffixes);
 
         // Find the appropriate prefix
         var prefix = findPrefix(suffixResult.prefix, prefixes);
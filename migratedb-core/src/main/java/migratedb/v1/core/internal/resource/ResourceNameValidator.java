@@ -65,6 +65,7 @@ public class ResourceNameValidator {
     }
 
     private Collection<Resource> getAllSqlResources(ResourceProvider provider, Configuration configuration) {
-        return provider.getResources("", configuration.getSqlMigrationSuffixes());
+        return provider.getResources("",
+                                     CompressionFormat.withCompressedVariants(configuration.getSqlMigrationSuffixes()));
     }
 }
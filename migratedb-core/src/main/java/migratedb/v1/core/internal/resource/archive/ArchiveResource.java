@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.resource.archive;
+
+import migratedb.v1.core.api.MigrateDbException;
+import migratedb.v1.core.api.resource.Resource;
+import migratedb.v1.core.internal.resource.CompressionFormat;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.zip.CRC32;
+
+public class ArchiveResource implements Resource {
+    private final MigrationArchive archive;
+    private final MigrationArchive.Entry entry;
+
+    public ArchiveResource(MigrationArchive archive, MigrationArchive.Entry entry) {
+        this.archive = archive;
+        this.entry = entry;
+    }
+
+    @Override
+    public Reader read(Charset charset) {
+        var content = archive.content(entry);
+        var checksum = new CRC32();
+        checksum.update(content.duplicate());
+        if ((int) checksum.getValue() != entry.getCrc32()) {
+            throw new MigrateDbException("Checksum mismatch of " + describeLocation() + ", the archive is corrupt");
+        }
+        return CompressionFormat.newReader(entry.getName(), new ByteBufferInputStream(content), charset);
+    }
+
+    @Override
+    public String getName() {
+        return entry.getName();
+    }
+
+    @Override
+    public String describeLocation() {
+        return "archive: " + archive.getFile() + "!/" + entry.getName();
+    }
+
+    @Override
+    public String toString() {
+        return describeLocation();
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? Byte.toUnsignedInt(buffer.get()) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
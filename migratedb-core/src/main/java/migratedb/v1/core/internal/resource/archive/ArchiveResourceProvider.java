@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.resource.archive;
+
+import migratedb.v1.core.api.ResourceProvider;
+import migratedb.v1.core.api.resource.Resource;
+import migratedb.v1.core.internal.resource.ResourceNameIndex;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Provides the resources of a {@link MigrationArchive}. The archive is opened when resources are first requested.
+ */
+public class ArchiveResourceProvider implements ResourceProvider {
+    private final Path archiveFile;
+    private volatile @Nullable Contents contents;
+
+    public ArchiveResourceProvider(Path archiveFile) {
+        this.archiveFile = archiveFile;
+    }
+
+    @Override
+    public @Nullable Resource getResource(String name) {
+        return getContents().resourcesByName.get(name);
+    }
+
+    @Override
+    public Collection<Resource> getResources(String prefix, Collection<String> suffixes) {
+        return new ArrayList<>(getContents().index.find(prefix, suffixes));
+    }
+
+    private Contents getContents() {
+        var result = contents;
+        if (result == null) {
+            synchronized (this) {
+                result = contents;
+                if (result == null) {
+                    result = new Contents(MigrationArchive.open(archiveFile));
+                    contents = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static final class Contents {
+        final Map<String, Resource> resourcesByName = new LinkedHashMap<>();
+        final ResourceNameIndex<Resource> index;
+
+        Contents(MigrationArchive archive) {
+            for (var entry : archive.getEntries()) {
+                resourcesByName.put(entry.getName(), new ArchiveResource(archive, entry));
+            }
+            index = new ResourceNameIndex<>(new ArrayList<>(resourcesByName.values()), Resource::getLastNameComponent);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.resource.archive;
+
+import migratedb.v1.core.api.MigrateDbException;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A single file that contains many resources, so they can be read without opening a file (or looking up a class path
+ * resource) per script. The file is memory-mapped, and the content of each resource is a slice of the mapping.
+ * <p>
+ * The layout (version 1) is:
+ * <pre>
+ * magic "MDBA", format version (1 byte)
+ * entry count (4 bytes), then for each entry in name order:
+ *     UTF-8 name (4 bytes length + bytes), offset from the start of the data section (8 bytes),
+ *     size (8 bytes), CRC-32 of the content (4 bytes)
+ * CRC-32 of the header, i.e. all preceding bytes (4 bytes)
+ * data section: the concatenated contents
+ * </pre>
+ * The header is validated when the archive is opened. The content of a resource is validated against its CRC-32 each
+ * time it is read.
+ */
+public final class MigrationArchive {
+    private static final byte[] MAGIC = { 'M', 'D', 'B', 'A' };
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path file;
+    private final List<Entry> entries;
+    private final ByteBuffer data;
+    private final int headerChecksum;
+
+    private MigrationArchive(Path file, List<Entry> entries, ByteBuffer data, int headerChecksum) {
+        this.file = file;
+        this.entries = entries;
+        this.data = data;
+        this.headerChecksum = headerChecksum;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return The CRC-32 of the header. Since the header contains the CRC-32 of each resource, it changes whenever the
+     * content of the archive changes.
+     */
+    public int getHeaderChecksum() {
+        return headerChecksum;
+    }
+
+    /**
+     * @return The entries, sorted by name.
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return The content of {@code entry}, as a read-only buffer of its own.
+     */
+    ByteBuffer content(Entry entry) {
+        int start = (int) entry.offset;
+        return data.duplicate().position(start).limit(start + (int) entry.size).slice();
+    }
+
+    /**
+     * Opens and memory-maps an archive.
+     *
+     * @throws MigrateDbException If the file can't be read or is not a valid archive.
+     */
+    public static MigrationArchive open(Path file) {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new MigrateDbException("Migration archive " + file + " is larger than 2 GB");
+            }
+            var mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize).asReadOnlyBuffer();
+            return read(file, mapped);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            throw new MigrateDbException("Unable to open migration archive " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static MigrationArchive read(Path file, ByteBuffer buffer) throws IOException {
+        var magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a migration archive");
+        }
+        int version = Byte.toUnsignedInt(buffer.get());
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported format version " + version);
+        }
+        int count = buffer.getInt();
+        if (count < 0) {
+            throw new IOException("Invalid entry count " + count);
+        }
+        var entries = new ArrayList<Entry>(Math.min(count, 65536));
+        for (int i = 0; i < count; i++) {
+            int nameLength = buffer.getInt();
+            if (nameLength < 0 || nameLength > buffer.remaining()) {
+                throw new IOException("Invalid name length " + nameLength);
+            }
+            var name = new byte[nameLength];
+            buffer.get(name);
+            entries.add(new Entry(new String(name, UTF_8), buffer.getLong(), buffer.getLong(), buffer.getInt()));
+        }
+        int headerSize = buffer.position();
+        var checksum = new CRC32();
+        checksum.update(buffer.duplicate().position(0).limit(headerSize));
+        int headerChecksum = buffer.getInt();
+        if (headerChecksum != (int) checksum.getValue()) {
+            throw new IOException("Header checksum mismatch");
+        }
+        var data = buffer.slice();
+        for (var entry : entries) {
+            if (entry.offset < 0 || entry.size < 0 || entry.offset + entry.size > data.capacity()) {
+                throw new IOException("Entry " + entry.name + " is out of bounds");
+            }
+        }
+        return new MigrationArchive(file, Collections.unmodifiableList(entries), data, headerChecksum);
+    }
+
+    /**
+     * Writes an archive that contains all regular files in {@code sourceDirectory} and its subdirectories, named by
+     * their slash-separated path relative to {@code sourceDirectory}.
+     */
+    public static void write(Path sourceDirectory, Path archiveFile) throws IOException {
+        var files = new TreeMap<String, Path>();
+        Files.walkFileTree(sourceDirectory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    var segments = new ArrayList<String>();
+                    sourceDirectory.relativize(file).forEach(it -> segments.add(it.toString()));
+                    files.put(String.join("/", segments), file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        var entries = new ArrayList<Entry>(files.size());
+        long offset = 0;
+        for (var file : files.entrySet()) {
+            var entry = new Entry(file.getKey(), offset, Files.size(file.getValue()), crc32(file.getValue()));
+            entries.add(entry);
+            offset += entry.size;
+        }
+
+        var parent = archiveFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        var tempFile = Files.createTempFile(parent, archiveFile.getFileName().toString(), ".tmp");
+        try {
+            try (var stream = new BufferedOutputStream(Files.newOutputStream(tempFile), 65536)) {
+                var checked = new CheckedOutputStream(stream, new CRC32());
+                var header = new DataOutputStream(checked);
+                header.write(MAGIC);
+                header.writeByte(FORMAT_VERSION);
+                header.writeInt(entries.size());
+                for (var entry : entries) {
+                    var name = entry.name.getBytes(UTF_8);
+                    header.writeInt(name.length);
+                    header.write(name);
+                    header.writeLong(entry.offset);
+                    header.writeLong(entry.size);
+                    header.writeInt(entry.crc32);
+                }
+                header.flush();
+                new DataOutputStream(stream).writeInt((int) checked.getChecksum().getValue());
+                for (var file : files.values()) {
+                    Files.copy(file, stream);
+                }
+            }
+            Files.move(tempFile, archiveFile, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static int crc32(Path file) throws IOException {
+        var checksum = new CRC32();
+        try (var stream = Files.newInputStream(file)) {
+            var buffer = new byte[65536];
+            int n;
+            while ((n = stream.read(buffer)) != -1) {
+                checksum.update(buffer, 0, n);
+            }
+        }
+        return (int) checksum.getValue();
+    }
+
+    public static final class Entry {
+        private final String name;
+        private final long offset;
+        private final long size;
+        private final int crc32;
+
+        Entry(String name, long offset, long size, int crc32) {
+            this.name = name;
+            this.offset = offset;
+            this.size = size;
+            this.crc32 = crc32;
+        }
+
+        /**
+         * @return The slash-separated resource name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public int getCrc32() {
+            return crc32;
+        }
+    }
+}
@@ -0,0 +1,425 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.resource.classpath;
+
+import migratedb.v1.core.api.Location.ClassPathLocation;
+import migratedb.v1.core.api.MigrateDbException;
+import migratedb.v1.core.api.logging.Log;
+import migratedb.v1.core.internal.sqlscript.StatementBundle;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The classes and resources of a {@link ClassPathLocation}, as listed by the index files that the build time scanner
+ * writes.
+ * <p>
+ * Besides the plain text indexes ({@link ClassPathLocation#CLASS_LIST_RESOURCE_NAME} and {@link
+ * ClassPathLocation#RESOURCE_LIST_RESOURCE_NAME}) the scanner can emit a binary index ({@link
+ * ClassPathLocation#BINARY_INDEX_RESOURCE_NAME}) that is more compact, faster to read and carries additional metadata.
+ * Its layout (version 1) is:
+ * <pre>
+ * magic "MDBI", format version (1 byte)
+ * class count (varint), then for each class in name order:
+ *     length of the name prefix shared with the previous name (varint), remaining UTF-8 bytes (varint length + bytes),
+ *     flags (1 byte)
+ * resource count (varint), then for each resource in name order:
+ *     shared prefix length and remaining bytes as above, size in bytes (varint), CRC-32 of the content (4 bytes)
+ * CRC-32 of all preceding bytes (4 bytes)
+ * </pre>
+ * The text indexes are still written next to a binary index. A binary index that can't be read, e.g. because it has a
+ * newer format version, is ignored in favor of them.
+ * <p>
+ * The pre-parsed statements of {@link ClassPathLocation#STATEMENT_BUNDLE_RESOURCE_NAME} are loaded along with the
+ * index, see {@link StatementBundle}.
+ * <p>
+ * Parsed indexes are cached per class loader. A cached index is reused as long as the class loader finds the same index
+ * files with the same size and modification time, so indexes that are rewritten in an exploded class directory (e.g.
+ * by an IDE build) are picked up.
+ */
+public final class ClassPathIndex {
+    private static final Log LOG = Log.getLog(ClassPathIndex.class);
+
+    private static final byte[] MAGIC = { 'M', 'D', 'B', 'I' };
+    private static final int FORMAT_VERSION = 1;
+    private static final int FLAG_MIGRATION_CANDIDATE = 1;
+
+    private static final List<String> INDEX_FILE_NAMES = List.of(ClassPathLocation.BINARY_INDEX_RESOURCE_NAME,
+                                                                 ClassPathLocation.CLASS_LIST_RESOURCE_NAME,
+                                                                 ClassPathLocation.RESOURCE_LIST_RESOURCE_NAME,
+                                                                 ClassPathLocation.STATEMENT_BUNDLE_RESOURCE_NAME);
+
+    private static final Map<ClassLoader, Map<String, CachedIndex>> cache =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final List<ClassEntry> classes;
+    private final List<ResourceEntry> resources;
+    private final StatementBundle statementBundle;
+
+    public ClassPathIndex(Collection<ClassEntry> classes, Collection<ResourceEntry> resources) {
+        this(classes, resources, StatementBundle.empty());
+    }
+
+    public ClassPathIndex(Collection<ClassEntry> classes,
+                          Collection<ResourceEntry> resources,
+                          StatementBundle statementBundle) {
+        var sortedClasses = new ArrayList<>(classes);
+        sortedClasses.sort(Comparator.comparing(ClassEntry::getName));
+        var sortedResources = new ArrayList<>(resources);
+        sortedResources.sort(Comparator.comparing(ResourceEntry::getName));
+        this.classes = Collections.unmodifiableList(sortedClasses);
+        this.resources = Collections.unmodifiableList(sortedResources);
+        this.statementBundle = statementBundle;
+    }
+
+    /**
+     * @return The classes, sorted by name.
+     */
+    public List<ClassEntry> getClasses() {
+        return classes;
+    }
+
+    /**
+     * @return The resources, sorted by name.
+     */
+    public List<ResourceEntry> getResources() {
+        return resources;
+    }
+
+    /**
+     * @return The pre-parsed statements of all roots.
+     */
+    public StatementBundle getStatementBundle() {
+        return statementBundle;
+    }
+
+    /**
+     * Loads the index files of a class path location from all roots of {@code classLoader}, or returns the cached
+     * result of a previous call.
+     *
+     * @param namePrefixWithTrailingSlash The resource name prefix of the index files, e.g. {@code db/migration/}.
+     */
+    public static ClassPathIndex load(ClassLoader classLoader, String namePrefixWithTrailingSlash) {
+        var stamp = stampOf(classLoader, namePrefixWithTrailingSlash);
+        var cachedIndexes = cache.computeIfAbsent(classLoader, it -> new ConcurrentHashMap<>());
+        var cached = cachedIndexes.get(namePrefixWithTrailingSlash);
+        if (cached != null && cached.stamp.equals(stamp)) {
+            return cached.index;
+        }
+        var index = loadUncached(classLoader, namePrefixWithTrailingSlash);
+        cachedIndexes.put(namePrefixWithTrailingSlash, new CachedIndex(stamp, index));
+        return index;
+    }
+
+    /**
+     * Identifies the current state of the index files of a location: their URLs, sizes and modification times.
+     */
+    public static List<String> stampOf(ClassLoader classLoader, String namePrefixWithTrailingSlash) {
+        var stamp = new ArrayList<String>();
+        try {
+            for (var fileName : INDEX_FILE_NAMES) {
+                for (var url : Collections.list(classLoader.getResources(namePrefixWithTrailingSlash + fileName))) {
+                    stamp.add(url + "@" + fileStateOf(url));
+                }
+            }
+        } catch (IOException e) {
+            throw new MigrateDbException(e);
+        }
+        return stamp;
+    }
+
+    /**
+     * @return Size and modification time of the file behind {@code url} (for jar URLs: of the jar file), or an empty
+     * string if the URL doesn't point into a file system.
+     */
+    private static String fileStateOf(URL url) {
+        var target = url;
+        try {
+            if ("jar".equals(url.getProtocol())) {
+                var path = url.getPath();
+                int separator = path.indexOf("!/");
+                target = new URL(separator < 0 ? path : path.substring(0, separator));
+            }
+            var attributes = Files.readAttributes(Paths.get(target.toURI()), BasicFileAttributes.class);
+            return attributes.size() + "/" + attributes.lastModifiedTime().toMillis();
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            return "";
+        }
+    }
+
+    private static ClassPathIndex loadUncached(ClassLoader classLoader, String namePrefixWithTrailingSlash) {
+        var classes = new ArrayList<ClassEntry>();
+        var resources = new ArrayList<ResourceEntry>();
+        var statements = new ArrayList<StatementBundle.Entry>();
+        try {
+            var rootsWithBinaryIndex = new HashSet<String>();
+            for (var url : Collections.list(classLoader.getResources(namePrefixWithTrailingSlash +
+                                                                     ClassPathLocation.BINARY_INDEX_RESOURCE_NAME))) {
+                ClassPathIndex index;
+                try (var stream = url.openStream()) {
+                    index = read(stream);
+                } catch (IOException e) {
+                    LOG.debug("Ignoring binary class path index " + url + ": " + e.getMessage());
+                    continue;
+                }
+                rootsWithBinaryIndex.add(rootOf(url, ClassPathLocation.BINARY_INDEX_RESOURCE_NAME));
+                classes.addAll(index.classes);
+                resources.addAll(index.resources);
+            }
+            for (var url : textIndexes(classLoader, namePrefixWithTrailingSlash,
+                                       ClassPathLocation.CLASS_LIST_RESOURCE_NAME, rootsWithBinaryIndex)) {
+                readLines(url, it -> classes.add(new ClassEntry(it, true)));
+            }
+            for (var url : textIndexes(classLoader, namePrefixWithTrailingSlash,
+                                       ClassPathLocation.RESOURCE_LIST_RESOURCE_NAME, rootsWithBinaryIndex)) {
+                readLines(url, it -> resources.add(new ResourceEntry(it, -1, 0)));
+            }
+            var bundleName = namePrefixWithTrailingSlash + ClassPathLocation.STATEMENT_BUNDLE_RESOURCE_NAME;
+            for (var url : Collections.list(classLoader.getResources(bundleName))) {
+                try (var stream = url.openStream()) {
+                    statements.addAll(StatementBundle.read(stream).getEntries());
+                } catch (IOException e) {
+                    LOG.debug("Ignoring statement bundle " + url + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new MigrateDbException(e);
+        }
+        return new ClassPathIndex(classes, resources, new StatementBundle(statements));
+    }
+
+    private static List<URL> textIndexes(ClassLoader classLoader,
+                                         String namePrefixWithTrailingSlash,
+                                         String fileName,
+                                         Set<String> rootsWithBinaryIndex) throws IOException {
+        var result = new ArrayList<URL>();
+        for (var url : Collections.list(classLoader.getResources(namePrefixWithTrailingSlash + fileName))) {
+            if (!rootsWithBinaryIndex.contains(rootOf(url, fileName))) {
+                result.add(url);
+            }
+        }
+        return result;
+    }
+
+    private static String rootOf(URL indexUrl, String fileName) {
+        var s = indexUrl.toString();
+        return s.endsWith(fileName) ? s.substring(0, s.length() - fileName.length()) : s;
+    }
+
+    private static void readLines(URL url, Consumer<String> sink) throws IOException {
+        try (var reader = new BufferedReader(new InputStreamReader(url.openStream(), UTF_8))) {
+            reader.lines().sequential().forEach(sink);
+        }
+    }
+
+    /**
+     * Writes this index in the binary format.
+     */
+    public void write(OutputStream stream) throws IOException {
+        var checked = new CheckedOutputStream(stream, new CRC32());
+        var out = new DataOutputStream(new BufferedOutputStream(checked));
+        out.write(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        var previous = new byte[0];
+        writeVarLong(out, classes.size());
+        for (var entry : classes) {
+            previous = writeName(out, previous, entry.name);
+            out.writeByte(entry.migrationCandidate ? FLAG_MIGRATION_CANDIDATE : 0);
+        }
+        previous = new byte[0];
+        writeVarLong(out, resources.size());
+        for (var entry : resources) {
+            previous = writeName(out, previous, entry.name);
+            writeVarLong(out, entry.size);
+            out.writeInt(entry.crc32);
+        }
+        out.flush();
+        out.writeInt((int) checked.getChecksum().getValue());
+        out.flush();
+    }
+
+    /**
+     * Reads an index in the binary format.
+     *
+     * @throws IOException If the stream doesn't contain a binary index of a supported version.
+     */
+    public static ClassPathIndex read(InputStream stream) throws IOException {
+        var bytes = stream.readAllBytes();
+        if (bytes.length < MAGIC.length + 5) {
+            throw new IOException("Truncated binary class path index");
+        }
+        var checksum = new CRC32();
+        checksum.update(bytes, 0, bytes.length - 4);
+        var trailer = ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt();
+        var in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 4));
+        var magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a binary class path index");
+        }
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported format version " + version);
+        }
+        if (trailer != (int) checksum.getValue()) {
+            throw new IOException("Checksum mismatch");
+        }
+        var previous = new byte[0];
+        int classCount = readCount(in);
+        var classes = new ArrayList<ClassEntry>(classCount);
+        for (int i = 0; i < classCount; i++) {
+            previous = readName(in, previous);
+            int flags = in.readUnsignedByte();
+            classes.add(new ClassEntry(new String(previous, UTF_8), (flags & FLAG_MIGRATION_CANDIDATE) != 0));
+        }
+        previous = new byte[0];
+        int resourceCount = readCount(in);
+        var resources = new ArrayList<ResourceEntry>(resourceCount);
+        for (int i = 0; i < resourceCount; i++) {
+            previous = readName(in, previous);
+            long size = readVarLong(in);
+            int crc32 = in.readInt();
+            resources.add(new ResourceEntry(new String(previous, UTF_8), size, crc32));
+        }
+        return new ClassPathIndex(classes, resources);
+    }
+
+    private static byte[] writeName(DataOutputStream out, byte[] previous, String name) throws IOException {
+        var bytes = name.getBytes(UTF_8);
+        int shared = 0;
+        int max = Math.min(previous.length, bytes.length);
+        while (shared < max && previous[shared] == bytes[shared]) {
+            shared++;
+        }
+        writeVarLong(out, shared);
+        writeVarLong(out, bytes.length - shared);
+        out.write(bytes, shared, bytes.length - shared);
+        return bytes;
+    }
+
+    private static byte[] readName(DataInputStream in, byte[] previous) throws IOException {
+        int shared = readCount(in);
+        int remaining = readCount(in);
+        if (shared > previous.length) {
+            throw new IOException("Corrupt name entry");
+        }
+        var bytes = Arrays.copyOf(previous, shared + remaining);
+        in.readFully(bytes, shared, remaining);
+        return bytes;
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static int readCount(DataInputStream in) throws IOException {
+        long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Invalid count " + value);
+        }
+        return (int) value;
+    }
+
+    public static final class ClassEntry {
+        private final String name;
+        private final boolean migrationCandidate;
+
+        /**
+         * @param name               The binary class name.
+         * @param migrationCandidate Whether the class might implement {@code JavaMigration}. Only {@code false} if the
+         *                           scanner could prove that it doesn't.
+         */
+        public ClassEntry(String name, boolean migrationCandidate) {
+            this.name = name;
+            this.migrationCandidate = migrationCandidate;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isMigrationCandidate() {
+            return migrationCandidate;
+        }
+    }
+
+    public static final class ResourceEntry {
+        private final String name;
+        private final long size;
+        private final int crc32;
+
+        /**
+         * @param name  The slash-separated resource name.
+         * @param size  The size of the content in bytes, or -1 if unknown.
+         * @param crc32 The CRC-32 of the content, only meaningful if the size is known.
+         */
+        public ResourceEntry(String name, long size, int crc32) {
+            this.name = name;
+            this.size = size;
+            this.crc32 = crc32;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public int getCrc32() {
+            return crc32;
+        }
+    }
+
+    private static final class CachedIndex {
+        final List<String> stamp;
+        final ClassPathIndex index;
+
+        CachedIndex(List<String> stamp, ClassPathIndex index) {
+            this.stamp = stamp;
+            this.index = index;
+        }
+    }
+}
@@ -18,25 +18,38 @@ package migratedb.v1.core.internal.resource.classpath;
 
 import migratedb.v1.core.api.MigrateDbException;
 import migratedb.v1.core.api.resource.Resource;
+import migratedb.v1.core.internal.resource.CompressionFormat;
+import migratedb.v1.core.internal.sqlscript.StatementBundle;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.Charset;
 
 public class ClassPathResource implements Resource {
     private final ClassLoader classLoader;
     private final String name;
+    private final StatementBundle.@Nullable Entry statementBundleEntry;
 
     public ClassPathResource(String name, ClassLoader classLoader) {
+        this(name, classLoader, null);
+    }
+
+    /**
+     * @param statementBundleEntry The pre-parsed statements of this resource, if any.
+     */
+    public ClassPathResource(String name,
+                             ClassLoader classLoader,
+                             StatementBundle.@Nullable Entry statementBundleEntry) {
         this.name = name;
         this.classLoader = classLoader;
+        this.statementBundleEntry = statementBundleEntry;
     }
 
     @Override
     public Reader read(Charset charset) {
         var stream = classLoader.getResourceAsStream(name);
         if (stream == null) throw new MigrateDbException("No such resource: " + name);
-        return new InputStreamReader(stream, charset);
+        return CompressionFormat.newReader(name, stream, charset);
     }
 
     @Override
@@ -44,6 +57,10 @@ public class ClassPathResource implements Resource {
         return name;
     }
 
+    public StatementBundle.@Nullable Entry getStatementBundleEntry() {
+        return statementBundleEntry;
+    }
+
     @Override
     public String describeLocation() {
         var resource = classLoader.getResource(name);
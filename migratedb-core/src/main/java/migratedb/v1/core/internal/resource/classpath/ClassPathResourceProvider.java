@@ -18,19 +18,28 @@ package migratedb.v1.core.internal.resource.classpath;
 
 import migratedb.v1.core.api.resource.Resource;
 import migratedb.v1.core.internal.resource.NameListResourceProvider;
+import migratedb.v1.core.internal.sqlscript.StatementBundle;
 
 import java.util.List;
 
 public class ClassPathResourceProvider extends NameListResourceProvider {
     private final ClassLoader classLoader;
+    private final StatementBundle statementBundle;
 
     public ClassPathResourceProvider(ClassLoader classLoader, List<String> resourceNames) {
+        this(classLoader, resourceNames, StatementBundle.empty());
+    }
+
+    public ClassPathResourceProvider(ClassLoader classLoader,
+                                     List<String> resourceNames,
+                                     StatementBundle statementBundle) {
         super(resourceNames);
         this.classLoader = classLoader;
+        this.statementBundle = statementBundle;
     }
 
     @Override
     protected Resource toResource(String resourceName) {
-        return new ClassPathResource(resourceName, classLoader);
+        return new ClassPathResource(resourceName, classLoader, statementBundle.get(resourceName));
     }
 }
@@ -18,7 +18,9 @@ package migratedb.v1.core.internal.resource.filesystem;
 
 import migratedb.v1.core.api.MigrateDbException;
 import migratedb.v1.core.api.resource.Resource;
+import migratedb.v1.core.internal.resource.CompressionFormat;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.nio.charset.Charset;
@@ -49,9 +51,20 @@ public class FileSystemResource implements Resource {
         }
     }
 
+    /**
+     * @return The absolute path of this resource.
+     */
+    public Path getFile() {
+        return file;
+    }
+
     @Override
     public Reader read(Charset charset) {
         try {
+            if (CompressionFormat.of(relativeName) != null) {
+                var stream = Files.newInputStream(file);
+                return new BufferedReader(CompressionFormat.newReader(relativeName, stream, charset));
+            }
             return Files.newBufferedReader(file, charset);
         } catch (IOException e) {
             throw new MigrateDbException("Cannot open file system resource " + getName(), e);
@@ -19,21 +19,25 @@ package migratedb.v1.core.internal.resource.filesystem;
 import migratedb.v1.core.api.MigrateDbException;
 import migratedb.v1.core.api.ResourceProvider;
 import migratedb.v1.core.api.resource.Resource;
-import migratedb.v1.core.internal.util.StringUtils;
+import migratedb.v1.core.internal.resource.ResourceNameIndex;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.io.IOException;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.EnumSet;
+import java.util.*;
 
 /**
  * Finds resources in a base directory and its non-hidden subdirectories.
+ * <p>
+ * The directory tree is walked only once, when resources are first requested. All further lookups are answered from
+ * that immutable snapshot, so files added or removed afterwards are not seen by this instance. Locations create a new
+ * provider for each command. {@link #getResource(String)} falls back to the file system for names that are not in the
+ * snapshot, so files in hidden directories or below the maximum walk depth can still be looked up by name.
  */
 public class FileSystemResourceProvider implements ResourceProvider {
     private final Path baseDir;
+    private volatile @Nullable Snapshot snapshot;
 
     public FileSystemResourceProvider(Path baseDir) {
         this.baseDir = baseDir.toAbsolutePath().normalize();
@@ -41,17 +45,35 @@ public class FileSystemResourceProvider implements ResourceProvider {
 
     @Override
     public @Nullable Resource getResource(String name) {
-        var file = baseDir.resolve(name);
-        if (Files.exists(file)) {
-            return new FileSystemResource(baseDir.resolve(name), baseDir);
-        } else {
-            return null;
+        var file = baseDir.resolve(name).normalize();
+        var resource = getSnapshot().resourcesByPath.get(file);
+        if (resource == null && Files.exists(file)) {
+            resource = new FileSystemResource(file, baseDir);
         }
+        return resource;
     }
 
     @Override
     public Collection<Resource> getResources(String prefix, Collection<String> suffixes) {
-        var result = new ArrayList<Resource>();
+        return new ArrayList<>(getSnapshot().index.find(prefix, suffixes));
+    }
+
+    private Snapshot getSnapshot() {
+        var result = snapshot;
+        if (result == null) {
+            synchronized (this) {
+                result = snapshot;
+                if (result == null) {
+                    result = takeSnapshot();
+                    snapshot = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private Snapshot takeSnapshot() {
+        var resourcesByPath = new LinkedHashMap<Path, Resource>();
         try {
             Files.walkFileTree(baseDir, EnumSet.of(FileVisitOption.FOLLOW_LINKS), 100, new SimpleFileVisitor<>() {
                 @Override
@@ -64,9 +86,7 @@ public class FileSystemResourceProvider implements ResourceProvider {
 
                 @Override
                 public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-                    if (StringUtils.startsAndEndsWith(file.getFileName().toString(), prefix, suffixes)) {
-                        result.add(new FileSystemResource(file, baseDir));
-                    }
+                    resourcesByPath.put(file.toAbsolutePath().normalize(), new FileSystemResource(file, baseDir));
                     return FileVisitResult.CONTINUE;
                 }
             });
@@ -74,6 +94,17 @@ public class FileSystemResourceProvider implements ResourceProvider {
         } catch (IOException e) {
             throw new MigrateDbException("Failed to walk directory " + baseDir, e);
         }
-        return result;
+        return new Snapshot(resourcesByPath);
+    }
+
+    private static final class Snapshot {
+        final Map<Path, Resource> resourcesByPath;
+        final ResourceNameIndex<Resource> index;
+
+        Snapshot(Map<Path, Resource> resourcesByPath) {
+            this.resourcesByPath = resourcesByPath;
+            this.index = new ResourceNameIndex<>(new ArrayList<>(resourcesByPath.values()),
+                                                 Resource::getLastNameComponent);
+        }
     }
 }
@@ -30,6 +30,9 @@ import migratedb.v1.core.api.output.RepairResult;
 import migratedb.v1.core.api.resolver.ResolvedMigration;
 import migratedb.v1.core.internal.exception.MigrateDbSqlException;
 import migratedb.v1.core.internal.jdbc.JdbcNullTypes;
+import migratedb.v1.core.internal.jfr.JfrEvents;
+import migratedb.v1.core.internal.util.Metrics;
+import migratedb.v1.core.internal.util.Phases;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.sql.ResultSet;
@@ -133,7 +136,28 @@ class JdbcTableSchemaHistory extends SchemaHistory {
     public <T> T withLock(Callable<T> callable) {
         session.restoreOriginalState();
 
-        return session.lock(table, callable);
+        var metrics = Metrics.current();
+        long lockRequested = Metrics.start(metrics);
+        var lockWait = JfrEvents.beginLockWait();
+        var lockWaitPhase = Phases.start(MigrateDbPhaseListener.Phase.LOCK_WAIT, "table", table);
+        try {
+            return session.lock(table, () -> {
+                lockWaitPhase.close();
+                JfrEvents.endLockWait(lockWait, table);
+                Metrics.stop(metrics, MigrateDbMetrics.Timer.LOCK_WAIT, lockRequested);
+                long lockAcquired = Metrics.start(metrics);
+                var lockHold = JfrEvents.beginLockHold();
+                try {
+                    return callable.call();
+                } finally {
+                    JfrEvents.endLockHold(lockHold, table);
+                    Metrics.stop(metrics, MigrateDbMetrics.Timer.LOCK_HOLD, lockAcquired);
+                }
+            });
+        } finally {
+            // Ends the phase if the lock couldn't be acquired
+            lockWaitPhase.close();
+        }
     }
 
     @Override
@@ -166,16 +190,22 @@ class JdbcTableSchemaHistory extends SchemaHistory {
             Object versionObj = versionStr == null ? JdbcNullTypes.StringNull : versionStr;
             Object checksumObj = checksum == null ? JdbcNullTypes.StringNull : checksum.toString();
 
-            jdbcTemplate.update(database.getInsertStatement(table),
-                                installedRank,
-                                versionObj,
-                                description,
-                                type.name(),
-                                script,
-                                checksumObj,
-                                database.getInstalledBy(),
-                                executionTime,
-                                success);
+            var metrics = Metrics.current();
+            long start = Metrics.start(metrics);
+            try {
+                jdbcTemplate.update(database.getInsertStatement(table),
+                                    installedRank,
+                                    versionObj,
+                                    description,
+                                    type.name(),
+                                    script,
+                                    checksumObj,
+                                    database.getInstalledBy(),
+                                    executionTime,
+                                    success);
+            } finally {
+                Metrics.stop(metrics, MigrateDbMetrics.Timer.HISTORY_WRITE, start);
+            }
 
             LOG.debug("Schema History table " + table + " successfully updated to reflect changes");
         } catch (SQLException e) {
@@ -203,6 +233,10 @@ class JdbcTableSchemaHistory extends SchemaHistory {
 
         String query = database.getSelectStatement(table);
 
+        var metrics = Metrics.current();
+        long start = Metrics.start(metrics);
+        var event = JfrEvents.beginHistoryQuery();
+        int cachedRows = cache.size();
         try {
             cache.addAll(jdbcTemplate.query(query, rs -> {
                 // Construct a map of lower-cased column names to ordinals. This is useful for databases that
@@ -239,6 +273,9 @@ class JdbcTableSchemaHistory extends SchemaHistory {
                     "Error while retrieving the list of applied migrations from Schema History table "
                     + table,
                     e);
+        } finally {
+            JfrEvents.endHistoryQuery(event, table, cache.size() - cachedRows);
+            Metrics.stop(metrics, MigrateDbMetrics.Timer.HISTORY_READ, start);
         }
     }
 
@@ -277,15 +314,21 @@ class JdbcTableSchemaHistory extends SchemaHistory {
                              .forEach(am -> repairResult.migrationsRemoved.add(CommandResultFactory.createRepairOutput(
                                      am)));
 
+            var metrics = Metrics.current();
             for (AppliedMigration appliedMigration : appliedMigrations) {
-                jdbcTemplate.execute("DELETE FROM " + table +
-                                     " WHERE " + database.quote("success") + " = " + database.getBooleanFalse() +
-                                     " AND " +
-                                     (appliedMigration.getVersion() != null ?
-                                             database.quote("version") + " = '" + appliedMigration.getVersion() +
-                                             "'" :
-                                             database.quote("description") + " = '" + appliedMigration.getDescription() +
-                                             "'"));
+                long start = Metrics.start(metrics);
+                try {
+                    jdbcTemplate.execute("DELETE FROM " + table +
+                                         " WHERE " + database.quote("success") + " = " + database.getBooleanFalse() +
+                                         " AND " +
+                                         (appliedMigration.getVersion() != null ?
+                                                 database.quote("version") + " = '" + appliedMigration.getVersion() +
+                                                 "'" :
+                                                 database.quote("description") + " = '" +
+                                                 appliedMigration.getDescription() + "'"));
+                } finally {
+                    Metrics.stop(metrics, MigrateDbMetrics.Timer.HISTORY_WRITE, start);
+                }
             }
 
             clearCache();
@@ -338,6 +381,8 @@ class JdbcTableSchemaHistory extends SchemaHistory {
 
         Object checksumObj = checksum == null ? JdbcNullTypes.StringNull : checksum.toString();
 
+        var metrics = Metrics.current();
+        long start = Metrics.start(metrics);
         try {
             jdbcTemplate.update("UPDATE " + table
                                 + " SET "
@@ -349,6 +394,8 @@ class JdbcTableSchemaHistory extends SchemaHistory {
         } catch (SQLException e) {
             throw new MigrateDbSqlException("Unable to repair Schema History table " + table
                                             + " for version " + version, e);
+        } finally {
+            Metrics.stop(metrics, MigrateDbMetrics.Timer.HISTORY_WRITE, start);
         }
     }
 
@@ -367,6 +414,8 @@ class JdbcTableSchemaHistory extends SchemaHistory {
             LOG.info("Repairing Schema History table for version \"" + version + "\" (Marking as DELETED)  ...");
         }
 
+        var metrics = Metrics.current();
+        long start = Metrics.start(metrics);
         try {
             jdbcTemplate.update("UPDATE " + table
                                 + " SET "
@@ -376,6 +425,8 @@ class JdbcTableSchemaHistory extends SchemaHistory {
         } catch (SQLException e) {
             throw new MigrateDbSqlException("Unable to repair Schema History table " + table
                                             + " for version " + version, e);
+        } finally {
+            Metrics.stop(metrics, MigrateDbMetrics.Timer.HISTORY_WRITE, start);
         }
     }
 }
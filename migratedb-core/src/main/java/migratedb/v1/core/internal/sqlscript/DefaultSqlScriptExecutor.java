@@ -27,7 +27,9 @@ import migratedb.v1.core.api.internal.sqlscript.SqlScriptExecutor;
 import migratedb.v1.core.api.internal.sqlscript.SqlStatement;
 import migratedb.v1.core.api.internal.sqlscript.SqlStatementIterator;
 import migratedb.v1.core.api.logging.Log;
+import migratedb.v1.core.internal.jfr.JfrEvents;
 import migratedb.v1.core.internal.util.AsciiTable;
+import migratedb.v1.core.internal.util.OperationContext;
 
 public class DefaultSqlScriptExecutor implements SqlScriptExecutor {
     private static final Log LOG = Log.getLog(DefaultSqlScriptExecutor.class);
@@ -63,7 +65,29 @@ public class DefaultSqlScriptExecutor implements SqlScriptExecutor {
     protected void executeStatement(JdbcTemplate jdbcTemplate, SqlScript sqlScript, SqlStatement sqlStatement) {
         logStatementExecution(sqlStatement);
         callbackExecutor.onEachMigrateEvent(Event.BEFORE_EACH_MIGRATE_STATEMENT);
-        Results results = sqlStatement.execute(jdbcTemplate);
+        var event = JfrEvents.beginStatement();
+        var profiler = OperationContext.currentStatementProfiler();
+        long start = profiler == null ? 0 : System.nanoTime();
+        Results results = null;
+        try {
+            results = sqlStatement.execute(jdbcTemplate);
+        } finally {
+            if (profiler != null) {
+                // Failed and cancelled statements are recorded too, they're often the slow ones
+                boolean failed = results == null || results.getException() != null;
+                profiler.record(sqlScript.getResource().getName(),
+                                sqlStatement.getLineNumber(),
+                                sqlStatement.getSql(),
+                                System.nanoTime() - start,
+                                failed ? -1 : totalUpdateCount(results),
+                                failed);
+            }
+        }
+        JfrEvents.endStatement(event,
+                               sqlScript.getResource().getName(),
+                               sqlStatement.getLineNumber(),
+                               sqlStatement.getSql(),
+                               results.getException() == null);
         callbackExecutor.onEachMigrateEvent(Event.AFTER_EACH_MIGRATE_STATEMENT);
         if (results.getException() != null) {
             callbackExecutor.onEachMigrateEvent(Event.AFTER_EACH_MIGRATE_STATEMENT_ERROR);
@@ -99,6 +123,17 @@ public class DefaultSqlScriptExecutor implements SqlScriptExecutor {
         }
     }
 
+    private static long totalUpdateCount(Results results) {
+        long total = -1;
+        for (Result result : results.getResults()) {
+            long updateCount = result.getUpdateCount();
+            if (updateCount != -1) {
+                total = Math.max(total, 0) + updateCount;
+            }
+        }
+        return total;
+    }
+
     private void handleUpdateCount(long updateCount) {
         LOG.debug(updateCount + (updateCount == 1 ? " row" : " rows") + " affected");
     }
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.sqlscript;
+
+import migratedb.v1.core.api.Checksum;
+import migratedb.v1.core.api.configuration.Configuration;
+import migratedb.v1.core.api.internal.parser.Parser;
+import migratedb.v1.core.api.internal.sqlscript.SqlScriptMetadata;
+import migratedb.v1.core.api.internal.sqlscript.SqlStatement;
+import migratedb.v1.core.api.logging.Log;
+import migratedb.v1.core.api.resource.Resource;
+import migratedb.v1.core.internal.info.BuildInfo;
+import migratedb.v1.core.internal.resolver.ChecksumCalculator;
+import migratedb.v1.core.internal.resource.ResourceNameParser;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Persistent cache of parsed SQL scripts. Each entry holds the statements of one script and is stored in its own file,
+ * named after a SHA-256 hash of the checksum of the script content, the parser and database version, the encoding and
+ * the placeholder syntax. The checksum is usually known from resolving the migration, so a lookup doesn't read the
+ * script. Entries also record the values of the placeholders the script references, and are only used if those values
+ * are still the same. Entries are touched when read, and the least recently used ones are deleted when the cache
+ * directory grows beyond its size limit.
+ * <p>
+ * The cache never fails a migration. Entries that cannot be read or written are ignored and the script is parsed.
+ */
+public final class ParsedScriptCache {
+    private static final Log LOG = Log.getLog(ParsedScriptCache.class);
+
+    private static final int MAGIC = 0x4d444250;
+    /**
+     * Must be incremented whenever the entry format or the key material changes.
+     */
+    private static final int FORMAT_VERSION = 2;
+    private static final String ENTRY_SUFFIX = ".stmts";
+
+    private final Path directory;
+    private final long maxSize;
+    /**
+     * Approximate size of all entries in the cache directory, or -1 if it has not been determined yet.
+     */
+    private long size = -1;
+
+    private ParsedScriptCache(Path directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return The cache configured by {@code configuration}, or {@code null} if caching of parsed scripts is disabled.
+     */
+    public static @Nullable ParsedScriptCache create(Configuration configuration) {
+        var directory = configuration.getParseCacheDirectory();
+        if (directory == null || configuration.getParseCacheMaxSizeMb() == 0) {
+            return null;
+        }
+        try {
+            var path = Files.createDirectories(Paths.get(directory));
+            return new ParsedScriptCache(path, configuration.getParseCacheMaxSizeMb() * 1024L * 1024L);
+        } catch (IOException | InvalidPathException e) {
+            LOG.warn("Not caching parsed SQL scripts, unable to use " + directory + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Computes the cache key of a script.
+     *
+     * @param parser          The parser that would parse the script.
+     * @param resource        The script.
+     * @param metadata        The script's metadata.
+     * @param contentChecksum The checksum of the unmodified script content, or {@code null} to calculate it.
+     * @return The cache key.
+     */
+    public Key computeKey(Parser parser,
+                          Resource resource,
+                          @Nullable SqlScriptMetadata metadata,
+                          @Nullable Checksum contentChecksum) {
+        var configuration = parser.getConfiguration();
+        var digest = sha256();
+        update(digest, MAGIC + ":" + FORMAT_VERSION + ":" + BuildInfo.VERSION);
+        update(digest, parser.getClass().getName());
+        var database = parser.getParsingContext().getDatabase();
+        if (database != null) {
+            update(digest, database.getDatabaseType().getName() + ":" + database.getVersion());
+        }
+        update(digest, configuration.getEncoding().name());
+        if (contentChecksum == null) {
+            contentChecksum = ChecksumCalculator.calculate(List.of(resource), configuration);
+        }
+        update(digest, contentChecksum.toString());
+
+        Map<String, String> placeholders = null;
+        boolean placeholderReplacement = configuration.isPlaceholderReplacement() &&
+                                         (metadata == null || metadata.placeholderReplacement());
+        if (placeholderReplacement) {
+            var resourceName = new ResourceNameParser(configuration).parse(resource.getLastNameComponent());
+            placeholders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            placeholders.putAll(configuration.getPlaceholders());
+            placeholders.putAll(parser.getParsingContext().forResource(resourceName).getPlaceholders());
+            update(digest, configuration.getPlaceholderPrefix() + ":" + configuration.getPlaceholderSuffix());
+        } else {
+            update(digest, "no placeholders");
+        }
+
+        var name = new StringBuilder();
+        for (byte b : digest.digest()) {
+            name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return new Key(name.toString(), resource, configuration, placeholders);
+    }
+
+    /**
+     * @return The cached statements for {@code key}, or {@code null} if there are none or if they were parsed with
+     * different values of the placeholders the script references.
+     */
+    public @Nullable List<SqlStatement> get(Key key) {
+        var file = directory.resolve(key.name + ENTRY_SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (var in = new DataInputStream(new BufferedInputStream(
+                new InflaterInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported format");
+            }
+            int placeholderCount = in.readInt();
+            for (int i = 0; i < placeholderCount; i++) {
+                String name = in.readUTF();
+                String value = in.readBoolean() ? in.readUTF() : null;
+                if (key.placeholders == null || !Objects.equals(value, key.placeholders.get(name))) {
+                    // Replaced by put() once the script has been parsed again
+                    return null;
+                }
+            }
+            int count = in.readInt();
+            List<SqlStatement> statements = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                statements.add(StatementCodec.read(in, null));
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return statements;
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Ignoring unreadable parse cache entry " + file + ": " + e.getMessage());
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the statements of a script under {@code key}, unless they contain statements this cache can't store.
+     */
+    public void put(Key key, List<SqlStatement> statements) {
+        for (var statement : statements) {
+            if (!StatementCodec.isSupported(statement)) {
+                return;
+            }
+        }
+        var file = directory.resolve(key.name + ENTRY_SUFFIX);
+        Path tempFile = null;
+        try {
+            // Only the placeholders that occur in the script affect parsing, which keeps entries valid even though
+            // some built-in placeholders (like the timestamp) change on every run.
+            Set<String> referencedPlaceholders = key.placeholders == null
+                    ? Set.of()
+                    : referencedPlaceholders(StatementCodec.readContent(key.resource, key.encoding),
+                                             key.placeholderPrefix,
+                                             key.placeholderSuffix);
+            tempFile = Files.createTempFile(directory, key.name, ".tmp");
+            var deflater = new Deflater(Deflater.BEST_SPEED);
+            try (var out = new DataOutputStream(new BufferedOutputStream(
+                    new DeflaterOutputStream(Files.newOutputStream(tempFile), deflater)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(referencedPlaceholders.size());
+                for (var name : referencedPlaceholders) {
+                    String value = key.placeholders.get(name);
+                    out.writeUTF(name);
+                    out.writeBoolean(value != null);
+                    if (value != null) {
+                        out.writeUTF(value);
+                    }
+                }
+                out.writeInt(statements.size());
+                for (var statement : statements) {
+                    StatementCodec.write(out, statement, null);
+                }
+            } finally {
+                deflater.end();
+            }
+            long entrySize = Files.size(tempFile);
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tempFile = null;
+            added(entrySize);
+        } catch (IOException e) {
+            LOG.debug("Unable to write parse cache entry " + file + ": " + e.getMessage());
+        } finally {
+            if (tempFile != null) {
+                deleteQuietly(tempFile);
+            }
+        }
+    }
+
+    private synchronized void added(long entrySize) throws IOException {
+        if (size < 0) {
+            size = 0;
+            for (var entry : listEntries()) {
+                size += entry.size;
+            }
+        } else {
+            size += entrySize;
+        }
+        if (size > maxSize) {
+            evict();
+        }
+    }
+
+    private void evict() throws IOException {
+        var entries = listEntries();
+        entries.sort(Comparator.comparing((Entry it) -> it.lastModified));
+        size = 0;
+        for (var entry : entries) {
+            size += entry.size;
+        }
+        for (var entry : entries) {
+            if (size <= maxSize) {
+                break;
+            }
+            deleteQuietly(entry.file);
+            size -= entry.size;
+        }
+    }
+
+    private List<Entry> listEntries() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (var file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().endsWith(ENTRY_SUFFIX)) {
+                    try {
+                        entries.add(new Entry(file, Files.size(file), Files.getLastModifiedTime(file)));
+                    } catch (NoSuchFileException e) {
+                        // Deleted concurrently
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static Set<String> referencedPlaceholders(String content, String prefix, String suffix) {
+        var names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        int start = content.indexOf(prefix);
+        while (start >= 0) {
+            int end = content.indexOf(suffix, start + prefix.length());
+            if (end < 0) {
+                break;
+            }
+            names.add(content.substring(start + prefix.length(), end));
+            start = content.indexOf(prefix, end + suffix.length());
+        }
+        return names;
+    }
+
+    private static void update(MessageDigest digest, String s) {
+        digest.update(s.getBytes(StandardCharsets.UTF_8));
+        // Separator, so that adjacent values can't be confused
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.debug("Unable to delete " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Identifies the cache entry of a script.
+     */
+    public static final class Key {
+        final String name;
+        final Resource resource;
+        final Charset encoding;
+        final String placeholderPrefix;
+        final String placeholderSuffix;
+        /**
+         * The current placeholder values, or {@code null} if placeholders are not replaced in the script.
+         */
+        final @Nullable Map<String, String> placeholders;
+
+        Key(String name, Resource resource, Configuration configuration, @Nullable Map<String, String> placeholders) {
+            this.name = name;
+            this.resource = resource;
+            this.encoding = configuration.getEncoding();
+            this.placeholderPrefix = configuration.getPlaceholderPrefix();
+            this.placeholderSuffix = configuration.getPlaceholderSuffix();
+            this.placeholders = placeholders;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final class Entry {
+        final Path file;
+        final long size;
+        final FileTime lastModified;
+
+        Entry(Path file, long size, FileTime lastModified) {
+            this.file = file;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -77,6 +77,10 @@ public class ParsedSqlStatement implements SqlStatement {
         return delimiter.toString();
     }
 
+    public Delimiter getParsedDelimiter() {
+        return delimiter;
+    }
+
     @Override
     public boolean canExecuteInTransaction() {
         return canExecuteInTransaction;
@@ -16,7 +16,9 @@
  */
 package migratedb.v1.core.internal.sqlscript;
 
+import migratedb.v1.core.api.Checksum;
 import migratedb.v1.core.api.MigrateDbException;
+import migratedb.v1.core.api.MigrateDbMetrics;
 import migratedb.v1.core.api.internal.parser.Parser;
 import migratedb.v1.core.api.internal.sqlscript.SqlScript;
 import migratedb.v1.core.api.internal.sqlscript.SqlScriptMetadata;
@@ -24,6 +26,9 @@ import migratedb.v1.core.api.internal.sqlscript.SqlStatement;
 import migratedb.v1.core.api.internal.sqlscript.SqlStatementIterator;
 import migratedb.v1.core.api.logging.Log;
 import migratedb.v1.core.api.resource.Resource;
+import migratedb.v1.core.internal.jfr.JfrEvents;
+import migratedb.v1.core.internal.util.Metrics;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -52,6 +57,8 @@ public class ParserSqlScript implements SqlScript {
     private final SqlScriptMetadata metadata;
     protected final Parser parser;
     private final boolean mixed;
+    private final @Nullable ParsedScriptCache parsedScriptCache;
+    private volatile @Nullable Checksum contentChecksum;
     private boolean parsed;
 
     /**
@@ -63,47 +70,117 @@ public class ParserSqlScript implements SqlScript {
      *                         migration.
      */
     public ParserSqlScript(Parser parser, Resource resource, Resource metadataResource, boolean mixed) {
+        this(parser, resource, metadataResource, mixed, null);
+    }
+
+    /**
+     * Creates a new sql script from this source.
+     *
+     * @param resource          The sql script resource.
+     * @param metadataResource  The sql script metadata resource.
+     * @param mixed             Whether to allow mixing transactional and non-transactional statements within the
+     *                          same migration.
+     * @param parsedScriptCache The cache to load the statements from instead of parsing the script, if any.
+     */
+    public ParserSqlScript(Parser parser, Resource resource, Resource metadataResource, boolean mixed,
+                           @Nullable ParsedScriptCache parsedScriptCache) {
         this.resource = resource;
         this.metadata = SqlScriptMetadataImpl.fromResource(metadataResource, parser);
         this.parser = parser;
         this.mixed = mixed;
+        this.parsedScriptCache = parsedScriptCache;
+    }
+
+    /**
+     * Passes the checksum of the unmodified script content, if the caller has already calculated it. The parsed script
+     * cache then finds the statements of this script without reading it.
+     */
+    public void setContentChecksum(Checksum contentChecksum) {
+        this.contentChecksum = contentChecksum;
     }
 
     protected void parse() {
-        try (SqlStatementIterator sqlStatementIterator = parser.parse(resource, metadata)) {
+        var metrics = parser.getConfiguration().getMetrics();
+        long start = Metrics.start(metrics);
+        var event = JfrEvents.beginParse();
+        boolean preParsed = false;
+        try {
+            sqlStatements.clear();
+            sqlStatementCount = 0;
+            nonTransactionalStatementFound = false;
             boolean transactionalStatementFound = false;
-            while (sqlStatementIterator.hasNext()) {
-                SqlStatement sqlStatement = sqlStatementIterator.next();
-                sqlStatements.add(sqlStatement);
-
-                sqlStatementCount++;
 
-                if (sqlStatement.canExecuteInTransaction()) {
-                    transactionalStatementFound = true;
-                } else {
-                    nonTransactionalStatementFound = true;
+            List<SqlStatement> preParsedStatements = StatementBundle.lookup(parser, resource, metadata);
+            if (preParsedStatements != null) {
+                LOG.debug("Using pre-parsed statements of " + resource.getName());
+            }
+            ParsedScriptCache.Key cacheKey = null;
+            if (preParsedStatements == null && parsedScriptCache != null) {
+                cacheKey = parsedScriptCache.computeKey(parser, resource, metadata, contentChecksum);
+                preParsedStatements = parsedScriptCache.get(cacheKey);
+                if (preParsedStatements != null) {
+                    LOG.debug("Using cached statements of " + resource.getName());
                 }
-
-                if (!mixed && transactionalStatementFound && nonTransactionalStatementFound &&
-                    metadata.executeInTransaction() == null) {
-                    throw new MigrateDbException(
-                        "Detected both transactional and non-transactional statements within the same migration"
-                        + " (even though mixed is false). Offending statement found at line "
-                        + sqlStatement.getLineNumber() + ": " + sqlStatement.getSql()
-                        + (sqlStatement.canExecuteInTransaction() ? "" : " [non-transactional]"));
+            }
+            preParsed = preParsedStatements != null;
+            if (preParsedStatements != null) {
+                for (SqlStatement sqlStatement : preParsedStatements) {
+                    transactionalStatementFound |= addStatement(sqlStatement, transactionalStatementFound);
                 }
-
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug("Found statement at line " + sqlStatement.getLineNumber() + ": " + sqlStatement.getSql()
-                              + (sqlStatement.canExecuteInTransaction() ? "" : " [non-transactional]"));
+            } else {
+                try (SqlStatementIterator sqlStatementIterator = parser.parse(resource, metadata)) {
+                    while (sqlStatementIterator.hasNext()) {
+                        transactionalStatementFound |= addStatement(sqlStatementIterator.next(),
+                                                                    transactionalStatementFound);
+                    }
+                }
+                if (parsedScriptCache != null) {
+                    parsedScriptCache.put(cacheKey, sqlStatements);
                 }
             }
+            parsed = true;
+        } finally {
+            JfrEvents.endParse(event, resource.getName(), sqlStatementCount, preParsed);
+            Metrics.stop(metrics, MigrateDbMetrics.Timer.PARSE, start);
         }
-        parsed = true;
     }
 
+    /**
+     * @return Whether {@code sqlStatement} can execute in a transaction.
+     */
+    private boolean addStatement(SqlStatement sqlStatement, boolean transactionalStatementFound) {
+        sqlStatements.add(sqlStatement);
+
+        sqlStatementCount++;
+
+        if (sqlStatement.canExecuteInTransaction()) {
+            transactionalStatementFound = true;
+        } else {
+            nonTransactionalStatementFound = true;
+        }
+
+        if (!mixed && transactionalStatementFound && nonTransactionalStatementFound &&
+            metadata.executeInTransaction() == null) {
+            throw new MigrateDbException(
+                "Detected both transactional and non-transactional statements within the same migration"
+                + " (even though mixed is false). Offending statement found at line "
+                + sqlStatement.getLineNumber() + ": " + sqlStatement.getSql()
+                + (sqlStatement.canExecuteInTransaction() ? "" : " [non-transactional]"));
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Found statement at line " + sqlStatement.getLineNumber() + ": " + sqlStatement.getSql()
+                      + (sqlStatement.canExecuteInTransaction() ? "" : " [non-transactional]"));
+        }
+        return sqlStatement.canExecuteInTransaction();
+    }
+
+    /**
+     * Parses this script unless it has already been parsed. Scripts may be parsed ahead of time on a different thread
+     * than the one executing them. If parsing fails, the script remains unparsed and the next call parses it again.
+     */
     @Override
-    public void validate() {
+    public synchronized void validate() {
         if (!parsed) {
             parse();
         }
@@ -166,6 +243,16 @@ public class ParserSqlScript implements SqlScript {
         return metadata.shouldExecute();
     }
 
+    @Override
+    public Integer statementTimeout() {
+        return metadata.statementTimeout();
+    }
+
+    @Override
+    public Integer migrationTimeout() {
+        return metadata.migrationTimeout();
+    }
+
     @Override
     public int compareTo(SqlScript o) {
         return resource.getName().compareTo(o.getResource().getName());
@@ -16,6 +16,8 @@
  */
 package migratedb.v1.core.internal.sqlscript;
 
+import migratedb.v1.core.api.ErrorCode;
+import migratedb.v1.core.api.MigrateDbException;
 import migratedb.v1.core.api.ResourceProvider;
 import migratedb.v1.core.api.internal.parser.Parser;
 import migratedb.v1.core.api.internal.sqlscript.SqlScriptMetadata;
@@ -34,11 +36,15 @@ public class SqlScriptMetadataImpl implements SqlScriptMetadata {
     private static final String ENCODING = "encoding";
     private static final String PLACEHOLDER_REPLACEMENT = "placeholderReplacement";
     private static final String SHOULD_EXECUTE = "shouldExecute";
+    private static final String STATEMENT_TIMEOUT = "statementTimeout";
+    private static final String MIGRATION_TIMEOUT = "migrationTimeout";
 
     private final Boolean executeInTransaction;
     private final String encoding;
     private final boolean placeholderReplacement;
     private final boolean shouldExecute;
+    private final Integer statementTimeout;
+    private final Integer migrationTimeout;
 
     private SqlScriptMetadataImpl(Map<String, String> metadata) {
         // Make copy to prevent removing elements from the original
@@ -52,6 +58,9 @@ public class SqlScriptMetadataImpl implements SqlScriptMetadata {
 
         this.shouldExecute = true;
 
+        this.statementTimeout = removeTimeout(copy, STATEMENT_TIMEOUT);
+        this.migrationTimeout = removeTimeout(copy, MIGRATION_TIMEOUT);
+
         ConfigUtils.reportUnrecognisedProperties(copy, null);
     }
 
@@ -75,6 +84,25 @@ public class SqlScriptMetadataImpl implements SqlScriptMetadata {
         return shouldExecute;
     }
 
+    @Override
+    public Integer statementTimeout() {
+        return statementTimeout;
+    }
+
+    @Override
+    public Integer migrationTimeout() {
+        return migrationTimeout;
+    }
+
+    private static Integer removeTimeout(Map<String, String> metadata, String key) {
+        Integer timeout = ConfigUtils.removeInteger(metadata, key);
+        if (timeout != null && timeout < 0) {
+            throw new MigrateDbException("Invalid " + key + " (must be 0 or greater): " + timeout,
+                                         ErrorCode.CONFIGURATION);
+        }
+        return timeout;
+    }
+
     public static boolean isMultilineBooleanExpression(String line) {
         return !line.startsWith(SqlScriptMetadataImpl.SHOULD_EXECUTE) && (line.contains("==") || line.contains("!="));
     }
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.sqlscript;
+
+import migratedb.v1.core.api.Location.ClassPathLocation;
+import migratedb.v1.core.api.internal.parser.Parser;
+import migratedb.v1.core.api.internal.sqlscript.SqlScriptMetadata;
+import migratedb.v1.core.api.internal.sqlscript.SqlStatement;
+import migratedb.v1.core.api.internal.sqlscript.SqlStatementIterator;
+import migratedb.v1.core.api.logging.Log;
+import migratedb.v1.core.api.resource.Resource;
+import migratedb.v1.core.internal.parser.BaseParser;
+import migratedb.v1.core.internal.resource.StringResource;
+import migratedb.v1.core.internal.resource.classpath.ClassPathResource;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * SQL scripts that were parsed at build time by the scanner and shipped as {@link
+ * ClassPathLocation#STATEMENT_BUNDLE_RESOURCE_NAME} next to the index files of a class path location.
+ * <p>
+ * Each entry holds the statements of one script together with the dialect key of the parser that produced them (see
+ * {@link BaseParser#getDialectKey()}) and a SHA-256 hash of the script content. Statements are stored as offsets into
+ * the content wherever possible, so a bundle is much smaller than the scripts themselves. An entry is only used if the
+ * runtime parser has the same dialect key, the content still has the same hash and no placeholders need to be
+ * replaced. Otherwise the script is parsed as usual. Statement properties that depend on the database version are
+ * recomputed by {@link BaseParser#adaptPreParsedStatements(List)} when an entry is used.
+ */
+public final class StatementBundle {
+    private static final Log LOG = Log.getLog(StatementBundle.class);
+
+    private static final int MAGIC = 0x4d444242;
+    /**
+     * Must be incremented whenever the bundle or entry format changes.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private static final StatementBundle EMPTY = new StatementBundle(List.of());
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * @param entries The entries. If there are several entries for the same resource, the first one wins.
+     */
+    public StatementBundle(Collection<Entry> entries) {
+        var map = new LinkedHashMap<String, Entry>();
+        for (var entry : entries) {
+            map.putIfAbsent(entry.resourceName, entry);
+        }
+        this.entries = Collections.unmodifiableMap(map);
+    }
+
+    public static StatementBundle empty() {
+        return EMPTY;
+    }
+
+    public Collection<Entry> getEntries() {
+        return entries.values();
+    }
+
+    /**
+     * @return The entry for {@code resourceName}, or {@code null} if there is none.
+     */
+    public @Nullable Entry get(String resourceName) {
+        return entries.get(resourceName);
+    }
+
+    /**
+     * Parses a script for inclusion in a bundle.
+     *
+     * @param parser       The parser to use. Placeholder replacement must be disabled in its configuration.
+     * @param resourceName The slash-separated class path resource name of the script.
+     * @param content      The content of the script.
+     * @return The entry, or {@code null} if the script contains statements that can't be stored in a bundle.
+     * @throws migratedb.v1.core.api.MigrateDbException If the script can't be parsed.
+     */
+    public static @Nullable Entry compile(BaseParser parser, String resourceName, String content) {
+        var normalizedContent = normalize(content);
+        var bytes = new ByteArrayOutputStream();
+        int count = 0;
+        try (var out = new DataOutputStream(bytes);
+             SqlStatementIterator statements = parser.parse(new StringResource(resourceName, content), null)) {
+            while (statements.hasNext()) {
+                var statement = statements.next();
+                if (!StatementCodec.isSupported(statement)) {
+                    return null;
+                }
+                StatementCodec.write(out, statement, normalizedContent);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Entry(resourceName, parser.getDialectKey(), sha256(normalizedContent), count, bytes.toByteArray());
+    }
+
+    /**
+     * Returns the pre-parsed statements of a script, if its resource carries a matching bundle entry.
+     *
+     * @return The statements, or {@code null} if the script must be parsed.
+     */
+    public static @Nullable List<SqlStatement> lookup(Parser parser,
+                                                      Resource resource,
+                                                      @Nullable SqlScriptMetadata metadata) {
+        if (!(resource instanceof ClassPathResource) || !(parser instanceof BaseParser)) {
+            return null;
+        }
+        var entry = ((ClassPathResource) resource).getStatementBundleEntry();
+        if (entry == null || !entry.dialectKey.equals(((BaseParser) parser).getDialectKey())) {
+            return null;
+        }
+        var configuration = parser.getConfiguration();
+        var content = normalize(StatementCodec.readContent(resource, configuration.getEncoding()));
+        boolean placeholderReplacement = configuration.isPlaceholderReplacement() &&
+                                         (metadata == null || metadata.placeholderReplacement());
+        if (placeholderReplacement && content.contains(configuration.getPlaceholderPrefix())) {
+            return null;
+        }
+        if (!Arrays.equals(entry.contentHash, sha256(content))) {
+            LOG.debug("Not using pre-parsed statements of " + resource.getName() + ", its content has changed");
+            return null;
+        }
+        try {
+            return ((BaseParser) parser).adaptPreParsedStatements(entry.decode(content));
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Ignoring unreadable pre-parsed statements of " + resource.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes this bundle in its binary format.
+     */
+    public void write(OutputStream stream) throws IOException {
+        var deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            var deflated = new DeflaterOutputStream(stream, deflater);
+            var out = new DataOutputStream(new BufferedOutputStream(deflated));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(entries.size());
+            for (var entry : entries.values()) {
+                entry.write(out);
+            }
+            out.flush();
+            deflated.finish();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Reads a bundle in its binary format.
+     *
+     * @throws IOException If the stream doesn't contain a bundle of a supported version.
+     */
+    public static StatementBundle read(InputStream stream) throws IOException {
+        var in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(stream)));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a statement bundle");
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported format version " + version);
+        }
+        int count = in.readInt();
+        var entries = new ArrayList<Entry>();
+        for (int i = 0; i < count; i++) {
+            entries.add(Entry.read(in));
+        }
+        return new StatementBundle(entries);
+    }
+
+    /**
+     * The parser strips byte order marks wherever they occur, so statement offsets refer to the content without them.
+     */
+    private static String normalize(String content) {
+        return content.indexOf('\uFEFF') < 0 ? content : content.replace("\uFEFF", "");
+    }
+
+    private static byte[] sha256(String content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content.getBytes(UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static final class Entry {
+        private final String resourceName;
+        private final String dialectKey;
+        private final byte[] contentHash;
+        private final int statementCount;
+        private final byte[] statements;
+
+        private Entry(String resourceName,
+                      String dialectKey,
+                      byte[] contentHash,
+                      int statementCount,
+                      byte[] statements) {
+            this.resourceName = resourceName;
+            this.dialectKey = dialectKey;
+            this.contentHash = contentHash;
+            this.statementCount = statementCount;
+            this.statements = statements;
+        }
+
+        public String getResourceName() {
+            return resourceName;
+        }
+
+        public String getDialectKey() {
+            return dialectKey;
+        }
+
+        private List<SqlStatement> decode(String content) throws IOException {
+            var in = new DataInputStream(new ByteArrayInputStream(statements));
+            var result = new ArrayList<SqlStatement>(statementCount);
+            for (int i = 0; i < statementCount; i++) {
+                result.add(StatementCodec.read(in, content));
+            }
+            return result;
+        }
+
+        /**
+         * Writes this entry in the format that {@link #read(DataInputStream)} understands.
+         */
+        public void write(DataOutputStream out) throws IOException {
+            StatementCodec.writeString(out, resourceName);
+            StatementCodec.writeString(out, dialectKey);
+            out.write(contentHash);
+            out.writeInt(statementCount);
+            out.writeInt(statements.length);
+            out.write(statements);
+        }
+
+        public static Entry read(DataInputStream in) throws IOException {
+            var resourceName = StatementCodec.readString(in);
+            var dialectKey = StatementCodec.readString(in);
+            var contentHash = new byte[32];
+            in.readFully(contentHash);
+            int statementCount = in.readInt();
+            var statements = new byte[in.readInt()];
+            in.readFully(statements);
+            return new Entry(resourceName, dialectKey, contentHash, statementCount, statements);
+        }
+    }
+}
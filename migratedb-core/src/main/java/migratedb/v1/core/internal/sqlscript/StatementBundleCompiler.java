@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.sqlscript;
+
+import migratedb.v1.core.api.MigrateDbException;
+import migratedb.v1.core.api.ResourceProvider;
+import migratedb.v1.core.api.configuration.DefaultConfiguration;
+import migratedb.v1.core.api.internal.database.base.DatabaseType;
+import migratedb.v1.core.api.logging.Log;
+import migratedb.v1.core.internal.parser.BaseParser;
+import migratedb.v1.core.internal.parser.ParsingContextImpl;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+/**
+ * Parses SQL migrations at build time for inclusion in a {@link StatementBundle}. Scripts are expected to be UTF-8
+ * encoded; if the runtime uses a different encoding, the content hash won't match and the bundle is ignored.
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class StatementBundleCompiler {
+    private static final Log LOG = Log.getLog(StatementBundleCompiler.class);
+
+    private final DefaultConfiguration configuration;
+    private final DatabaseType databaseType;
+
+    /**
+     * @param databaseTypeName The name of a built-in database type, e.g. {@code PostgreSQL}, that determines the SQL
+     *                         dialect.
+     * @throws MigrateDbException If there is no such database type.
+     */
+    public StatementBundleCompiler(String databaseTypeName) {
+        this.configuration = new DefaultConfiguration();
+        // Placeholders are replaced at runtime, so scripts that contain any are parsed at runtime as well
+        configuration.setPlaceholderReplacement(false);
+        var databaseTypes = configuration.getDatabaseTypeRegister().getDatabaseTypes();
+        this.databaseType = databaseTypes.stream()
+                                         .filter(it -> it.getName().equalsIgnoreCase(databaseTypeName))
+                                         .findFirst()
+                                         .orElseThrow(() -> new MigrateDbException(
+                                                 "Unknown database type '" + databaseTypeName + "', expected one of " +
+                                                 databaseTypes.stream()
+                                                              .map(DatabaseType::getName)
+                                                              .collect(Collectors.joining(", "))));
+    }
+
+    /**
+     * @return Whether {@code resourceName} looks like an SQL migration.
+     */
+    public boolean accepts(String resourceName) {
+        var fileName = resourceName.substring(resourceName.lastIndexOf('/') + 1);
+        for (var suffix : configuration.getSqlMigrationSuffixes()) {
+            if (fileName.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The bundle entry of the script, or {@code null} if it can't be parsed ahead of time.
+     */
+    public StatementBundle.@Nullable Entry compile(String resourceName, byte[] content) {
+        var parser = databaseType.createParser(configuration, ResourceProvider.noResources(), new ParsingContextImpl());
+        if (!(parser instanceof BaseParser)) {
+            return null;
+        }
+        try {
+            return StatementBundle.compile((BaseParser) parser,
+                                           resourceName,
+                                           new String(content, StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            LOG.debug("Not pre-parsing " + resourceName + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
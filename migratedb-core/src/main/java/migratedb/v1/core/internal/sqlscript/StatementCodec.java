@@ -0,0 +1,164 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.sqlscript;
+
+import migratedb.v1.core.api.MigrateDbException;
+import migratedb.v1.core.api.internal.sqlscript.Delimiter;
+import migratedb.v1.core.api.internal.sqlscript.SqlStatement;
+import migratedb.v1.core.api.resource.Resource;
+import migratedb.v1.core.internal.database.postgresql.PostgreSQLCopyParsedStatement;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary encoding of parsed statements, shared by {@link ParsedScriptCache} and {@link StatementBundle}.
+ * <p>
+ * If the script content is passed to {@link #write(DataOutputStream, SqlStatement, String)}, the SQL of a statement
+ * that occurs verbatim at its position in the content is stored as a length only, and the same content must then be
+ * passed to {@link #read(DataInputStream, String)}.
+ */
+final class StatementCodec {
+    private static final byte PARSED_STATEMENT = 0;
+    private static final byte POSTGRESQL_COPY_STATEMENT = 1;
+
+    private StatementCodec() {
+    }
+
+    /**
+     * @return Whether {@code statement} can be encoded.
+     */
+    static boolean isSupported(SqlStatement statement) {
+        return kindOf(statement) >= 0;
+    }
+
+    private static int kindOf(SqlStatement statement) {
+        if (statement.getClass() == ParsedSqlStatement.class) {
+            return PARSED_STATEMENT;
+        }
+        if (statement.getClass() == PostgreSQLCopyParsedStatement.class) {
+            return POSTGRESQL_COPY_STATEMENT;
+        }
+        return -1;
+    }
+
+    static void write(DataOutputStream out, SqlStatement sqlStatement, @Nullable String content) throws IOException {
+        var statement = (ParsedSqlStatement) sqlStatement;
+        int kind = kindOf(statement);
+        out.writeByte(kind);
+        out.writeInt(statement.getPos());
+        out.writeInt(statement.getLine());
+        out.writeInt(statement.getCol());
+        writeSql(out, statement, content);
+        if (kind == POSTGRESQL_COPY_STATEMENT) {
+            writeString(out, ((PostgreSQLCopyParsedStatement) statement).getCopyData());
+        } else {
+            writeString(out, statement.getParsedDelimiter().getDelimiter());
+            out.writeBoolean(statement.getParsedDelimiter().shouldBeAloneOnLine());
+            out.writeBoolean(statement.canExecuteInTransaction());
+        }
+    }
+
+    static SqlStatement read(DataInputStream in, @Nullable String content) throws IOException {
+        byte kind = in.readByte();
+        int pos = in.readInt();
+        int line = in.readInt();
+        int col = in.readInt();
+        String sql = readSql(in, pos, content);
+        switch (kind) {
+            case PARSED_STATEMENT:
+                String delimiter = readString(in);
+                boolean aloneOnLine = in.readBoolean();
+                boolean canExecuteInTransaction = in.readBoolean();
+                return new ParsedSqlStatement(pos, line, col, sql, toDelimiter(delimiter, aloneOnLine),
+                                              canExecuteInTransaction);
+            case POSTGRESQL_COPY_STATEMENT:
+                return new PostgreSQLCopyParsedStatement(pos, line, col, sql, readString(in));
+            default:
+                throw new IOException("Unknown statement kind " + kind);
+        }
+    }
+
+    private static void writeSql(DataOutputStream out, ParsedSqlStatement statement, @Nullable String content)
+            throws IOException {
+        var sql = statement.getSql();
+        if (content == null) {
+            writeString(out, sql);
+        } else if (statement.getPos() >= 0 && content.startsWith(sql, statement.getPos())) {
+            out.writeBoolean(true);
+            out.writeInt(sql.length());
+        } else {
+            out.writeBoolean(false);
+            writeString(out, sql);
+        }
+    }
+
+    private static String readSql(DataInputStream in, int pos, @Nullable String content) throws IOException {
+        if (content == null || !in.readBoolean()) {
+            return readString(in);
+        }
+        int length = in.readInt();
+        if (pos < 0 || length < 0 || pos + length > content.length()) {
+            throw new IOException("Statement out of bounds");
+        }
+        return content.substring(pos, pos + length);
+    }
+
+    private static Delimiter toDelimiter(String delimiter, boolean aloneOnLine) {
+        var result = new Delimiter(delimiter, aloneOnLine);
+        if (result.equals(Delimiter.SEMICOLON)) {
+            return Delimiter.SEMICOLON;
+        }
+        return result;
+    }
+
+    static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return The complete content of {@code resource}.
+     */
+    static String readContent(Resource resource, Charset encoding) {
+        var reader = resource.read(encoding);
+        if (reader == null) {
+            throw new MigrateDbException("Failed to open resource " + resource.getName());
+        }
+        try (reader) {
+            var content = new StringBuilder();
+            char[] buffer = new char[8192];
+            int n;
+            while ((n = reader.read(buffer)) != -1) {
+                content.append(buffer, 0, n);
+            }
+            return content.toString();
+        } catch (IOException e) {
+            throw new MigrateDbException("Unable to read " + resource.getName(), e);
+        }
+    }
+}
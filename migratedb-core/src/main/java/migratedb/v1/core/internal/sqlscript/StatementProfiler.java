@@ -0,0 +1,163 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.sqlscript;
+
+import migratedb.v1.core.api.logging.Log;
+import migratedb.v1.core.api.output.StatementOutput;
+import migratedb.v1.core.internal.util.AsciiTable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the slowest statements a migrate run has executed. Only the statements that are currently among the slowest
+ * are retained, so memory use is bounded by the report size regardless of the number of statements.
+ * <p>
+ * Instances are confined to the thread that runs the command.
+ */
+public final class StatementProfiler {
+    private static final Log LOG = Log.getLog(StatementProfiler.class);
+    private static final int MAX_SQL_LENGTH = 200;
+
+    private final int size;
+    /**
+     * Min-heap, so the fastest of the retained statements is the one that gets evicted.
+     */
+    private final PriorityQueue<Sample> slowest = new PriorityQueue<>(Comparator.comparingLong(it -> it.nanos));
+    private long statementCount;
+    private long totalNanos;
+
+    /**
+     * @param size The number of statements to retain, at least 1.
+     */
+    public StatementProfiler(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be at least 1");
+        }
+        this.size = size;
+    }
+
+    /**
+     * Records a statement that executed successfully.
+     *
+     * @param updateCount The number of rows affected, or -1 if the statement didn't report any.
+     */
+    public void record(String script, int line, String sql, long nanos, long updateCount) {
+        record(script, line, sql, nanos, updateCount, false);
+    }
+
+    /**
+     * Records an executed statement.
+     *
+     * @param updateCount The number of rows affected, or -1 if the statement didn't report any.
+     * @param failed      Whether the statement failed or was cancelled, e.g. because it exceeded its timeout.
+     */
+    public void record(String script, int line, String sql, long nanos, long updateCount, boolean failed) {
+        statementCount++;
+        totalNanos += nanos;
+        if (slowest.size() == size) {
+            if (slowest.peek().nanos >= nanos) {
+                return;
+            }
+            slowest.poll();
+        }
+        slowest.add(new Sample(script, line, abbreviate(sql), nanos, updateCount, failed));
+    }
+
+    /**
+     * @return The retained statements, slowest first.
+     */
+    public List<StatementOutput> getSlowest() {
+        var samples = new ArrayList<>(slowest);
+        samples.sort(Comparator.comparingLong((Sample it) -> it.nanos).reversed());
+        var result = new ArrayList<StatementOutput>(samples.size());
+        for (var sample : samples) {
+            result.add(new StatementOutput(sample.script,
+                                           sample.line,
+                                           sample.sql,
+                                           (int) Math.min(Integer.MAX_VALUE,
+                                                          TimeUnit.NANOSECONDS.toMillis(sample.nanos)),
+                                           sample.updateCount,
+                                           sample.failed));
+        }
+        return result;
+    }
+
+    /**
+     * Logs the retained statements as a table, unless no statement has been executed.
+     */
+    public void logSummary() {
+        if (statementCount == 0) {
+            return;
+        }
+        var rows = new ArrayList<List<String>>();
+        for (var statement : getSlowest()) {
+            rows.add(List.of(statement.executionTime + " ms",
+                             statement.failed ? "failed" :
+                             statement.updateCount < 0 ? "" : String.valueOf(statement.updateCount),
+                             statement.filepath + ":" + statement.line,
+                             statement.sql));
+        }
+        var output = new StringBuilder("Slowest " + rows.size() + " of " + statementCount + " statements (" +
+                                       TimeUnit.NANOSECONDS.toMillis(totalNanos) + " ms in total):\n");
+        new AsciiTable(List.of("Time", "Rows", "Location", "SQL"), rows, true, "", "")
+                .render(output);
+        LOG.info(output.toString());
+    }
+
+    private static String abbreviate(String sql) {
+        var result = new StringBuilder(Math.min(sql.length(), MAX_SQL_LENGTH + 3));
+        boolean whitespace = false;
+        for (int i = 0; i < sql.length() && result.length() < MAX_SQL_LENGTH; i++) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                whitespace = true;
+            } else {
+                if (whitespace && result.length() > 0) {
+                    result.append(' ');
+                }
+                whitespace = false;
+                result.append(c);
+            }
+        }
+        if (result.length() >= MAX_SQL_LENGTH) {
+            result.setLength(MAX_SQL_LENGTH);
+            result.append("...");
+        }
+        return result.toString();
+    }
+
+    private static final class Sample {
+        final String script;
+        final int line;
+        final String sql;
+        final long nanos;
+        final long updateCount;
+        final boolean failed;
+
+        Sample(String script, int line, String sql, long nanos, long updateCount, boolean failed) {
+            this.script = script;
+            this.line = line;
+            this.sql = sql;
+            this.nanos = nanos;
+            this.updateCount = updateCount;
+            this.failed = failed;
+        }
+    }
+}
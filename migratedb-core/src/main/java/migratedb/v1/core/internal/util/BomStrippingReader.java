@@ -46,4 +46,27 @@ public class BomStrippingReader extends FilterReader {
         }
         return c;
     }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        int read;
+        do {
+            read = super.read(cbuf, off, len);
+            if (read <= 0) {
+                return read;
+            }
+            read = removeBoms(cbuf, off, read);
+        } while (read == 0);
+        return read;
+    }
+
+    private static int removeBoms(char[] cbuf, int off, int len) {
+        int kept = off;
+        for (int i = off; i < off + len; i++) {
+            if (!BomFilter.isBom(cbuf[i])) {
+                cbuf[kept++] = cbuf[i];
+            }
+        }
+        return kept - off;
+    }
 }
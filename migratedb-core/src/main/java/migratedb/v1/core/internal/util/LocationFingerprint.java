@@ -0,0 +1,113 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.util;
+
+import migratedb.v1.core.api.Location;
+import migratedb.v1.core.api.Location.ArchiveLocation;
+import migratedb.v1.core.api.Location.ClassPathLocation;
+import migratedb.v1.core.api.Location.FileSystemLocation;
+import migratedb.v1.core.api.MigrateDbException;
+import migratedb.v1.core.api.configuration.Configuration;
+import migratedb.v1.core.internal.resource.archive.MigrationArchive;
+import migratedb.v1.core.internal.resource.classpath.ClassPathIndex;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Summarizes the state of the configured locations, so that the results of scanning them can be reused until the
+ * fingerprint changes. Computing it is much cheaper than a scan:
+ * <ul>
+ *     <li>File system locations contribute the names, sizes and modification times of their files.</li>
+ *     <li>Archive locations contribute the CRC-32 of the archive header, which covers the CRC-32 of each resource.</li>
+ *     <li>Class path locations contribute the URLs, sizes and modification times of their index files.</li>
+ * </ul>
+ * Custom locations and custom resource or class providers are assumed not to change and only contribute their
+ * identity.
+ */
+public final class LocationFingerprint {
+    private LocationFingerprint() {
+    }
+
+    /**
+     * @return The fingerprint of the locations of {@code configuration}.
+     */
+    public static String compute(Configuration configuration) {
+        var digest = sha256();
+        for (var location : configuration.getLocations()) {
+            update(digest, location.toString());
+            update(digest, location);
+        }
+        update(digest, String.valueOf(configuration.getResourceProvider()));
+        update(digest, String.valueOf(configuration.getJavaMigrationClassProvider()));
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, Location location) {
+        try {
+            if (location instanceof FileSystemLocation) {
+                var baseDirectory = ((FileSystemLocation) location).getBaseDirectory();
+                if (Files.isDirectory(baseDirectory)) {
+                    Files.walkFileTree(baseDirectory, new SimpleFileVisitor<>() {
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                            update(digest, baseDirectory.relativize(file).toString());
+                            update(digest, attributes.size() + ":" + attributes.lastModifiedTime().toMillis());
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+                }
+            } else if (location instanceof ArchiveLocation) {
+                var archiveFile = ((ArchiveLocation) location).getArchiveFile();
+                if (Files.isRegularFile(archiveFile)) {
+                    update(digest, String.valueOf(MigrationArchive.open(archiveFile).getHeaderChecksum()));
+                }
+            } else if (location instanceof ClassPathLocation) {
+                var classPathLocation = (ClassPathLocation) location;
+                var stamp = ClassPathIndex.stampOf(classPathLocation.getClassLoader(),
+                                                   classPathLocation.namePrefix() + "/");
+                stamp.forEach(it -> update(digest, it));
+            } else {
+                update(digest, String.valueOf(System.identityHashCode(location)));
+            }
+        } catch (IOException | MigrateDbException e) {
+            // Never equal to a previous fingerprint, so the location is scanned again
+            update(digest, e.toString() + System.nanoTime());
+        }
+    }
+
+    private static void update(MessageDigest digest, String s) {
+        digest.update(s.getBytes(UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -19,13 +19,17 @@ package migratedb.v1.core.internal.util;
 import migratedb.v1.core.api.ClassProvider;
 import migratedb.v1.core.api.Location;
 import migratedb.v1.core.api.MigrateDbException;
+import migratedb.v1.core.api.MigrateDbMetrics;
+import migratedb.v1.core.api.MigrateDbPhaseListener;
 import migratedb.v1.core.api.ResourceProvider;
 import migratedb.v1.core.api.resource.Resource;
+import migratedb.v1.core.internal.jfr.JfrEvents;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static java.util.stream.Collectors.toUnmodifiableList;
 
@@ -62,15 +66,24 @@ public final class LocationScanner<T> implements ClassProvider<T>, ResourceProvi
     public Collection<Class<? extends T>> getClasses() {
         var result = scannedClasses;
         if (result == null) {
-            result = classProviders.stream()
-                                   .flatMap(it -> it.getClasses().stream())
-                                   .filter(it -> supertype.isAssignableFrom(it) &&
-                                                 !it.isInterface() &&
-                                                 !Modifier.isAbstract(it.getModifiers()) &&
-                                                 Modifier.isPublic(it.getModifiers())
-                                   )
-                                   .map(it -> (Class<? extends T>) it)
-                                   .collect(toUnmodifiableList());
+            var metrics = Metrics.current();
+            long start = Metrics.start(metrics);
+            var event = JfrEvents.beginScan();
+            result = List.of();
+            try (var ignored = Phases.start(MigrateDbPhaseListener.Phase.SCAN)) {
+                result = classProviders.stream()
+                                       .flatMap(it -> it.getClasses().stream())
+                                       .filter(it -> supertype.isAssignableFrom(it) &&
+                                                     !it.isInterface() &&
+                                                     !Modifier.isAbstract(it.getModifiers()) &&
+                                                     Modifier.isPublic(it.getModifiers())
+                                       )
+                                       .map(it -> (Class<? extends T>) it)
+                                       .collect(toUnmodifiableList());
+            } finally {
+                JfrEvents.endScan(event, null, result.size());
+                Metrics.stop(metrics, MigrateDbMetrics.Timer.LOCATION_SCAN, start);
+            }
             scannedClasses = result;
         }
         return result;
@@ -89,9 +102,17 @@ public final class LocationScanner<T> implements ClassProvider<T>, ResourceProvi
 
     @Override
     public Collection<Resource> getResources(String prefix, Collection<String> suffixes) {
+        var metrics = Metrics.current();
+        long start = Metrics.start(metrics);
+        var event = JfrEvents.beginScan();
         var result = new ArrayList<Resource>();
-        for (var provider : resourceProviders) {
-            result.addAll(provider.getResources(prefix, suffixes));
+        try (var ignored = Phases.start(MigrateDbPhaseListener.Phase.SCAN, "prefix", prefix)) {
+            for (var provider : resourceProviders) {
+                result.addAll(provider.getResources(prefix, suffixes));
+            }
+        } finally {
+            JfrEvents.endScan(event, prefix, result.size());
+            Metrics.stop(metrics, MigrateDbMetrics.Timer.LOCATION_SCAN, start);
         }
         return result;
     }
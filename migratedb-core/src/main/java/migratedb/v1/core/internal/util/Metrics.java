@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.util;
+
+import migratedb.v1.core.api.MigrateDbMetrics;
+
+/**
+ * Helpers that record metrics without reading the clock if metrics are disabled, i.e. {@link MigrateDbMetrics#NONE} is
+ * in use.
+ */
+public final class Metrics {
+    private Metrics() {
+    }
+
+    /**
+     * @return The start time to pass to {@link #stop(MigrateDbMetrics, MigrateDbMetrics.Timer, long)}.
+     */
+    public static long start(MigrateDbMetrics metrics) {
+        return metrics == MigrateDbMetrics.NONE ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Records the time elapsed since {@code start}.
+     */
+    public static void stop(MigrateDbMetrics metrics, MigrateDbMetrics.Timer timer, long start) {
+        if (metrics != MigrateDbMetrics.NONE) {
+            metrics.recordTime(timer, System.nanoTime() - start);
+        }
+    }
+
+    public static void increment(MigrateDbMetrics metrics, MigrateDbMetrics.Counter counter, long amount) {
+        if (metrics != MigrateDbMetrics.NONE && amount > 0) {
+            metrics.increment(counter, amount);
+        }
+    }
+
+    /**
+     * @return The metrics of the command that runs on the calling thread, {@link MigrateDbMetrics#NONE} if there is no
+     * such command.
+     */
+    public static MigrateDbMetrics current() {
+        var context = OperationContext.current();
+        return context == null ? MigrateDbMetrics.NONE : context.getMetrics();
+    }
+}
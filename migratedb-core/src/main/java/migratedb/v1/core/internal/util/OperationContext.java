@@ -0,0 +1,481 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.util;
+
+import migratedb.v1.core.api.ErrorCode;
+import migratedb.v1.core.api.MigrateDbException;
+import migratedb.v1.core.api.MigrateDbMetrics;
+import migratedb.v1.core.api.MigrateDbPhaseListener;
+import migratedb.v1.core.api.configuration.Configuration;
+import migratedb.v1.core.api.logging.Log;
+import migratedb.v1.core.internal.sqlscript.StatementProfiler;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * State of a command that can be observed and cancelled from other threads. The command itself runs on a single thread
+ * and finds its context via {@link #current()}.
+ * <p>
+ * Cancellation is cooperative: the command checks for it before each migration and before each SQL statement, and the
+ * statement that is currently executing is cancelled via {@link Statement#cancel()}.
+ * <p>
+ * Timeouts are implemented on top of cancellation. The statement timeout and the time left until the migration and
+ * migrate deadlines are passed to {@link Statement#setQueryTimeout(int)}. In addition, a watchdog thread cancels the
+ * running statement when a deadline has passed, in case the driver doesn't honour the query timeout.
+ */
+public final class OperationContext {
+    private static final Log LOG = Log.getLog(OperationContext.class);
+    private static final ThreadLocal<OperationContext> CURRENT = new ThreadLocal<>();
+    /**
+     * How long the watchdog waits after a statement timeout for the driver to cancel the statement by itself.
+     */
+    private static final long STATEMENT_TIMEOUT_GRACE_MILLIS = 1000;
+
+    private volatile boolean cancelled;
+    private volatile @Nullable String timeout;
+    private volatile int migrationsTotal;
+    private volatile int migrationsCompleted;
+    private volatile @Nullable String currentMigration;
+
+    private int statementTimeout;
+    private int migrationTimeout;
+    private int migrateTimeout;
+    private int slowStatementReportSize;
+    private MigrateDbMetrics metrics = MigrateDbMetrics.NONE;
+    private MigrateDbPhaseListener phaseListener = MigrateDbPhaseListener.NONE;
+
+    // Confined to the thread that runs the command
+    private int migrationStatementTimeout;
+    private long migrationStart;
+    private long migrationDeadline;
+    private @Nullable String migrationTimeoutDescription;
+    private long migrateDeadline;
+    private @Nullable String migrateTimeoutDescription;
+    private @Nullable ScheduledFuture<?> migrationWatchdog;
+    private @Nullable ScheduledFuture<?> migrateWatchdog;
+    private long statementStart;
+    private int statementQueryTimeout;
+    private @Nullable String statementQueryTimeoutDescription;
+    private @Nullable ScheduledFuture<?> statementWatchdog;
+    private @Nullable StatementProfiler statementProfiler;
+
+    private @Nullable Statement runningStatement;
+
+    /**
+     * Runs {@code action} with this context as the current context of the calling thread.
+     */
+    public <T> T run(Supplier<T> action) {
+        var previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return The context of the command that runs on the calling thread, or {@code null} if there is none.
+     */
+    public static @Nullable OperationContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Takes the statement, migration and migrate timeouts, the slow statement report size, the metrics and the phase
+     * listener from {@code configuration}.
+     */
+    public void configure(Configuration configuration) {
+        statementTimeout = configuration.getStatementTimeout();
+        migrationTimeout = configuration.getMigrationTimeout();
+        migrateTimeout = configuration.getMigrateTimeout();
+        slowStatementReportSize = configuration.getSlowStatementReportSize();
+        metrics = configuration.getMetrics();
+        phaseListener = configuration.getPhaseListener();
+    }
+
+    public MigrateDbMetrics getMetrics() {
+        return metrics;
+    }
+
+    public MigrateDbPhaseListener getPhaseListener() {
+        return phaseListener;
+    }
+
+    /**
+     * @throws MigrateDbException If the command that runs on the calling thread has been cancelled or has timed out.
+     */
+    public static void checkCancelled() {
+        var context = CURRENT.get();
+        if (context != null && context.cancelled) {
+            throw context.newCancelledException(null);
+        }
+    }
+
+    /**
+     * @return Whether the command that runs on the calling thread has been cancelled or has timed out.
+     */
+    public static boolean isCurrentCancelled() {
+        var context = CURRENT.get();
+        return context != null && context.cancelled;
+    }
+
+    /**
+     * @return The description of the timeout the command that runs on the calling thread has exceeded, or {@code null}
+     * if it hasn't timed out.
+     */
+    public static @Nullable String currentTimeout() {
+        var context = CURRENT.get();
+        return context == null ? null : context.timeout;
+    }
+
+    /**
+     * @return An exception that reports the cancellation or timeout of the command.
+     */
+    public MigrateDbException newCancelledException(@Nullable Throwable cause) {
+        var timeout = this.timeout;
+        if (timeout != null) {
+            return new MigrateDbException(timeout, cause, ErrorCode.TIMEOUT);
+        }
+        return new MigrateDbException("Operation was cancelled", cause, ErrorCode.CANCELLED);
+    }
+
+    /**
+     * Requests cancellation of the command and cancels the statement it is currently executing, if any.
+     */
+    public void cancel() {
+        Statement statement;
+        synchronized (this) {
+            cancelled = true;
+            statement = runningStatement;
+        }
+        if (statement != null) {
+            try {
+                statement.cancel();
+            } catch (SQLException | RuntimeException e) {
+                LOG.debug("Unable to cancel running statement: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Cancels the command because it has exceeded a timeout.
+     */
+    private void expire(String description) {
+        synchronized (this) {
+            if (timeout == null && !cancelled) {
+                timeout = description;
+            }
+        }
+        cancel();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Starts the deadline and the statement profiling of the migrate command.
+     */
+    public static void migrateStarted() {
+        var context = CURRENT.get();
+        if (context != null && context.slowStatementReportSize > 0) {
+            context.statementProfiler = new StatementProfiler(context.slowStatementReportSize);
+        }
+        if (context != null && context.migrateTimeout > 0) {
+            int seconds = context.migrateTimeout;
+            var description = "Migrate exceeded its timeout of " + seconds + " s";
+            context.migrateDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            context.migrateTimeoutDescription = description;
+            context.migrateWatchdog = context.schedule(TimeUnit.SECONDS.toMillis(seconds),
+                                                       () -> context.expire(description));
+        }
+    }
+
+    /**
+     * Ends the deadline and the statement profiling of the migrate command.
+     *
+     * @return The statement profiler of the migrate command, or {@code null} if statement profiling is disabled.
+     */
+    public static @Nullable StatementProfiler migrateFinished() {
+        var context = CURRENT.get();
+        if (context == null) {
+            return null;
+        }
+        context.migrateWatchdog = cancel(context.migrateWatchdog);
+        context.migrateDeadline = 0;
+        var profiler = context.statementProfiler;
+        context.statementProfiler = null;
+        return profiler;
+    }
+
+    /**
+     * @return The statement profiler of the migrate command that runs on the calling thread, or {@code null} if there
+     * is no such command or statement profiling is disabled.
+     */
+    public static @Nullable StatementProfiler currentStatementProfiler() {
+        var context = CURRENT.get();
+        return context == null ? null : context.statementProfiler;
+    }
+
+    /**
+     * Registers the statement that the calling thread is about to execute, so {@link #cancel()} can cancel it. If the
+     * statement belongs to a migration, applies the remaining time of the statement, migration and migrate timeouts as
+     * its query timeout.
+     *
+     * @throws MigrateDbException If the statement belongs to a migration and the command has already been cancelled or
+     *                            has timed out.
+     */
+    public static void statementStarted(Statement statement) throws SQLException {
+        var context = CURRENT.get();
+        if (context == null) {
+            return;
+        }
+        if (context.currentMigration == null) {
+            // Statements outside migrations must still run after a cancellation, e.g. for error callbacks
+            synchronized (context) {
+                context.runningStatement = statement;
+            }
+            return;
+        }
+        long now = System.nanoTime();
+        // Remember which timeout the query timeout comes from, so a timeout reported by the driver names it
+        int queryTimeout = context.migrationStatementTimeout;
+        String queryTimeoutDescription = queryTimeout > 0 ? statementTimeoutDescription(queryTimeout) : null;
+        int remaining = context.remainingSeconds(context.migrationDeadline,
+                                                 context.migrationTimeoutDescription,
+                                                 now);
+        if (minTimeout(queryTimeout, remaining) != queryTimeout) {
+            queryTimeout = remaining;
+            queryTimeoutDescription = context.migrationTimeoutDescription;
+        }
+        remaining = context.remainingSeconds(context.migrateDeadline, context.migrateTimeoutDescription, now);
+        if (minTimeout(queryTimeout, remaining) != queryTimeout) {
+            queryTimeout = remaining;
+            queryTimeoutDescription = context.migrateTimeoutDescription;
+        }
+        if (queryTimeout > 0) {
+            statement.setQueryTimeout(queryTimeout);
+        }
+        synchronized (context) {
+            checkCancelled();
+            context.runningStatement = statement;
+        }
+        context.statementStart = now;
+        context.statementQueryTimeout = queryTimeout;
+        context.statementQueryTimeoutDescription = queryTimeoutDescription;
+        int seconds = context.migrationStatementTimeout;
+        if (seconds > 0) {
+            context.statementWatchdog = context.schedule(
+                    TimeUnit.SECONDS.toMillis(seconds) + STATEMENT_TIMEOUT_GRACE_MILLIS, () -> {
+                        synchronized (context) {
+                            if (context.runningStatement != statement) {
+                                return;
+                            }
+                        }
+                        context.expire(statementTimeoutDescription(seconds));
+                    });
+        }
+    }
+
+    /**
+     * @param failure The exception the statement failed with, or {@code null} if it succeeded.
+     */
+    public static void statementFinished(@Nullable SQLException failure) {
+        var context = CURRENT.get();
+        if (context == null) {
+            return;
+        }
+        synchronized (context) {
+            context.runningStatement = null;
+        }
+        context.statementWatchdog = cancel(context.statementWatchdog);
+        int queryTimeout = context.statementQueryTimeout;
+        if (failure != null && queryTimeout > 0 && context.timeout == null &&
+            (failure instanceof SQLTimeoutException ||
+             System.nanoTime() - context.statementStart >= TimeUnit.SECONDS.toNanos(queryTimeout))) {
+            // The driver has cancelled the statement because of its query timeout
+            var description = context.statementQueryTimeoutDescription;
+            context.expire(description != null
+                           ? description
+                           : "Statement exceeded its query timeout of " + queryTimeout + " s");
+        }
+        context.statementQueryTimeout = 0;
+        context.statementQueryTimeoutDescription = null;
+    }
+
+    private static String statementTimeoutDescription(int seconds) {
+        return "Statement exceeded its timeout of " + seconds + " s";
+    }
+
+    /**
+     * Records that {@code pending} more migrations are about to be applied.
+     */
+    public static void migrationsPending(int pending) {
+        var context = CURRENT.get();
+        if (context != null) {
+            context.migrationsTotal = context.migrationsCompleted + pending;
+        }
+    }
+
+    /**
+     * Records the start of the execution of a migration and starts its deadline. Must be followed by {@link
+     * #migrationFinished()}.
+     */
+    public static void migrationStarted(String migration) {
+        var context = CURRENT.get();
+        if (context != null) {
+            context.currentMigration = migration;
+            context.migrationStart = System.nanoTime();
+            context.setMigrationTimeouts(context.statementTimeout, context.migrationTimeout);
+        }
+    }
+
+    /**
+     * Overrides the statement and migration timeouts of the current migration, e.g. from its script configuration.
+     * The migration deadline still counts from the start of the migration.
+     *
+     * @param statementTimeout The statement timeout in seconds, or {@code null} to keep the configured one.
+     * @param migrationTimeout The migration timeout in seconds, or {@code null} to keep the configured one.
+     */
+    public static void overrideTimeouts(@Nullable Integer statementTimeout, @Nullable Integer migrationTimeout) {
+        var context = CURRENT.get();
+        if (context != null && context.currentMigration != null &&
+            (statementTimeout != null || migrationTimeout != null)) {
+            context.setMigrationTimeouts(statementTimeout == null ? context.statementTimeout : statementTimeout,
+                                         migrationTimeout == null ? context.migrationTimeout : migrationTimeout);
+        }
+    }
+
+    private void setMigrationTimeouts(int statementTimeout, int migrationTimeout) {
+        migrationStatementTimeout = statementTimeout;
+        migrationWatchdog = cancel(migrationWatchdog);
+        migrationDeadline = 0;
+        if (migrationTimeout > 0) {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - migrationStart);
+            var description = "Migration of " + currentMigration + " exceeded its timeout of " + migrationTimeout +
+                              " s";
+            migrationDeadline = migrationStart + TimeUnit.SECONDS.toNanos(migrationTimeout);
+            migrationTimeoutDescription = description;
+            migrationWatchdog = schedule(TimeUnit.SECONDS.toMillis(migrationTimeout) - elapsedMillis,
+                                         () -> expire(description));
+        }
+    }
+
+    /**
+     * Records the successful completion of a migration.
+     */
+    public static void migrationCompleted() {
+        var context = CURRENT.get();
+        if (context != null) {
+            context.migrationsCompleted++;
+        }
+    }
+
+    /**
+     * Records the end of the execution of the current migration, successful or not, and ends its deadline.
+     */
+    public static void migrationFinished() {
+        var context = CURRENT.get();
+        if (context != null) {
+            context.currentMigration = null;
+            context.migrationWatchdog = cancel(context.migrationWatchdog);
+            context.migrationDeadline = 0;
+        }
+    }
+
+    /**
+     * @return The number of migrations the command is going to apply, including the completed ones. Only known once
+     * the schema history has been read, zero before.
+     */
+    public int getMigrationsTotal() {
+        return migrationsTotal;
+    }
+
+    public int getMigrationsCompleted() {
+        return migrationsCompleted;
+    }
+
+    /**
+     * @return A description of the migration that is currently being applied, or {@code null} if there is none.
+     */
+    public @Nullable String getCurrentMigration() {
+        return currentMigration;
+    }
+
+    /**
+     * @return The whole seconds left until {@code deadline} (at least 1), 0 if there is no deadline.
+     * @throws MigrateDbException If the deadline has already passed.
+     */
+    private int remainingSeconds(long deadline, @Nullable String description, long now) {
+        if (deadline == 0) {
+            return 0;
+        }
+        long remaining = deadline - now;
+        if (remaining <= 0) {
+            // The watchdog may not have fired yet
+            expire(String.valueOf(description));
+            checkCancelled();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining + 999_999_999)));
+    }
+
+    private static int minTimeout(int a, int b) {
+        if (a == 0) {
+            return b;
+        }
+        if (b == 0) {
+            return a;
+        }
+        return Math.min(a, b);
+    }
+
+    private ScheduledFuture<?> schedule(long delayMillis, Runnable task) {
+        return Watchdog.EXECUTOR.schedule(task, Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+    }
+
+    private static @Nullable ScheduledFuture<?> cancel(@Nullable ScheduledFuture<?> watchdog) {
+        if (watchdog != null) {
+            watchdog.cancel(false);
+        }
+        return null;
+    }
+
+    private static final class Watchdog {
+        static final ScheduledThreadPoolExecutor EXECUTOR = create();
+
+        private static ScheduledThreadPoolExecutor create() {
+            var executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                var thread = new Thread(runnable, "migratedb-timeout-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.util;
+
+import migratedb.v1.core.api.MigrateDbPhaseListener;
+import migratedb.v1.core.api.MigrateDbPhaseListener.Phase;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Helpers that notify the phase listener of the command that runs on the calling thread, without allocating anything
+ * if {@link MigrateDbPhaseListener#NONE} is in use.
+ */
+public final class Phases {
+    private static final Scope NO_SCOPE = new Scope(MigrateDbPhaseListener.NONE, Phase.COMMAND);
+
+    private Phases() {
+    }
+
+    /**
+     * Starts a phase. The returned scope must be closed when the phase ends.
+     */
+    public static Scope start(Phase phase) {
+        var listener = current();
+        return listener == MigrateDbPhaseListener.NONE ? NO_SCOPE : start(listener, phase, Map.of());
+    }
+
+    /**
+     * Starts a phase with a single tag. The returned scope must be closed when the phase ends.
+     *
+     * @param value The value of the tag, {@code null} is reported as an empty string.
+     */
+    public static Scope start(Phase phase, String tag, @Nullable Object value) {
+        var listener = current();
+        return listener == MigrateDbPhaseListener.NONE
+               ? NO_SCOPE
+               : start(listener, phase, Map.of(tag, Objects.toString(value, "")));
+    }
+
+    /**
+     * Starts a phase with two tags. The returned scope must be closed when the phase ends.
+     *
+     * @param value1 The value of the first tag, {@code null} is reported as an empty string.
+     * @param value2 The value of the second tag, {@code null} is reported as an empty string.
+     */
+    public static Scope start(Phase phase,
+                              String tag1,
+                              @Nullable Object value1,
+                              String tag2,
+                              @Nullable Object value2) {
+        var listener = current();
+        return listener == MigrateDbPhaseListener.NONE
+               ? NO_SCOPE
+               : start(listener, phase, Map.of(tag1, Objects.toString(value1, ""),
+                                               tag2, Objects.toString(value2, "")));
+    }
+
+    private static Scope start(MigrateDbPhaseListener listener, Phase phase, Map<String, String> tags) {
+        listener.phaseStarted(phase, tags);
+        return new Scope(listener, phase);
+    }
+
+    /**
+     * @return The phase listener of the command that runs on the calling thread, {@link MigrateDbPhaseListener#NONE}
+     * if there is no such command.
+     */
+    private static MigrateDbPhaseListener current() {
+        var context = OperationContext.current();
+        return context == null ? MigrateDbPhaseListener.NONE : context.getPhaseListener();
+    }
+
+    /**
+     * A running phase. Closing it more than once has no further effect.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final MigrateDbPhaseListener listener;
+        private final Phase phase;
+        private boolean closed;
+
+        private Scope(MigrateDbPhaseListener listener, Phase phase) {
+            this.listener = listener;
+            this.phase = phase;
+        }
+
+        @Override
+        public void close() {
+            if (listener != MigrateDbPhaseListener.NONE && !closed) {
+                closed = true;
+                listener.phaseFinished(phase);
+            }
+        }
+    }
+}
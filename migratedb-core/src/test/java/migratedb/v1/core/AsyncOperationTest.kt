@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package migratedb.v1.core
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.booleans.shouldBeFalse
+import io.kotest.matchers.booleans.shouldBeTrue
+import io.kotest.matchers.collections.shouldHaveSize
+import io.kotest.matchers.shouldBe
+import migratedb.v1.core.api.ConnectionProvider
+import migratedb.v1.core.api.ErrorCode
+import migratedb.v1.core.api.MigrateDbException
+import migratedb.v1.core.api.MigrationState
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.nio.file.Path
+import java.sql.DriverManager
+import java.util.UUID
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import kotlin.io.path.writeText
+
+internal class AsyncOperationTest {
+    @TempDir
+    lateinit var locationDir: Path
+
+    private val url = "jdbc:h2:mem:${UUID.randomUUID()};DB_CLOSE_DELAY=-1"
+    private val executor = Executors.newSingleThreadExecutor()
+
+    @AfterEach
+    fun shutDownExecutor() {
+        executor.shutdownNow()
+    }
+
+    @Test
+    fun `Cancel stops the running statement and rolls back its migration`() {
+        locationDir.resolve("V1__Create.sql").writeText("create table t(id int); insert into t values (1);")
+        locationDir.resolve("V2__Slow.sql").writeText("insert into t values (2);\n$SLOW_QUERY")
+
+        val operation = load().migrateAsync(executor)
+        awaitStatementOf(operation, "Slow")
+        operation.cancel().shouldBeTrue()
+
+        // Without cancellation the slow query would run for hours
+        val e = shouldThrow<MigrateDbException> { operation.get(30, TimeUnit.SECONDS) }
+        e.errorCode.shouldBe(ErrorCode.CANCELLED)
+        e.message.shouldBe("Operation was cancelled")
+        operation.isDone.shouldBeTrue()
+        operation.isCancelRequested.shouldBeTrue()
+        operation.progress.migrationsCompleted.shouldBe(1)
+
+        query("select id from t").shouldBe(listOf("1"))
+        load().info().all().map { it.state }.shouldBe(listOf(MigrationState.SUCCESS, MigrationState.FAILED))
+    }
+
+    @Test
+    fun `Migrations after the cancelled one are not applied`() {
+        locationDir.resolve("V1__Slow.sql").writeText(SLOW_QUERY)
+        locationDir.resolve("V2__Create.sql").writeText("create table t(id int);")
+
+        val operation = load().migrateAsync(executor)
+        awaitStatementOf(operation, "Slow")
+        operation.cancel().shouldBeTrue()
+
+        shouldThrow<MigrateDbException> { operation.get(30, TimeUnit.SECONDS) }
+            .errorCode.shouldBe(ErrorCode.CANCELLED)
+        query("select count(*) from information_schema.tables where table_name = 'T'").shouldBe(listOf("0"))
+    }
+
+    @Test
+    fun `Cancel has no effect once the command has completed`() {
+        locationDir.resolve("V1__Create.sql").writeText("create table t(id int);")
+
+        val operation = load().infoAsync(executor)
+        operation.get(30, TimeUnit.SECONDS).pending().shouldHaveSize(1)
+
+        operation.cancel().shouldBeFalse()
+        operation.isCancelRequested.shouldBeFalse()
+    }
+
+    private fun load() = MigrateDb.configure()
+        .dataSource(ConnectionProvider { DriverManager.getConnection(url) })
+        .locations("filesystem:$locationDir")
+        .load()
+
+    /**
+     * Waits until the migration whose description contains [description] is being applied and has had time to start
+     * its statement.
+     */
+    private fun awaitStatementOf(operation: AsyncOperation<*>, description: String) {
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30)
+        while (operation.progress.currentMigration?.contains(description) != true) {
+            operation.isDone.shouldBeFalse()
+            check(System.nanoTime() < deadline) { "Migration $description did not start" }
+            Thread.sleep(10)
+        }
+        Thread.sleep(500)
+    }
+
+    private fun query(sql: String): List<String> = DriverManager.getConnection(url).use { connection ->
+        connection.createStatement().use { statement ->
+            statement.executeQuery(sql).use { resultSet ->
+                generateSequence { if (resultSet.next()) resultSet.getString(1) else null }.toList()
+            }
+        }
+    }
+
+    private companion object {
+        // H2 checks for cancellation while it scans the rows
+        const val SLOW_QUERY = "select count(*) from system_range(1, 1000000000000) where mod(x, 7) = 8;"
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package migratedb.v1.core
+
+import io.kotest.matchers.collections.shouldContainAll
+import io.kotest.matchers.longs.shouldBeGreaterThan
+import io.kotest.matchers.longs.shouldBeGreaterThanOrEqual
+import io.kotest.matchers.maps.shouldBeEmpty
+import io.kotest.matchers.shouldBe
+import migratedb.v1.core.api.ConnectionProvider
+import migratedb.v1.core.api.MigrateDbMetrics
+import migratedb.v1.core.api.MigrateDbMetrics.Counter
+import migratedb.v1.core.api.MigrateDbMetrics.Timer
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.nio.file.Path
+import java.sql.DriverManager
+import java.util.Collections
+import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.io.path.writeText
+
+internal class MetricsTest {
+    @TempDir
+    lateinit var locationDir: Path
+
+    private val url = "jdbc:h2:mem:${UUID.randomUUID()};DB_CLOSE_DELAY=-1"
+
+    @Test
+    fun `Migrate records timers and counters`() {
+        locationDir.resolve("V1__Create.sql").writeText("create table t(id int);")
+        locationDir.resolve("V2__Fill.sql").writeText("insert into t values (1), (2), (3);")
+        val metrics = RecordingMetrics()
+
+        load(metrics).migrate().migrationsExecuted.shouldBe(2)
+
+        metrics.timers.keys.shouldContainAll(Timer.values().toList())
+        metrics.timers.getValue(Timer.MIGRATION).size.shouldBe(2)
+        metrics.timers.values.flatten().forEach { it.shouldBeGreaterThanOrEqual(0) }
+        metrics.count(Counter.CHECKSUM_BYTES).shouldBeGreaterThan(0)
+        metrics.count(Counter.ROWS_AFFECTED).shouldBeGreaterThanOrEqual(3)
+    }
+
+    @Test
+    fun `Info records no migration timers`() {
+        locationDir.resolve("V1__Create.sql").writeText("create table t(id int);")
+        val metrics = RecordingMetrics()
+
+        load(metrics).info()
+
+        metrics.timers.keys.shouldContainAll(Timer.LOCATION_SCAN, Timer.RESOLVE)
+        metrics.timers.filterKeys { it == Timer.MIGRATION || it == Timer.STATEMENT }.shouldBeEmpty()
+    }
+
+    private fun load(metrics: MigrateDbMetrics) = MigrateDb.configure()
+        .dataSource(ConnectionProvider { DriverManager.getConnection(url) })
+        .locations("filesystem:$locationDir")
+        .metrics(metrics)
+        .load()
+
+    private class RecordingMetrics : MigrateDbMetrics {
+        val timers = ConcurrentHashMap<Timer, MutableList<Long>>()
+        val counters = ConcurrentHashMap<Counter, AtomicLong>()
+
+        override fun recordTime(timer: Timer, nanos: Long) {
+            timers.computeIfAbsent(timer) { Collections.synchronizedList(mutableListOf()) }.add(nanos)
+        }
+
+        override fun increment(counter: Counter, amount: Long) {
+            counters.computeIfAbsent(counter) { AtomicLong() }.addAndGet(amount)
+        }
+
+        fun count(counter: Counter): Long = counters[counter]?.get() ?: 0L
+    }
+}
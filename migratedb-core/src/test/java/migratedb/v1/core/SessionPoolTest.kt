@@ -0,0 +1,133 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package migratedb.v1.core
+
+import io.kotest.matchers.collections.shouldHaveSize
+import io.kotest.matchers.ints.shouldBeGreaterThan
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.shouldNotBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import migratedb.v1.core.api.ConnectionProvider
+import migratedb.v1.core.api.resolver.ResolvedMigration
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.nio.file.Path
+import java.sql.DriverManager
+import java.util.UUID
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.io.path.writeText
+
+internal class SessionPoolTest {
+    @TempDir
+    lateinit var locationDir: Path
+
+    private val url = "jdbc:h2:mem:${UUID.randomUUID()};DB_CLOSE_DELAY=-1"
+    private val openedConnections = AtomicInteger()
+
+    @Test
+    fun `Reuses kept sessions for subsequent commands`() {
+        locationDir.resolve("V1__Create.sql").writeText("create table t(id int);")
+
+        load(sessionPoolSize = 1).use {
+            it.migrate()
+            val openedByFirstCommand = openedConnections.get()
+            it.info()
+            it.validate()
+            it.migrate()
+            openedConnections.get().shouldBe(openedByFirstCommand)
+        }
+    }
+
+    @Test
+    fun `Opens a new session for every command by default`() {
+        locationDir.resolve("V1__Create.sql").writeText("create table t(id int);")
+
+        load(sessionPoolSize = 0).use {
+            it.migrate()
+            val openedByFirstCommand = openedConnections.get()
+            it.info()
+            openedConnections.get().shouldBeGreaterThan(openedByFirstCommand)
+        }
+    }
+
+    @Test
+    fun `Keeps resolved migrations while the locations are unchanged`() {
+        locationDir.resolve("V1__Create.sql").writeText("create table t(id int);")
+        locationDir.resolve("R__Fill.sql").writeText("delete from t; insert into t values (1);")
+
+        load(sessionPoolSize = 1).use {
+            it.migrate().migrationsExecuted.shouldBe(2)
+            val versioned = it.resolved("V1__Create.sql")
+            val repeatable = it.resolved("R__Fill.sql")
+
+            it.info()
+            it.validate()
+            it.resolved("V1__Create.sql").shouldBeSameInstanceAs(versioned)
+            it.resolved("R__Fill.sql").shouldBeSameInstanceAs(repeatable)
+        }
+    }
+
+    @Test
+    fun `Resolves migrations again when the locations change`() {
+        locationDir.resolve("V1__Create.sql").writeText("create table t(id int);")
+        locationDir.resolve("R__Fill.sql").writeText("delete from t; insert into t values (1);")
+
+        load(sessionPoolSize = 1).use {
+            it.migrate().migrationsExecuted.shouldBe(2)
+            val repeatableChecksum = it.resolved("R__Fill.sql").checksum
+
+            locationDir.resolve("V2__Alter.sql").writeText("alter table t add column name varchar(10);")
+            locationDir.resolve("R__Fill.sql").writeText("delete from t; insert into t values (2, 'two');")
+
+            it.info().pending().map { pending -> pending.script }.shouldBe(listOf("V2__Alter.sql"))
+            it.resolved("R__Fill.sql").checksum.shouldNotBe(repeatableChecksum)
+            it.migrate().migrationsExecuted.shouldBe(1)
+            it.info().pending().shouldHaveSize(0)
+        }
+    }
+
+    @Test
+    fun `Recalculates only checksums that depend on the timestamp placeholder`() {
+        locationDir.resolve("V1__Create.sql").writeText("create table stamps(stamp varchar(100));")
+        locationDir.resolve("R__Stamp.sql").writeText("insert into stamps values ('\${migratedb:timestamp}');")
+        locationDir.resolve("R__Plain.sql").writeText("insert into stamps values ('plain');")
+
+        load(sessionPoolSize = 1).use {
+            it.migrate().migrationsExecuted.shouldBe(3)
+            val stamped = it.resolved("R__Stamp.sql")
+            val plain = it.resolved("R__Plain.sql")
+
+            Thread.sleep(10)
+            it.info()
+            it.resolved("R__Stamp.sql").checksum.shouldNotBe(stamped.checksum)
+            it.resolved("R__Plain.sql").shouldBeSameInstanceAs(plain)
+        }
+    }
+
+    private fun MigrateDb.resolved(script: String): ResolvedMigration = info().all()
+        .mapNotNull { it.resolvedMigration }
+        .first { it.script == script }
+
+    private fun load(sessionPoolSize: Int) = MigrateDb.configure()
+        .dataSource(ConnectionProvider {
+            openedConnections.incrementAndGet()
+            DriverManager.getConnection(url)
+        })
+        .locations("filesystem:$locationDir")
+        .sessionPoolSize(sessionPoolSize)
+        .load()
+}
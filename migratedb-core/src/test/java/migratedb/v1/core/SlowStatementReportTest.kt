@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.collections.shouldBeEmpty
+import io.kotest.matchers.collections.shouldHaveSize
+import io.kotest.matchers.ints.shouldBeGreaterThanOrEqual
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.string.shouldStartWith
+import migratedb.v1.core.api.ConnectionProvider
+import migratedb.v1.core.api.MigrateDbTimeoutException
+import migratedb.v1.core.api.configuration.FluentConfiguration
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.nio.file.Path
+import java.sql.DriverManager
+import java.util.UUID
+import kotlin.io.path.writeText
+
+internal class SlowStatementReportTest {
+    @TempDir
+    lateinit var locationDir: Path
+
+    private val url = "jdbc:h2:mem:${UUID.randomUUID()};DB_CLOSE_DELAY=-1"
+
+    @Test
+    fun `Migrate result contains the slowest statements`() {
+        locationDir.resolve("V1__Create.sql").writeText("create table t(id int);\ninsert into t values (1), (2);")
+        locationDir.resolve("V2__Slow.sql").writeText(
+            "insert into t values (3);\nselect count(*) from system_range(1, 20000000) where mod(x, 7) = 8;"
+        )
+
+        val result = migrateDb { slowStatementReportSize(2) }.migrate()
+
+        result.slowestStatements.shouldHaveSize(2)
+        result.slowestStatements[0].apply {
+            filepath.shouldBe("V2__Slow.sql")
+            line.shouldBe(2)
+            sql.shouldStartWith("select count(*) from system_range")
+            failed.shouldBe(false)
+        }
+        result.slowestStatements.forEach { it.executionTime.shouldBeGreaterThanOrEqual(0) }
+    }
+
+    @Test
+    fun `Migrate result contains the statement that timed out`() {
+        locationDir.resolve("V1__Create.sql").writeText("create table t(id int);")
+        // H2 checks its query timeout while it scans the rows
+        locationDir.resolve("V2__Slow.sql").writeText(
+            "insert into t values (1);\nselect count(*) from system_range(1, 1000000000000) where mod(x, 7) = 8;"
+        )
+
+        val e = shouldThrow<MigrateDbTimeoutException> {
+            migrateDb { slowStatementReportSize(5).statementTimeout(1) }.migrate()
+        }
+
+        val slowest = e.migrateResult.slowestStatements
+        slowest.shouldHaveSize(3)
+        slowest[0].apply {
+            filepath.shouldBe("V2__Slow.sql")
+            line.shouldBe(2)
+            updateCount.shouldBe(-1)
+            failed.shouldBe(true)
+            executionTime.shouldBeGreaterThanOrEqual(900)
+        }
+        slowest.drop(1).forEach { it.failed.shouldBe(false) }
+    }
+
+    @Test
+    fun `Statements are not profiled by default`() {
+        locationDir.resolve("V1__Create.sql").writeText("create table t(id int);")
+
+        migrateDb { }.migrate().slowestStatements.shouldBeEmpty()
+    }
+
+    private fun migrateDb(configure: FluentConfiguration.() -> Unit) = MigrateDb.configure()
+        .dataSource(ConnectionProvider { DriverManager.getConnection(url) })
+        .locations("filesystem:$locationDir")
+        .apply(configure)
+        .load()
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package migratedb.v1.core
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.string.shouldEndWith
+import io.kotest.matchers.string.shouldStartWith
+import migratedb.v1.core.api.ConnectionProvider
+import migratedb.v1.core.api.ErrorCode
+import migratedb.v1.core.api.MigrateDbTimeoutException
+import migratedb.v1.core.api.configuration.FluentConfiguration
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.nio.file.Path
+import java.sql.DriverManager
+import java.util.UUID
+import kotlin.io.path.writeText
+
+internal class TimeoutTest {
+    @TempDir
+    lateinit var locationDir: Path
+
+    private val url = "jdbc:h2:mem:${UUID.randomUUID()};DB_CLOSE_DELAY=-1"
+
+    @Test
+    fun `Statement timeout cancels the statement and rolls back its migration`() {
+        writeMigrations()
+
+        val e = migrateExpectingTimeout { statementTimeout(1) }
+
+        e.message.shouldBe("Statement exceeded its timeout of 1 s")
+        query("select id from t").shouldBe(listOf("1"))
+    }
+
+    @Test
+    fun `Migration timeout names the migration`() {
+        writeMigrations()
+
+        val e = migrateExpectingTimeout { migrationTimeout(1) }
+
+        e.message.shouldStartWith("Migration of schema ")
+        e.message.shouldEndWith(" to version \"2 - Slow\" exceeded its timeout of 1 s")
+    }
+
+    @Test
+    fun `Migrate timeout covers all migrations`() {
+        writeMigrations()
+
+        val e = migrateExpectingTimeout { migrateTimeout(2) }
+
+        e.message.shouldBe("Migrate exceeded its timeout of 2 s")
+    }
+
+    @Test
+    fun `Script configuration overrides the statement timeout`() {
+        writeMigrations()
+        locationDir.resolve("V2__Slow.sql.conf").writeText("statementTimeout=1")
+
+        val e = migrateExpectingTimeout { statementTimeout(3600) }
+
+        e.message.shouldBe("Statement exceeded its timeout of 1 s")
+    }
+
+    private fun writeMigrations() {
+        locationDir.resolve("V1__Create.sql").writeText("create table t(id int); insert into t values (1);")
+        // H2 checks for cancellation and its query timeout while it scans the rows
+        locationDir.resolve("V2__Slow.sql").writeText(
+            "insert into t values (2);\nselect count(*) from system_range(1, 1000000000000) where mod(x, 7) = 8;"
+        )
+    }
+
+    private fun migrateExpectingTimeout(configure: FluentConfiguration.() -> Unit): MigrateDbTimeoutException {
+        val migrateDb = MigrateDb.configure()
+            .dataSource(ConnectionProvider { DriverManager.getConnection(url) })
+            .locations("filesystem:$locationDir")
+            .apply(configure)
+            .load()
+        val e = shouldThrow<MigrateDbTimeoutException> { migrateDb.migrate() }
+        e.errorCode.shouldBe(ErrorCode.TIMEOUT)
+        e.migrateResult.migrationsExecuted.shouldBe(1)
+        e.migrateResult.timeout.shouldBe(e.message)
+        return e
+    }
+
+    private fun query(sql: String): List<String> = DriverManager.getConnection(url).use { connection ->
+        connection.createStatement().use { statement ->
+            statement.executeQuery(sql).use { resultSet ->
+                generateSequence { if (resultSet.next()) resultSet.getString(1) else null }.toList()
+            }
+        }
+    }
+}
@@ -21,14 +21,19 @@ import io.kotest.assertions.asClue
 import io.kotest.matchers.collections.shouldContainExactlyInAnyOrder
 import io.kotest.matchers.nulls.shouldNotBeNull
 import migratedb.v1.core.api.Location.ClassPathLocation
+import migratedb.v1.core.api.Location.ClassPathLocation.BINARY_INDEX_RESOURCE_NAME
 import migratedb.v1.core.api.Location.ClassPathLocation.CLASS_LIST_RESOURCE_NAME
 import migratedb.v1.core.api.Location.ClassPathLocation.RESOURCE_LIST_RESOURCE_NAME
+import migratedb.v1.core.internal.resource.classpath.ClassPathIndex
+import migratedb.v1.core.internal.resource.classpath.ClassPathIndex.ClassEntry
+import migratedb.v1.core.internal.resource.classpath.ClassPathIndex.ResourceEntry
 import migratedb.v1.core.internal.util.ClassUtils.defaultClassLoader
 import org.junit.jupiter.api.Test
 import java.net.URLClassLoader
 import java.nio.file.FileSystem
 import java.nio.file.Path
 import kotlin.io.path.createDirectories
+import kotlin.io.path.outputStream
 import kotlin.io.path.writeText
 import kotlin.reflect.KClass
 
@@ -68,10 +73,47 @@ internal class ClassPathLocationTest {
             }
     }
 
+    @Test
+    fun `Binary index takes precedence over text indexes in the same directory`(): Unit = TestSpec(
+        classIndexLocations = mapOf(
+            "a/foo/bar" to listOf(ClassA::class),
+            "b/foo/bar" to listOf(ClassB::class)
+        ),
+        resourceIndexLocations = mapOf(
+            "a/foo/bar" to listOf("script1.sql"),
+            "b/foo/bar" to listOf("script2.sql")
+        ),
+        binaryIndexLocations = mapOf(
+            "a/foo/bar" to ClassPathIndex(
+                listOf(ClassEntry(ClassA::class.java.name, true), ClassEntry("does.not.Exist", false)),
+                listOf(ResourceEntry("script3.sql", 0, 0))
+            )
+        )
+    ).use {
+        val location = ClassPathLocation("foo/bar", it.classLoader("a", "b"))
+        location.classProvider().classes.shouldContainExactlyInAnyOrder(ClassA::class.java, ClassB::class.java)
+        location.resourceProvider().getResources("", listOf(".sql")).map { it.name }
+            .shouldContainExactlyInAnyOrder("script2.sql", "script3.sql")
+    }
+
+    @Test
+    fun `Picks up rewritten index files`(): Unit = TestSpec(
+        resourceIndexLocations = mapOf("a/foo/bar" to listOf("script1.sql"))
+    ).use {
+        val classLoader = it.classLoader("a")
+        ClassPathLocation("foo/bar", classLoader).resourceProvider().getResources("", listOf(".sql")).map { it.name }
+            .shouldContainExactlyInAnyOrder("script1.sql")
+
+        it.writeResourceIndex("a/foo/bar", listOf("script1.sql", "script2.sql"))
+
+        ClassPathLocation("foo/bar", classLoader).resourceProvider().getResources("", listOf(".sql")).map { it.name }
+            .shouldContainExactlyInAnyOrder("script1.sql", "script2.sql")
+    }
 
     private class TestSpec(
         classIndexLocations: Map<String, List<KClass<*>>> = emptyMap(),
-        resourceIndexLocations: Map<String, List<String>> = emptyMap()
+        resourceIndexLocations: Map<String, List<String>> = emptyMap(),
+        binaryIndexLocations: Map<String, ClassPathIndex> = emptyMap()
     ) : AutoCloseable {
         private val fs: FileSystem = Jimfs.newFileSystem(Configuration.unix())
 
@@ -87,12 +129,18 @@ internal class ClassPathLocationTest {
                 root.resolve(dir).resolve(CLASS_LIST_RESOURCE_NAME)
                     .forceText(classes.joinToString("\n") { it.java.name })
             }
-            resourceIndexLocations.forEach { (dir, resourceNames) ->
-                root.resolve(dir).resolve(RESOURCE_LIST_RESOURCE_NAME)
-                    .forceText(resourceNames.joinToString("\n"))
+            resourceIndexLocations.forEach { (dir, resourceNames) -> writeResourceIndex(dir, resourceNames) }
+            binaryIndexLocations.forEach { (dir, index) ->
+                val file = root.resolve(dir).resolve(BINARY_INDEX_RESOURCE_NAME)
+                file.parent?.createDirectories()
+                file.outputStream().use { index.write(it) }
             }
         }
 
+        fun writeResourceIndex(dir: String, resourceNames: List<String>) {
+            root.resolve(dir).resolve(RESOURCE_LIST_RESOURCE_NAME).forceText(resourceNames.joinToString("\n"))
+        }
+
         private fun Path.forceText(text: String): Path {
             parent?.createDirectories()
             writeText(text)
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.parser
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.booleans.shouldBeTrue
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.shouldBe
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+
+internal class KeywordRulesTest {
+    private val rules = KeywordRules.builder<String>()
+        .rule("CREATE [OR REPLACE] (FUNCTION *|PROCEDURE)", "routine")
+        .rule("COPY {*} FROM STDIN", "copy")
+        .rule("CREATE PROCEDURE", "shadowed")
+        .rule("(DECLARE|BEGIN)", "block")
+        .build()
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = [
+            "CREATE FUNCTION F                    -> routine",
+            "create or replace function f         -> routine",
+            "CREATE OR REPLACE PROCEDURE          -> routine",
+            "CREATE FUNCTION                      -> null",
+            "CREATE FUNCTION F RETURN             -> null",
+            "CREATE OR PROCEDURE                  -> null",
+            "COPY FROM STDIN                      -> copy",
+            "COPY A B C FROM STDIN                -> copy",
+            "COPY A FROM STDIN X                  -> null",
+            "DECLARE                              -> block",
+            "BEGIN                                -> block",
+            "DECLARE BEGIN                        -> null",
+            "SELECT                               -> null",
+        ]
+    )
+    fun `Classifies keyword sequences`(spec: String) {
+        val (keywords, expected) = spec.split("->").map { it.trim() }
+        rules.classify(keywords).shouldBe(expected.takeUnless { it == "null" })
+    }
+
+    @Test
+    fun `Matcher can be reset`() {
+        val matcher = rules.matcher()
+        matcher.advance("SELECT")
+        matcher.isExhausted.shouldBeTrue()
+        matcher.result().shouldBeNull()
+        matcher.reset()
+        matcher.advance("BEGIN")
+        matcher.result().shouldBe("block")
+    }
+
+    @Test
+    fun `Rules can be combined`() {
+        val combined = KeywordRules.builder<String>()
+            .rule("BEGIN", "override")
+            .rules(rules)
+            .build()
+        combined.classify("BEGIN").shouldBe("override")
+        combined.classify("DECLARE").shouldBe("block")
+    }
+
+    @Test
+    fun `Rejects malformed patterns`() {
+        shouldThrow<IllegalArgumentException> { KeywordRules.builder<String>().rule("CREATE [OR", "x") }
+        shouldThrow<IllegalArgumentException> { KeywordRules.builder<String>().rule("CREATE )", "x") }
+    }
+}
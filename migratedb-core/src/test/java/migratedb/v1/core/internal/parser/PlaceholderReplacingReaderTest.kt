@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.parser
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.shouldBe
+import migratedb.v1.core.api.MigrateDbException
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+import java.io.IOException
+import java.io.StringReader
+
+internal class PlaceholderReplacingReaderTest {
+    @ParameterizedTest
+    @ValueSource(
+        strings = [
+            "''                     -> ''",
+            "'no placeholders'      -> 'no placeholders'",
+            "'\${foo}'              -> 'bar'",
+            "'a\${FOO}b\${foo}c'    -> 'abarbbarc'",
+            "'x\${empty}y'          -> 'xy'",
+            "'\$\${foo}'            -> '\$\${foo}'",
+            "'\$ {foo}'             -> '\$ {foo}'",
+            "'trailing \$'          -> 'trailing \$'",
+        ]
+    )
+    fun `Replaces placeholders`(spec: String) {
+        val match = replacementSpec.matchEntire(spec) ?: throw IllegalArgumentException(spec)
+        val (input, expected) = match.groupValues.drop(1)
+        for (chunkSize in listOf(1, 2, 3, 8192)) {
+            readFully(reader(input), chunkSize).shouldBe(expected)
+        }
+        readSingleChars(reader(input)).shouldBe(expected)
+    }
+
+    @Test
+    fun `Supports mark and reset`() {
+        val reader = reader("1\${foo}2")
+        reader.read().toChar().shouldBe('1')
+        reader.mark(10)
+        readFully(reader, 2).shouldBe("bar2")
+        reader.reset()
+        readFully(reader, 2).shouldBe("bar2")
+    }
+
+    @Test
+    fun `Invalidates mark once the read-ahead limit is exceeded`() {
+        val reader = reader("1\${foo}2345")
+        reader.mark(4)
+        readFully(reader, 4).shouldBe("1bar2345")
+        shouldThrow<IOException> { reader.reset() }.message.shouldBe("Mark invalid")
+    }
+
+    @Test
+    fun `Keeps mark when exactly the read-ahead limit is read`() {
+        val reader = reader("1\${foo}2345")
+        reader.mark(4)
+        repeat(4) { reader.read() }
+        reader.reset()
+        readSingleChars(reader).shouldBe("1bar2345")
+    }
+
+    @Test
+    fun `Handles long input without placeholders`() {
+        val input = "select 1 from dual where x = '$';\n".repeat(10_000)
+        readFully(reader(input), 4096).shouldBe(input)
+    }
+
+    @Test
+    fun `Fails on unknown placeholder`() {
+        shouldThrow<MigrateDbException> { readFully(reader("\${unknown}"), 10) }
+    }
+
+    @Test
+    fun `Fails on unterminated placeholder`() {
+        shouldThrow<MigrateDbException> { readFully(reader("\${foo"), 10) }
+    }
+
+    private fun reader(input: String) = PlaceholderReplacingReader(
+        "\${", "}", mapOf("foo" to "bar", "empty" to ""), StringReader(input)
+    )
+
+    private fun readFully(reader: PlaceholderReplacingReader, chunkSize: Int): String {
+        val result = StringBuilder()
+        val buffer = CharArray(chunkSize)
+        while (true) {
+            val n = reader.read(buffer, 0, chunkSize)
+            if (n == -1) break
+            result.appendRange(buffer, 0, n)
+        }
+        return result.toString()
+    }
+
+    private fun readSingleChars(reader: PlaceholderReplacingReader): String {
+        val result = StringBuilder()
+        while (true) {
+            val c = reader.read()
+            if (c == -1) break
+            result.append(c.toChar())
+        }
+        return result.toString()
+    }
+
+    private companion object {
+        // "'input' -> 'expected'"
+        val replacementSpec = Regex("'([^']*)'\\s*->\\s*'([^']*)'")
+    }
+}
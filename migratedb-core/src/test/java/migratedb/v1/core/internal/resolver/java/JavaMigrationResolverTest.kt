@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.resolver.java
+
+import io.kotest.matchers.collections.shouldBeSingleton
+import io.kotest.matchers.shouldBe
+import migratedb.v1.core.api.Checksum
+import migratedb.v1.core.api.ClassProvider
+import migratedb.v1.core.api.MigrationType
+import migratedb.v1.core.api.Version
+import migratedb.v1.core.api.configuration.Configuration
+import migratedb.v1.core.api.configuration.DefaultConfiguration
+import migratedb.v1.core.api.executor.Context
+import migratedb.v1.core.api.internal.sqlscript.SqlScriptExecutorFactory
+import migratedb.v1.core.api.internal.sqlscript.SqlScriptFactory
+import migratedb.v1.core.api.migration.BaseJavaMigration
+import migratedb.v1.core.api.migration.JavaMigration
+import migratedb.v1.core.api.resolver.ResolvedMigration
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import java.sql.Connection
+import java.sql.DriverManager
+import java.util.concurrent.atomic.AtomicInteger
+import migratedb.v1.core.api.migration.Context as MigrationContext
+import migratedb.v1.core.api.resolver.Context as ResolverContext
+
+internal class JavaMigrationResolverTest {
+    private val configuration = DefaultConfiguration()
+
+    @BeforeEach
+    fun resetCounters() {
+        instantiations.set(0)
+        executions.set(0)
+        checksumCalculations.set(0)
+    }
+
+    @Test
+    fun `Resolves subclasses of BaseJavaMigration without instantiating them`() {
+        val migration = resolve(V1_1__Counted::class.java)
+
+        migration.version.shouldBe(Version.parse("1.1"))
+        migration.description.shouldBe("Counted")
+        migration.type.shouldBe(MigrationType.JDBC)
+        migration.script.shouldBe(V1_1__Counted::class.java.name)
+        instantiations.get().shouldBe(0)
+    }
+
+    @Test
+    fun `Instantiates the migration exactly once`() {
+        val migration = resolve(V1_1__Counted::class.java)
+
+        migration.checksum
+        migration.checksum
+        migration.executor.canExecuteInTransaction().shouldBe(true)
+        DriverManager.getConnection("jdbc:h2:mem:").use { connection ->
+            migration.executor.execute(context(connection))
+            migration.executor.execute(context(connection))
+        }
+
+        instantiations.get().shouldBe(1)
+        executions.get().shouldBe(2)
+        checksumCalculations.get().shouldBe(1)
+    }
+
+    @Test
+    fun `Calculates checksums of JavaMigration instances lazily and once`() {
+        val migration = JavaMigrationResolver.newResolvedJavaMigration(
+            V1_1__Counted(), configuration, sqlScriptFactory, sqlScriptExecutorFactory
+        )
+        instantiations.get().shouldBe(1)
+        checksumCalculations.get().shouldBe(0)
+
+        setOf(migration, migration).shouldBeSingleton()
+        checksumCalculations.get().shouldBe(0)
+
+        migration.checksum.shouldBe(migration.checksum)
+        checksumCalculations.get().shouldBe(1)
+        instantiations.get().shouldBe(1)
+    }
+
+    private fun resolve(migrationClass: Class<out JavaMigration>): ResolvedMigration {
+        val resolver = JavaMigrationResolver(
+            ClassProvider { listOf(migrationClass) },
+            sqlScriptFactory,
+            sqlScriptExecutorFactory
+        )
+        return resolver.resolveMigrations(ResolverContext { configuration }).shouldBeSingleton().first()
+    }
+
+    private fun context(connection: Connection) = object : Context {
+        override fun getConfiguration(): Configuration = this@JavaMigrationResolverTest.configuration
+        override fun getConnection(): Connection = connection
+    }
+
+    class V1_1__Counted : BaseJavaMigration() {
+        init {
+            instantiations.incrementAndGet()
+        }
+
+        override fun migrate(context: MigrationContext) {
+            executions.incrementAndGet()
+        }
+
+        override fun getChecksum(configuration: Configuration): Checksum {
+            checksumCalculations.incrementAndGet()
+            return Checksum.builder().addString("counted").build()
+        }
+    }
+
+    private companion object {
+        val instantiations = AtomicInteger()
+        val executions = AtomicInteger()
+        val checksumCalculations = AtomicInteger()
+
+        val sqlScriptFactory = SqlScriptFactory { _, _, _ -> throw UnsupportedOperationException() }
+        val sqlScriptExecutorFactory = SqlScriptExecutorFactory { _, _ -> throw UnsupportedOperationException() }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.resolver.sql
+
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.nulls.shouldNotBeNull
+import io.kotest.matchers.shouldBe
+import migratedb.v1.core.api.configuration.DefaultConfiguration
+import migratedb.v1.core.internal.resolver.ChecksumCalculator
+import migratedb.v1.core.internal.resource.filesystem.FileSystemResource
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.FileTime
+import java.time.Instant
+import kotlin.io.path.writeText
+
+internal class ResolvedMigrationCacheTest {
+    @TempDir
+    lateinit var dir: Path
+
+    private val configuration by lazy {
+        DefaultConfiguration().also { it.setResolveCacheFile(dir.resolve("cache/resolved.bin").toString()) }
+    }
+
+    private fun script(content: String) = dir.resolve("R__Test.sql").let {
+        it.writeText(content)
+        // Recently modified scripts are not cached
+        Files.setLastModifiedTime(it, FileTime.from(Instant.now().minusSeconds(60)))
+        FileSystemResource(it, dir)
+    }
+
+    @Test
+    fun `Unchanged script is served from the cache file`() {
+        val script = script("select 1;")
+        val checksum = ChecksumCalculator.calculate(listOf(script), configuration)
+        ResolvedMigrationCache.load(configuration).shouldNotBeNull().also {
+            it.get(script, null).shouldBeNull()
+            it.put(script, null, checksum, null)
+            it.save()
+        }
+
+        val entry = ResolvedMigrationCache.load(configuration).shouldNotBeNull().get(script, null).shouldNotBeNull()
+        entry.checksum.shouldBe(checksum)
+        entry.equivalentChecksum.shouldBeNull()
+    }
+
+    @Test
+    fun `Entry only depends on referenced placeholders`() {
+        val script = script("select '\${value}';")
+        val checksum = ChecksumCalculator.calculate(listOf(script), configuration)
+        ResolvedMigrationCache.load(configuration).shouldNotBeNull().also {
+            it.put(script, mapOf("value" to "1", "other" to "1"), checksum, checksum)
+            it.save()
+        }
+
+        val cache = ResolvedMigrationCache.load(configuration).shouldNotBeNull()
+        cache.get(script, mapOf("value" to "1", "other" to "2")).shouldNotBeNull()
+        cache.get(script, mapOf("value" to "2", "other" to "1")).shouldBeNull()
+        cache.get(script, null).shouldBeNull()
+    }
+
+    @Test
+    fun `Modified script is not served from the cache file`() {
+        val script = script("select 1;")
+        val checksum = ChecksumCalculator.calculate(listOf(script), configuration)
+        ResolvedMigrationCache.load(configuration).shouldNotBeNull().also {
+            it.put(script, null, checksum, null)
+            it.save()
+        }
+        script("select 12;")
+
+        ResolvedMigrationCache.load(configuration).shouldNotBeNull().get(script, null).shouldBeNull()
+    }
+}
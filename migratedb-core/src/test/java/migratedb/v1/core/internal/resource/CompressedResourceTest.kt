@@ -0,0 +1,49 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.resource
+
+import io.kotest.matchers.shouldBe
+import migratedb.v1.core.api.configuration.DefaultConfiguration
+import migratedb.v1.core.internal.resolver.ChecksumCalculator
+import migratedb.v1.core.internal.resource.filesystem.FileSystemResource
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.zip.GZIPOutputStream
+import kotlin.io.path.writeText
+
+internal class CompressedResourceTest {
+    private val configuration = DefaultConfiguration()
+
+    @Test
+    fun `Checksum and name of compressed migration match the uncompressed one`(@TempDir dir: Path) {
+        val sql = "CREATE TABLE foo (id INT);\n".repeat(100)
+        val plain = dir.resolve("V1__Foo.sql").apply { writeText(sql) }
+        val compressed = dir.resolve("V1__Foo.sql.gz").apply {
+            GZIPOutputStream(Files.newOutputStream(this)).use { it.write(sql.toByteArray()) }
+        }
+
+        val plainResource = FileSystemResource(plain, dir)
+        val compressedResource = FileSystemResource(compressed, dir)
+        val resourceNameParser = ResourceNameParser(configuration)
+
+        ChecksumCalculator.calculate(listOf(compressedResource), configuration)
+            .shouldBe(ChecksumCalculator.calculate(listOf(plainResource), configuration))
+        resourceNameParser.parse(compressedResource.lastNameComponent).filenameWithoutSuffix
+            .shouldBe(resourceNameParser.parse(plainResource.lastNameComponent).filenameWithoutSuffix)
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.resource
+
+import io.kotest.matchers.shouldBe
+import migratedb.v1.core.api.resource.Resource
+import org.junit.jupiter.api.Test
+
+internal class ResourceNameIndexTest {
+    private val names = listOf(
+        "db/V1__First.sql",
+        "db/V1__First.sql.conf",
+        "other/V1__First.sql",
+        "db/R__View.sql",
+        "db/afterMigrate.sql",
+        "db/readme.txt",
+        "db/V2__No_extension",
+    )
+
+    private val index = ResourceNameIndex(names, Resource::lastNameComponentOf)
+
+    @Test
+    fun `Finds names by prefix and suffix in original order`() {
+        index.find("V", listOf(".sql")).shouldBe(listOf("db/V1__First.sql", "other/V1__First.sql"))
+        index.find("", listOf(".conf", ".txt")).shouldBe(listOf("db/V1__First.sql.conf", "db/readme.txt"))
+        index.find("R", listOf(".sql", "View.sql")).shouldBe(listOf("db/R__View.sql"))
+        index.find("V2", listOf("extension")).shouldBe(listOf("db/V2__No_extension"))
+        index.find("X", listOf(".sql")).shouldBe(emptyList())
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.resource.archive
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.shouldBe
+import migratedb.v1.core.api.Location
+import migratedb.v1.core.api.MigrateDbException
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.nio.file.Path
+import kotlin.io.path.createDirectories
+import kotlin.io.path.readBytes
+import kotlin.io.path.writeBytes
+import kotlin.io.path.writeText
+
+internal class MigrationArchiveTest {
+    @Test
+    fun `Resources can be read from an archive location`(@TempDir dir: Path) {
+        val source = dir.resolve("source").createDirectories()
+        source.resolve("V1__One.sql").writeText("select 1;")
+        source.resolve("sub").createDirectories().resolve("V2__Two.sql").writeText("select 2;")
+        val archiveFile = dir.resolve("migrations.mdb")
+        MigrationArchive.write(source, archiveFile)
+
+        val resourceProvider = Location.parse("archive:$archiveFile", null).resourceProvider()
+
+        resourceProvider.getResources("", listOf(".sql")).map { it.name }
+            .shouldContainExactly("V1__One.sql", "sub/V2__Two.sql")
+        resourceProvider.getResource("sub/V2__Two.sql")!!.read(Charsets.UTF_8).use { it.readText() }
+            .shouldBe("select 2;")
+    }
+
+    @Test
+    fun `Corrupt content is detected`(@TempDir dir: Path) {
+        val source = dir.resolve("source").createDirectories()
+        source.resolve("V1__One.sql").writeText("select 1;")
+        val archiveFile = dir.resolve("migrations.mdb")
+        MigrationArchive.write(source, archiveFile)
+        archiveFile.writeBytes(archiveFile.readBytes().also { it[it.size - 1] = 'X'.code.toByte() })
+
+        shouldThrow<MigrateDbException> {
+            Location.parse("archive:$archiveFile", null).resourceProvider()
+                .getResource("V1__One.sql")!!.read(Charsets.UTF_8).use { it.readText() }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.resource.filesystem
+
+import io.kotest.matchers.collections.shouldBeEmpty
+import io.kotest.matchers.collections.shouldHaveSize
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.nulls.shouldNotBeNull
+import io.kotest.matchers.shouldBe
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.nio.charset.StandardCharsets.UTF_8
+import java.nio.file.Path
+import kotlin.io.path.createDirectories
+import kotlin.io.path.writeText
+
+internal class FileSystemResourceProviderTest {
+    @Test
+    fun `Finds resources by prefix and suffix`(@TempDir dir: Path) {
+        dir.resolve("a/b").createDirectories().resolve("V1__Foo.sql").writeText("select 1")
+        dir.resolve("R__Bar.sql").writeText("select 2")
+
+        val provider = FileSystemResourceProvider(dir)
+
+        provider.getResources("V", listOf(".sql")).shouldHaveSize(1)
+        provider.getResources("R", listOf(".sql")).shouldHaveSize(1)
+        provider.getResource("a/b/V1__Foo.sql").shouldNotBeNull().read(UTF_8).use { it.readText() }.shouldBe("select 1")
+        provider.getResource("V2__Missing.sql").shouldBeNull()
+    }
+
+    @Test
+    fun `Looks up files in hidden directories by name`(@TempDir dir: Path) {
+        val hidden = dir.resolve(".hidden").createDirectories()
+        hidden.resolve("V1__Foo.sql").writeText("select 1")
+
+        val provider = FileSystemResourceProvider(dir)
+
+        provider.getResources("V", listOf(".sql")).shouldBeEmpty()
+        provider.getResource(".hidden/V1__Foo.sql").shouldNotBeNull()
+    }
+}
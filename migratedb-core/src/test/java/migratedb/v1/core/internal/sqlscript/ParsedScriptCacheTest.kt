@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.sqlscript
+
+import io.kotest.matchers.collections.shouldHaveSize
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.nulls.shouldNotBeNull
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.shouldNotBe
+import migratedb.v1.core.api.configuration.DefaultConfiguration
+import migratedb.v1.core.api.internal.sqlscript.SqlStatement
+import migratedb.v1.core.api.resource.Resource
+import migratedb.v1.core.internal.database.h2.H2Parser
+import migratedb.v1.core.internal.parser.ParsingContextImpl
+import migratedb.v1.core.internal.resolver.ChecksumCalculator
+import migratedb.v1.core.internal.resource.StringResource
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.io.Reader
+import java.nio.charset.Charset
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.io.path.listDirectoryEntries
+import kotlin.io.path.writeBytes
+
+internal class ParsedScriptCacheTest {
+    @TempDir
+    lateinit var cacheDir: Path
+
+    private val script = StringResource(
+        "V1__Test.sql",
+        "create table \${table} (id int);\n\ninsert into \${table} values (1);\n"
+    )
+
+    @Test
+    fun `Stores and loads statements`() {
+        val configuration = configuration(mapOf("table" to "foo"))
+        val cache = ParsedScriptCache.create(configuration).shouldNotBeNull()
+        val parser = H2Parser(configuration, ParsingContextImpl())
+        val parsed = ParserSqlScript(parser, script, null, false, cache).statements()
+
+        cacheDir.listDirectoryEntries().shouldHaveSize(1)
+        val cached = cache.get(cache.computeKey(parser, script, null, null)).shouldNotBeNull()
+
+        cached.map { it.describe() }.shouldBe(parsed.map { it.describe() })
+        cached.map { it.sql }.shouldBe(listOf("create table foo (id int)", "insert into foo values (1)"))
+    }
+
+    @Test
+    fun `Entries only depend on referenced placeholders`() {
+        fun lookup(placeholders: Map<String, String>): List<SqlStatement>? {
+            val configuration = configuration(placeholders)
+            val cache = ParsedScriptCache.create(configuration).shouldNotBeNull()
+            return cache.get(cache.computeKey(H2Parser(configuration, ParsingContextImpl()), script, null, null))
+        }
+
+        val configuration = configuration(mapOf("table" to "foo", "other" to "1"))
+        val cache = ParsedScriptCache.create(configuration).shouldNotBeNull()
+        ParserSqlScript(H2Parser(configuration, ParsingContextImpl()), script, null, false, cache).statements()
+
+        lookup(mapOf("table" to "foo", "other" to "2")).shouldNotBeNull()
+        lookup(mapOf("table" to "bar", "other" to "1")).shouldBeNull()
+    }
+
+    @Test
+    fun `Key depends on the content checksum`() {
+        val configuration = configuration(mapOf("table" to "foo"))
+        val cache = ParsedScriptCache.create(configuration).shouldNotBeNull()
+        val parser = H2Parser(configuration, ParsingContextImpl())
+        val changed = StringResource(script.name, script.read(configuration.encoding).readText() + "select 1;\n")
+
+        val key = cache.computeKey(parser, script, null, null).toString()
+        cache.computeKey(parser, changed, null, null).toString().shouldNotBe(key)
+        cache.computeKey(parser, script, null, checksumOf(script)).toString().shouldBe(key)
+    }
+
+    @Test
+    fun `Does not read the script on a hit if its checksum is known`() {
+        val configuration = configuration(mapOf("table" to "foo"))
+        val cache = ParsedScriptCache.create(configuration).shouldNotBeNull()
+        val parser = H2Parser(configuration, ParsingContextImpl())
+        val checksum = checksumOf(script)
+        ParserSqlScript(parser, script, null, false, cache).apply { setContentChecksum(checksum) }.statements()
+
+        val reads = AtomicInteger()
+        val countingScript = object : Resource by script {
+            override fun read(charset: Charset): Reader {
+                reads.incrementAndGet()
+                return script.read(charset)
+            }
+        }
+        ParserSqlScript(parser, countingScript, null, false, cache).apply { setContentChecksum(checksum) }
+            .statements().shouldHaveSize(2)
+        reads.get().shouldBe(0)
+    }
+
+    @Test
+    fun `Ignores unreadable entries`() {
+        val configuration = configuration(mapOf("table" to "foo"))
+        val cache = ParsedScriptCache.create(configuration).shouldNotBeNull()
+        val parser = H2Parser(configuration, ParsingContextImpl())
+        ParserSqlScript(parser, script, null, false, cache).statements()
+        cacheDir.listDirectoryEntries().forEach { it.writeBytes(byteArrayOf(1, 2, 3)) }
+
+        cache.get(cache.computeKey(parser, script, null, null)).shouldBeNull()
+        cacheDir.listDirectoryEntries().filter { Files.isRegularFile(it) }.shouldHaveSize(0)
+        ParserSqlScript(parser, script, null, false, cache).statements().shouldHaveSize(2)
+    }
+
+    private fun configuration(placeholders: Map<String, String>) = DefaultConfiguration().also {
+        it.setParseCacheDirectory(cacheDir.toString())
+        it.setPlaceholders(placeholders)
+    }
+
+    private fun checksumOf(resource: Resource) = ChecksumCalculator.calculate(listOf(resource), DefaultConfiguration())
+
+    private fun ParserSqlScript.statements() = getSqlStatements().asSequence().toList()
+
+    private fun SqlStatement.describe() = listOf(
+        javaClass, lineNumber, sql, delimiter, canExecuteInTransaction()
+    )
+}
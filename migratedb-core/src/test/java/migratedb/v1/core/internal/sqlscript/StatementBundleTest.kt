@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.sqlscript
+
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.nulls.shouldNotBeNull
+import io.kotest.matchers.shouldBe
+import migratedb.v1.core.api.Version
+import migratedb.v1.core.api.configuration.DefaultConfiguration
+import migratedb.v1.core.api.internal.database.base.Database
+import migratedb.v1.core.api.internal.parser.ParsingContext
+import migratedb.v1.core.api.internal.resource.ResourceName
+import migratedb.v1.core.internal.database.postgresql.PostgreSQLParser
+import migratedb.v1.core.internal.resource.classpath.ClassPathResource
+import org.junit.jupiter.api.io.TempDir
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.CsvSource
+import java.lang.reflect.Proxy
+import java.net.URLClassLoader
+import java.nio.file.Path
+import kotlin.io.path.createDirectories
+import kotlin.io.path.writeText
+
+internal class StatementBundleTest {
+    @ParameterizedTest
+    @CsvSource(
+        "11, false",
+        "12, true",
+        "16, true",
+    )
+    fun `PostgreSQL bundle is used regardless of the server version`(
+        serverVersion: String,
+        alterTypeAddValueIsTransactional: Boolean,
+        @TempDir dir: Path
+    ) {
+        val script = """
+            CREATE TABLE t (id INT);
+            ALTER TYPE mood ADD VALUE 'happy';
+            CREATE INDEX CONCURRENTLY t_id ON t (id);
+        """.trimIndent()
+        dir.resolve("db").createDirectories().resolve("V1__Test.sql").writeText(script)
+        val entry = StatementBundleCompiler("PostgreSQL").compile("db/V1__Test.sql", script.toByteArray())
+            .shouldNotBeNull()
+
+        URLClassLoader(arrayOf(dir.toUri().toURL()), null).use { classLoader ->
+            val resource = ClassPathResource("db/V1__Test.sql", classLoader, entry)
+            val parser = PostgreSQLParser(DefaultConfiguration(), parsingContext(Version.parse(serverVersion)))
+
+            val statements = StatementBundle.lookup(parser, resource, null).shouldNotBeNull()
+
+            statements.map { it.sql }.shouldContainExactly(
+                "CREATE TABLE t (id INT)",
+                "ALTER TYPE mood ADD VALUE 'happy'",
+                "CREATE INDEX CONCURRENTLY t_id ON t (id)",
+            )
+            statements.map { it.canExecuteInTransaction() }
+                .shouldBe(listOf(true, alterTypeAddValueIsTransactional, false))
+        }
+    }
+
+    private fun parsingContext(version: Version): ParsingContext {
+        val database = Proxy.newProxyInstance(javaClass.classLoader, arrayOf(Database::class.java)) { _, method, _ ->
+            when (method.name) {
+                "getVersion" -> version
+                else -> throw UnsupportedOperationException(method.name)
+            }
+        } as Database
+        return object : ParsingContext {
+            override fun getPlaceholders() = mutableMapOf<String, String>()
+            override fun getDatabase() = database
+            override fun updateFilenamePlaceholder(resourceName: ResourceName) {}
+            override fun forResource(resourceName: ResourceName) = this
+        }
+    }
+}
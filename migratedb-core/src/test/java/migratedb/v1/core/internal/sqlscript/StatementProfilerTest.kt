@@ -0,0 +1,48 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package migratedb.v1.core.internal.sqlscript
+
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.string.shouldEndWith
+import io.kotest.matchers.string.shouldHaveLength
+import org.junit.jupiter.api.Test
+
+internal class StatementProfilerTest {
+    @Test
+    fun `Keeps only the slowest statements, slowest first`() {
+        val profiler = StatementProfiler(3)
+        listOf(5L, 1L, 9L, 3L, 7L, 2L).forEachIndexed { i, millis ->
+            profiler.record("V1__Test.sql", i + 1, "select $millis", millis * 1_000_000, -1)
+        }
+
+        profiler.slowest.map { it.executionTime }.shouldContainExactly(9, 7, 5)
+        profiler.slowest.map { it.line }.shouldContainExactly(3, 5, 1)
+    }
+
+    @Test
+    fun `Abbreviates SQL`() {
+        val profiler = StatementProfiler(2)
+        profiler.record("V1__Test.sql", 1, "update  t\n   set x = 1", 2, 1)
+        profiler.record("V1__Test.sql", 2, "x".repeat(1000), 1, 1)
+
+        val (first, second) = profiler.slowest
+        first.sql.shouldBe("update t set x = 1")
+        second.sql.shouldHaveLength(203)
+        second.sql.shouldEndWith("...")
+    }
+}
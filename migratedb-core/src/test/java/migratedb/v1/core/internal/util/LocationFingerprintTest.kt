@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.core.internal.util
+
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.shouldNotBe
+import migratedb.v1.core.api.Location.ClassPathLocation.RESOURCE_LIST_RESOURCE_NAME
+import migratedb.v1.core.api.configuration.DefaultConfiguration
+import migratedb.v1.core.internal.resource.archive.MigrationArchive
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.net.URLClassLoader
+import java.nio.file.Path
+import java.nio.file.attribute.FileTime
+import kotlin.io.path.createDirectories
+import kotlin.io.path.getLastModifiedTime
+import kotlin.io.path.setLastModifiedTime
+import kotlin.io.path.writeText
+
+internal class LocationFingerprintTest {
+    @TempDir
+    lateinit var dir: Path
+
+    @Test
+    fun `Changes with the files of a file system location`() {
+        val location = dir.resolve("migrations").createDirectories()
+        location.resolve("V1__One.sql").writeText("select 1;")
+        val configuration = configuration("filesystem:$location")
+        val fingerprint = LocationFingerprint.compute(configuration)
+
+        LocationFingerprint.compute(configuration).shouldBe(fingerprint)
+        location.resolve("V2__Two.sql").writeText("select 2;")
+        LocationFingerprint.compute(configuration).shouldNotBe(fingerprint)
+    }
+
+    @Test
+    fun `Changes with the content of an archive, not its modification time`() {
+        val source = dir.resolve("source").createDirectories()
+        source.resolve("V1__One.sql").writeText("select 1;")
+        val archiveFile = dir.resolve("migrations.mdb")
+        MigrationArchive.write(source, archiveFile)
+        val configuration = configuration("archive:$archiveFile")
+        val fingerprint = LocationFingerprint.compute(configuration)
+
+        MigrationArchive.write(source, archiveFile)
+        archiveFile.setLastModifiedTime(FileTime.fromMillis(archiveFile.getLastModifiedTime().toMillis() + 60_000))
+        LocationFingerprint.compute(configuration).shouldBe(fingerprint)
+
+        source.resolve("V1__One.sql").writeText("select 2;")
+        MigrationArchive.write(source, archiveFile)
+        LocationFingerprint.compute(configuration).shouldNotBe(fingerprint)
+    }
+
+    @Test
+    fun `Changes with the index files of a class path location`() {
+        val root = dir.resolve("classes")
+        val location = root.resolve("db/migration").createDirectories()
+        location.resolve(RESOURCE_LIST_RESOURCE_NAME).writeText("db/migration/V1__One.sql\n")
+        val classLoader = URLClassLoader(arrayOf(root.toUri().toURL()), null)
+        val configuration = DefaultConfiguration(classLoader).also { it.setLocationsAsStrings("classpath:db/migration") }
+        val fingerprint = LocationFingerprint.compute(configuration)
+
+        LocationFingerprint.compute(configuration).shouldBe(fingerprint)
+        location.resolve(RESOURCE_LIST_RESOURCE_NAME).writeText("db/migration/V1__One.sql\ndb/migration/V2__Two.sql\n")
+        LocationFingerprint.compute(configuration).shouldNotBe(fingerprint)
+    }
+
+    private fun configuration(location: String) = DefaultConfiguration().also { it.setLocationsAsStrings(location) }
+}
@@ -3,6 +3,8 @@ package migratedb.v1.core.testing
 import io.kotest.assertions.fail
 import migratedb.v1.core.api.ClassProvider
 import migratedb.v1.core.api.Location
+import migratedb.v1.core.api.MigrateDbMetrics
+import migratedb.v1.core.api.MigrateDbPhaseListener
 import migratedb.v1.core.api.MigrationPattern
 import migratedb.v1.core.api.ResourceProvider
 import migratedb.v1.core.api.callback.Callback
@@ -150,15 +152,23 @@ object ConfigSetters {
     val lockRetryCount = Setter("setLockRetryCount", Int.any(0..Int.MAX_VALUE))
     val logger1 = Setter("setLogger", anyLogSystem(), LogSystem::class)
     val logger2 = Setter("setLogger", anyLogSystemAsString().array(String::class), Array<String>::class)
+    val metrics = Setter("setMetrics", just(MigrateDbMetrics.NONE))
+    val migrateTimeout = Setter("setMigrateTimeout", Int.any(0..Int.MAX_VALUE))
+    val migrationTimeout = Setter("setMigrationTimeout", Int.any(0..Int.MAX_VALUE))
     val mixed = Setter("setMixed", Boolean.any())
     val outOfOrder = Setter("setOutOfOrder", Boolean.any())
     val outputQueryResults = Setter("setOutputQueryResults", Boolean.any())
+    val parseCacheDirectory = Setter("setParseCacheDirectory", String.any().alpha().ofLength(1..100))
+    val parseCacheMaxSizeMb = Setter("setParseCacheMaxSizeMb", Int.any(0..Int.MAX_VALUE))
+    val parseLookAhead = Setter("setParseLookAhead", Int.any(0..Int.MAX_VALUE))
+    val phaseListener = Setter("setPhaseListener", just(MigrateDbPhaseListener.NONE))
     val placeholderPrefix = Setter("setPlaceholderPrefix", String.any().ofLength(1..100))
     val placeholderReplacement = Setter("setPlaceholderReplacement", Boolean.any())
     val placeholders = Setter(
         "setPlaceholders", Arbitraries.maps(String.any().ofLength(0..100), String.any().ofLength(1..100))
     )
     val placeholderSuffix = Setter("setPlaceholderSuffix", String.any().ofLength(1..100))
+    val preParseOnMigrate = Setter("setPreParseOnMigrate", Boolean.any())
     val repeatableSqlMigrationPrefix = Setter("setRepeatableSqlMigrationPrefix", String.any().ofLength(1))
     val resolvers1 = Setter(
         "setResolvers",
@@ -180,6 +190,7 @@ object ConfigSetters {
         just(UniversalDummy::class.java.name).list(),
         Collection::class
     )
+    val resolveCacheFile = Setter("setResolveCacheFile", String.any().alpha().ofLength(1..100))
     val resourceProvider = Setter("setResourceProvider", just(ResourceProvider.noResources()))
     val schemas1 = Setter(
         "setSchemas",
@@ -194,9 +205,11 @@ object ConfigSetters {
     val scriptPlaceholderPrefix = Setter("setScriptPlaceholderPrefix", String.any().ofLength(1..10))
     val scriptPlaceholderSuffix = Setter("setScriptPlaceholderSuffix", String.any().ofLength(1..10))
     val createSchemas = Setter("setCreateSchemas", Boolean.any())
+    val sessionPoolSize = Setter("setSessionPoolSize", Int.any(0..Int.MAX_VALUE))
     val skipDefaultCallbacks = Setter("setSkipDefaultCallbacks", Boolean.any())
     val skipDefaultResolvers = Setter("setSkipDefaultResolvers", Boolean.any())
     val skipExecutingMigrations = Setter("setSkipExecutingMigrations", Boolean.any())
+    val slowStatementReportSize = Setter("setSlowStatementReportSize", Int.any(0..Int.MAX_VALUE))
     val sqlMigrationPrefix = Setter("setSqlMigrationPrefix", String.any().ofLength(1))
     val sqlMigrationSeparator = Setter("setSqlMigrationSeparator", String.any().ofLength(1..10))
     val sqlMigrationSuffixes1 = Setter(
@@ -209,6 +222,7 @@ object ConfigSetters {
         String.any().ofLength(1..10).list(),
         Collection::class
     )
+    val statementTimeout = Setter("setStatementTimeout", Int.any(0..Int.MAX_VALUE))
     val table = Setter("setTable", anySchemaObjectName())
     val oldTable = Setter("setOldTable", anySchemaObjectName())
     val liberateOnMigrate = Setter("setLiberateOnMigrate", Boolean.any())
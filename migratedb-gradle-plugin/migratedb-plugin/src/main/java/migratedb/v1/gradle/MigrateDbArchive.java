@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package migratedb.v1.gradle;
+
+import java.io.File;
+import migratedb.v1.core.internal.resource.archive.MigrationArchive;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+/**
+ * Packs a directory of migration scripts into a single archive file that can be used as an {@code archive:} location.
+ */
+@CacheableTask
+public abstract class MigrateDbArchive extends DefaultTask implements MigrateDbArchiveConfig {
+    /**
+     * Replaced by {@link #getEffectiveSourceDir()} as task input.
+     */
+    @Override
+    @Internal
+    public abstract Property<File> getSourceDir();
+
+    /**
+     * Replaced by {@link #getEffectiveArchiveFile()} as task output.
+     */
+    @Override
+    @Internal
+    public abstract Property<File> getArchiveFile();
+
+    @InputDirectory
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public File getEffectiveSourceDir() {
+        return getSourceDir().getOrElse(Defaults.DEFAULTS.sourceDir(getProject()));
+    }
+
+    @OutputFile
+    public File getEffectiveArchiveFile() {
+        return getArchiveFile().getOrElse(Defaults.DEFAULTS.archiveFile(getProject()));
+    }
+
+    @TaskAction
+    public void perform() throws Exception {
+        MigrationArchive.write(getEffectiveSourceDir().toPath(), getEffectiveArchiveFile().toPath());
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package migratedb.v1.gradle;
+
+import java.io.File;
+import org.gradle.api.Project;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+
+public interface MigrateDbArchiveConfig {
+    enum Defaults {
+        DEFAULTS;
+
+        public File sourceDir(Project project) {
+            return project.file("src/main/resources/db/migration");
+        }
+
+        public File archiveFile(Project project) {
+            return project.getLayout().getBuildDirectory().file("migratedb/migrations.mdb").get().getAsFile();
+        }
+    }
+
+    @Optional
+    @InputDirectory Property<File> getSourceDir();
+
+    @Optional
+    @OutputFile Property<File> getArchiveFile();
+}
@@ -21,4 +21,7 @@ import org.gradle.api.tasks.Nested;
 public interface MigrateDbConfig {
     @Nested
     MigrateDbScanConfig getScan();
+
+    @Nested
+    MigrateDbArchiveConfig getArchive();
 }
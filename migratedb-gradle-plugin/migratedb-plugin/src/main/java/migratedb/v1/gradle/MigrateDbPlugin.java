@@ -27,11 +27,18 @@ public final class MigrateDbPlugin implements Plugin<Project> {
             var taskConfig = config.getScan();
             task.getFailBuildOnUnprocessablePath().set(taskConfig.getFailBuildOnUnprocessablePath());
             task.getFollowSymlinks().set(taskConfig.getFollowSymlinks());
+            task.getBinaryIndex().set(taskConfig.getBinaryIndex());
+            task.getStatementBundleDatabase().set(taskConfig.getStatementBundleDatabase());
             task.getIncludes().set(taskConfig.getIncludes());
             task.getOutputDir().set(taskConfig.getOutputDir());
             task.getOutputSubPath().set(taskConfig.getOutputSubPath());
             task.getScope().set(taskConfig.getScope());
         });
+        project.getTasks().register("migratedbArchive", MigrateDbArchive.class, task -> {
+            var taskConfig = config.getArchive();
+            task.getSourceDir().set(taskConfig.getSourceDir());
+            task.getArchiveFile().set(taskConfig.getArchiveFile());
+        });
         project.afterEvaluate(it -> {
             var classesTask = project.getTasks().findByPath(":classes");
             if (classesTask != null) {
@@ -25,11 +25,20 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Collectors;
 import kotlin.Unit;
+import migratedb.v1.core.api.Location.ClassPathLocation;
 import migratedb.v1.scanner.PathTarget;
 import migratedb.v1.scanner.Scanner;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.file.FileCollection;
 import org.gradle.api.logging.LogLevel;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.LocalState;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.SourceSetContainer;
 import org.gradle.api.tasks.TaskAction;
@@ -37,7 +46,50 @@ import org.gradle.api.tasks.TaskAction;
 /**
  * Scans the build path for relevant MigrateDB resources and classes for auto-discovery at runtime.
  */
+@CacheableTask
 public abstract class MigrateDbScan extends DefaultTask implements MigrateDbScanConfig {
+    /**
+     * Replaced by {@link #getEffectiveScope()} as task input.
+     */
+    @Override
+    @Internal
+    public abstract Property<FileCollection> getScope();
+
+    /**
+     * Replaced by {@link #getEffectiveOutputDirectory()} as task output.
+     */
+    @Override
+    @Internal
+    public abstract Property<File> getOutputDir();
+
+    /**
+     * The files that are actually scanned, without the index files written by this task (which are usually placed in
+     * a directory that is also scanned).
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public FileCollection getEffectiveScope() {
+        return getProject().files(getScopeFiles())
+                           .getAsFileTree()
+                           .matching(it -> it.exclude("**/" + ClassPathLocation.CLASS_LIST_RESOURCE_NAME,
+                                                      "**/" + ClassPathLocation.RESOURCE_LIST_RESOURCE_NAME,
+                                                      "**/" + ClassPathLocation.BINARY_INDEX_RESOURCE_NAME,
+                                                      "**/" + ClassPathLocation.STATEMENT_BUNDLE_RESOURCE_NAME));
+    }
+
+    @OutputDirectory
+    public File getEffectiveOutputDirectory() {
+        return getOutputDirectory();
+    }
+
+    /**
+     * Remembers the scan results of jar files between builds.
+     */
+    @LocalState
+    public File getScanCacheFile() {
+        return new File(getTemporaryDir(), "scan.cache");
+    }
+
     @TaskAction
     public void perform() throws Exception {
         var scannerConfig = getScannerConfig();
@@ -49,7 +101,7 @@ public abstract class MigrateDbScan extends DefaultTask implements MigrateDbScan
         getLogger().log(LogLevel.INFO, "Found " + scanResult.getFoundClasses().size() + " classes, " +
                                        scanResult.getFoundResources().size() + " resources");
         var outputRelativePath = getOutputSubPath().getOrElse(Defaults.DEFAULTS.outputSubPath);
-        var outputDirectory = getOutputDirectory();
+        var outputDirectory = getEffectiveOutputDirectory();
         scanResult.writeTo(new PathTarget(outputDirectory.toPath(), true));
         handleUnprocessable(unprocessablePaths);
     }
@@ -79,21 +131,30 @@ public abstract class MigrateDbScan extends DefaultTask implements MigrateDbScan
         }
     }
 
-    private Scanner.Config getScannerConfig() {
+    private Collection<File> getScopeFiles() {
         Collection<File> scope = getScope().map(FileCollection::getFiles).getOrNull();
         if (scope == null) {
             scope = Defaults.DEFAULTS.scope(getProject());
         }
+        return scope;
+    }
+
+    private Scanner.Config getScannerConfig() {
+        var scope = getScopeFiles();
         var includes = getIncludes().getOrNull();
         if (includes == null || includes.isEmpty()) {
             includes = Defaults.DEFAULTS.includes;
         }
         var followSymlinks = getFollowSymlinks().getOrElse(Defaults.DEFAULTS.followSymlinks);
+        var binaryIndex = getBinaryIndex().getOrElse(Defaults.DEFAULTS.binaryIndex);
 
         var pathsInScope = scope.stream().map(File::toPath).filter(Files::exists).collect(Collectors.toSet());
         return new Scanner.Config(pathsInScope,
                                   new HashSet<>(includes),
                                   it -> true,
-                                  followSymlinks);
+                                  followSymlinks,
+                                  binaryIndex,
+                                  getScanCacheFile().toPath(),
+                                  getStatementBundleDatabase().getOrNull());
     }
 }
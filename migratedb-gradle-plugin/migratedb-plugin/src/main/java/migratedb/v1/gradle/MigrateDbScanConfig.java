@@ -38,6 +38,7 @@ public interface MigrateDbScanConfig {
         public final Set<String> includes = Set.of("db/migration");
         public final boolean failBuildOnUnprocessablePath = true;
         public final boolean followSymlinks = false;
+        public final boolean binaryIndex = false;
         public final String outputSubPath = "db/migration";
 
         public List<File> scope(Project project) {
@@ -64,6 +65,12 @@ public interface MigrateDbScanConfig {
     @Optional
     @Input Property<Boolean> getFollowSymlinks();
 
+    @Optional
+    @Input Property<Boolean> getBinaryIndex();
+
+    @Optional
+    @Input Property<String> getStatementBundleDatabase();
+
     @Optional
     @OutputDirectory Property<File> getOutputDir();
 
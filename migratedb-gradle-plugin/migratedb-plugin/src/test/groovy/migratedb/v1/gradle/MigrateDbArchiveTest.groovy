@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.gradle
+
+import migratedb.v1.core.MigrateDb
+import migratedb.v1.core.api.ConnectionProvider
+import org.gradle.testkit.runner.GradleRunner
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.io.TempDir
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+
+import java.sql.DriverManager
+
+import static org.gradle.testkit.runner.TaskOutcome.SUCCESS
+import static org.gradle.testkit.runner.TaskOutcome.UP_TO_DATE
+
+class MigrateDbArchiveTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = ['8.10', '7.6'])
+    void "Builds an archive that can be migrated from"(String gradleVersion) {
+        // given
+        resources['src/main/resources/db/migration/V1__Create.sql'] = 'create table t(id int primary key);'
+        resources['src/main/resources/db/migration/V2__Insert.sql'] = 'insert into t(id) values (1);'
+
+        // when
+        def result = buildProject(gradleVersion)
+
+        // then
+        assert result.task(':migratedbArchive')?.outcome == SUCCESS
+        def archiveFile = new File(testProjectDir, 'build/migratedb/migrations.mdb')
+        assert archiveFile.isFile()
+
+        def url = "jdbc:h2:mem:${UUID.randomUUID()};DB_CLOSE_DELAY=-1"
+        def migrateResult = MigrateDb.configure()
+            .dataSource({ DriverManager.getConnection(url) } as ConnectionProvider)
+            .locations("archive:$archiveFile")
+            .load()
+            .migrate()
+        assert migrateResult.migrationsExecuted == 2
+        DriverManager.getConnection(url).withCloseable { connection ->
+            connection.createStatement().withCloseable { statement ->
+                def rows = statement.executeQuery('select count(*) from t')
+                assert rows.next() && rows.getInt(1) == 1
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = ['8.10', '7.6'])
+    void "Is up to date if the scripts did not change"(String gradleVersion) {
+        // given
+        resources['migrations/V1__Create.sql'] = 'create table t(id int primary key);'
+        pluginConfig = """
+            migratedb {
+                archive.sourceDir = file('migrations')
+                archive.archiveFile = file('out/migrations.mdb')
+            }
+        """
+
+        // when
+        def first = buildProject(gradleVersion)
+        def second = buildProject(gradleVersion)
+
+        // then
+        assert first.task(':migratedbArchive')?.outcome == SUCCESS
+        assert second.task(':migratedbArchive')?.outcome == UP_TO_DATE
+        assert new File(testProjectDir, 'out/migrations.mdb').isFile()
+    }
+
+    @BeforeEach
+    void setup() {
+        new File(testProjectDir, 'settings.gradle') << """
+            rootProject.name = 'MigrateDB Gradle Plugin Test'
+        """
+        buildFile = new File(testProjectDir, 'build.gradle')
+    }
+
+    @TempDir
+    File testProjectDir
+    File buildFile
+    String pluginConfig = ''
+    Map<String, Object> resources = [:]
+
+    private def createResource(Map.Entry entry) {
+        def path = entry.key.toString()
+        def content = entry.value?.toString() ?: ''
+        def file = new File(testProjectDir, path.replace('/', File.separator))
+        file.parentFile.mkdirs()
+        file.write(content, 'UTF-8', false)
+    }
+
+    def buildProject(String gradleVersion) {
+        buildFile.text = """
+            plugins {
+                id 'java'
+                id 'de.unentscheidbar.migratedb'
+            }
+
+            $pluginConfig
+        """
+        resources.each { createResource(it) }
+
+        return GradleRunner.create()
+            .withGradleVersion(gradleVersion)
+            .withProjectDir(testProjectDir)
+            .withArguments('migratedbArchive')
+            .withPluginClasspath()
+            .build()
+    }
+}
@@ -31,6 +31,7 @@ import static migratedb.v1.core.api.Location.ClassPathLocation.CLASS_LIST_RESOUR
 import static migratedb.v1.core.api.Location.ClassPathLocation.RESOURCE_LIST_RESOURCE_NAME
 import static org.gradle.testkit.runner.TaskOutcome.FAILED
 import static org.gradle.testkit.runner.TaskOutcome.SUCCESS
+import static org.gradle.testkit.runner.TaskOutcome.UP_TO_DATE
 
 class MigrateDbScanTest {
 
@@ -84,6 +85,27 @@ class MigrateDbScanTest {
         assert linesOf("build/resources/main/db/migration/$RESOURCE_LIST_RESOURCE_NAME") == ['foo/migration/V000__Foo.sql']
     }
 
+    @ParameterizedTest
+    @ArgumentsSource(Params)
+    void "Is up to date with an explicit scope that contains the output directory"(P p) {
+        // given
+        plugins << p.compilingPlugin
+        resources['src/main/resources/db/migration/V000__Foo.sql'] = ''
+        pluginConfig = """
+            migratedb {
+                scan.scope = sourceSets.main.output
+            }
+        """
+
+        // when
+        def first = buildProject(gradleVersion: p.gradleVersion)
+        def second = buildProject(gradleVersion: p.gradleVersion)
+
+        // then
+        assert first.task(':migratedbScan')?.outcome == SUCCESS
+        assert second.task(':migratedbScan')?.outcome == UP_TO_DATE
+    }
+
     @ParameterizedTest
     @ArgumentsSource(Params)
     void "Unprocessable file fails build by default"(P p) {
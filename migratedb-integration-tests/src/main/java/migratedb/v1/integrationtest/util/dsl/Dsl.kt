@@ -18,11 +18,13 @@ package migratedb.v1.integrationtest.util.dsl
 
 import io.kotest.matchers.booleans.shouldBeTrue
 import migratedb.v1.core.api.Checksum
+import migratedb.v1.core.api.Command
 import migratedb.v1.core.api.MigrationInfo
 import migratedb.v1.core.api.MigrationInfoService
 import migratedb.v1.core.api.Version
 import migratedb.v1.core.api.internal.schemahistory.AppliedMigration
 import migratedb.v1.core.api.output.BaselineResult
+import migratedb.v1.core.api.output.CompositeResult
 import migratedb.v1.core.api.output.LiberateResult
 import migratedb.v1.core.api.output.MigrateResult
 import migratedb.v1.core.api.output.RepairResult
@@ -148,6 +150,11 @@ class Dsl(dbSystem: DbSystem, sharedResources: SharedResources) : AutoCloseable
 
         fun migrate(block: RunMigrateSpec.() -> Unit): MigrateResult
 
+        /**
+         * Runs [commands] in a single execution, see [migratedb.v1.core.MigrateDb.run].
+         */
+        fun runCommands(vararg commands: Command, block: RunMigrateSpec.() -> Unit): CompositeResult
+
         fun info(block: RunInfoSpec.() -> Unit): MigrationInfoService
 
         fun repair(block: RunRepairSpec.() -> Unit): RepairResult
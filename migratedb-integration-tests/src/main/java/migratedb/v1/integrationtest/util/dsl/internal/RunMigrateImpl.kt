@@ -17,7 +17,9 @@
 package migratedb.v1.integrationtest.util.dsl.internal
 
 import migratedb.v1.integrationtest.util.dsl.RunMigrateSpec
+import migratedb.v1.core.api.Command
 import migratedb.v1.core.api.migration.JavaMigration
+import migratedb.v1.core.api.output.CompositeResult
 import migratedb.v1.core.api.output.MigrateResult
 import java.sql.Connection
 
@@ -47,5 +49,11 @@ class RunMigrateImpl(private val databaseContext: DatabaseContext) : AbstractRun
             .load()
             .migrate()
     }
+
+    fun execute(commands: Array<out Command>): CompositeResult = execute { config ->
+        config.availableMigrations(scriptMigrations, codeMigrations)
+            .load()
+            .run(*commands)
+    }
 }
 
@@ -18,8 +18,10 @@ package migratedb.v1.integrationtest.util.dsl.internal
 
 import migratedb.v1.integrationtest.database.mutation.IndependentDatabaseMutation
 import migratedb.v1.integrationtest.util.dsl.*
+import migratedb.v1.core.api.Command
 import migratedb.v1.core.api.MigrationInfoService
 import migratedb.v1.core.api.output.BaselineResult
+import migratedb.v1.core.api.output.CompositeResult
 import migratedb.v1.core.api.output.LiberateResult
 import migratedb.v1.core.api.output.MigrateResult
 import migratedb.v1.core.api.output.RepairResult
@@ -38,6 +40,12 @@ class WhenStepImpl<G : Any>(given: G, databaseContext: DatabaseContext) : Dsl.Wh
         return runMigrate.execute()
     }
 
+    override fun runCommands(vararg commands: Command, block: RunMigrateSpec.() -> Unit): CompositeResult {
+        val runMigrate = RunMigrateImpl(databaseContext)
+        runMigrate.block()
+        return runMigrate.execute(commands)
+    }
+
     override fun info(block: (RunInfoSpec).() -> Unit): MigrationInfoService {
         val runInfo = RunInfoImpl(databaseContext)
         runInfo.block()
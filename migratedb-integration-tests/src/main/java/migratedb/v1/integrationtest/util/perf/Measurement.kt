@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package migratedb.v1.integrationtest.util.perf
+
+import java.lang.management.ManagementFactory
+import java.lang.management.MemoryType
+import java.time.Duration
+import com.sun.management.ThreadMXBean as HotSpotThreadMXBean
+
+/**
+ * Resource usage of a measured block. Allocations are summed over all threads that were alive at the end of the block,
+ * so measurements are only meaningful if nothing else runs concurrently.
+ */
+data class Measurement(val wallTime: Duration, val allocatedBytes: Long, val peakHeapBytes: Long) {
+    companion object {
+        private val heapPools by lazy {
+            ManagementFactory.getMemoryPoolMXBeans().filter { it.type == MemoryType.HEAP && it.isValid }
+        }
+
+        /**
+         * Runs [block] after a garbage collection and measures it.
+         */
+        fun <T> measure(block: () -> T): Pair<T, Measurement> {
+            System.gc()
+            heapPools.forEach { it.resetPeakUsage() }
+            val allocatedBefore = allocatedBytesPerThread()
+            val start = System.nanoTime()
+            val result = block()
+            val wallTime = Duration.ofNanos(System.nanoTime() - start)
+            val allocated = allocatedBytesPerThread().entries.sumOf { (thread, bytes) ->
+                bytes - (allocatedBefore[thread] ?: 0)
+            }
+            val peakHeap = heapPools.sumOf { it.peakUsage.used }
+            return result to Measurement(wallTime, allocated, peakHeap)
+        }
+
+        private fun allocatedBytesPerThread(): Map<Long, Long> {
+            val threads = ManagementFactory.getThreadMXBean() as? HotSpotThreadMXBean ?: return emptyMap()
+            val ids = threads.allThreadIds
+            val bytes = threads.getThreadAllocatedBytes(ids)
+            return ids.indices.filter { bytes[it] >= 0 }.associate { ids[it] to bytes[it] }
+        }
+    }
+}
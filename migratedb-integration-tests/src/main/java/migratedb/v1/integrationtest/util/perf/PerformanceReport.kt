@@ -0,0 +1,66 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package migratedb.v1.integrationtest.util.perf
+
+import org.testcontainers.shaded.com.fasterxml.jackson.core.util.DefaultPrettyPrinter
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper
+import java.nio.file.Path
+import java.time.Instant
+
+/**
+ * Collects measurements and writes them as JSON, so results of different runs can be compared by tools.
+ */
+class PerformanceReport {
+    data class Entry(
+        val database: String,
+        val project: String,
+        val projectSize: Long,
+        val projectSizeUnit: String,
+        val command: String,
+        val wallTimeMillis: Long,
+        val allocatedBytes: Long,
+        val peakHeapBytes: Long,
+    )
+
+    private val entries = mutableListOf<Entry>()
+
+    fun add(database: String, project: SyntheticProject, size: Long, command: String, measurement: Measurement) {
+        val entry = Entry(
+            database = database,
+            project = project.name,
+            projectSize = size,
+            projectSizeUnit = project.unit,
+            command = command,
+            wallTimeMillis = measurement.wallTime.toMillis(),
+            allocatedBytes = measurement.allocatedBytes,
+            peakHeapBytes = measurement.peakHeapBytes,
+        )
+        synchronized(entries) {
+            entries.add(entry)
+        }
+    }
+
+    fun writeTo(file: Path) {
+        val report = mapOf(
+            "timestamp" to Instant.now().toString(),
+            "javaVersion" to System.getProperty("java.version"),
+            "maxHeapBytes" to Runtime.getRuntime().maxMemory(),
+            "entries" to synchronized(entries) { entries.toList() },
+        )
+        ObjectMapper().writer(DefaultPrettyPrinter()).writeValue(file.toFile(), report)
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package migratedb.v1.integrationtest.util.perf
+
+import migratedb.v1.core.api.migration.JavaMigration
+import migratedb.v1.integrationtest.util.dsl.internal.SimpleJavaMigration
+import java.nio.file.Path
+import kotlin.io.path.bufferedWriter
+import kotlin.io.path.writeText
+import kotlin.math.max
+import kotlin.math.roundToLong
+
+/**
+ * Generated migration projects that stress one aspect of MigrateDB each. The SQL only uses syntax that all embedded
+ * databases understand.
+ */
+enum class SyntheticProject(private val defaultSize: Long, val unit: String) {
+    /**
+     * Many versioned migrations with a single statement each.
+     */
+    TINY_VERSIONED(10_000, "migrations") {
+        override fun generate(directory: Path, size: Long) {
+            directory.resolve("V1__Create.sql").writeText("CREATE TABLE perf_tiny (id INT NOT NULL);\n")
+            for (version in 2..size) {
+                directory.resolve("V${version}__Insert.sql")
+                    .writeText("INSERT INTO perf_tiny (id) VALUES ($version);\n")
+            }
+        }
+    },
+
+    /**
+     * Repeatable migrations, which are all re-checksummed on every command.
+     */
+    REPEATABLES(50, "migrations") {
+        override fun generate(directory: Path, size: Long) {
+            directory.resolve("V1__Create.sql").writeText("CREATE TABLE perf_repeatable (id INT NOT NULL);\n")
+            for (i in 1..size) {
+                directory.resolve("R__Repeatable_$i.sql").writeText(
+                    "DELETE FROM perf_repeatable WHERE id = $i;\n" +
+                            "INSERT INTO perf_repeatable (id) VALUES ($i);\n"
+                )
+            }
+        }
+    },
+
+    /**
+     * A single huge data script, sized in megabytes.
+     */
+    DATA_SCRIPT(500, "MB") {
+        override fun generate(directory: Path, size: Long) {
+            directory.resolve("V1__Create.sql").writeText(
+                "CREATE TABLE perf_data (id INT NOT NULL, payload VARCHAR(1000));\n" +
+                        "INSERT INTO perf_data (id, payload) VALUES (1, NULL);\n"
+            )
+            val payload = ('a'..'z').joinToString("").repeat(36)
+            val limit = size * 1024 * 1024
+            var written = 0L
+            var i = 0
+            directory.resolve("V2__Data.sql").bufferedWriter().use { writer ->
+                while (written < limit) {
+                    val rotation = i++ % payload.length
+                    val statement = "UPDATE perf_data SET payload = '" + payload.substring(rotation) +
+                            payload.substring(0, rotation) + "' WHERE id = 1;\n"
+                    writer.write(statement)
+                    written += statement.length
+                }
+            }
+        }
+    },
+
+    /**
+     * A long schema history of no-op Java migrations, which exercises reading and comparing the history table.
+     */
+    LARGE_HISTORY(100_000, "migrations") {
+        override fun generate(directory: Path, size: Long) {
+        }
+
+        override fun javaMigrations(size: Long): List<JavaMigration> {
+            return (1..size).map { SimpleJavaMigration("V${it}__Noop", {}) }
+        }
+    };
+
+    /**
+     * Writes the SQL migrations of a project of the given size to [directory].
+     */
+    abstract fun generate(directory: Path, size: Long)
+
+    /**
+     * The Java migrations of a project of the given size.
+     */
+    open fun javaMigrations(size: Long): List<JavaMigration> = emptyList()
+
+    /**
+     * The size of this project when its default size is multiplied with [scale].
+     */
+    fun size(scale: Double) = max(1L, (defaultSize * scale).roundToLong())
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.integrationtest.migrate
+
+import io.kotest.matchers.collections.shouldBeEmpty
+import io.kotest.matchers.collections.shouldBeSingleton
+import io.kotest.matchers.result.shouldBeFailure
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.string.shouldContain
+import io.kotest.matchers.string.shouldNotContain
+import migratedb.v1.core.api.MigrateDbException
+import migratedb.v1.core.api.Version
+import migratedb.v1.integrationtest.database.SomeInMemoryDb
+import migratedb.v1.integrationtest.util.base.IntegrationTest
+import org.junit.jupiter.api.Test
+
+internal class PreParseTest : IntegrationTest() {
+    @Test
+    fun `Parse failure is reported as is before any migration is applied`() = withDsl(SomeInMemoryDb) {
+        given {
+            database { }
+        }.`when` {
+            runCatching {
+                migrate {
+                    withConfig { preParseOnMigrate(true) }
+                    usingCode("V1")
+                    usingScript("V2", "create table v2(id int);")
+                    usingScript("V3", "insert into v2(id) values (\${missing3});")
+                    usingScript("V4", "insert into v2(id) values (\${missing4});")
+                }
+            }
+        }.then { actual ->
+            val e = actual.shouldBeFailure<MigrateDbException>()
+            e.message.shouldContain("No value provided for placeholder: \${missing3}")
+            e.message.shouldNotContain("Unable to parse migration")
+            schemaHistory {
+                shouldBeEmpty()
+            }
+        }
+    }
+
+    @Test
+    fun `Without pre-parsing the parse failure surfaces at its migration`() = withDsl(SomeInMemoryDb) {
+        given {
+            database { }
+        }.`when` {
+            runCatching {
+                migrate {
+                    withConfig { preParseOnMigrate(false) }
+                    usingScript("V1", "create table v1(id int);")
+                    usingScript("V2", "insert into v1(id) values (\${missing});")
+                }
+            }
+        }.then { actual ->
+            actual.shouldBeFailure<MigrateDbException>()
+                .message.shouldContain("No value provided for placeholder: \${missing}")
+            schemaHistory {
+                filter { it.isSuccess }.shouldBeSingleton {
+                    it.version.shouldBe(Version.parse("1"))
+                }
+            }
+        }
+    }
+
+    @Test
+    fun `Pre-parsed scripts are executed in order`() = withDsl(SomeInMemoryDb) {
+        given {
+            database { }
+        }.`when` {
+            migrate {
+                withConfig {
+                    preParseOnMigrate(true)
+                    parseLookAhead(2)
+                }
+                usingScript("V1", "create table t(id int primary key, v varchar(10));")
+                usingScript("V2", "insert into t(id, v) values (1, 'two');")
+                usingScript("V3", "update t set v = 'three' where id = 1;")
+                usingScript("V4", "update t set v = v || '-four' where id = 1;")
+            }
+        }.then { actual ->
+            actual.migrationsExecuted.shouldBe(4)
+            withConnection { jdbc ->
+                jdbc.queryForObject("select v from t where id = 1", String::class.java).shouldBe("three-four")
+            }
+        }
+    }
+}
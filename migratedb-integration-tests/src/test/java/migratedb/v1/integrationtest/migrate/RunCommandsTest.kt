@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.integrationtest.migrate
+
+import io.kotest.matchers.collections.shouldBeEmpty
+import io.kotest.matchers.collections.shouldBeSingleton
+import io.kotest.matchers.collections.shouldHaveSize
+import io.kotest.matchers.result.shouldBeFailure
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeInstanceOf
+import migratedb.v1.core.api.Command
+import migratedb.v1.core.api.MigrateDbException
+import migratedb.v1.core.api.MigrationType
+import migratedb.v1.core.api.Version
+import migratedb.v1.core.api.output.InfoResult
+import migratedb.v1.core.api.output.MigrateResult
+import migratedb.v1.core.api.output.RepairResult
+import migratedb.v1.core.api.output.ValidateResult
+import migratedb.v1.integrationtest.database.SomeInMemoryDb
+import migratedb.v1.integrationtest.util.base.IntegrationTest
+import org.junit.jupiter.api.Test
+
+internal class RunCommandsTest : IntegrationTest() {
+    @Test
+    fun `Returns the result of each command in order`() = withDsl(SomeInMemoryDb) {
+        given {
+            database { }
+        }.`when` {
+            runCommands(Command.MIGRATE, Command.VALIDATE, Command.INFO) {
+                usingCode("V1")
+                usingCode("V2")
+            }
+        }.then { actual ->
+            actual.operation.shouldBe("run")
+            actual.individualResults.shouldHaveSize(3)
+            actual.individualResults[0].shouldBeInstanceOf<MigrateResult>().migrationsExecuted.shouldBe(2)
+            actual.individualResults[1].shouldBeInstanceOf<ValidateResult>().validationSuccessful.shouldBe(true)
+            actual.individualResults[2].shouldBeInstanceOf<InfoResult>().migrations.map { it.version to it.state }
+                .shouldBe(listOf("1" to "Success", "2" to "Success"))
+        }
+    }
+
+    @Test
+    fun `Repairs before migrating`() = withDsl(SomeInMemoryDb) {
+        given {
+            database {
+                schemaHistory {
+                    entry("V1", MigrationType.JDBC, false)
+                }
+            }
+        }.`when` {
+            runCommands(Command.REPAIR, Command.MIGRATE) {
+                usingCode("V1")
+            }
+        }.then { actual ->
+            actual.individualResults[0].shouldBeInstanceOf<RepairResult>().migrationsRemoved
+                .shouldBeSingleton { it.version.shouldBe("1") }
+            actual.individualResults[1].shouldBeInstanceOf<MigrateResult>().migrationsExecuted.shouldBe(1)
+            schemaHistory {
+                shouldBeSingleton {
+                    it.version.shouldBe(Version.parse("1"))
+                    it.isSuccess.shouldBe(true)
+                }
+            }
+        }
+    }
+
+    @Test
+    fun `Stops at the first command that fails`() = withDsl(SomeInMemoryDb) {
+        given {
+            database { }
+        }.`when` {
+            runCatching {
+                runCommands(Command.VALIDATE, Command.MIGRATE) {
+                    usingCode("V1")
+                }
+            }
+        }.then { actual ->
+            actual.shouldBeFailure<MigrateDbException>()
+            schemaHistory {
+                shouldBeEmpty()
+            }
+        }
+    }
+
+    @Test
+    fun `Keeps migrations applied before a failing migration`() = withDsl(SomeInMemoryDb) {
+        given {
+            database { }
+        }.`when` {
+            runCatching {
+                runCommands(Command.MIGRATE, Command.INFO) {
+                    usingCode("V1")
+                    usingCode("V2") { throw MigrateDbException("Failed") }
+                }
+            }
+        }.then { actual ->
+            actual.shouldBeFailure<MigrateDbException>()
+            schemaHistory {
+                filter { it.isSuccess }.map { it.version }.shouldBe(listOf(Version.parse("1")))
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package migratedb.v1.integrationtest.performance
+
+import io.kotest.matchers.shouldBe
+import migratedb.v1.core.api.configuration.FluentConfiguration
+import migratedb.v1.integrationtest.database.DbSystem
+import migratedb.v1.integrationtest.database.H2
+import migratedb.v1.integrationtest.database.Hsqldb
+import migratedb.v1.integrationtest.database.Sqlite
+import migratedb.v1.integrationtest.util.base.IntegrationTest
+import migratedb.v1.integrationtest.util.base.Names
+import migratedb.v1.integrationtest.util.perf.Measurement
+import migratedb.v1.integrationtest.util.perf.PerformanceReport
+import migratedb.v1.integrationtest.util.perf.SyntheticProject
+import migratedb.v1.testing.util.io.buildDirectory
+import migratedb.v1.testing.util.io.newTempDir
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty
+import org.junit.jupiter.api.extension.ExtensionContext
+import org.junit.jupiter.api.parallel.Isolated
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.Arguments
+import org.junit.jupiter.params.provider.Arguments.arguments
+import org.junit.jupiter.params.provider.ArgumentsProvider
+import org.junit.jupiter.params.provider.ArgumentsSource
+import java.util.stream.Stream
+
+/**
+ * Measures wall time, allocation and peak heap of the main commands on synthetic projects. Only runs if the system
+ * property `migratedb.performance` is `true`. Project sizes can be scaled with `migratedb.performance.scale` (e.g.
+ * `0.01` for a quick run). The results are written to `target/performance-report.json`.
+ */
+@Isolated
+@EnabledIfSystemProperty(named = "migratedb.performance", matches = "true")
+internal class PerformanceTest : IntegrationTest() {
+    companion object {
+        private val scale = System.getProperty("migratedb.performance.scale")?.toDouble() ?: 1.0
+        private val report = PerformanceReport()
+
+        @JvmStatic
+        @AfterAll
+        fun writeReport() {
+            report.writeTo(buildDirectory.resolve("performance-report.json"))
+        }
+    }
+
+    class EmbeddedDatabases : ArgumentsProvider {
+        override fun provideArguments(context: ExtensionContext): Stream<Arguments> {
+            val databases = listOf<DbSystem>(H2.V2_3_232, Hsqldb.V2_7_4, Sqlite.V3_47_1_0)
+            return databases.flatMap { database ->
+                SyntheticProject.entries.map { arguments(database, it) }
+            }.stream()
+        }
+    }
+
+    @ParameterizedTest(name = "{1} on {0}")
+    @ArgumentsSource(EmbeddedDatabases::class)
+    fun `Measure commands`(dbSystem: DbSystem, project: SyntheticProject) {
+        val size = project.size(scale)
+        val directory = newTempDir("performance-$project")
+        project.generate(directory, size)
+        val javaMigrations = project.javaMigrations(size)
+
+        dbSystem.get(IntegrationTest.Extension.sharedResources()).use { instance ->
+            val namespace = Names.nextNamespace()
+            val schemaName = instance.createNamespaceIfNotExists(namespace)?.let(instance::normalizeCase)
+            try {
+                val migrateDb = FluentConfiguration()
+                    .dataSource(instance.newAdminConnection(namespace))
+                    .apply { if (schemaName != null) schemas(schemaName.toString()) }
+                    .locations("filesystem:$directory")
+                    .javaMigrations(*javaMigrations.toTypedArray())
+                    .load()
+
+                fun <T> measure(command: String, block: () -> T): T {
+                    val (result, measurement) = Measurement.measure(block)
+                    report.add(dbSystem.toString(), project, size, command, measurement)
+                    return result
+                }
+
+                measure("migrate") { migrateDb.migrate() }
+                measure("info") { migrateDb.info() }
+                val validateResult = measure("validate") { migrateDb.validateWithResult() }
+                measure("repair") { migrateDb.repair() }
+
+                validateResult.validationSuccessful.shouldBe(true)
+            } finally {
+                instance.dropNamespaceIfExists(namespace)
+            }
+        }
+    }
+}
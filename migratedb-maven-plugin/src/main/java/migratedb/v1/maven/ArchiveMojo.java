@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.maven;
+
+import migratedb.v1.core.internal.resource.archive.MigrationArchive;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Packs a directory of migration scripts into a single archive file that can be used as an <code>archive:</code>
+ * location. Reading from an archive avoids opening a file per script.
+ */
+@Mojo(name = "archive",
+      defaultPhase = LifecyclePhase.PREPARE_PACKAGE,
+      threadSafe = true)
+@SuppressWarnings("HtmlTagCanBeJavadocTag") // {@code } tags confuse the maven-plugin-plugin
+public class ArchiveMojo extends AbstractMojo {
+    /**
+     * The directory whose files (including those in subdirectories) are put into the archive.
+     */
+    @Parameter(defaultValue = "${project.basedir}/src/main/resources/db/migration")
+    public File sourceDirectory;
+
+    /**
+     * The archive file to write.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/migratedb/migrations.mdb")
+    public File archiveFile;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (!sourceDirectory.isDirectory()) {
+            throw new MojoExecutionException("Source directory " + sourceDirectory + " does not exist");
+        }
+        try {
+            MigrationArchive.write(sourceDirectory.toPath(), archiveFile.toPath());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to write migration archive " + archiveFile, e);
+        }
+        getLog().info("Wrote migration archive " + archiveFile);
+    }
+}
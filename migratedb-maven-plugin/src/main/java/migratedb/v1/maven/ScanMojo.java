@@ -85,6 +85,29 @@ public class ScanMojo extends AbstractMojo {
     @Parameter(defaultValue = "false")
     public boolean followSymlinks = false;
 
+    /**
+     * Whether to write a binary index in addition to the text indexes. It is faster to read at runtime and allows
+     * MigrateDB to skip loading classes that cannot be Java migrations, but requires reading every resource during the
+     * scan.
+     */
+    @Parameter(defaultValue = "false")
+    public boolean binaryIndex = false;
+
+    /**
+     * The name of a database type, e.g. <code>PostgreSQL</code>, whose SQL dialect is used to parse SQL migrations at
+     * build time. If set, their statements are written to a bundle that MigrateDB uses at runtime instead of parsing
+     * unchanged scripts that contain no placeholders. Scripts must be UTF-8 encoded.
+     */
+    @Parameter
+    public @Nullable String statementBundleDatabase;
+
+    /**
+     * File that remembers the scan results of jar files between builds, so that unchanged dependencies are not scanned
+     * again. Set to an empty value to disable.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/migratedb-scan.cache")
+    public @Nullable File scanCacheFile;
+
     /**
      * The directory where scan results are placed. The default value corresponds to the default
      * <code>"migratedb.location"</code> configuration (<code>"db/migration"</code>).
@@ -117,7 +140,10 @@ public class ScanMojo extends AbstractMojo {
             classPath,
             new LinkedHashSet<>(Arrays.asList(includes)),
             it -> true,
-            followSymlinks
+            followSymlinks,
+            binaryIndex,
+            scanCacheFile == null ? null : scanCacheFile.toPath(),
+            statementBundleDatabase
         );
     }
 
@@ -17,6 +17,7 @@ package migratedb.v1.scanner
 
 import org.apiguardian.api.API
 import java.io.IOException
+import java.io.OutputStream
 import java.io.Writer
 import java.nio.file.Files
 import java.nio.file.Path
@@ -27,15 +28,28 @@ import kotlin.io.path.createDirectories
  * Writes to files beneath [baseDirectory], automatically creating any missing parent directories.
  */
 @API(status = API.Status.STABLE, since = "1.0")
-class PathTarget(private val baseDirectory: Path, private val overwrite: Boolean = true) : Target {
+class PathTarget(private val baseDirectory: Path, private val overwrite: Boolean = true) : BinaryTarget {
     @Throws(IOException::class)
     override fun newWriter(fileName: String): Writer {
+        return Files.newBufferedWriter(prepare(fileName), *openOptions())
+    }
+
+    @Throws(IOException::class)
+    override fun newOutputStream(fileName: String): OutputStream {
+        return Files.newOutputStream(prepare(fileName), *openOptions()).buffered()
+    }
+
+    private fun prepare(fileName: String): Path {
         require(fileName.isNotEmpty())
         val target = baseDirectory.resolve(fileName)
         target.parent?.createDirectories()
+        return target
+    }
+
+    private fun openOptions(): Array<StandardOpenOption> {
         var openOption = arrayOf(StandardOpenOption.CREATE, StandardOpenOption.WRITE)
         if (overwrite) openOption += StandardOpenOption.TRUNCATE_EXISTING
-        return Files.newBufferedWriter(target, *openOption)
+        return openOption
     }
 
     override fun toString() = baseDirectory.toString()
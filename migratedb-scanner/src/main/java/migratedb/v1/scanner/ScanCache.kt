@@ -0,0 +1,189 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.scanner
+
+import migratedb.v1.core.internal.resource.classpath.ClassPathIndex.ResourceEntry
+import migratedb.v1.core.internal.sqlscript.StatementBundle
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.IOException
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardCopyOption
+import java.security.MessageDigest
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Persistent scan results of jar files, keyed by their absolute path and validated by size, modification time and
+ * content hash. Results are only reused if they were produced with the same [configKey].
+ *
+ * An unreadable cache file is treated like an empty one. Entries of jars that were not part of the current scan are
+ * dropped on [save].
+ */
+internal class ScanCache private constructor(
+    private val file: Path,
+    private val configKey: String,
+    private val previous: Map<String, Entry>
+) {
+    private val current = ConcurrentHashMap<String, Entry>()
+
+    /**
+     * What was found in a single scope element.
+     */
+    class Content(
+        /**
+         * Instantiable classes by their slash-separated resource name.
+         */
+        val classes: MutableMap<String, String> = mutableMapOf(),
+        val resources: MutableMap<String, ResourceEntry> = mutableMapOf(),
+        /**
+         * Direct supertypes (internal names) of every visited class, including non-instantiable ones.
+         */
+        val supertypes: MutableMap<String, List<String>> = mutableMapOf(),
+        /**
+         * Pre-parsed SQL migrations by their slash-separated resource name.
+         */
+        val statements: MutableMap<String, StatementBundle.Entry> = mutableMapOf()
+    )
+
+    private class Entry(val size: Long, val lastModified: Long, val sha256: String, val content: Content)
+
+    /**
+     * @return The cached content of [jar] if it did not change since it was [put], otherwise `null`.
+     */
+    fun get(jar: Path): Content? {
+        val key = keyOf(jar)
+        val entry = previous[key] ?: return null
+        val size = Files.size(jar)
+        val lastModified = Files.getLastModifiedTime(jar).toMillis()
+        if (entry.size != size) return null
+        // A new modification time alone doesn't mean that the content changed, e.g. after a fresh checkout
+        if (entry.lastModified != lastModified && entry.sha256 != sha256(jar)) return null
+        current[key] = Entry(size, lastModified, entry.sha256, entry.content)
+        return entry.content
+    }
+
+    fun put(jar: Path, content: Content) {
+        current[keyOf(jar)] = Entry(Files.size(jar), Files.getLastModifiedTime(jar).toMillis(), sha256(jar), content)
+    }
+
+    /**
+     * Replaces the cache file with the entries of the current scan.
+     */
+    fun save() {
+        file.toAbsolutePath().parent?.let { Files.createDirectories(it) }
+        val tempFile = Files.createTempFile(file.toAbsolutePath().parent, file.fileName.toString(), ".tmp")
+        try {
+            DataOutputStream(Files.newOutputStream(tempFile).buffered()).use { out ->
+                out.writeInt(MAGIC)
+                out.writeUTF(configKey)
+                out.writeInt(current.size)
+                current.toSortedMap().forEach { (key, entry) ->
+                    out.writeUTF(key)
+                    out.writeLong(entry.size)
+                    out.writeLong(entry.lastModified)
+                    out.writeUTF(entry.sha256)
+                    writeContent(out, entry.content)
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+        } finally {
+            Files.deleteIfExists(tempFile)
+        }
+    }
+
+    companion object {
+        private const val MAGIC = 0x4D444254 // "MDBT", increment when changing the format
+
+        fun load(file: Path, configKey: String): ScanCache {
+            val entries = try {
+                if (Files.isRegularFile(file)) read(file, configKey) else emptyMap()
+            } catch (e: IOException) {
+                emptyMap()
+            }
+            return ScanCache(file, configKey, entries)
+        }
+
+        private fun read(file: Path, configKey: String): Map<String, Entry> {
+            DataInputStream(Files.newInputStream(file).buffered()).use { input ->
+                if (input.readInt() != MAGIC || input.readUTF() != configKey) return emptyMap()
+                val entries = mutableMapOf<String, Entry>()
+                repeat(input.readInt()) {
+                    val key = input.readUTF()
+                    entries[key] = Entry(input.readLong(), input.readLong(), input.readUTF(), readContent(input))
+                }
+                return entries
+            }
+        }
+
+        private fun writeContent(out: DataOutputStream, content: Content) {
+            out.writeInt(content.classes.size)
+            content.classes.forEach { (slashyPath, className) ->
+                out.writeUTF(slashyPath)
+                out.writeUTF(className)
+            }
+            out.writeInt(content.resources.size)
+            content.resources.values.forEach {
+                out.writeUTF(it.name)
+                out.writeLong(it.size)
+                out.writeInt(it.crc32)
+            }
+            out.writeInt(content.supertypes.size)
+            content.supertypes.forEach { (name, supertypes) ->
+                out.writeUTF(name)
+                out.writeInt(supertypes.size)
+                supertypes.forEach(out::writeUTF)
+            }
+            out.writeInt(content.statements.size)
+            content.statements.values.forEach { it.write(out) }
+        }
+
+        private fun readContent(input: DataInputStream): Content {
+            val content = Content()
+            repeat(input.readInt()) {
+                content.classes[input.readUTF()] = input.readUTF()
+            }
+            repeat(input.readInt()) {
+                val entry = ResourceEntry(input.readUTF(), input.readLong(), input.readInt())
+                content.resources[entry.name] = entry
+            }
+            repeat(input.readInt()) {
+                val name = input.readUTF()
+                content.supertypes[name] = List(input.readInt()) { input.readUTF() }
+            }
+            repeat(input.readInt()) {
+                val entry = StatementBundle.Entry.read(input)
+                content.statements[entry.resourceName] = entry
+            }
+            return content
+        }
+
+        private fun keyOf(jar: Path) = jar.toAbsolutePath().normalize().toString()
+
+        private fun sha256(file: Path): String {
+            val digest = MessageDigest.getInstance("SHA-256")
+            Files.newInputStream(file).use { input ->
+                val buffer = ByteArray(65536)
+                while (true) {
+                    val n = input.read(buffer)
+                    if (n < 0) break
+                    digest.update(buffer, 0, n)
+                }
+            }
+            return digest.digest().joinToString("") { "%02x".format(it) }
+        }
+    }
+}
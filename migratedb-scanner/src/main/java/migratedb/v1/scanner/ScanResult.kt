@@ -16,16 +16,29 @@
 package migratedb.v1.scanner
 
 import migratedb.v1.core.api.Location.ClassPathLocation
+import migratedb.v1.core.internal.resource.classpath.ClassPathIndex
+import migratedb.v1.core.internal.sqlscript.StatementBundle
 import org.apiguardian.api.API
 import java.io.IOException
 import java.io.Writer
 import java.util.Set.copyOf
 
 @API(status = API.Status.STABLE, since = "1.0")
-class ScanResult internal constructor(foundClasses: Collection<String>, foundResources: Collection<String>) {
+class ScanResult internal constructor(
+    foundClasses: Collection<String>,
+    foundResources: Collection<String>,
+    private val binaryIndex: ClassPathIndex? = null,
+    private val statementBundle: StatementBundle? = null
+) {
     val foundClasses: Set<String> = copyOf(foundClasses)
     val foundResources: Set<String> = copyOf(foundResources)
 
+    /**
+     * Writes the text indexes and, if [Scanner.Config.binaryIndex] was enabled, the binary index. If
+     * [Scanner.Config.statementBundleDatabase] was set, the statement bundle is written as well.
+     *
+     * @throws IllegalArgumentException If a binary file must be written, but [target] is not a [BinaryTarget].
+     */
     @Throws(IOException::class)
     fun writeTo(target: Target) {
         target.newWriter(ClassPathLocation.CLASS_LIST_RESOURCE_NAME).use { classesWriter ->
@@ -34,11 +47,22 @@ class ScanResult internal constructor(foundClasses: Collection<String>, foundRes
                 writeList(resourcesWriter, foundResources)
             }
         }
+        if (binaryIndex != null) {
+            require(target is BinaryTarget) { "Writing a binary index requires a ${BinaryTarget::class.simpleName}" }
+            target.newOutputStream(ClassPathLocation.BINARY_INDEX_RESOURCE_NAME).use { binaryIndex.write(it) }
+        }
+        if (statementBundle != null) {
+            require(target is BinaryTarget) {
+                "Writing a statement bundle requires a ${BinaryTarget::class.simpleName}"
+            }
+            target.newOutputStream(ClassPathLocation.STATEMENT_BUNDLE_RESOURCE_NAME).use { statementBundle.write(it) }
+        }
     }
 
     companion object {
         private fun writeList(w: Writer, lines: Collection<String>) {
-            for (line in lines) {
+            // Sorted, so the output of a build is reproducible
+            for (line in lines.sorted()) {
                 w.write(line)
                 w.write("\n")
             }
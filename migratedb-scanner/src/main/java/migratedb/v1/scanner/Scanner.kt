@@ -15,22 +15,29 @@
  */
 package migratedb.v1.scanner
 
+import migratedb.v1.core.api.Location.ClassPathLocation.BINARY_INDEX_RESOURCE_NAME
 import migratedb.v1.core.api.Location.ClassPathLocation.CLASS_LIST_RESOURCE_NAME
 import migratedb.v1.core.api.Location.ClassPathLocation.RESOURCE_LIST_RESOURCE_NAME
+import migratedb.v1.core.api.Location.ClassPathLocation.STATEMENT_BUNDLE_RESOURCE_NAME
+import migratedb.v1.core.api.migration.JavaMigration
+import migratedb.v1.core.internal.resource.classpath.ClassPathIndex
+import migratedb.v1.core.internal.resource.classpath.ClassPathIndex.ClassEntry
+import migratedb.v1.core.internal.resource.classpath.ClassPathIndex.ResourceEntry
+import migratedb.v1.core.internal.sqlscript.StatementBundle
+import migratedb.v1.core.internal.sqlscript.StatementBundleCompiler
 import org.apiguardian.api.API
 import org.apiguardian.api.API.Status.STABLE
 import org.objectweb.asm.ClassReader
 import org.objectweb.asm.ClassVisitor
 import org.objectweb.asm.Opcodes
-import java.io.FilterInputStream
 import java.io.InputStream
 import java.nio.file.*
 import java.nio.file.FileVisitResult.CONTINUE
 import java.nio.file.FileVisitResult.SKIP_SUBTREE
 import java.nio.file.attribute.BasicFileAttributes
 import java.util.*
-import java.util.zip.ZipInputStream
-import kotlin.io.path.inputStream
+import java.util.zip.CRC32
+import java.util.stream.Collectors
 
 /**
  * Scans the class path for resources and classes that might be relevant for database migrations.
@@ -39,7 +46,7 @@ import kotlin.io.path.inputStream
  */
 @API(status = STABLE, since = "1.0")
 class Scanner(val onUnprocessablePath: (Path) -> Unit = {}) {
-    data class Config(
+    data class Config @JvmOverloads constructor(
         /**
          * Class directories and jar files to include in the scan.
          */
@@ -55,122 +62,269 @@ class Scanner(val onUnprocessablePath: (Path) -> Unit = {}) {
          * is always slash-separated.
          */
         val nameFilter: (resourceName: String) -> Boolean = { true },
-        val followSymlinks: Boolean = false
+        val followSymlinks: Boolean = false,
+        /**
+         * Whether to also produce the binary index format, which includes resource metadata and allows the runtime
+         * to skip loading classes that cannot be Java migrations. This requires reading the content of each resource.
+         */
+        val binaryIndex: Boolean = false,
+        /**
+         * File that remembers the scan results of jar files between runs. Jars whose size and modification time (or,
+         * failing that, content hash) did not change since the last run are not scanned again. Class directories are
+         * always walked. The file is created if it doesn't exist and is rewritten after each scan.
+         */
+        val cacheFile: Path? = null,
+        /**
+         * The name of a database type (e.g. `PostgreSQL`) whose SQL dialect is used to parse SQL migrations ahead of
+         * time. If set, the statements of all SQL migrations are written to a statement bundle that the runtime uses
+         * instead of parsing scripts that have not changed since. Scripts are assumed to be UTF-8 encoded.
+         */
+        val statementBundleDatabase: String? = null
     )
 
     fun scan(config: Config) = ResultBuilder(config).build()
 
     private inner class ResultBuilder(private val config: Config) {
-        private val foundClasses = mutableSetOf<String>()
-        private val foundResources = mutableSetOf<String>()
+        private val javaMigrationInternalName = JavaMigration::class.java.name.classNameToInternalName()
 
         /**
          * Required resource name prefixes, with leading slashes removed and a single trailing slash.
          */
         private val normalizedIncludedPaths = config.includedPaths.map { it.trim('/') + "/" }
+
+        /**
+         * The subset of [normalizedIncludedPaths] that is not covered by another included path.
+         */
+        private val includedRoots = normalizedIncludedPaths.distinct().filter { path ->
+            normalizedIncludedPaths.none { it != path && path.startsWith(it) }
+        }
         private val fileVisitOptions = when (config.followSymlinks) {
             true -> EnumSet.of(FileVisitOption.FOLLOW_LINKS)
             false -> EnumSet.noneOf(FileVisitOption::class.java)
         }
 
+        private val statementCompiler = config.statementBundleDatabase?.let { StatementBundleCompiler(it) }
+
+        private val cache = config.cacheFile?.let {
+            ScanCache.load(
+                it,
+                "${normalizedIncludedPaths.sorted()} binaryIndex=${config.binaryIndex} " +
+                        "statementBundleDatabase=${config.statementBundleDatabase}"
+            )
+        }
+
         fun build(): ScanResult {
-            config.scope.forEach { path ->
-                when {
-                    Files.isDirectory(path) -> processDirectory(path)
-                    path.fileName.toString().endsWith(".jar") -> processJar(path)
-                    else -> onUnprocessablePath(path)
+            // Scope elements are scanned in parallel, but merged in a fixed order so the result does not depend on
+            // scheduling
+            val partialResults = config.scope.sortedBy { it.toString() }
+                .parallelStream()
+                .map { PartialResult(it).apply { scan() } }
+                .collect(Collectors.toList())
+            cache?.save()
+            val foundClasses = mutableSetOf<String>()
+            val foundResources = mutableSetOf<String>()
+            val resourceMetadata = mutableMapOf<String, ResourceEntry>()
+            val supertypes = mutableMapOf<String, List<String>>()
+            val statements = sortedMapOf<String, StatementBundle.Entry>()
+            partialResults.forEach {
+                if (it.unprocessable) onUnprocessablePath(it.path)
+                // The name filter is applied here rather than during the scan, so cached results don't depend on it
+                it.found.classes.forEach { (slashyPath, className) ->
+                    if (config.nameFilter(slashyPath)) foundClasses.add(className)
                 }
+                it.found.resources.forEach { (slashyPath, metadata) ->
+                    if (config.nameFilter(slashyPath)) {
+                        foundResources.add(slashyPath)
+                        resourceMetadata[slashyPath] = metadata
+                    }
+                }
+                supertypes.putAll(it.found.supertypes)
+                it.found.statements.forEach { (slashyPath, entry) ->
+                    if (config.nameFilter(slashyPath)) statements.putIfAbsent(slashyPath, entry)
+                }
+            }
+            val index = when {
+                config.binaryIndex -> ClassPathIndex(
+                    foundClasses.map {
+                        ClassEntry(it, isMigrationCandidate(it.classNameToInternalName(), supertypes))
+                    },
+                    foundResources.map { resourceMetadata.getValue(it) }
+                )
+
+                else -> null
             }
-            return ScanResult(foundClasses, foundResources)
+            val statementBundle = statementCompiler?.let { StatementBundle(statements.values) }
+            return ScanResult(foundClasses, foundResources, index, statementBundle)
         }
 
-        private fun processJar(jar: Path) {
-            // Multi-release jars have additional classes under META-INF/versions/x/ -_-
-            // Technically this is only relevant if the multi-release jar doesn't have a "fallback" version of
-            // the versions-specific classes, but I could find no evidence that such a fallback MUST exist.
-            val multiReleasePrefix = "META-INF/versions/"
-            jar.inputStream().buffered().let(::ZipInputStream).use { stream ->
-                generateSequence { stream.nextEntry }
-                    .filterNot { it.isDirectory }
-                    .forEach {
-                        var slashyName = it.name.trimStart('/')
-                        if (slashyName.startsWith(multiReleasePrefix)) {
-                            slashyName = slashyName.substring(slashyName.indexOf('/', multiReleasePrefix.length))
-                                .trimStart('/')
-                        } else if (slashyName.startsWith("META-INF/")) {
-                            // other files under META-INF are not class path resources
-                            return@forEach
+        /**
+         * The scan result of a single element of [Config.scope].
+         */
+        private inner class PartialResult(val path: Path) {
+            var found = ScanCache.Content()
+            var unprocessable = false
+
+            fun scan() {
+                when {
+                    Files.isDirectory(path) -> processDirectory(path)
+                    path.fileName.toString().endsWith(".jar") -> when (val cached = cache?.get(path)) {
+                        null -> {
+                            processJar(path)
+                            cache?.put(path, found)
                         }
-                        process(slashyName) {
-                            object : FilterInputStream(stream) {
-                                override fun close() {
-                                    // process() would close the stream, we don't want that
-                                }
-                            }
+
+                        else -> found = cached
+                    }
+
+                    else -> unprocessable = true
+                }
+            }
+
+            private fun processJar(jar: Path) {
+                // The zip file system only reads the central directory up front, so entries outside the included
+                // paths are never inflated.
+                FileSystems.newFileSystem(jar, null as ClassLoader?).use { zip ->
+                    val root = zip.getPath("/")
+                    processJarEntries(root, excludeMetaInf = true)
+                    // Multi-release jars have additional classes under META-INF/versions/x/ -_-
+                    // Technically this is only relevant if the multi-release jar doesn't have a "fallback" version of
+                    // the versions-specific classes, but I could find no evidence that such a fallback MUST exist.
+                    val versions = root.resolve("META-INF/versions")
+                    if (Files.isDirectory(versions)) {
+                        Files.newDirectoryStream(versions).use { dirs ->
+                            dirs.filter { Files.isDirectory(it) }
+                                .forEach { processJarEntries(it, excludeMetaInf = false) }
                         }
                     }
+                }
             }
-        }
 
-        private fun processDirectory(dir: Path) {
-            val canonicalDir = dir.toAbsolutePath().toRealPath()
-            Files.walkFileTree(
-                canonicalDir,
-                fileVisitOptions,
-                100,
-                object : SimpleFileVisitor<Path>() {
-                    override fun preVisitDirectory(dir: Path, attrs: BasicFileAttributes): FileVisitResult {
-                        // Scan less files by skipping subtrees if possible
-                        return when {
-                            config.followSymlinks -> CONTINUE
-                            dir.toRelativeSlashyString(canonicalDir).isParentOrChildOfIncludedPath() -> CONTINUE
-                            else -> SKIP_SUBTREE
+            private fun processJarEntries(root: Path, excludeMetaInf: Boolean) {
+                for (includedRoot in includedRoots) {
+                    if (excludeMetaInf && includedRoot.startsWith("META-INF/")) {
+                        // other files under META-INF are not class path resources
+                        continue
+                    }
+                    val dir = root.resolve(includedRoot)
+                    if (!Files.isDirectory(dir)) continue
+                    Files.walk(dir).use { entries ->
+                        entries.filter { Files.isRegularFile(it) }.forEach { entry ->
+                            process(entry.toRelativeSlashyString(root)) { Files.newInputStream(entry) }
                         }
                     }
+                }
+            }
 
-                    @Suppress("BlockingMethodInNonBlockingContext") // I don't see the non-blocking context here?!
-                    override fun visitFile(file: Path, attrs: BasicFileAttributes): FileVisitResult {
-                        process(file.toRelativeSlashyString(canonicalDir)) { Files.newInputStream(file) }
-                        return CONTINUE
+            private fun processDirectory(dir: Path) {
+                val canonicalDir = dir.toAbsolutePath().toRealPath()
+                Files.walkFileTree(
+                    canonicalDir,
+                    fileVisitOptions,
+                    100,
+                    object : SimpleFileVisitor<Path>() {
+                        override fun preVisitDirectory(dir: Path, attrs: BasicFileAttributes): FileVisitResult {
+                            // Scan less files by skipping subtrees if possible
+                            return when {
+                                config.followSymlinks -> CONTINUE
+                                dir.toRelativeSlashyString(canonicalDir).isParentOrChildOfIncludedPath() -> CONTINUE
+                                else -> SKIP_SUBTREE
+                            }
+                        }
+
+                        @Suppress("BlockingMethodInNonBlockingContext") // I don't see the non-blocking context here?!
+                        override fun visitFile(file: Path, attrs: BasicFileAttributes): FileVisitResult {
+                            process(file.toRelativeSlashyString(canonicalDir)) { Files.newInputStream(file) }
+                            return CONTINUE
+                        }
+                    })
+            }
+
+            private fun process(slashyPath: String, content: () -> InputStream) {
+                val fileName = slashyPath.substringAfterLast('/')
+                when {
+                    fileName == CLASS_LIST_RESOURCE_NAME || fileName == RESOURCE_LIST_RESOURCE_NAME ||
+                            fileName == BINARY_INDEX_RESOURCE_NAME || fileName == STATEMENT_BUNDLE_RESOURCE_NAME -> {
+                        // Do not include own output in scan result
                     }
-                })
-        }
+                    slashyPath.isChildOfIncludedPath() -> when {
+                        slashyPath.endsWith(".class") -> content().use { processClassFile(slashyPath, it) }
+                        else -> processResource(slashyPath, content)
+                    }
+                    else -> {}
+                }
+            }
 
-        private fun process(slashyPath: String, content: () -> InputStream) {
-            val fileName = slashyPath.substringAfterLast('/')
-            when {
-                fileName == CLASS_LIST_RESOURCE_NAME || fileName == RESOURCE_LIST_RESOURCE_NAME -> {
-                    // Do not include own output in scan result
+            private fun processResource(slashyPath: String, content: () -> InputStream) {
+                val compiler = statementCompiler?.takeIf { it.accepts(slashyPath) }
+                if (compiler == null) {
+                    found.resources[slashyPath] = when {
+                        config.binaryIndex -> content().use { readMetadata(slashyPath, it) }
+                        else -> ResourceEntry(slashyPath, -1, 0)
+                    }
+                    return
                 }
-                slashyPath.isChildOfIncludedPath() && config.nameFilter(slashyPath) -> when {
-                    slashyPath.endsWith(".class") -> content().use { processClassFile(it) }
-                    else -> foundResources.add(slashyPath)
+                // SQL migrations are read only once for both the metadata and the statement bundle
+                val bytes = content().use { it.readBytes() }
+                found.resources[slashyPath] = when {
+                    config.binaryIndex -> readMetadata(slashyPath, bytes.inputStream())
+                    else -> ResourceEntry(slashyPath, -1, 0)
                 }
-                else -> {}
+                compiler.compile(slashyPath, bytes)?.let { found.statements[slashyPath] = it }
             }
-        }
 
-        private fun processClassFile(byteCode: InputStream) {
-            ClassReader(byteCode).accept(object : ClassVisitor(Opcodes.ASM9) {
-                override fun visit(
-                    version: Int,
-                    access: Int,
-                    name: String,
-                    signature: String?,
-                    superName: String?,
-                    interfaces: Array<out String>?
-                ) {
-                    val isProbablyInstantiable = access.hasFlag(Opcodes.ACC_PUBLIC) &&
-                            !access.hasFlag(Opcodes.ACC_ABSTRACT) &&
-                            !access.hasFlag(Opcodes.ACC_INTERFACE) &&
-                            !access.hasFlag(Opcodes.ACC_ANNOTATION) &&
-                            !access.hasFlag(Opcodes.ACC_ENUM)
-                    if (isProbablyInstantiable) {
-                        foundClasses.add(name.internalNameToClassName())
+            private fun processClassFile(slashyPath: String, byteCode: InputStream) {
+                // Only the class header is of interest, so skip everything that is expensive to parse
+                ClassReader(byteCode).accept(object : ClassVisitor(Opcodes.ASM9) {
+                    override fun visit(
+                        version: Int,
+                        access: Int,
+                        name: String,
+                        signature: String?,
+                        superName: String?,
+                        interfaces: Array<out String>?
+                    ) {
+                        val isProbablyInstantiable = access.hasFlag(Opcodes.ACC_PUBLIC) &&
+                                !access.hasFlag(Opcodes.ACC_ABSTRACT) &&
+                                !access.hasFlag(Opcodes.ACC_INTERFACE) &&
+                                !access.hasFlag(Opcodes.ACC_ANNOTATION) &&
+                                !access.hasFlag(Opcodes.ACC_ENUM)
+                        found.supertypes[name] = listOfNotNull(superName) + interfaces.orEmpty()
+                        if (isProbablyInstantiable) {
+                            found.classes[slashyPath] = name.internalNameToClassName()
+                        }
+                        super.visit(version, access, name, signature, superName, interfaces)
                     }
-                    super.visit(version, access, name, signature, superName, interfaces)
-                }
-            }, ClassReader.SKIP_DEBUG)
+                }, ClassReader.SKIP_CODE or ClassReader.SKIP_DEBUG or ClassReader.SKIP_FRAMES)
+            }
+        }
+
+        private fun readMetadata(slashyPath: String, content: InputStream): ResourceEntry {
+            val crc32 = CRC32()
+            val buffer = ByteArray(8192)
+            var size = 0L
+            while (true) {
+                val n = content.read(buffer)
+                if (n < 0) break
+                crc32.update(buffer, 0, n)
+                size += n
+            }
+            return ResourceEntry(slashyPath, size, crc32.value.toInt())
+        }
+
+        /**
+         * Whether the class [internalName] might implement `JavaMigration`. Types that were not visited by the scan
+         * are assumed to be candidates unless they belong to the JDK, so this only returns `false` if the whole
+         * type hierarchy is known.
+         */
+        private fun isMigrationCandidate(
+            internalName: String,
+            supertypes: Map<String, List<String>>,
+            visiting: MutableSet<String> = mutableSetOf()
+        ): Boolean {
+            if (internalName == javaMigrationInternalName) return true
+            if (internalName.startsWith("java/") || !visiting.add(internalName)) return false
+            val directSupertypes = supertypes[internalName] ?: return true
+            return directSupertypes.any { isMigrationCandidate(it, supertypes, visiting) }
         }
 
         private fun Int.hasFlag(flag: Int) = and(flag) == flag
@@ -185,6 +339,7 @@ class Scanner(val onUnprocessablePath: (Path) -> Unit = {}) {
         }
 
         private fun String.internalNameToClassName() = replace("/", ".")
+        private fun String.classNameToInternalName() = replace(".", "/")
 
         private fun Path.toRelativeSlashyString(parent: Path) = parent.relativize(this)
             .also { check(!it.isAbsolute) }
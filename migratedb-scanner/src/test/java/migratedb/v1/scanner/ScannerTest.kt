@@ -21,8 +21,13 @@ import com.google.common.jimfs.Jimfs
 import io.kotest.matchers.collections.shouldBeEmpty
 import io.kotest.matchers.collections.shouldContainExactly
 import io.kotest.matchers.collections.shouldContainExactlyInAnyOrder
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.nulls.shouldNotBeNull
+import io.kotest.matchers.paths.shouldExist
 import io.kotest.matchers.shouldBe
 import migratedb.v1.core.api.Location.ClassPathLocation
+import migratedb.v1.core.api.migration.JavaMigration
+import migratedb.v1.core.internal.resource.classpath.ClassPathResource
 import migratedb.v1.scanner.testing.Dsl
 import migratedb.v1.scanner.testing.FsConfigurations
 import migratedb.v1.scanner.testing.Kind.*
@@ -34,6 +39,7 @@ import java.net.URLClassLoader
 import java.util.concurrent.atomic.AtomicLong
 import kotlin.io.path.createDirectories
 import kotlin.io.path.createSymbolicLinkPointingTo
+import kotlin.io.path.writeText
 
 internal class ScannerTest {
 
@@ -265,6 +271,88 @@ internal class ScannerTest {
             .shouldContainExactlyInAnyOrder("foo/script1.sql", "bar/script2.sql", "bar/baz/script3.sql")
     }
 
+    @ParameterizedTest
+    @ArgumentsSource(FsConfigurations::class)
+    fun `Binary index excludes classes that cannot be Java migrations`(fsConfig: Configuration) = withDsl(fsConfig) {
+        // given
+        val classpathDir = "classpathDir".toPath()
+        clazz(classpathDir, "foo/PlainClass", PLAIN_CLASS, PUBLIC)
+        clazz(
+            classpathDir, "foo/V1__Migration", PLAIN_CLASS, PUBLIC,
+            interfaces = listOf(JavaMigration::class.java.name.replace('.', '/'))
+        )
+        resource(classpathDir.resolve("foo/script1.sql"))
+
+        // when
+        Scanner().scan(
+            migratedb.v1.scanner.Scanner.Config(setOf(classpathDir), setOf("foo"), binaryIndex = true)
+        ).also {
+            it.writeTo(PathTarget(classpathDir.resolve("db", "migration")))
+        }
+        val classLoader = URLClassLoader(arrayOf(classpathDir.toUri().toURL()), javaClass.classLoader)
+        val actual = ClassPathLocation("db/migration", classLoader)
+
+        // then
+        classpathDir.resolve("db", "migration", ClassPathLocation.BINARY_INDEX_RESOURCE_NAME).shouldExist()
+        actual.classProvider().classes.map { it.name }.shouldContainExactly("foo.V1__Migration")
+        actual.resourceProvider().getResources("", listOf(".sql")).map { it.name }
+            .shouldContainExactly("foo/script1.sql")
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(FsConfigurations::class)
+    fun `Cache file does not hide changes to jars`(fsConfig: Configuration) = withDsl(fsConfig) {
+        // given
+        val cacheFile = "cache/scan.cache".toPath()
+        val jarFile = jar("someJar.jar".toPath()) {
+            clazz("foo/Clazz", PLAIN_CLASS, PUBLIC)
+            resource("foo/script1.sql")
+        }
+        val config = migratedb.v1.scanner.Scanner.Config(setOf(jarFile), setOf("foo"), cacheFile = cacheFile)
+
+        // when
+        val first = Scanner().scan(config)
+        val second = Scanner().scan(config)
+        jar(jarFile) {
+            clazz("foo/AnotherClazz", PLAIN_CLASS, PUBLIC)
+        }
+        val third = Scanner().scan(config)
+
+        // then
+        cacheFile.shouldExist()
+        first.foundClasses.shouldContainExactly("foo.Clazz")
+        second.foundClasses.shouldContainExactly("foo.Clazz")
+        second.foundResources.shouldContainExactly("foo/script1.sql")
+        third.foundClasses.shouldContainExactly("foo.AnotherClazz")
+        third.foundResources.shouldBeEmpty()
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(FsConfigurations::class)
+    fun `Statement bundle contains pre-parsed SQL migrations`(fsConfig: Configuration) = withDsl(fsConfig) {
+        // given
+        val classpathDir = "classpathDir".toPath()
+        resource(classpathDir.resolve("foo/V1__script.sql"))
+            .writeText("CREATE TABLE a(x INT);\nINSERT INTO a VALUES (1);")
+        resource(classpathDir.resolve("foo/notes.txt")).writeText("Not SQL")
+
+        // when
+        Scanner().scan(
+            migratedb.v1.scanner.Scanner.Config(setOf(classpathDir), setOf("foo"), statementBundleDatabase = "H2")
+        ).also {
+            it.writeTo(PathTarget(classpathDir.resolve("db", "migration")))
+        }
+        val classLoader = URLClassLoader(arrayOf(classpathDir.toUri().toURL()), javaClass.classLoader)
+        val resources = ClassPathLocation("db/migration", classLoader).resourceProvider()
+            .getResources("", listOf(".sql", ".txt"))
+            .associateBy { it.name }
+
+        // then
+        classpathDir.resolve("db", "migration", ClassPathLocation.STATEMENT_BUNDLE_RESOURCE_NAME).shouldExist()
+        (resources.getValue("foo/V1__script.sql") as ClassPathResource).statementBundleEntry.shouldNotBeNull()
+        (resources.getValue("foo/notes.txt") as ClassPathResource).statementBundleEntry.shouldBeNull()
+    }
+
     private fun withDsl(fsConfig: Configuration, block: (Dsl).() -> Unit) {
         Jimfs.newFileSystem(fsConfig).use { fs ->
             Dsl(fs).block()
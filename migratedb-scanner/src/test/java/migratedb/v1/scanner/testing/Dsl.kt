@@ -35,10 +35,16 @@ class Dsl(private val fs: FileSystem) {
         }
     }
 
-    fun clazz(dir: Path, binaryName: String, kind: Kind, vararg mods: Mod): Path {
+    fun clazz(
+        dir: Path,
+        binaryName: String,
+        kind: Kind,
+        vararg mods: Mod,
+        interfaces: List<String> = emptyList()
+    ): Path {
         return dir.plus("$binaryName.class").createFileAndParents().also { path ->
             path.outputStream().use {
-                writeClass(it, binaryName, kind, mods)
+                writeClass(it, binaryName, kind, mods, interfaces)
             }
         }
     }
@@ -74,14 +80,20 @@ class Dsl(private val fs: FileSystem) {
         override fun close() = stream.close()
     }
 
-    private fun writeClass(stream: OutputStream, binaryName: String, kind: Kind, mods: Array<out Mod>) {
+    private fun writeClass(
+        stream: OutputStream,
+        binaryName: String,
+        kind: Kind,
+        mods: Array<out Mod>,
+        interfaces: List<String> = emptyList()
+    ) {
         val w = ClassWriter(0)
         val access = mods.fold(kind.opcode) { opcode, mod -> opcode.or(mod.opcode) }
         val superName = when (kind) {
             Kind.ENUM -> "java/lang/Enum"
             else -> "java/lang/Object"
         }
-        w.visit(Opcodes.V11, access, binaryName, null, superName, null)
+        w.visit(Opcodes.V11, access, binaryName, null, superName, interfaces.toTypedArray().ifEmpty { null })
         stream.write(w.toByteArray())
     }
 
@@ -17,6 +17,7 @@
 package migratedb.v1.spring.boot.v3.autoconfig;
 
 import migratedb.v1.core.MigrateDb;
+import migratedb.v1.core.api.Command;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class DefaultMigrateDbExecution implements MigrateDbExecution {
@@ -29,8 +30,10 @@ public class DefaultMigrateDbExecution implements MigrateDbExecution {
     @Override
     public void run(MigrateDb migrateDb) {
         if (migrateDbProperties == null || migrateDbProperties.isRepairOnMigrate()) {
-            migrateDb.repair();
+            // Shares the connection, scan and resolved migrations between both commands
+            migrateDb.run(Command.REPAIR, Command.MIGRATE);
+        } else {
+            migrateDb.migrate();
         }
-        migrateDb.migrate();
     }
 }
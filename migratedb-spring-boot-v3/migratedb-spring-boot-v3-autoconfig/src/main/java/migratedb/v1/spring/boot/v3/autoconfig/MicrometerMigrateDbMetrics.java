@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.spring.boot.v3.autoconfig;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import migratedb.v1.core.api.MigrateDbMetrics;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes MigrateDB metrics to a Micrometer registry. Phases are recorded by the {@code migratedb.phase} timer,
+ * tagged with the lower-cased {@link MigrateDbMetrics.Timer} name as {@code phase}. Counters are published as {@code
+ * migratedb.checksum.bytes} and {@code migratedb.rows.affected}.
+ * <p>
+ * Inside this class, the simple names {@code Timer} and {@code Counter} refer to the types inherited from {@link
+ * MigrateDbMetrics}, so the Micrometer meter types are referenced by their qualified names.
+ */
+public final class MicrometerMigrateDbMetrics implements MigrateDbMetrics {
+    private final Map<MigrateDbMetrics.Timer, io.micrometer.core.instrument.Timer> timers =
+            new EnumMap<>(MigrateDbMetrics.Timer.class);
+    private final Map<MigrateDbMetrics.Counter, io.micrometer.core.instrument.Counter> counters =
+            new EnumMap<>(MigrateDbMetrics.Counter.class);
+
+    public MicrometerMigrateDbMetrics(MeterRegistry registry) {
+        for (var timer : MigrateDbMetrics.Timer.values()) {
+            timers.put(timer,
+                       io.micrometer.core.instrument.Timer.builder("migratedb.phase")
+                               .description("Time spent in a phase of a MigrateDB command")
+                               .tag("phase", timer.name().toLowerCase(Locale.ROOT))
+                               .register(registry));
+        }
+        counters.put(MigrateDbMetrics.Counter.CHECKSUM_BYTES,
+                     io.micrometer.core.instrument.Counter.builder("migratedb.checksum.bytes")
+                             .description("Bytes of migration content hashed to calculate checksums")
+                             .baseUnit("bytes")
+                             .register(registry));
+        counters.put(MigrateDbMetrics.Counter.ROWS_AFFECTED,
+                     io.micrometer.core.instrument.Counter.builder("migratedb.rows.affected")
+                             .description("Rows affected by SQL statements")
+                             .baseUnit("rows")
+                             .register(registry));
+    }
+
+    @Override
+    public void recordTime(MigrateDbMetrics.Timer timer, long nanos) {
+        timers.get(timer).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void increment(MigrateDbMetrics.Counter counter, long amount) {
+        counters.get(counter).increment(amount);
+    }
+}
@@ -16,6 +16,7 @@
  */
 package migratedb.v1.spring.boot.v3.autoconfig;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import migratedb.v1.core.MigrateDb;
 import migratedb.v1.core.api.*;
 import migratedb.v1.core.api.callback.Callback;
@@ -35,8 +36,10 @@ import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.boot.sql.init.dependency.DatabaseInitializationDependencyConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.metrics.ApplicationStartup;
 
 import javax.sql.DataSource;
 import java.time.Duration;
@@ -51,7 +54,7 @@ import java.util.stream.Collectors;
         DataSourceAutoConfiguration.class,
         JdbcTemplateAutoConfiguration.class,
         HibernateJpaAutoConfiguration.class
-})
+}, afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
 @EnableConfigurationProperties(MigrateDbProperties.class)
 @Import(DatabaseInitializationDependencyConfigurer.class)
 @ConditionalOnClass(MigrateDb.class)
@@ -83,7 +86,9 @@ public class MigrateDbAutoConfiguration {
                                ObjectProvider<JavaMigration> javaMigrations,
                                ObjectProvider<Callback> callbacks,
                                ObjectProvider<MigrateDbExtension> extensions,
-                               ObjectProvider<ExtensionConfig> extensionConfigs) {
+                               ObjectProvider<ExtensionConfig> extensionConfigs,
+                               ObjectProvider<MigrateDbMetrics> metrics,
+                               ObjectProvider<MigrateDbPhaseListener> phaseListener) {
         var configuration = new DefaultConfiguration(resourceLoader.getClassLoader());
         var propertiesIfUnique = properties.getIfUnique();
         var dataSource = configureDataSource(configuration,
@@ -94,11 +99,30 @@ public class MigrateDbAutoConfiguration {
         configureExtensions(resourceLoader, configuration, propertiesIfUnique, extensions, extensionConfigs);
         configureCallbacks(configuration, callbacks);
         configureJavaMigrations(configuration, javaMigrations);
+        metrics.ifUnique(configuration::setMetrics);
+        phaseListener.ifUnique(configuration::setPhaseListener);
         configureCustomizers(configuration, configurationCustomizers);
         configuration.setExtensionConfig(SpringIntegration.class, new SpringIntegration(dataSource));
         return new MigrateDb(configuration);
     }
 
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnBean(MeterRegistry.class)
+    static class MicrometerMetricsConfiguration {
+        @Bean
+        @ConditionalOnMissingBean
+        public MigrateDbMetrics micrometerMigrateDbMetrics(MeterRegistry meterRegistry) {
+            return new MicrometerMigrateDbMetrics(meterRegistry);
+        }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MigrateDbPhaseListener startupStepPhaseListener(ApplicationStartup applicationStartup) {
+        return new StartupStepPhaseListener(applicationStartup);
+    }
+
     @Bean
     public MigrateDbSchemaManagementProvider migrateDbSchemaManagementProvider(ObjectProvider<MigrateDb> migrateDb) {
         return new MigrateDbSchemaManagementProvider(migrateDb);
@@ -178,6 +202,14 @@ public class MigrateDbAutoConfiguration {
               .to(configuration::setOutOfOrder);
         mapper.from(props::getOutputQueryResults)
               .to(configuration::setOutputQueryResults);
+        mapper.from(props::getParseCacheDirectory)
+              .to(configuration::setParseCacheDirectory);
+        mapper.from(props::getParseCacheMaxSizeMb)
+              .to(configuration::setParseCacheMaxSizeMb);
+        mapper.from(props::getParseLookAhead)
+              .to(configuration::setParseLookAhead);
+        mapper.from(props::getPreParseOnMigrate)
+              .to(configuration::setPreParseOnMigrate);
         mapper.from(props::getPlaceholderPrefix)
               .to(configuration::setPlaceholderPrefix);
         mapper.from(props::getPlaceholderReplacement)
@@ -188,6 +220,24 @@ public class MigrateDbAutoConfiguration {
               .to(configuration::setPlaceholderSuffix);
         mapper.from(props::getRepeatableSqlMigrationPrefix)
               .to(configuration::setRepeatableSqlMigrationPrefix);
+        mapper.from(props::getResolveCacheFile)
+              .to(configuration::setResolveCacheFile);
+        mapper.from(props::getSessionPoolSize)
+              .to(configuration::setSessionPoolSize);
+        mapper.from(props::getStatementTimeout)
+              .as(Duration::toSeconds)
+              .as(MigrateDbAutoConfiguration::saturatedCastToInt)
+              .to(configuration::setStatementTimeout);
+        mapper.from(props::getMigrationTimeout)
+              .as(Duration::toSeconds)
+              .as(MigrateDbAutoConfiguration::saturatedCastToInt)
+              .to(configuration::setMigrationTimeout);
+        mapper.from(props::getMigrateTimeout)
+              .as(Duration::toSeconds)
+              .as(MigrateDbAutoConfiguration::saturatedCastToInt)
+              .to(configuration::setMigrateTimeout);
+        mapper.from(props::getSlowStatementReportSize)
+              .to(configuration::setSlowStatementReportSize);
         mapper.from(props::getSchemas)
               .to(configuration::setSchemas);
         mapper.from(props::getScriptPlaceholderPrefix)
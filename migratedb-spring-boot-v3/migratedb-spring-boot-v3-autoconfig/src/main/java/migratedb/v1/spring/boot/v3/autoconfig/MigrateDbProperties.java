@@ -275,6 +275,7 @@ public class MigrateDbProperties {
      * locations or locations starting with {@code classpath:} point to a package on the classpath and may contain both
      * SQL and Java-based migrations. Locations starting with {@code filesystem:} point to a directory on the
      * filesystem, may only contain SQL migrations and are only scanned recursively down non-hidden directories.
+     * Locations starting with {@code archive:} point to a migration archive file and may only contain SQL migrations.
      * (default: classpath:db/migration)
      */
     private @Nullable List<String> locations;
@@ -417,6 +418,69 @@ public class MigrateDbProperties {
      */
     private @Nullable Integer lockRetryCount;
 
+    /**
+     * The number of pending SQL migrations to parse in the background while the current migration is being executed.
+     * 0 disables background parsing. (default: 2)
+     */
+    private @Nullable Integer parseLookAhead;
+
+    /**
+     * The directory in which parsed SQL scripts are cached between runs. Not set by default, which disables the cache.
+     */
+    private @Nullable String parseCacheDirectory;
+
+    /**
+     * The maximum size of the parse cache directory in megabytes. (default: 100)
+     */
+    private @Nullable Integer parseCacheMaxSizeMb;
+
+    /**
+     * The file in which the checksums of SQL migrations in filesystem: locations are cached between runs. Not set by
+     * default, which disables the cache.
+     */
+    private @Nullable String resolveCacheFile;
+
+    /**
+     * The maximum number of open database sessions the MigrateDb bean keeps between commands, together with the
+     * database metadata and the resolved migrations. They are closed when the application context is closed.
+     * (default: 0)
+     */
+    private @Nullable Integer sessionPoolSize;
+
+    /**
+     * The maximum time a single SQL statement of a migration may run before it is cancelled. 0 means no limit.
+     * (default: 0)
+     */
+    @DurationUnit(ChronoUnit.SECONDS)
+    private @Nullable Duration statementTimeout;
+
+    /**
+     * The maximum time a single migration may run before its current statement is cancelled and the migration fails.
+     * 0 means no limit. (default: 0)
+     */
+    @DurationUnit(ChronoUnit.SECONDS)
+    private @Nullable Duration migrationTimeout;
+
+    /**
+     * The maximum time the migrate command may spend applying migrations before the current statement is cancelled
+     * and the command fails. 0 means no limit. (default: 0)
+     */
+    @DurationUnit(ChronoUnit.SECONDS)
+    private @Nullable Duration migrateTimeout;
+
+    /**
+     * The number of slowest SQL statements of a migrate run that are reported in the migrate result and logged. 0
+     * disables statement profiling. (default: 0)
+     */
+    private @Nullable Integer slowStatementReportSize;
+
+    /**
+     * Whether to parse all pending SQL migrations in parallel before migrating, so that unparseable scripts are
+     * reported before the schema history table is locked and any migration is applied. All pending scripts are kept in
+     * memory until they are executed. (default: false)
+     */
+    private @Nullable Boolean preParseOnMigrate;
+
     /**
      * Whether to fail if a location specified in the {@code migratedb.locations} option doesn't exist. (default:
      * {@code false})
@@ -831,6 +895,86 @@ public class MigrateDbProperties {
         this.lockRetryCount = lockRetryCount;
     }
 
+    public @Nullable Integer getParseLookAhead() {
+        return parseLookAhead;
+    }
+
+    public void setParseLookAhead(@Nullable Integer parseLookAhead) {
+        this.parseLookAhead = parseLookAhead;
+    }
+
+    public @Nullable String getParseCacheDirectory() {
+        return parseCacheDirectory;
+    }
+
+    public void setParseCacheDirectory(@Nullable String parseCacheDirectory) {
+        this.parseCacheDirectory = parseCacheDirectory;
+    }
+
+    public @Nullable Integer getParseCacheMaxSizeMb() {
+        return parseCacheMaxSizeMb;
+    }
+
+    public void setParseCacheMaxSizeMb(@Nullable Integer parseCacheMaxSizeMb) {
+        this.parseCacheMaxSizeMb = parseCacheMaxSizeMb;
+    }
+
+    public @Nullable String getResolveCacheFile() {
+        return resolveCacheFile;
+    }
+
+    public void setResolveCacheFile(@Nullable String resolveCacheFile) {
+        this.resolveCacheFile = resolveCacheFile;
+    }
+
+    public @Nullable Integer getSessionPoolSize() {
+        return sessionPoolSize;
+    }
+
+    public void setSessionPoolSize(@Nullable Integer sessionPoolSize) {
+        this.sessionPoolSize = sessionPoolSize;
+    }
+
+    public @Nullable Duration getStatementTimeout() {
+        return statementTimeout;
+    }
+
+    public void setStatementTimeout(@Nullable Duration statementTimeout) {
+        this.statementTimeout = statementTimeout;
+    }
+
+    public @Nullable Duration getMigrationTimeout() {
+        return migrationTimeout;
+    }
+
+    public void setMigrationTimeout(@Nullable Duration migrationTimeout) {
+        this.migrationTimeout = migrationTimeout;
+    }
+
+    public @Nullable Duration getMigrateTimeout() {
+        return migrateTimeout;
+    }
+
+    public void setMigrateTimeout(@Nullable Duration migrateTimeout) {
+        this.migrateTimeout = migrateTimeout;
+    }
+
+    public @Nullable Integer getSlowStatementReportSize() {
+        return slowStatementReportSize;
+    }
+
+    public void setSlowStatementReportSize(@Nullable Integer slowStatementReportSize) {
+        this.slowStatementReportSize = slowStatementReportSize;
+    }
+
+    public @Nullable Boolean getPreParseOnMigrate() {
+        return preParseOnMigrate;
+    }
+
+    public void setPreParseOnMigrate(@Nullable Boolean preParseOnMigrate) {
+        this.preParseOnMigrate = preParseOnMigrate;
+    }
+
     public @Nullable Boolean getFailOnMissingLocations() {
         return failOnMissingLocations;
     }
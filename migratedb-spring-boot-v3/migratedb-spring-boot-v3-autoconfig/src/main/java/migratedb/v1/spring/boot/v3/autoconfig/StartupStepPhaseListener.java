@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022-2024 The MigrateDB contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package migratedb.v1.spring.boot.v3.autoconfig;
+
+import migratedb.v1.core.api.MigrateDbPhaseListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reports MigrateDB phases as {@link StartupStep}s, so startup analysis (e.g. the {@code startup} actuator endpoint or
+ * Java Flight Recorder) shows where the migration time goes. Each phase becomes a step named {@code migratedb.} plus
+ * the lower-cased, hyphenated {@link MigrateDbPhaseListener.Phase} name, e.g. {@code migratedb.lock-wait}, tagged with
+ * the details of the phase.
+ */
+public final class StartupStepPhaseListener implements MigrateDbPhaseListener {
+    private final ApplicationStartup applicationStartup;
+    private final Map<Phase, String> stepNames = new EnumMap<>(Phase.class);
+    private final ThreadLocal<Deque<StartupStep>> runningSteps = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public StartupStepPhaseListener(ApplicationStartup applicationStartup) {
+        this.applicationStartup = applicationStartup;
+        for (var phase : Phase.values()) {
+            stepNames.put(phase, "migratedb." + phase.name().toLowerCase(Locale.ROOT).replace('_', '-'));
+        }
+    }
+
+    @Override
+    public void phaseStarted(Phase phase, Map<String, String> tags) {
+        var step = applicationStartup.start(stepNames.get(phase));
+        tags.forEach(step::tag);
+        runningSteps.get().push(step);
+    }
+
+    @Override
+    public void phaseFinished(Phase phase) {
+        var steps = runningSteps.get();
+        var step = steps.poll();
+        if (steps.isEmpty()) {
+            runningSteps.remove();
+        }
+        if (step != null) {
+            step.end();
+        }
+    }
+}
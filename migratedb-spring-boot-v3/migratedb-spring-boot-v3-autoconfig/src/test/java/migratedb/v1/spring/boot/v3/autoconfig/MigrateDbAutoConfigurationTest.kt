@@ -20,7 +20,11 @@ import io.kotest.assertions.assertSoftly
 import io.kotest.inspectors.shouldForAll
 import io.kotest.matchers.collections.*
 import io.kotest.matchers.equals.shouldBeEqual
+import io.kotest.matchers.longs.shouldBeGreaterThan
 import io.kotest.matchers.types.shouldBeInstanceOf
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import migratedb.v1.core.MigrateDb
 import migratedb.v1.core.api.*
 import migratedb.v1.core.api.Location.ClassPathLocation
@@ -46,6 +50,7 @@ import org.mockito.BDDMockito.given
 import org.mockito.Mockito
 import org.springframework.beans.factory.BeanCreationException
 import org.springframework.boot.autoconfigure.AutoConfigurations
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup
 import org.springframework.boot.jdbc.SchemaManagement
 import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder
 import org.springframework.boot.test.context.assertj.ApplicationContextAssert
@@ -186,6 +191,43 @@ internal class MigrateDbAutoConfigurationTest {
             }
     }
 
+    @Test
+    fun `Reports phases as startup steps`() {
+        val applicationStartup = BufferingApplicationStartup(1000)
+        contextRunner.withInitializer { it.applicationStartup = applicationStartup }
+            .withUserConfiguration(MigrationDataSourceOnlyConfiguration::class.java)
+            .run { context ->
+                assertThat(context).hasNotFailed()
+                applicationStartup.bufferedTimeline.events.map { it.startupStep.name }
+                    .shouldContainAll("migratedb.command", "migratedb.connect", "migratedb.resolve")
+            }
+    }
+
+    @Test
+    fun `Publishes metrics to the MeterRegistry bean`() {
+        contextRunner.withUserConfiguration(
+            MigrationDataSourceOnlyConfiguration::class.java, MeterRegistryConfiguration::class.java
+        ).run { context ->
+            assertThat(context).singleBean<MigrateDbMetrics>().isInstanceOf(MicrometerMigrateDbMetrics::class.java)
+            assertThat(context).singleBean<MigrateDb>().all { actual ->
+                actual.configuration.metrics.shouldBeSameInstanceAs(context.bean<MigrateDbMetrics>())
+            }
+            val registry = context.bean<MeterRegistry>()
+            registry.get("migratedb.phase").tag("phase", "resolve").timer().count().shouldBeGreaterThan(0)
+            registry.get("migratedb.phase").tag("phase", "statement").timer().count().shouldBeGreaterThan(0)
+        }
+    }
+
+    @Test
+    fun `Does not publish metrics without a MeterRegistry bean`() {
+        contextRunner.withUserConfiguration(MigrationDataSourceOnlyConfiguration::class.java).run { context ->
+            assertThat(context).doesNotHaveBean<MigrateDbMetrics>()
+            assertThat(context).singleBean<MigrateDb>().all { actual ->
+                actual.configuration.metrics.shouldBeSameInstanceAs(MigrateDbMetrics.NONE)
+            }
+        }
+    }
+
     @Test
     fun `Uses default location if no properties are set`() {
         contextRunner.withUserConfiguration(MigrationDataSourceOnlyConfiguration::class.java).run { context ->
@@ -254,6 +296,22 @@ internal class MigrateDbAutoConfigurationTest {
         }
     }
 
+    @Test
+    fun `Default execution repairs and migrates in a single run`() {
+        val migrateDb = Mockito.mock(MigrateDb::class.java)
+        DefaultMigrateDbExecution(MigrateDbProperties()).run(migrateDb)
+        Mockito.verify(migrateDb).run(Command.REPAIR, Command.MIGRATE)
+        Mockito.verifyNoMoreInteractions(migrateDb)
+    }
+
+    @Test
+    fun `Default execution only migrates if repairOnMigrate is disabled`() {
+        val migrateDb = Mockito.mock(MigrateDb::class.java)
+        DefaultMigrateDbExecution(MigrateDbProperties().apply { isRepairOnMigrate = false }).run(migrateDb)
+        Mockito.verify(migrateDb).migrate()
+        Mockito.verifyNoMoreInteractions(migrateDb)
+    }
+
     @Test
     fun `Java migration beans are auto-registered`() {
         contextRunner.withUserConfiguration(
@@ -473,6 +531,12 @@ internal class MigrateDbAutoConfigurationTest {
         fun extension2() = MigrateDbExtension { "Extension 2" }
     }
 
+    @Configuration(proxyBeanMethods = false)
+    internal class MeterRegistryConfiguration {
+        @Bean
+        fun meterRegistry() = SimpleMeterRegistry()
+    }
+
     @Configuration(proxyBeanMethods = false)
     internal class ApplicationAndMigrationDataSourcesConfiguration {
         @Bean(destroyMethod = "shutdown")